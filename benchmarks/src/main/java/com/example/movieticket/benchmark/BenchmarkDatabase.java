@@ -0,0 +1,149 @@
+package com.example.movieticket.benchmark;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import com.example.movieticket.service.DataSeeder;
+import com.example.movieticket.service.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The database the benchmarks run against: an embedded MariaDB started from the benchmark JVM, or
+ * an existing server given with -Dbench.db.url (plus bench.db.user / bench.db.password).
+ *
+ * The schema comes from the application's own migrations. The data is generated by the tests'
+ * {@link DataSeeder} at production-like volumes, which can be changed with -Dbench.users,
+ * -Dbench.movies, -Dbench.screenings, -Dbench.bookings and -Dbench.messages. The embedded server
+ * keeps its data directory between runs and only reseeds when the requested volumes change.
+ *
+ * The last {@link #RESERVED_SCREENINGS} screenings get no generated bookings; benchmarks that lock
+ * and book seats work on those and put them back with {@link #resetReservedScreenings()}.
+ */
+public final class BenchmarkDatabase {
+    static final int RESERVED_SCREENINGS = 100;
+    static final int SEATS_PER_SCREENING = DataSeeder.SEATS_PER_SCREENING;
+
+    private static final int USERS = Integer.getInteger("bench.users", 50_000);
+    private static final int MOVIES = Integer.getInteger("bench.movies", 500);
+    private static final int SCREENINGS = Integer.getInteger("bench.screenings", 25_000);
+    private static final int BOOKINGS = Integer.getInteger("bench.bookings", 2_000_000);
+    private static final int MESSAGES = Integer.getInteger("bench.messages", 200_000);
+    private static final int PORT = Integer.getInteger("bench.db.port", 3407);
+    private static final String DATA_DIR = System.getProperty("bench.db.dataDir", "target/benchmark-db");
+    private static final String DATABASE = "movieticket_bench";
+
+    private static final DataSeeder SEEDER = new DataSeeder(USERS, MOVIES, SCREENINGS, BOOKINGS, MESSAGES, RESERVED_SCREENINGS);
+
+    private static DB embedded;
+    private static boolean started;
+
+    private BenchmarkDatabase() {}
+
+    /**
+     * Start the database if needed, point the application at it and make sure it is seeded.
+     * Must run before anything touches DataService or DatabaseConnection.
+     */
+    public static synchronized void start() throws Exception {
+        if (started) {
+            return;
+        }
+        String url = System.getProperty("bench.db.url");
+        if (url == null) {
+            DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+            config.setPort(PORT);
+            config.setDataDir(DATA_DIR);
+            if ("root".equals(System.getProperty("user.name"))) {
+                // mariadbd refuses to start as root unless told to, as in most CI containers
+                config.addArg("--user=root");
+            }
+            embedded = DB.newEmbeddedDB(config.build());
+            embedded.start();
+            url = "jdbc:mysql://localhost:" + PORT + "/" + DATABASE +
+                    "?useServerPrepStmts=true&createDatabaseIfNotExist=true";
+            System.setProperty("movieticket.db.user", "root");
+            System.setProperty("movieticket.db.password", "");
+            Runtime.getRuntime().addShutdownHook(new Thread(BenchmarkDatabase::stop, "BenchmarkDatabaseShutdown"));
+        } else {
+            System.setProperty("movieticket.db.user", System.getProperty("bench.db.user", "root"));
+            System.setProperty("movieticket.db.password", System.getProperty("bench.db.password", ""));
+        }
+        System.setProperty("movieticket.db.url", url);
+
+        DatabaseConnection.initializeDatabase();
+        seedIfNeeded();
+        started = true;
+    }
+
+    /**
+     * Close the pool and stop the embedded server. Benchmarks call this when their trial ends:
+     * JMH halts a forked VM that the server's process watcher keeps alive, which skips shutdown
+     * hooks and would leave mariadbd holding the data directory for the next fork.
+     */
+    static synchronized void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        try {
+            DatabaseConnection.closeAllConnections();
+            if (embedded != null) {
+                embedded.stop();
+                embedded = null;
+            }
+        } catch (Exception e) {
+            System.err.println("Error stopping benchmark database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ids of the screenings that have no generated bookings.
+     */
+    static int firstReservedScreening() {
+        return SEEDER.firstReservedScreening();
+    }
+
+    static int userCount() {
+        return USERS;
+    }
+
+    /**
+     * Undo every lock and booking the benchmarks made on the reserved screenings.
+     */
+    static void resetReservedScreenings() throws SQLException {
+        int first = firstReservedScreening();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM seat_locks WHERE screening_id >= " + first);
+            stmt.executeUpdate("DELETE FROM bookings WHERE screening_id >= " + first);
+            stmt.executeUpdate("UPDATE seats SET is_booked = FALSE WHERE screening_id >= " + first + " AND is_booked");
+            stmt.executeUpdate("UPDATE screenings SET available_seats = total_seats WHERE screening_id >= " + first);
+        }
+    }
+
+    private static void seedIfNeeded() throws SQLException {
+        String volumes = SEEDER.volumes();
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS bench_seed (volumes VARCHAR(100) NOT NULL)");
+            try (ResultSet rs = stmt.executeQuery("SELECT volumes FROM bench_seed")) {
+                if (rs.next() && volumes.equals(rs.getString(1))) {
+                    return;
+                }
+            }
+
+            long start = System.currentTimeMillis();
+            System.out.println("Seeding benchmark database (" + volumes + " users/movies/screenings/bookings/messages)...");
+            SEEDER.seed(conn);
+            stmt.executeUpdate("DELETE FROM bench_seed");
+            try (PreparedStatement record = conn.prepareStatement("INSERT INTO bench_seed (volumes) VALUES (?)")) {
+                record.setString(1, volumes);
+                record.executeUpdate();
+            }
+            System.out.println("Seeded in " + (System.currentTimeMillis() - start) / 1000 + "s");
+        }
+    }
+}
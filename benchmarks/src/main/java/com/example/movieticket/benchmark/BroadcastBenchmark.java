@@ -0,0 +1,91 @@
+package com.example.movieticket.benchmark;
+
+import com.example.movieticket.network.ClientHandler;
+import com.example.movieticket.network.EncodedMessage;
+import com.example.movieticket.network.NetworkMessage;
+import com.example.movieticket.network.SocketServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SocketServer's broadcast fan-out to the observers of one screening, without the sockets: every
+ * subscriber queues the encoded message, takes its view of it and discards it. Run with -prof gc to see the
+ * allocation per broadcast, which should not grow with the number of subscribers beyond the views.
+ * All subscribers read the same wire format, so the message is encoded once per broadcast.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastBenchmark {
+    @Param({"1", "50", "500"})
+    public int subscribers;
+
+    @Param({"JSON", "BINARY"})
+    public NetworkMessage.Framing framing;
+
+    private SocketServer server;
+    private Map<String, Object> seatLocked;
+
+    /**
+     * Subscriber whose writer runs inline: it drains the queue taking the same views a channel
+     * writer would, and sends nothing
+     */
+    static final class DiscardingClient extends ClientHandler {
+        private final NetworkMessage.Framing framing;
+        long bytes;
+
+        DiscardingClient(SocketServer server, NetworkMessage.Framing framing) {
+            super(server);
+            this.framing = framing;
+        }
+
+        @Override
+        protected void scheduleWriter() {
+            do {
+                EncodedMessage message;
+                while ((message = pollOutbound()) != null) {
+                    bytes += message.buffer(framing).remaining();
+                }
+            } while (!finishWriting());
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        protected String getRemoteAddress() {
+            return "discard";
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new SocketServer(SocketServer.Mode.NIO);
+        for (int i = 0; i < subscribers; i++) {
+            server.registerSeatObserver(42, new DiscardingClient(server, framing));
+        }
+        seatLocked = Map.of("seatNumber", "C7", "userId", 1234);
+    }
+
+    @Benchmark
+    public void broadcastSeatLocked() {
+        server.broadcastSeatUpdate(42, "SEAT_LOCKED", seatLocked);
+    }
+}
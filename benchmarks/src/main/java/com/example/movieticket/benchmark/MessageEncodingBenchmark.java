@@ -0,0 +1,85 @@
+package com.example.movieticket.benchmark;
+
+import com.example.movieticket.model.ChatMessage;
+import com.example.movieticket.model.Seat;
+import com.example.movieticket.network.NetworkMessage;
+import com.example.movieticket.network.SocketServer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of the socket server's messages, with the server's own ObjectMapper. Broadcasts
+ * encode once for all recipients; see BroadcastBenchmark for the fan-out itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageEncodingBenchmark {
+    private ObjectMapper objectMapper;
+    private NetworkMessage seatMapUpdate;
+    private NetworkMessage seatLocked;
+    private NetworkMessage chatMessage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new SocketServer().getObjectMapper();
+
+        // A full 100-seat hall, as sent when a seat map is refreshed
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Seat seat = new Seat(i + 1, 42, (char) ('A' + i / 10) + String.valueOf(i % 10 + 1), i / 10, i % 10);
+            seat.setBooked(i % 3 == 0);
+            seats.add(seat);
+        }
+        seatMapUpdate = new NetworkMessage("SEAT_UPDATE", "SEATS_UPDATED", seats);
+        seatMapUpdate.setScreeningId(42);
+
+        seatLocked = new NetworkMessage("SEAT_UPDATE", "SEAT_LOCKED", Map.of("seatNumber", "C7", "userId", 1234));
+        seatLocked.setScreeningId(42);
+
+        ChatMessage message = new ChatMessage();
+        message.setMessageId(987654);
+        message.setSenderId(1234);
+        message.setReceiverId(1);
+        message.setSenderName("Bench User 1234");
+        message.setReceiverName("Bench User 1");
+        message.setContent("Hi, I booked two seats for tonight but only received one ticket. Can you check?");
+        message.setTimestamp(LocalDateTime.of(2025, 1, 15, 19, 30));
+        chatMessage = new NetworkMessage("CHAT_MESSAGE", "NEW_MESSAGE", message);
+    }
+
+    @Benchmark
+    public String encodeSeatMapUpdate() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(seatMapUpdate);
+    }
+
+    @Benchmark
+    public String encodeSeatLocked() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(seatLocked);
+    }
+
+    @Benchmark
+    public String encodeChatMessage() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(chatMessage);
+    }
+}
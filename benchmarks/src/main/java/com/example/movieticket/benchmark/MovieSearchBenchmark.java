@@ -0,0 +1,69 @@
+package com.example.movieticket.benchmark;
+
+import com.example.movieticket.model.Movie;
+import com.example.movieticket.service.MovieSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * searchMovies as DataService serves it: the in-memory index over a catalog shaped like the seeded
+ * one. Needs no database, so it also runs where the embedded server cannot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MovieSearchBenchmark {
+    private static final String[] FIRST_WORDS = {"The", "Last", "Dark", "Silent", "Broken", "Golden", "Lost", "Final"};
+    private static final String[] SECOND_WORDS = {"Horizon", "Empire", "River", "Signal", "Garden", "Machine", "Winter", "Voyage"};
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Romance", "Thriller", "Animation"};
+    private static final String[] THEMES = {"love", "war", "space", "family", "revenge"};
+
+    @Param({"500", "5000"})
+    public int movies;
+
+    // Exact word, search-as-you-type prefix, two words, and a typo that needs the fuzzy match
+    @Param({"winter", "sil", "dark river", "horzion"})
+    public String query;
+
+    private MovieSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Movie> catalog = new ArrayList<>();
+        for (int n = 0; n < movies; n++) {
+            Movie movie = new Movie();
+            movie.setMovieId(n + 1);
+            movie.setTitle(FIRST_WORDS[n % 8] + " " + SECOND_WORDS[n / 8 % 8] + " " + (n + 1));
+            movie.setDirector("Director " + n % 200);
+            movie.setGenre(GENRES[n % 8]);
+            movie.setDescription("A story about " + THEMES[n % 5] + " and everything after.");
+            movie.setReleaseYear(1980 + n % 45);
+            movie.setDuration(80 + n % 100);
+            catalog.add(movie);
+        }
+        index = new MovieSearchIndex(() -> catalog);
+        index.search(query); // Build the index outside the measurement
+    }
+
+    @Benchmark
+    public List<Movie> search() {
+        return index.search(query);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.movieticket.benchmark;
+
+import com.example.movieticket.model.Booking;
+import com.example.movieticket.model.Seat;
+import com.example.movieticket.service.DataService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The seat reservation path: locking seats, reading the seat map with its locks, and turning
+ * locks into a booking. Writes go to the reserved screenings of {@link BenchmarkDatabase}, which
+ * are reset after every iteration; reads cover the whole schedule.
+ *
+ * Run with -t to measure contention between concurrent reservers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeatReservationBenchmark {
+    private static final int RESERVABLE_SEATS = BenchmarkDatabase.RESERVED_SCREENINGS * BenchmarkDatabase.SEATS_PER_SCREENING;
+
+    private DataService dataService;
+    private int firstReservedScreening;
+    private int screeningCount;
+    // Next never-booked seat across the reserved screenings, shared by all benchmark threads
+    private final AtomicInteger nextSeat = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkDatabase.start();
+        BenchmarkDatabase.resetReservedScreenings();
+        dataService = DataService.getInstance();
+        firstReservedScreening = BenchmarkDatabase.firstReservedScreening();
+        screeningCount = firstReservedScreening + BenchmarkDatabase.RESERVED_SCREENINGS - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetSeats() throws Exception {
+        BenchmarkDatabase.resetReservedScreenings();
+        nextSeat.set(0);
+    }
+
+    /**
+     * Each benchmark thread reserves as a different regular user.
+     */
+    @State(Scope.Thread)
+    public static class Reserver {
+        int userId;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // Users 1-5 are the seeded admins
+            userId = ThreadLocalRandom.current().nextInt(6, BenchmarkDatabase.userCount() + 1);
+        }
+    }
+
+    @Benchmark
+    public boolean lockAndUnlockSeat(Reserver reserver) {
+        int seat = ThreadLocalRandom.current().nextInt(RESERVABLE_SEATS);
+        int screeningId = screeningOf(seat);
+        String seatNumber = seatNumberOf(seat);
+        boolean locked = dataService.lockSeats(screeningId, List.of(seatNumber), reserver.userId);
+        dataService.unlockSeat(screeningId, seatNumber, reserver.userId);
+        return locked;
+    }
+
+    @Benchmark
+    public List<Seat> getSeatsByScreeningWithLocks() {
+        return dataService.getSeatsByScreeningWithLocks(ThreadLocalRandom.current().nextInt(1, screeningCount + 1));
+    }
+
+    /**
+     * Lock a free seat and book it, as the seat selection dialog does on confirm.
+     */
+    @Benchmark
+    public Booking lockAndBookSeat(Reserver reserver) {
+        int seat = nextSeat.getAndIncrement() % RESERVABLE_SEATS;
+        int screeningId = screeningOf(seat);
+        List<String> seats = List.of(seatNumberOf(seat));
+        dataService.lockSeats(screeningId, seats, reserver.userId);
+        return dataService.createBookingWithLocks(reserver.userId, screeningId, seats, 10.0);
+    }
+
+    private int screeningOf(int seat) {
+        return firstReservedScreening + seat / BenchmarkDatabase.SEATS_PER_SCREENING;
+    }
+
+    // Same grid as the seeded seats: ten per row, A1 .. J10
+    private static String seatNumberOf(int seat) {
+        int index = seat % BenchmarkDatabase.SEATS_PER_SCREENING;
+        return (char) ('A' + index / 10) + String.valueOf(index % 10 + 1);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.movieticket.benchmark;
+
+import com.example.movieticket.model.ChatMessage;
+import com.example.movieticket.model.Seat;
+import com.example.movieticket.network.MessageCodec;
+import com.example.movieticket.network.NetworkMessage;
+import com.example.movieticket.network.SocketServer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The socket server's messages in both wire formats: encoding, and decoding into the typed payload
+ * the receiver works with (JSON needs a convertValue for seats and chat messages, binary frames decode
+ * to them directly). The encoded size of each message is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireProtocolBenchmark {
+    @Param({"JSON", "BINARY"})
+    public NetworkMessage.Framing framing;
+
+    @Param({"SEAT_LOCKED", "SEAT_UPDATED", "CHAT_MESSAGE_SENT", "TYPING_STARTED"})
+    public String event;
+
+    private ObjectMapper objectMapper;
+    private MessageCodec codec;
+    private NetworkMessage message;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SocketServer server = new SocketServer();
+        objectMapper = server.getObjectMapper();
+        codec = server.getCodec();
+        message = createMessage(event);
+        encoded = codec.encode(message, framing);
+        System.out.println(framing + " " + event + ": " + encoded.length + " bytes");
+    }
+
+    // As broadcast by the server to observers
+    private static NetworkMessage createMessage(String event) {
+        switch (event) {
+            case "SEAT_LOCKED": {
+                NetworkMessage message = new NetworkMessage("SEAT_UPDATE", event, Map.of("seatNumber", "C7", "userId", 1234));
+                message.setScreeningId(42);
+                return message;
+            }
+            case "SEAT_UPDATED": {
+                // A full 100-seat hall, as sent when a seat map is refreshed
+                List<Seat> seats = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    Seat seat = new Seat(i + 1, 42, (char) ('A' + i / 10) + String.valueOf(i % 10 + 1), i / 10 + 1, i % 10 + 1);
+                    seat.setBooked(i % 3 == 0);
+                    if (i % 7 == 0) {
+                        seat.setLocked(true);
+                        seat.setLockedByUserId(1234);
+                        seat.setLockExpiresAt(LocalDateTime.of(2025, 1, 15, 19, 40));
+                    }
+                    seats.add(seat);
+                }
+                NetworkMessage message = new NetworkMessage("SEAT_UPDATE", event, seats);
+                message.setScreeningId(42);
+                return message;
+            }
+            case "CHAT_MESSAGE_SENT": {
+                ChatMessage chat = new ChatMessage();
+                chat.setMessageId(987654);
+                chat.setSenderId(1234);
+                chat.setReceiverId(1);
+                chat.setSenderName("Bench User 1234");
+                chat.setReceiverName("Bench User 1");
+                chat.setContent("Hi, I booked two seats for tonight but only received one ticket. Can you check?");
+                chat.setTimestamp(LocalDateTime.of(2025, 1, 15, 19, 30));
+                return new NetworkMessage("CHAT_MESSAGE", event, chat);
+            }
+            case "TYPING_STARTED":
+                return new NetworkMessage("TYPING_INDICATOR", event, Map.of("userId", 1234, "chatWithUserId", 1));
+            default:
+                throw new IllegalArgumentException("Unknown event " + event);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return codec.encode(message, framing);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        if (framing == NetworkMessage.Framing.BINARY) {
+            return codec.decodeBinary(encoded, MessageCodec.LENGTH_PREFIX, encoded.length - MessageCodec.LENGTH_PREFIX).getData();
+        }
+        NetworkMessage decoded = codec.decodeJson(new String(encoded, 0, encoded.length - 1, StandardCharsets.UTF_8));
+        switch (event) {
+            case "SEAT_UPDATED":
+                return objectMapper.convertValue(decoded.getData(),
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, Seat.class));
+            case "CHAT_MESSAGE_SENT":
+                return objectMapper.convertValue(decoded.getData(), ChatMessage.class);
+            default:
+                return decoded.getData();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.movieticket;
 
+import com.example.movieticket.service.QueryStats;
 import com.example.movieticket.service.RealTimeNotificationService;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -47,6 +48,9 @@ public class MovieTicketApp extends Application {
         // Add shutdown hook to disconnect from server
         stage.setOnCloseRequest(event -> {
             notificationService.disconnect();
+            if (Boolean.getBoolean(QueryStats.REPORT_ON_EXIT_PROPERTY)) {
+                System.out.println(QueryStats.snapshot());
+            }
             Platform.exit();
         });
 
@@ -6,6 +6,8 @@ import com.example.movieticket.model.Screening;
 import com.example.movieticket.model.User;
 import com.example.movieticket.model.Booking;
 import com.example.movieticket.model.Review;
+import com.example.movieticket.service.AsyncDataService;
+import com.example.movieticket.service.DashboardSnapshot;
 import com.example.movieticket.service.DataService;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -30,6 +32,8 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 public class AdminDashboardController implements Initializable {
 
@@ -111,11 +115,16 @@ public class AdminDashboardController implements Initializable {
     @FXML private BarChart<String, Number> revenueByMovieChart;
 
     private final DataService dataService = DataService.getInstance();
+    private final AsyncDataService asyncDataService = AsyncDataService.getInstance();
     private ObservableList<Movie> movieList = FXCollections.observableArrayList();
     private ObservableList<Screening> screeningList = FXCollections.observableArrayList();
     private ObservableList<User> userList = FXCollections.observableArrayList();
     private ObservableList<Review> reviewList = FXCollections.observableArrayList();
     private ObservableList<Booking> bookingList = FXCollections.observableArrayList();
+    // Users, reviews and bookings are loaded a page at a time as the tables scroll
+    private PagedTableLoader<User> usersLoader;
+    private PagedTableLoader<Review> reviewsLoader;
+    private PagedTableLoader<Booking> bookingsLoader;
     private Stage chatStage;
 
     @Override
@@ -134,20 +143,22 @@ public class AdminDashboardController implements Initializable {
         reviewRatingFilterComboBox.setValue("All Ratings");
 
         setupTables();
-        loadData();
-        updateDashboardStats();
-        updateReviewStats();
 
-        // Initialize chat management
-        updateUnreadMessagesBadge();
+        // The tables and stats are independent queries, so they all run at once in the background
+        long start = System.nanoTime();
+        AsyncDataService.all(loadData(), updateDashboardStats(), updateReviewStats())
+            .thenRun(() -> System.out.println("Admin dashboard loaded in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"));
 
-        // Set up periodic update for unread messages
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-            new javafx.animation.KeyFrame(javafx.util.Duration.seconds(10),
-                e -> updateUnreadMessagesBadge())
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
+        // Initialize chat management: the unread count is read once in the background, then pushed on every change
+        dataService.getNotificationService().registerUnreadCountObserver(count -> updateUnreadMessagesBadge());
+        User currentUser = dataService.getCurrentUser();
+        if (currentUser != null) {
+            AsyncDataService.getInstance().load(ds -> ds.trackUnreadMessages(currentUser.getUserId()),
+                count -> updateUnreadMessagesBadge());
+        } else {
+            updateUnreadMessagesBadge();
+        }
     }
 
     private void setupTables() {
@@ -196,7 +207,7 @@ public class AdminDashboardController implements Initializable {
         userEmailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
         userRoleColumn.setCellValueFactory(new PropertyValueFactory<>("role"));
 
-        usersTable.setItems(userList);
+        usersLoader = new PagedTableLoader<>(usersTable, userList);
     }
 
     private void setupReviewsTable() {
@@ -219,7 +230,7 @@ public class AdminDashboardController implements Initializable {
             return new javafx.beans.property.SimpleStringProperty(formatted);
         });
 
-        reviewsTable.setItems(reviewList);
+        reviewsLoader = new PagedTableLoader<>(reviewsTable, reviewList);
     }
 
     private void setupBookingsTable() {
@@ -264,61 +275,59 @@ public class AdminDashboardController implements Initializable {
             return new javafx.beans.property.SimpleStringProperty(status != null ? status.name() : "Unknown");
         });
 
-        bookingsTable.setItems(bookingList);
+        bookingsLoader = new PagedTableLoader<>(bookingsTable, bookingList);
     }
 
-    private void loadData() {
-        loadMovies();
-        loadScreenings();
-        loadUsers();
-        loadReviews();
-        loadBookings();
+    private CompletableFuture<Void> loadData() {
+        return AsyncDataService.all(loadMovies(), loadScreenings(), loadUsers(), loadReviews(), loadBookings());
+    }
+
+    private CompletableFuture<Void> loadMovies() {
+        return asyncDataService.load(DataService::getAllMovies, movies -> movieList.setAll(movies));
     }
 
-    private void loadMovies() {
-        movieList.clear();
-        movieList.addAll(dataService.getAllMovies());
+    private CompletableFuture<Void> loadScreenings() {
+        return asyncDataService.load(DataService::getAllScreenings, screenings -> screeningList.setAll(screenings));
     }
 
-    private void loadScreenings() {
-        screeningList.clear();
-        screeningList.addAll(dataService.getAllScreenings());
+    private CompletableFuture<Void> loadUsers() {
+        return usersLoader.load((after, pageSize) -> dataService.getUsersPage(null, after, pageSize));
     }
 
-    private void loadUsers() {
-        userList.clear();
-        userList.addAll(dataService.getAllUsers());
+    private CompletableFuture<Void> loadReviews() {
+        return reviewsLoader.load((after, pageSize) -> dataService.getReviewsPage(null, null, null, after, pageSize));
     }
 
-    private void loadReviews() {
-        reviewList.clear();
-        reviewList.addAll(dataService.getAllReviews());
+    private CompletableFuture<Void> loadBookings() {
+        return loadBookings(null, null);
     }
 
-    private void loadBookings() {
-        bookingList.clear();
-        bookingList.addAll(dataService.getAllBookings());
+    private CompletableFuture<Void> loadBookings(Booking.BookingStatus status, String searchTerm) {
+        return bookingsLoader.load((after, pageSize) -> dataService.getBookingsPage(status, searchTerm, after, pageSize));
     }
 
-    private void updateDashboardStats() {
-        totalTicketsLabel.setText(String.valueOf(dataService.getTotalTicketsSold()));
-        totalRevenueLabel.setText(String.format("$%.2f", dataService.getTotalRevenue()));
-        availableMoviesLabel.setText(String.valueOf(dataService.getAvailableMoviesCount()));
-        totalUsersLabel.setText(String.valueOf(dataService.getTotalUsersCount()));
-        totalReviewsLabel.setText(String.valueOf(dataService.getAllReviews().size()));
+    private CompletableFuture<Void> updateDashboardStats() {
+        // The first snapshot is a full recount, so it is read in the background too
+        return asyncDataService.load(DataService::getDashboardSnapshot, stats -> {
+            totalTicketsLabel.setText(String.valueOf(stats.getTicketsSold()));
+            totalRevenueLabel.setText(String.format("$%.2f", stats.getTotalRevenue()));
+            availableMoviesLabel.setText(String.valueOf(stats.getMovieCount()));
+            totalUsersLabel.setText(String.valueOf(stats.getUserCount()));
+            totalReviewsLabel.setText(String.valueOf(stats.getReviewCount()));
 
-        updateStatisticsCharts();
+            updateStatisticsCharts(stats);
+        });
     }
 
-    private void updateStatisticsCharts() {
-        updateBookingStatusChart();
-        updateMoviesGenreChart();
-        updateRevenueByMovieChart();
+    private void updateStatisticsCharts(DashboardSnapshot stats) {
+        updateBookingStatusChart(stats);
+        updateMoviesGenreChart(stats);
+        updateRevenueByMovieChart(stats);
     }
 
-    private void updateBookingStatusChart() {
+    private void updateBookingStatusChart(DashboardSnapshot stats) {
         try {
-            Map<String, Integer> bookingStatusData = dataService.getBookingsByStatus();
+            Map<String, Integer> bookingStatusData = stats.getBookingsByStatus();
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
             bookingStatusData.forEach((status, count) -> {
@@ -333,9 +342,9 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    private void updateMoviesGenreChart() {
+    private void updateMoviesGenreChart(DashboardSnapshot stats) {
         try {
-            Map<String, Integer> genreData = dataService.getMoviesByGenre();
+            Map<String, Integer> genreData = stats.getMoviesByGenre();
             ObservableList<PieChart.Data> pieChartData = FXCollections.observableArrayList();
 
             genreData.forEach((genre, count) -> {
@@ -350,9 +359,9 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    private void updateRevenueByMovieChart() {
+    private void updateRevenueByMovieChart(DashboardSnapshot stats) {
         try {
-            Map<String, Double> revenueData = dataService.getRevenueByMovie();
+            Map<String, Double> revenueData = stats.getRevenueByMovie();
 
             // Clear existing data
             revenueByMovieChart.getData().clear();
@@ -484,37 +493,33 @@ public class AdminDashboardController implements Initializable {
     @FXML
     private void handleSearchMovies() {
         String searchTerm = movieSearchField.getText().trim();
-        movieList.clear();
 
         if (searchTerm.isEmpty()) {
-            movieList.addAll(dataService.getAllMovies());
+            loadMovies();
         } else {
-            movieList.addAll(dataService.searchMovies(searchTerm));
+            asyncDataService.load(data -> data.searchMovies(searchTerm), movies -> movieList.setAll(movies));
         }
     }
 
     @FXML
     private void handleSearchUsers() {
         String searchTerm = userSearchField.getText().trim();
-        userList.clear();
-
-        if (searchTerm.isEmpty()) {
-            userList.addAll(dataService.getAllUsers());
-        } else {
-            userList.addAll(dataService.searchUsers(searchTerm));
-        }
+        usersLoader.load((after, pageSize) -> dataService.getUsersPage(searchTerm, after, pageSize));
     }
 
     @FXML
     private void handleSearchBookings() {
         String searchTerm = bookingSearchField.getText().trim();
-        bookingList.clear();
+        loadBookings(selectedBookingStatus(), searchTerm);
+    }
 
-        if (searchTerm.isEmpty()) {
-            bookingList.addAll(dataService.getAllBookings());
-        } else {
-            bookingList.addAll(dataService.searchBookings(searchTerm));
+    // Status chosen in the filter box, or null for "All"
+    private Booking.BookingStatus selectedBookingStatus() {
+        String selectedStatus = bookingStatusFilterComboBox.getValue();
+        if (selectedStatus == null || selectedStatus.equals("All")) {
+            return null;
         }
+        return Booking.BookingStatus.valueOf(selectedStatus.toUpperCase());
     }
 
     @FXML
@@ -811,46 +816,17 @@ public class AdminDashboardController implements Initializable {
     }
 
     private void applyReviewFilters() {
-        String searchTerm = reviewSearchField.getText().trim().toLowerCase();
+        String searchTerm = reviewSearchField.getText().trim();
         String selectedType = reviewTypeFilterComboBox.getValue();
         String selectedRating = reviewRatingFilterComboBox.getValue();
 
-        reviewList.clear();
-        List<Review> allReviews = dataService.getAllReviews();
-
-        for (Review review : allReviews) {
-            boolean matchesSearch = true;
-            boolean matchesType = true;
-            boolean matchesRating = true;
-
-            // Apply search filter
-            if (!searchTerm.isEmpty()) {
-                User user = dataService.getUserById(review.getUserId());
-                String userName = user != null ? user.getFullName().toLowerCase() : "";
-                String title = review.getTitle() != null ? review.getTitle().toLowerCase() : "";
-                String comment = review.getComment() != null ? review.getComment().toLowerCase() : "";
+        Review.ReviewType type = selectedType != null && !selectedType.equals("All Types")
+            ? Review.ReviewType.valueOf(selectedType) : null;
+        Integer rating = selectedRating != null && !selectedRating.equals("All Ratings")
+            ? Integer.parseInt(selectedRating.split(" ")[0]) : null;
 
-                matchesSearch = userName.contains(searchTerm) ||
-                               title.contains(searchTerm) ||
-                               comment.contains(searchTerm);
-            }
-
-            // Apply type filter
-            if (selectedType != null && !selectedType.equals("All Types")) {
-                matchesType = review.getReviewType() != null &&
-                             review.getReviewType().name().equals(selectedType);
-            }
-
-            // Apply rating filter
-            if (selectedRating != null && !selectedRating.equals("All Ratings")) {
-                int filterRating = Integer.parseInt(selectedRating.split(" ")[0]);
-                matchesRating = review.getRating() == filterRating;
-            }
-
-            if (matchesSearch && matchesType && matchesRating) {
-                reviewList.add(review);
-            }
-        }
+        reviewsLoader.load((after, pageSize) ->
+            dataService.getReviewsPage(type, rating, searchTerm, after, pageSize));
 
         updateReviewStats();
     }
@@ -879,10 +855,13 @@ public class AdminDashboardController implements Initializable {
         }
     }
 
-    private void updateReviewStats() {
+    private CompletableFuture<Void> updateReviewStats() {
+        return asyncDataService.load(DataService::getReviewDistribution, this::showReviewStats);
+    }
+
+    private void showReviewStats(Map<Integer, Integer> distribution) {
         try {
-            List<Review> allReviews = dataService.getAllReviews();
-            int totalReviews = allReviews.size();
+            int totalReviews = distribution.values().stream().mapToInt(Integer::intValue).sum();
 
             // Update review count
             if (reviewCountLabel != null) {
@@ -904,17 +883,13 @@ public class AdminDashboardController implements Initializable {
 
             // Calculate average rating
             double totalRating = 0;
-            int fiveStarCount = 0;
             int[] ratingCounts = new int[6]; // Index 0-5 for ratings 0-5
 
-            for (Review review : allReviews) {
-                int rating = review.getRating();
-                totalRating += rating;
-                ratingCounts[rating]++;
-                if (rating == 5) {
-                    fiveStarCount++;
-                }
+            for (Map.Entry<Integer, Integer> entry : distribution.entrySet()) {
+                totalRating += entry.getKey() * entry.getValue();
+                ratingCounts[entry.getKey()] = entry.getValue();
             }
+            int fiveStarCount = ratingCounts[5];
 
             double averageRating = totalRating / totalReviews;
 
@@ -1025,6 +1000,7 @@ public class AdminDashboardController implements Initializable {
                 chatStage = null;
                 updateUnreadMessagesBadge();
             });
+            chatStage.setOnHidden(event -> controller.shutdown());
 
             // Show chat window
             chatStage.show();
@@ -1074,27 +1050,13 @@ public class AdminDashboardController implements Initializable {
 
     @FXML
     private void handleFilterAllBookings() {
-        bookingList.clear();
-        bookingList.addAll(dataService.getAllBookings());
+        loadBookings();
         updateBookingStats();
     }
 
     @FXML
     private void handleFilterBookingsByStatus() {
-        String selectedStatus = bookingStatusFilterComboBox.getValue();
-        bookingList.clear();
-
-        if (selectedStatus == null || selectedStatus.equals("All")) {
-            bookingList.addAll(dataService.getAllBookings());
-        } else {
-            List<Booking> allBookings = dataService.getAllBookings();
-            for (Booking booking : allBookings) {
-                if (booking.getStatus().name().equals(selectedStatus.toUpperCase())) {
-                    bookingList.add(booking);
-                }
-            }
-        }
-
+        loadBookings(selectedBookingStatus(), bookingSearchField.getText().trim());
         updateBookingStats();
     }
 
@@ -1139,18 +1101,10 @@ public class AdminDashboardController implements Initializable {
 
     private void updateBookingStats() {
         try {
-            List<Booking> allBookings = dataService.getAllBookings();
-            int totalBookings = allBookings.size();
-            int confirmedBookings = 0;
-            int cancelledBookings = 0;
-
-            for (Booking booking : allBookings) {
-                if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
-                    confirmedBookings++;
-                } else if (booking.getStatus() == Booking.BookingStatus.CANCELLED) {
-                    cancelledBookings++;
-                }
-            }
+            Map<String, Integer> bookingsByStatus = dataService.getDashboardSnapshot().getBookingsByStatus();
+            int totalBookings = bookingsByStatus.values().stream().mapToInt(Integer::intValue).sum();
+            int confirmedBookings = bookingsByStatus.getOrDefault(Booking.BookingStatus.CONFIRMED.name(), 0);
+            int cancelledBookings = bookingsByStatus.getOrDefault(Booking.BookingStatus.CANCELLED.name(), 0);
 
             // Update labels if they exist
             if (totalBookingsLabel != null) {
@@ -1198,6 +1152,11 @@ public class AdminDashboardController implements Initializable {
 
     @FXML
     private void handleExportBookings() {
+        // Export every booking matching the current filter, not just the pages scrolled so far
+        bookingsLoader.loadRemaining().thenRun(this::showExportDialog);
+    }
+
+    private void showExportDialog() {
         if (bookingList.isEmpty()) {
             showAlert("No Data", "There are no bookings to export.");
             return;
@@ -2,7 +2,9 @@ package com.example.movieticket.controller;
 
 import com.example.movieticket.model.ChatMessage;
 import com.example.movieticket.model.User;
+import com.example.movieticket.service.AsyncDataService;
 import com.example.movieticket.service.DataService;
+import com.example.movieticket.service.Page;
 import com.example.movieticket.service.RealTimeNotificationService;
 import javafx.application.Platform;
 import javafx.fxml.FXML;
@@ -20,6 +22,7 @@ import javafx.stage.Stage;
 
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import java.util.Timer;
@@ -31,6 +34,8 @@ public class ChatController implements Initializable,
     RealTimeNotificationService.ChatMessageObserver,
     RealTimeNotificationService.TypingIndicatorObserver {
 
+    private static final int CHAT_PAGE_SIZE = 50;
+
     @FXML private Label chatTitleLabel;
     @FXML private Label typingIndicatorLabel;
     @FXML private Button closeButton;
@@ -43,12 +48,22 @@ public class ChatController implements Initializable,
     @FXML private Label unreadCountLabel;
 
     private DataService dataService;
+    private final AsyncDataService asyncDataService = AsyncDataService.getInstance();
     private RealTimeNotificationService notificationService;
     private User currentUser;
     private User chatWithUser;
     private Timer typingTimer;
+    private final RealTimeNotificationService.UnreadCountObserver unreadCountObserver = count -> updateUnreadCount();
     private boolean isTyping = false;
     private Set<Integer> displayedMessageIds = new HashSet<>();
+    // Oldest message shown so far, the cursor for the next page up
+    private ChatMessage oldestMessage;
+    private boolean hasOlderMessages;
+    private boolean loadingOlderMessages;
+    // Bumped whenever the shown messages are replaced, so pages requested before that are dropped
+    private long loadGeneration;
+    // Content height before older messages were prepended, or -1 when nothing was prepended
+    private double heightBeforePrepend = -1;
 
     @Override
     public void initialize(URL location, ResourceBundle resources) {
@@ -59,6 +74,7 @@ public class ChatController implements Initializable,
         // Register observers
         notificationService.registerChatObserver(this);
         notificationService.registerTypingObserver(this);
+        notificationService.registerUnreadCountObserver(unreadCountObserver);
 
         // Set up UI bindings
         setupUI();
@@ -66,9 +82,24 @@ public class ChatController implements Initializable,
     }
 
     private void setupUI() {
-        // Auto-scroll to bottom when new messages are added
+        // Auto-scroll to bottom when new messages are added, but keep the view on the same
+        // messages when an older page is prepended above them
         messagesContainer.heightProperty().addListener((obs, oldVal, newVal) -> {
-            Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
+            if (heightBeforePrepend >= 0) {
+                double added = newVal.doubleValue() - heightBeforePrepend;
+                double scrollable = newVal.doubleValue() - chatScrollPane.getViewportBounds().getHeight();
+                heightBeforePrepend = -1;
+                Platform.runLater(() -> chatScrollPane.setVvalue(scrollable > 0 ? added / scrollable : 0));
+            } else {
+                Platform.runLater(() -> chatScrollPane.setVvalue(1.0));
+            }
+        });
+
+        // Load the previous page once the user scrolls up to the top
+        chatScrollPane.vvalueProperty().addListener((obs, oldVal, newVal) -> {
+            if (newVal.doubleValue() <= chatScrollPane.getVmin() && newVal.doubleValue() < oldVal.doubleValue()) {
+                loadOlderMessages();
+            }
         });
 
         // Enable/disable send button based on message input
@@ -108,6 +139,19 @@ public class ChatController implements Initializable,
         });
     }
 
+    /**
+     * Detach from the notification service when the chat window closes; until then the service
+     * keeps this controller, and its window, reachable.
+     */
+    public void shutdown() {
+        notificationService.unregisterChatObserver(this);
+        notificationService.unregisterTypingObserver(this);
+        notificationService.unregisterUnreadCountObserver(unreadCountObserver);
+        if (typingTimer != null) {
+            typingTimer.cancel();
+        }
+    }
+
     public void initializeChat(User chatWithUser) {
         this.chatWithUser = chatWithUser;
 
@@ -115,65 +159,88 @@ public class ChatController implements Initializable,
             if (currentUser.getRole() == User.UserRole.ADMIN) {
                 chatTitleLabel.setText("Chat with " + chatWithUser.getFullName());
                 // For admin, load chat history with this specific user (showing messages with ANY admin)
-                loadChatHistoryForAdmin();
+                loadLatestMessages();
             } else {
                 chatTitleLabel.setText("Chat with Support");
                 // For user, load chat history with all admins
-                loadChatHistoryForUser();
+                loadLatestMessages();
             }
 
             markMessagesAsRead();
         }
     }
 
-    private void loadChatHistory() {
-        if (chatWithUser == null || currentUser == null) return;
-
-        List<ChatMessage> messages = dataService.getChatHistory(
-            currentUser.getUserId(),
-            chatWithUser.getUserId()
-        );
-
+    /**
+     * Show the newest page of the conversation. Older pages are loaded as the user scrolls up.
+     */
+    private void loadLatestMessages() {
+        // An older page still loading belongs to what is being cleared; don't wait for it
+        loadGeneration++;
+        loadingOlderMessages = false;
         messagesContainer.getChildren().clear();
         displayedMessageIds.clear();
-
-        for (ChatMessage message : messages) {
-            addMessageToUI(message);
-        }
+        oldestMessage = null;
+        hasOlderMessages = true;
+        loadOlderMessages();
     }
 
-    private void loadChatHistoryForAdmin() {
-        if (chatWithUser == null || currentUser == null) return;
-
-        // For admin, load all messages between this user and ANY admin (shared inbox)
-        List<ChatMessage> messages = dataService.getChatHistoryWithAdmins(chatWithUser.getUserId());
+    private void loadOlderMessages() {
+        if (!hasOlderMessages || loadingOlderMessages || chatWithUser == null || currentUser == null) return;
+
+        // Both sides see the user's shared inbox with ANY admin, keyed by the user's id
+        int userId = currentUser.getRole() == User.UserRole.ADMIN ? chatWithUser.getUserId() : currentUser.getUserId();
+        ChatMessage before = oldestMessage;
+        long generation = loadGeneration;
+        loadingOlderMessages = true;
+        asyncDataService.load(data -> data.getChatHistoryWithAdminsPage(userId, before, CHAT_PAGE_SIZE),
+                page -> showOlderMessages(page, generation))
+            .whenComplete((result, error) -> {
+                if (generation == loadGeneration) {
+                    loadingOlderMessages = false;
+                }
+            });
+    }
 
-        messagesContainer.getChildren().clear();
-        displayedMessageIds.clear();
+    private void showOlderMessages(Page<ChatMessage> page, long generation) {
+        // The chat was cleared or reloaded while this page was loading
+        if (generation != loadGeneration) return;
+
+        // Pages come newest first; build the rows oldest first to go above what is shown
+        List<ChatMessage> messages = page.getItems();
+        List<HBox> rows = new ArrayList<>();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            HBox row = createMessageRow(messages.get(i));
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        if (page.getLast() != null) {
+            oldestMessage = page.getLast();
+        }
+        hasOlderMessages = page.hasMore();
 
-        for (ChatMessage message : messages) {
-            addMessageToUI(message);
+        if (!rows.isEmpty()) {
+            if (!messagesContainer.getChildren().isEmpty()) {
+                heightBeforePrepend = messagesContainer.getHeight();
+            }
+            messagesContainer.getChildren().addAll(0, rows);
         }
     }
 
-    private void loadChatHistoryForUser() {
-        if (chatWithUser == null || currentUser == null) return;
-
-        // For user, load all messages between this user and ANY admin
-        List<ChatMessage> messages = dataService.getChatHistoryWithAdmins(currentUser.getUserId());
-
-        messagesContainer.getChildren().clear();
-        displayedMessageIds.clear();
-
-        for (ChatMessage message : messages) {
-            addMessageToUI(message);
+    private void addMessageToUI(ChatMessage message) {
+        HBox messageRow = createMessageRow(message);
+        if (messageRow != null) {
+            messagesContainer.getChildren().add(messageRow);
         }
     }
 
-    private void addMessageToUI(ChatMessage message) {
+    /**
+     * Build the bubble for a message, or return null if the message is already shown.
+     */
+    private HBox createMessageRow(ChatMessage message) {
         // Prevent duplicate messages
         if (displayedMessageIds.contains(message.getMessageId())) {
-            return;
+            return null;
         } else {
             displayedMessageIds.add(message.getMessageId());
         }
@@ -186,10 +253,10 @@ public class ChatController implements Initializable,
         boolean isFromCurrentUser;
 
         if (currentUser != null && currentUser.getRole() == User.UserRole.ADMIN) {
-            // For admins: show messages from ANY admin on the right side (sent messages)
-            // Get sender to check if they're an admin
-            User sender = dataService.getUserById(message.getSenderId());
-            isFromCurrentUser = (sender != null && sender.getRole() == User.UserRole.ADMIN);
+            // For admins: show messages from ANY admin on the right side (sent messages).
+            // Every message here is between the user and an admin, so anything the user
+            // didn't send came from an admin.
+            isFromCurrentUser = chatWithUser != null && message.getSenderId() != chatWithUser.getUserId();
         } else {
             // For users: only show their own messages on the right
             isFromCurrentUser = currentUser != null && message.getSenderId() == currentUser.getUserId();
@@ -241,7 +308,7 @@ public class ChatController implements Initializable,
             messageRow.getChildren().addAll(messageBox, spacer);
         }
 
-        messagesContainer.getChildren().add(messageRow);
+        return messageRow;
     }
 
     @FXML
@@ -284,8 +351,12 @@ public class ChatController implements Initializable,
             );
 
             if (cleared) {
+                loadGeneration++;
+                loadingOlderMessages = false;
                 messagesContainer.getChildren().clear();
                 displayedMessageIds.clear();
+                oldestMessage = null;
+                hasOlderMessages = false;
                 showAlert("Success", "Chat history cleared successfully.");
             } else {
                 showAlert("Error", "Failed to clear chat history.");
@@ -378,6 +449,18 @@ public class ChatController implements Initializable,
         });
     }
 
+    @Override
+    public void onMessagesMissed() {
+        Platform.runLater(() -> {
+            if (chatWithUser == null || currentUser == null) return;
+
+            // Start over from the newest page, which has whatever arrived while we were behind
+            loadLatestMessages();
+            markMessagesAsRead();
+            updateUnreadCount();
+        });
+    }
+
     // TypingIndicatorObserver implementation
     @Override
     public void onTypingStarted(int userId, int chatWithUserId) {
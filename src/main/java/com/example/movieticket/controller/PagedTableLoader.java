@@ -0,0 +1,133 @@
+package com.example.movieticket.controller;
+
+import com.example.movieticket.service.AsyncDataService;
+import com.example.movieticket.service.Page;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fills a TableView one keyset page at a time: the first page when a source is loaded, the next
+ * one whenever the user scrolls near the bottom. Column sorting orders the rows loaded so far,
+ * and rows from later pages are sorted in as they arrive.
+ *
+ * Pages are fetched in the background and added on the FX thread. Methods must be called on the
+ * FX thread; the futures they return complete there once the rows are in the table.
+ */
+class PagedTableLoader<T> {
+    static final int PAGE_SIZE = 100;
+    // Fetch the next page once the scroll position passes this fraction of the table
+    private static final double LOAD_THRESHOLD = 0.9;
+
+    /**
+     * Fetches the page that follows {@code after} (null for the first page).
+     */
+    @FunctionalInterface
+    interface PageSource<T> {
+        Page<T> fetch(T after, int pageSize);
+    }
+
+    private final AsyncDataService asyncDataService = AsyncDataService.getInstance();
+    private final ObservableList<T> items;
+    private PageSource<T> source;
+    private T lastItem;
+    private boolean hasMore;
+    // Bumped on reload so a page still in flight for the previous source is dropped
+    private int generation;
+    private CompletableFuture<Void> pending;
+
+    PagedTableLoader(TableView<T> table, ObservableList<T> items) {
+        this.items = items;
+
+        SortedList<T> sortedItems = new SortedList<>(items);
+        sortedItems.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sortedItems);
+
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null) {
+                attachScrollListener(table);
+            }
+        });
+    }
+
+    /**
+     * Replace the rows with the first page from a new source (e.g. after a search or filter change).
+     */
+    CompletableFuture<Void> load(PageSource<T> source) {
+        this.source = source;
+        return reload();
+    }
+
+    /**
+     * Start over from the first page of the current source.
+     */
+    CompletableFuture<Void> reload() {
+        generation++;
+        pending = null;
+        items.clear();
+        lastItem = null;
+        hasMore = source != null;
+        return loadNextPage();
+    }
+
+    CompletableFuture<Void> loadNextPage() {
+        if (pending != null) {
+            return pending;
+        }
+        if (!hasMore) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        int requestGeneration = generation;
+        PageSource<T> requestSource = source;
+        T after = lastItem;
+        CompletableFuture<Void> request = asyncDataService.load(
+                dataService -> requestSource.fetch(after, PAGE_SIZE),
+                page -> {
+                    if (requestGeneration != generation) {
+                        return;
+                    }
+                    items.addAll(page.getItems());
+                    if (page.getLast() != null) {
+                        lastItem = page.getLast();
+                    }
+                    hasMore = page.hasMore();
+                });
+        // Cleared whether or not the fetch succeeded, so scrolling can retry a failed page
+        pending = request.whenComplete((result, error) -> {
+            if (requestGeneration == generation) {
+                pending = null;
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Load every remaining page, for actions such as export that need all matching rows.
+     */
+    CompletableFuture<Void> loadRemaining() {
+        int requestGeneration = generation;
+        T before = lastItem;
+        // Stop rather than retry forever if a page failed or the source was replaced meanwhile
+        return loadNextPage().thenCompose(done ->
+                hasMore && generation == requestGeneration && lastItem != before
+                        ? loadRemaining() : CompletableFuture.completedFuture(null));
+    }
+
+    private void attachScrollListener(TableView<T> table) {
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((obs, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= bar.getMax() * LOAD_THRESHOLD) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+}
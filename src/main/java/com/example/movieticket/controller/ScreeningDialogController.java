@@ -127,14 +127,27 @@ public class ScreeningDialogController {
                     return;
                 }
 
-                screening.setMovieId(selectedMovie.getMovieId());
+                // Saved on a copy so the screening shown in the table is untouched if the update is refused
+                Screening edited = new Screening(screening.getScreeningId(), selectedMovie.getMovieId(), screenName,
+                        dateTime, price, totalSeats);
+                edited.setAvailableSeats(newAvailableSeats);
+
+                if (!dataService.updateScreening(edited)) {
+                    Alert alert = new Alert(Alert.AlertType.ERROR);
+                    alert.setTitle("Update Failed");
+                    alert.setHeaderText("Could not update the screening");
+                    alert.setContentText("Seats that the new total of " + totalSeats + " would remove are booked " +
+                            "or currently held by a customer. Choose a larger total or try again later.");
+                    alert.showAndWait();
+                    return;
+                }
+
+                screening.setMovieId(edited.getMovieId());
                 screening.setScreenName(screenName);
                 screening.setShowTime(dateTime);
                 screening.setTicketPrice(price);
                 screening.setTotalSeats(totalSeats);
-                screening.setAvailableSeats(newAvailableSeats);
-
-                dataService.updateScreening(screening);
+                screening.setAvailableSeats(edited.getAvailableSeats());
             }
 
             okClicked = true;
@@ -420,6 +420,7 @@ public class SeatSelectionController implements Initializable, RealTimeNotificat
     @FXML
     private void handleRefreshSeats() {
         // Reload seats from database to get latest availability
+        dataService.invalidateSeatMap(screening.getScreeningId());
         loadSeats();
         showAlert("Seats Refreshed", "Seat availability has been updated with the latest information.");
     }
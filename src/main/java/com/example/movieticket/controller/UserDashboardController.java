@@ -1,6 +1,7 @@
 package com.example.movieticket.controller;
 
 import com.example.movieticket.model.*;
+import com.example.movieticket.service.AsyncDataService;
 import com.example.movieticket.service.DataService;
 import javafx.application.HostServices;
 import javafx.application.Platform;
@@ -26,8 +27,11 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class UserDashboardController implements Initializable {
@@ -72,6 +76,7 @@ public class UserDashboardController implements Initializable {
     @FXML private Label averageRatingLabel;
 
     private DataService dataService = DataService.getInstance();
+    private final AsyncDataService asyncDataService = AsyncDataService.getInstance();
     private User currentUser;
     private ObservableList<Movie> allMovies = FXCollections.observableArrayList();
     private ObservableList<Movie> filteredMovies = FXCollections.observableArrayList();
@@ -108,38 +113,25 @@ public class UserDashboardController implements Initializable {
 
         setupBookingsListView();
         setupFilters();
-        loadMovies();
-        loadScreenings();
-        loadBookings();
 
         // Initialize profile tab
         loadProfileInformation();
-        loadAccountStatistics();
 
-        // Initialize reviews
-        loadReviews();
-
-        // Initialize chat support
-        updateUnreadMessagesBadge();
+        // Every tab's data is an independent query, so they all load at once in the background
+        long start = System.nanoTime();
+        AsyncDataService.all(loadMovies(), loadScreenings(), loadBookings(), loadAccountStatistics(), loadReviews())
+            .thenRun(() -> System.out.println("User dashboard loaded in " +
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms"));
 
-        // Set up periodic update for unread messages
-        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
-            new javafx.animation.KeyFrame(javafx.util.Duration.seconds(10),
-                e -> updateUnreadMessagesBadge())
-        );
-        timeline.setCycleCount(javafx.animation.Timeline.INDEFINITE);
-        timeline.play();
+        // Initialize chat support: the unread count is read once in the background, then pushed on every change
+        dataService.getNotificationService().registerUnreadCountObserver(count -> updateUnreadMessagesBadge());
+        AsyncDataService.getInstance().load(ds -> ds.trackUnreadMessages(currentUser.getUserId()),
+            count -> updateUnreadMessagesBadge());
     }
 
     private void setupFilters() {
-        // Setup genre filter - collect all unique genres from comma-separated lists
+        // Setup genre filter; the genres themselves are filled in once the movies are loaded
         genreFilter.getItems().add("All Genres");
-        List<String> genres = dataService.getAllMovies().stream()
-                .flatMap(movie -> movie.getGenreList().stream())
-                .distinct()
-                .sorted()
-                .collect(Collectors.toList());
-        genreFilter.getItems().addAll(genres);
         genreFilter.setValue("All Genres");
 
         // Setup search listeners
@@ -147,12 +139,26 @@ public class UserDashboardController implements Initializable {
         genreFilter.valueProperty().addListener((observable, oldValue, newValue) -> filterMovies());
     }
 
-    private void loadMovies() {
-        allMovies.clear();
-        allMovies.addAll(dataService.getAllMovies());
-        filteredMovies.clear();
-        filteredMovies.addAll(allMovies);
-        displayMovieCards();
+    private CompletableFuture<Void> loadMovies() {
+        return asyncDataService.load(DataService::getAllMovies, movies -> {
+            allMovies.setAll(movies);
+            updateGenreFilter();
+            filteredMovies.setAll(allMovies);
+            displayMovieCards();
+        });
+    }
+
+    private void updateGenreFilter() {
+        // Collect all unique genres from comma-separated lists
+        List<String> genres = allMovies.stream()
+                .flatMap(movie -> movie.getGenreList().stream())
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        String selectedGenre = genreFilter.getValue();
+        genreFilter.getItems().setAll("All Genres");
+        genreFilter.getItems().addAll(genres);
+        genreFilter.setValue(selectedGenre);
     }
 
     private void displayMovieCards() {
@@ -232,22 +238,19 @@ public class UserDashboardController implements Initializable {
     }
 
     private void filterMovies() {
-        String searchText = searchField.getText().toLowerCase().trim();
+        String searchText = searchField.getText().trim();
         String selectedGenre = genreFilter.getValue();
 
         filteredMovies.clear();
 
-        for (Movie movie : allMovies) {
-            boolean matchesSearch = searchText.isEmpty() ||
-                                  movie.getTitle().toLowerCase().contains(searchText) ||
-                                  movie.getDirector().toLowerCase().contains(searchText) ||
-                                  movie.getGenre().toLowerCase().contains(searchText);
-
+        // Search results come from the index, best match first
+        List<Movie> candidates = searchText.isEmpty() ? allMovies : dataService.searchMovies(searchText);
+        for (Movie movie : candidates) {
             boolean matchesGenre = selectedGenre == null ||
                                  selectedGenre.equals("All Genres") ||
                                  movie.getGenreList().contains(selectedGenre);
 
-            if (matchesSearch && matchesGenre) {
+            if (matchesGenre) {
                 filteredMovies.add(movie);
             }
         }
@@ -368,10 +371,11 @@ public class UserDashboardController implements Initializable {
         }
     }
 
-    private void loadScreenings() {
-        screeningList.clear();
-        screeningList.addAll(dataService.getAllScreenings());
-        displayScreeningCards();
+    private CompletableFuture<Void> loadScreenings() {
+        return asyncDataService.load(DataService::getAllScreenings, screenings -> {
+            screeningList.setAll(screenings);
+            displayScreeningCards();
+        });
     }
 
     private void displayScreeningCards() {
@@ -409,24 +413,28 @@ public class UserDashboardController implements Initializable {
         }
     }
 
-    private void loadBookings() {
-        bookingList.clear();
-        List<Booking> userBookings = dataService.getUserBookings(dataService.getCurrentUser().getUserId());
-
-        for (Booking booking : userBookings) {
-            Screening screening = dataService.getScreeningById(booking.getScreeningId());
-            if (screening != null) {
-                Movie movie = dataService.getMovieById(screening.getMovieId());
-                String movieTitle = movie != null ? movie.getTitle() : "Unknown Movie";
-                String dateTime = screening.getDateTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
-                bookingList.add(new BookingDisplay(booking, movieTitle, dateTime));
+    private CompletableFuture<Void> loadBookings() {
+        int userId = currentUser.getUserId();
+        return asyncDataService.load(data -> {
+            List<BookingDisplay> displays = new ArrayList<>();
+            for (Booking booking : data.getUserBookings(userId)) {
+                Screening screening = data.getScreeningById(booking.getScreeningId());
+                if (screening != null) {
+                    Movie movie = data.getMovieById(screening.getMovieId());
+                    String movieTitle = movie != null ? movie.getTitle() : "Unknown Movie";
+                    String dateTime = screening.getDateTime().format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm"));
+                    displays.add(new BookingDisplay(booking, movieTitle, dateTime));
+                }
             }
-        }
+            return displays;
+        }, displays -> {
+            bookingList.setAll(displays);
 
-        // Show empty state if no bookings
-        if (bookingList.isEmpty() && bookingsListView != null) {
-            bookingsListView.setPlaceholder(createEmptyBookingsPlaceholder());
-        }
+            // Show empty state if no bookings
+            if (bookingList.isEmpty() && bookingsListView != null) {
+                bookingsListView.setPlaceholder(createEmptyBookingsPlaceholder());
+            }
+        });
     }
 
     private VBox createEmptyBookingsPlaceholder() {
@@ -487,20 +495,26 @@ public class UserDashboardController implements Initializable {
         }
     }
 
-    private void loadAccountStatistics() {
+    private CompletableFuture<Void> loadAccountStatistics() {
         // Load and display account statistics
-        totalBookingsLabel.setText(String.valueOf(dataService.getUserBookings(currentUser.getUserId()).size()));
-        totalTicketsLabel.setText(String.valueOf(dataService.getTotalTicketsBooked(currentUser.getUserId())));
-        totalSpentLabel.setText(String.format("$%.2f", dataService.getTotalAmountSpent(currentUser.getUserId())));
+        int userId = currentUser.getUserId();
+        return AsyncDataService.all(
+            asyncDataService.load(data -> data.getUserBookings(userId).size(),
+                count -> totalBookingsLabel.setText(String.valueOf(count))),
+            asyncDataService.load(data -> data.getTotalTicketsBooked(userId),
+                tickets -> totalTicketsLabel.setText(String.valueOf(tickets))),
+            asyncDataService.load(data -> data.getTotalAmountSpent(userId),
+                spent -> totalSpentLabel.setText(String.format("$%.2f", spent))));
     }
 
-    private void loadReviews() {
-        reviewList.clear();
-        List<Review> reviews = dataService.getReviewsByUser(currentUser.getUserId());
-        reviewList.addAll(reviews);
+    private CompletableFuture<Void> loadReviews() {
+        int userId = currentUser.getUserId();
+        return asyncDataService.load(data -> data.getReviewsByUser(userId), reviews -> {
+            reviewList.setAll(reviews);
 
-        // Update reviews UI
-        updateReviewsUI();
+            // Update reviews UI
+            updateReviewsUI();
+        });
     }
 
     private void updateReviewsUI() {
@@ -665,6 +679,7 @@ public class UserDashboardController implements Initializable {
 
     @FXML
     private void handleLogout() {
+        dataService.logout();
         try {
             FXMLLoader loader = new FXMLLoader();
             loader.setLocation(getClass().getResource("/com/example/movieticket/login-view.fxml"));
@@ -776,6 +791,7 @@ public class UserDashboardController implements Initializable {
                 chatStage = null;
                 updateUnreadMessagesBadge();
             });
+            chatStage.setOnHidden(event -> controller.shutdown());
 
             // Show chat window
             chatStage.show();
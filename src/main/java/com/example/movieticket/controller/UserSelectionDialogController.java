@@ -1,6 +1,6 @@
 package com.example.movieticket.controller;
 
-import com.example.movieticket.model.ChatMessage;
+import com.example.movieticket.model.Conversation;
 import com.example.movieticket.model.User;
 import com.example.movieticket.service.DataService;
 import javafx.application.Platform;
@@ -21,7 +21,9 @@ import javafx.stage.Stage;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.stream.Collectors;
 
@@ -37,6 +39,8 @@ public class UserSelectionDialogController implements Initializable {
     private DataService dataService = DataService.getInstance();
     private ObservableList<User> usersList = FXCollections.observableArrayList();
     private List<User> allUsersWithMessages;
+    // Inbox summary per user ID, for the last message and unread badge in each cell
+    private Map<Integer, Conversation> conversationsByUser = new HashMap<>();
     private User selectedUser;
     private boolean okClicked = false;
     private Stage dialogStage;
@@ -84,7 +88,14 @@ public class UserSelectionDialogController implements Initializable {
     }
 
     private void loadUsers() {
-        allUsersWithMessages = dataService.getUsersWithMessages(dataService.getCurrentUser().getUserId());
+        List<Conversation> conversations = dataService.getConversations();
+        conversationsByUser = new HashMap<>();
+        for (Conversation conversation : conversations) {
+            conversationsByUser.put(conversation.getUser().getUserId(), conversation);
+        }
+        allUsersWithMessages = conversations.stream()
+            .map(Conversation::getUser)
+            .collect(Collectors.toList());
         usersList.clear();
         usersList.addAll(allUsersWithMessages);
         updateUserCount();
@@ -176,6 +187,7 @@ public class UserSelectionDialogController implements Initializable {
             }
 
             chatStage.setScene(scene);
+            chatStage.setOnHidden(event -> controller.shutdown());
             chatStage.show();
 
             // Refresh the user list after opening chat to update unread counts
@@ -263,20 +275,13 @@ public class UserSelectionDialogController implements Initializable {
                 nameLabel.setText(user.getFullName());
                 usernameLabel.setText("@" + user.getUsername() + " • " + user.getEmail());
 
-                // Get unread message count
-                List<ChatMessage> allMessages = dataService.getChatHistoryWithAdmins(user.getUserId());
-                long unreadCount = allMessages.stream()
-                    .filter(msg -> !msg.isRead() && msg.getSenderId() == user.getUserId())
-                    .count();
-
-                // Get last message info
-                ChatMessage lastMessage = allMessages.stream()
-                    .max((m1, m2) -> m1.getTimestamp().compareTo(m2.getTimestamp()))
-                    .orElse(null);
+                // Unread count and last message come from the inbox summary
+                Conversation conversation = conversationsByUser.get(user.getUserId());
+                int unreadCount = conversation != null ? conversation.getUnreadCount() : 0;
 
-                if (lastMessage != null) {
-                    String timeAgo = getTimeAgo(lastMessage.getTimestamp());
-                    String preview = lastMessage.getContent();
+                if (conversation != null) {
+                    String timeAgo = getTimeAgo(conversation.getLastMessageTime());
+                    String preview = conversation.getLastMessageSnippet();
                     if (preview.length() > 40) {
                         preview = preview.substring(0, 40) + "...";
                     }
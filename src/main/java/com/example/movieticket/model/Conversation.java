@@ -0,0 +1,41 @@
+package com.example.movieticket.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of one user's chat with the admins, as listed in the admin inbox.
+ */
+public class Conversation {
+    private User user;
+    private LocalDateTime lastMessageTime;
+    private String lastMessageSnippet;
+    private int lastSenderId;
+    private int unreadCount; // Messages from the user no admin has read yet
+
+    public Conversation() {}
+
+    public Conversation(User user, LocalDateTime lastMessageTime, String lastMessageSnippet,
+                        int lastSenderId, int unreadCount) {
+        this.user = user;
+        this.lastMessageTime = lastMessageTime;
+        this.lastMessageSnippet = lastMessageSnippet;
+        this.lastSenderId = lastSenderId;
+        this.unreadCount = unreadCount;
+    }
+
+    // Getters and Setters
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public LocalDateTime getLastMessageTime() { return lastMessageTime; }
+    public void setLastMessageTime(LocalDateTime lastMessageTime) { this.lastMessageTime = lastMessageTime; }
+
+    public String getLastMessageSnippet() { return lastMessageSnippet; }
+    public void setLastMessageSnippet(String lastMessageSnippet) { this.lastMessageSnippet = lastMessageSnippet; }
+
+    public int getLastSenderId() { return lastSenderId; }
+    public void setLastSenderId(int lastSenderId) { this.lastSenderId = lastSenderId; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+}
@@ -0,0 +1,42 @@
+package com.example.movieticket.model;
+
+/**
+ * Seat grid for a screening: rows lettered from A, seats numbered from 1 within each row
+ * (A1, A2, ... B1, ...). The last row may be partial when the capacity is not a whole number
+ * of rows.
+ */
+public class HallLayout {
+    public static final int DEFAULT_SEATS_PER_ROW = 10;
+    private static final int MAX_ROWS = 26; // A-Z
+
+    private final int capacity;
+    private final int seatsPerRow;
+
+    public HallLayout(int capacity) {
+        this.capacity = capacity;
+        // Widen the rows rather than run past Z for very large halls
+        this.seatsPerRow = Math.max(DEFAULT_SEATS_PER_ROW, (capacity + MAX_ROWS - 1) / MAX_ROWS);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int getRowCount() {
+        return (capacity + seatsPerRow - 1) / seatsPerRow;
+    }
+
+    // Row letter of the seat at the given position (0-based, row by row)
+    public String getRowLabel(int index) {
+        return String.valueOf((char) ('A' + index / seatsPerRow));
+    }
+
+    // Seat label such as "C7" for the seat at the given position (0-based, row by row)
+    public String getSeatLabel(int index) {
+        return getRowLabel(index) + (index % seatsPerRow + 1);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.movieticket.network;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * Client connection served by a thread of its own, blocked reading the next message for the whole session.
+ * The thread is a pooled platform thread, or a virtual thread in the server's VIRTUAL mode.
+ * Queued messages are written by a separate task on the server's client pool, started only while
+ * the queue is non-empty.
+ */
+public class BlockingClientHandler extends ClientHandler implements Runnable {
+    // Messages are small; an 8K buffer would be most of an idle connection's footprint. Grows for longer ones.
+    private static final int READ_BUFFER_BYTES = 1024;
+    // Messages a virtual reader handles before it lets other virtual threads have its carrier
+    private static final int READER_BATCH = 64;
+
+    private final Socket clientSocket;
+    private final String remoteAddress;
+    // Only used by the writer task, of which there is at most one at a time
+    private volatile OutputStream out;
+    private volatile boolean isRunning = true;
+
+    public BlockingClientHandler(Socket socket, SocketServer server) {
+        super(server);
+        this.clientSocket = socket;
+        this.remoteAddress = String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    @Override
+    public void run() {
+        try {
+            // Buffered so a writer draining several messages flushes them to the socket in one write
+            out = new BufferedOutputStream(clientSocket.getOutputStream());
+            // Reads the socket stream directly, without locks, so a virtual thread blocked here
+            // unmounts instead of pinning its carrier
+            WireReader in = new WireReader(clientSocket.getInputStream(), READ_BUFFER_BYTES);
+            boolean virtual = Thread.currentThread().isVirtual();
+            int handled = 0;
+            while (isRunning && in.readNext(this::handleLine, this::handleFrame)) {
+                if (virtual && ++handled % READER_BATCH == 0) {
+                    pause();
+                }
+            }
+        } catch (IOException e) {
+            // An interrupt is the server shutting down, and a closed handler was closed on purpose
+            if (isRunning && !Thread.currentThread().isInterrupted()) {
+                System.err.println("Client handler error: " + e.getMessage());
+            }
+        } finally {
+            close();
+        }
+    }
+
+    // A virtual thread only gives up its carrier when it blocks, and the read of a client sending
+    // faster than we relay never does. The writers of every other client, virtual threads on the same
+    // carriers, would wait behind it until their queues overflowed. Thread.yield() is not enough:
+    // the scheduler may hand the carrier straight back to the yielding thread.
+    private void pause() throws IOException {
+        try {
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Server shutting down");
+        }
+    }
+
+    @Override
+    protected void scheduleWriter() {
+        server.executeWriter(this::writeQueued);
+    }
+
+    private void writeQueued() {
+        try {
+            do {
+                EncodedMessage message;
+                while ((message = pollOutbound()) != null) {
+                    if (out != null && isRunning) {
+                        message.writeTo(out, getFraming());
+                    }
+                }
+                if (out != null && isRunning) {
+                    out.flush();
+                }
+            } while (!finishWriting());
+        } catch (IOException e) {
+            if (isRunning) {
+                System.err.println("Failed to send message to client: " + e.getMessage());
+            }
+            close();
+        }
+    }
+
+    // Closing the socket also ends a read blocked on it; the streams close with the socket
+    @Override
+    public void close() {
+        isRunning = false;
+        server.removeClient(this);
+        discardOutbound();
+        try {
+            if (!clientSocket.isClosed()) {
+                clientSocket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Error closing client resources: " + e.getMessage());
+        }
+    }
+
+    @Override
+    protected String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
@@ -2,52 +2,99 @@ package com.example.movieticket.network;
 
 import com.example.movieticket.model.ChatMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.*;
-import java.net.Socket;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Handles individual client connections on the server side
+ * Server side of one client connection: applies the client's messages to the server and sends
+ * messages back. Subclasses own the transport, see BlockingClientHandler and NioClientHandler.
+ *
+ * Outgoing messages go through a bounded queue per client, drained by a writer the transport runs
+ * only while there is something to write. A broadcast therefore never waits on a slow client; a
+ * client whose queue fills up is handled by the server's OverflowPolicy instead.
  */
-public class ClientHandler implements Runnable {
-    private final Socket clientSocket;
-    private final SocketServer server;
-    private final ObjectMapper objectMapper;
-    private PrintWriter out;
-    private BufferedReader in;
-    private volatile boolean isRunning = true;
+public abstract class ClientHandler {
+    // Messages a client may have waiting before it counts as overflowing
+    public static final String OUTBOUND_QUEUE_PROPERTY = "movieticket.server.outboundQueue";
+    // What to do with an overflowing client, see OverflowPolicy
+    public static final String OVERFLOW_POLICY_PROPERTY = "movieticket.server.overflowPolicy";
+
+    private static final int OUTBOUND_QUEUE_CAPACITY = Math.max(1, Integer.getInteger(OUTBOUND_QUEUE_PROPERTY, 1024));
+    // Minimum time in snapshot-only mode, so a client that is just keeping up does not flap
+    private static final long SNAPSHOT_ONLY_MIN_MS = 10_000;
+
+    /**
+     * What happens to a client that does not read its messages as fast as they are sent
+     */
+    public enum OverflowPolicy {
+        // Drop the connection; the client reconnects and reloads its state
+        DISCONNECT,
+        // Keep only messages that carry complete state (seat maps, unread totals) until the client
+        // catches up, then tell it to resynchronize
+        SNAPSHOT_ONLY;
+
+        public static OverflowPolicy fromProperty() {
+            String policy = System.getProperty(OVERFLOW_POLICY_PROPERTY, DISCONNECT.name());
+            try {
+                return valueOf(policy.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown overflow policy '" + policy + "', using " + DISCONNECT);
+                return DISCONNECT;
+            }
+        }
+    }
+
+    protected final SocketServer server;
+    protected final ObjectMapper objectMapper;
+    protected final MessageCodec codec;
     private int userId = -1;
+    // Format of the messages written to the client; switched when the client asks for another
+    private volatile NetworkMessage.Framing framing = NetworkMessage.Framing.JSON;
+
+    // LinkedBlockingQueue allocates per message, so an idle client's queue costs next to nothing
+    private final BlockingQueue<EncodedMessage> outbound = new LinkedBlockingQueue<>(OUTBOUND_QUEUE_CAPACITY);
+    // Set while a writer is scheduled or running
+    private final AtomicBoolean writerScheduled = new AtomicBoolean();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private volatile long snapshotOnlySince; // 0 when the client gets every message
 
-    public ClientHandler(Socket socket, SocketServer server) {
-        this.clientSocket = socket;
+    protected ClientHandler(SocketServer server) {
         this.server = server;
         this.objectMapper = server.getObjectMapper();
+        this.codec = server.getCodec();
     }
 
-    @Override
-    public void run() {
+    // Decode and apply one line received from the client
+    protected void handleLine(String line) {
         try {
-            out = new PrintWriter(clientSocket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-
-            String inputLine;
-            while (isRunning && (inputLine = in.readLine()) != null) {
-                try {
-                    NetworkMessage message = objectMapper.readValue(inputLine, NetworkMessage.class);
-                    handleMessage(message);
-                } catch (Exception e) {
-                    System.err.println("Error processing client message: " + e.getMessage());
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Client handler error: " + e.getMessage());
-        } finally {
-            cleanup();
+            handleMessage(codec.decodeJson(line));
+        } catch (Exception e) {
+            System.err.println("Error processing client message: " + e.getMessage());
+        }
+    }
+
+    // Decode and apply one binary frame received from the client, given without its length prefix
+    protected void handleFrame(byte[] buffer, int offset, int length) {
+        try {
+            handleMessage(codec.decodeBinary(buffer, offset, length));
+        } catch (Exception e) {
+            System.err.println("Error processing client message: " + e.getMessage());
         }
     }
 
     private void handleMessage(NetworkMessage message) {
         switch (message.getType()) {
+            case "PROTOCOL":
+                // Acknowledged in the new format; the client reads both, so it needs no cut-over point
+                if ("BINARY".equals(message.getEventType()) || "JSON".equals(message.getEventType())) {
+                    framing = NetworkMessage.Framing.valueOf(message.getEventType());
+                    sendMessage(new NetworkMessage("PROTOCOL", message.getEventType(), null));
+                }
+                break;
             case "REGISTER_SEAT_OBSERVER":
                 if (message.getScreeningId() != null) {
                     server.registerSeatObserver(message.getScreeningId(), this);
@@ -70,12 +117,31 @@ public class ClientHandler implements Runnable {
             case "UNREGISTER_TYPING_OBSERVER":
                 server.unregisterTypingObserver(this);
                 break;
-            case "SET_USER_ID":
-                if (message.getData() instanceof Map) {
-                    Map<String, Object> data = (Map<String, Object>) message.getData();
-                    this.userId = (Integer) data.get("userId");
+            case "SET_USER_ID": {
+                Integer newUserId = message.intField("userId");
+                if (newUserId != null && newUserId != userId) {
+                    server.removeUserClient(this);
+                    this.userId = newUserId;
+                    server.registerUserClient(newUserId, this);
+                }
+                break;
+            }
+            case "UNREAD_SYNC": {
+                Integer syncUserId = message.intField("userId");
+                Integer count = message.intField("count");
+                if (syncUserId != null && count != null) {
+                    server.syncUnreadCount(syncUserId, count);
+                }
+                break;
+            }
+            case "UNREAD_DELTA": {
+                Integer deltaUserId = message.intField("userId");
+                Integer delta = message.intField("delta");
+                if (deltaUserId != null && delta != null) {
+                    server.adjustUnreadCount(deltaUserId, delta);
                 }
                 break;
+            }
             case "SEAT_LOCKED":
             case "SEAT_UNLOCKED":
             case "SEAT_BOOKED":
@@ -85,46 +151,181 @@ public class ClientHandler implements Runnable {
                 }
                 break;
             case "CHAT_MESSAGE_SENT":
-            case "CHAT_MESSAGE_READ":
-                // Convert LinkedHashMap to ChatMessage object using ObjectMapper
-                if (message.getData() instanceof Map) {
+                // Binary frames decode to a ChatMessage; JSON to a LinkedHashMap, converted here
+                if (message.getData() instanceof ChatMessage) {
+                    server.broadcastChatMessage(message.getEventType(), (ChatMessage) message.getData());
+                } else if (message.getData() instanceof Map) {
                     ChatMessage chatMessage = objectMapper.convertValue(message.getData(), ChatMessage.class);
                     server.broadcastChatMessage(message.getEventType(), chatMessage);
                 }
                 break;
+            case "CHAT_MESSAGE_READ": {
+                // Relayed as a map: a ChatMessage has no field for the reader's userId
+                Integer messageId = message.intField("messageId");
+                Integer readerId = message.intField("userId");
+                if (messageId != null && readerId != null) {
+                    server.broadcastChatRead(Map.of("messageId", messageId, "userId", readerId));
+                }
+                break;
+            }
             case "TYPING_STARTED":
-            case "TYPING_STOPPED":
-                server.broadcastTypingIndicator(message.getEventType(), (Map<String, Object>) message.getData());
+            case "TYPING_STOPPED": {
+                Integer typistId = message.intField("userId");
+                Integer chatWithUserId = message.intField("chatWithUserId");
+                if (typistId != null && chatWithUserId != null) {
+                    server.broadcastTypingIndicator(message.getEventType(),
+                            Map.of("userId", typistId, "chatWithUserId", chatWithUserId));
+                }
                 break;
+            }
         }
     }
 
-    public void sendMessage(NetworkMessage message) throws IOException {
-        if (out != null && !clientSocket.isClosed()) {
-            String jsonMessage = objectMapper.writeValueAsString(message);
-            out.println(jsonMessage);
+    public void sendMessage(NetworkMessage message) {
+        send(EncodedMessage.of(message, codec));
+    }
+
+    /**
+     * Queue an already encoded message; broadcasts pass the same instance to every recipient.
+     * Never blocks: a full queue is handled by the overflow policy.
+     */
+    protected void send(EncodedMessage message) {
+        if (snapshotOnlySince != 0 && !message.isSnapshot()) {
+            if (!outbound.isEmpty() || System.currentTimeMillis() - snapshotOnlySince < SNAPSHOT_ONLY_MIN_MS) {
+                droppedMessages.incrementAndGet();
+                return;
+            }
+            // Caught up: deliver everything again, starting with a request to reload what was missed
+            snapshotOnlySince = 0;
+            offer(EncodedMessage.of(new NetworkMessage("RESYNC", "RESUMED", null), codec));
+        }
+        if (!offer(message)) {
+            overflow(message);
         }
     }
 
-    public void close() {
-        isRunning = false;
-        cleanup();
+    private boolean offer(EncodedMessage message) {
+        if (!outbound.offer(message)) {
+            return false;
+        }
+        if (writerScheduled.compareAndSet(false, true)) {
+            scheduleWriter();
+        }
+        return true;
     }
 
-    private void cleanup() {
-        server.removeClient(this);
-        try {
-            if (in != null) in.close();
-            if (out != null) out.close();
-            if (clientSocket != null && !clientSocket.isClosed()) {
-                clientSocket.close();
+    private void overflow(EncodedMessage message) {
+        if (server.getOverflowPolicy() == OverflowPolicy.SNAPSHOT_ONLY) {
+            // Make room by dropping the changes; the snapshots still describe the current state
+            int before = outbound.size();
+            outbound.removeIf(queued -> !queued.isSnapshot());
+            droppedMessages.addAndGet(before - outbound.size());
+            if (snapshotOnlySince == 0) {
+                snapshotOnlySince = System.currentTimeMillis();
+                System.err.println("Client outbound queue full, sending snapshots only: " + describe());
+            }
+            if (!message.isSnapshot()) {
+                droppedMessages.incrementAndGet();
+                return;
+            }
+            if (offer(message)) {
+                return;
             }
-        } catch (IOException e) {
-            System.err.println("Error closing client resources: " + e.getMessage());
         }
+        droppedMessages.incrementAndGet();
+        System.err.println("Client outbound queue full, disconnecting: " + describe());
+        close();
+    }
+
+    /**
+     * Start a writer that drains the queue with pollOutbound() and ends with finishWriting()
+     */
+    protected abstract void scheduleWriter();
+
+    // Next message to write, or null when the queue is empty
+    protected EncodedMessage pollOutbound() {
+        EncodedMessage message = outbound.poll();
+        if (message != null) {
+            sentMessages.incrementAndGet();
+        }
+        return message;
+    }
+
+    // Call when pollOutbound() returned null. False if a message arrived meanwhile that this
+    // writer must handle too, because the sender saw the writer still running and did not start one
+    protected boolean finishWriting() {
+        writerScheduled.set(false);
+        return outbound.isEmpty() || !writerScheduled.compareAndSet(false, true);
+    }
+
+    protected void discardOutbound() {
+        outbound.clear();
+    }
+
+    public abstract void close();
+
+    // Remote address of the client, for logs and stats
+    protected abstract String getRemoteAddress();
+
+    private String describe() {
+        return getRemoteAddress() + (userId != -1 ? " (user " + userId + ")" : "");
     }
 
     public int getUserId() {
         return userId;
     }
+
+    // Format the writer encodes queued messages in
+    protected NetworkMessage.Framing getFraming() {
+        return framing;
+    }
+
+    public OutboundStats getOutboundStats() {
+        return new OutboundStats(userId, getRemoteAddress(), outbound.size(), OUTBOUND_QUEUE_CAPACITY,
+                sentMessages.get(), droppedMessages.get(), snapshotOnlySince != 0);
+    }
+
+    /**
+     * Point-in-time state of one client's outbound queue
+     */
+    public static final class OutboundStats {
+        private final int userId;
+        private final String remoteAddress;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long sentMessages;
+        private final long droppedMessages;
+        private final boolean snapshotOnly;
+
+        OutboundStats(int userId, String remoteAddress, int queueDepth, int queueCapacity,
+                      long sentMessages, long droppedMessages, boolean snapshotOnly) {
+            this.userId = userId;
+            this.remoteAddress = remoteAddress;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.sentMessages = sentMessages;
+            this.droppedMessages = droppedMessages;
+            this.snapshotOnly = snapshotOnly;
+        }
+
+        public int getUserId() { return userId; }
+        public String getRemoteAddress() { return remoteAddress; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getSentMessages() { return sentMessages; }
+        public long getDroppedMessages() { return droppedMessages; }
+        public boolean isSnapshotOnly() { return snapshotOnly; }
+
+        @Override
+        public String toString() {
+            return "OutboundStats{" +
+                    "userId=" + userId +
+                    ", remoteAddress=" + remoteAddress +
+                    ", queueDepth=" + queueDepth + "/" + queueCapacity +
+                    ", sent=" + sentMessages +
+                    ", dropped=" + droppedMessages +
+                    ", snapshotOnly=" + snapshotOnly +
+                    '}';
+        }
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.movieticket.network;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A NetworkMessage to be written to any number of clients, encoded at most once per wire format:
+ * as bytes for stream writes, and as a buffer over the same bytes for channel writes. A single
+ * instance is shared by every recipient of a broadcast, whichever format each one reads.
+ *
+ * Only broadcasts copy the bytes into direct memory, where the allocation pays for itself
+ * across the recipients. A message for one client is written from a heap buffer.
+ */
+public final class EncodedMessage {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final NetworkMessage message;
+    private final MessageCodec codec;
+    private final boolean snapshot;
+    private final boolean shared;
+    // Encoded on first use; racing writers may encode twice, which is harmless
+    private volatile byte[] json;
+    private volatile byte[] binary;
+    private volatile ByteBuffer jsonBuffer;
+    private volatile ByteBuffer binaryBuffer;
+
+    private EncodedMessage(NetworkMessage message, MessageCodec codec, boolean shared) {
+        this.message = message;
+        this.codec = codec;
+        this.snapshot = isSnapshot(message);
+        this.shared = shared;
+    }
+
+    /**
+     * A message for a single client
+     */
+    public static EncodedMessage of(NetworkMessage message, MessageCodec codec) {
+        return new EncodedMessage(message, codec, false);
+    }
+
+    /**
+     * A message for several clients, written to each from the same direct buffer
+     */
+    public static EncodedMessage shared(NetworkMessage message, MessageCodec codec) {
+        return new EncodedMessage(message, codec, true);
+    }
+
+    // Messages that carry complete state rather than a change to it: full seat maps, unread totals
+    // and resync requests. The only ones a client in snapshot-only mode still receives.
+    private static boolean isSnapshot(NetworkMessage message) {
+        return "SEAT_UPDATED".equals(message.getEventType())
+                || "UNREAD_COUNT".equals(message.getType())
+                || "RESYNC".equals(message.getType());
+    }
+
+    public boolean isSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * The encoded message; empty if it cannot be encoded, so that it is skipped
+     */
+    public byte[] bytes(NetworkMessage.Framing framing) {
+        boolean isBinary = framing == NetworkMessage.Framing.BINARY;
+        byte[] bytes = isBinary ? binary : json;
+        if (bytes == null) {
+            try {
+                bytes = codec.encode(message, framing);
+            } catch (IOException e) {
+                System.err.println("Error encoding message: " + e.getMessage());
+                bytes = EMPTY;
+            }
+            if (isBinary) {
+                binary = bytes;
+            } else {
+                json = bytes;
+            }
+        }
+        return bytes;
+    }
+
+    public int size(NetworkMessage.Framing framing) {
+        return bytes(framing).length;
+    }
+
+    public void writeTo(OutputStream out, NetworkMessage.Framing framing) throws IOException {
+        out.write(bytes(framing));
+    }
+
+    /**
+     * A view of the message for one channel write. Views share the underlying memory but each has
+     * its own position, so they can be written to different channels concurrently.
+     */
+    public ByteBuffer buffer(NetworkMessage.Framing framing) {
+        if (!shared) {
+            return ByteBuffer.wrap(bytes(framing)).asReadOnlyBuffer();
+        }
+        boolean isBinary = framing == NetworkMessage.Framing.BINARY;
+        ByteBuffer buffer = isBinary ? binaryBuffer : jsonBuffer;
+        if (buffer == null) {
+            byte[] bytes = bytes(framing);
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+            direct.put(bytes).flip();
+            buffer = direct.asReadOnlyBuffer();
+            if (isBinary) {
+                binaryBuffer = buffer;
+            } else {
+                jsonBuffer = buffer;
+            }
+        }
+        return buffer.duplicate();
+    }
+}
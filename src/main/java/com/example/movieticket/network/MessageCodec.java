@@ -0,0 +1,549 @@
+package com.example.movieticket.network;
+
+import com.example.movieticket.model.ChatMessage;
+import com.example.movieticket.model.Seat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodes and decodes NetworkMessages in both wire formats.
+ *
+ * JSON: one Jackson-serialized message per line, the original protocol and still the default.
+ *
+ * Binary: a 4-byte big-endian length, then an opcode byte and the opcode's payload. Ints are
+ * zigzag varints and strings a varint length plus UTF-8, so a seat lock takes about a dozen bytes.
+ * The opcode stands for the message type, and for events also the event type; events relayed by
+ * the server to observers have the BROADCAST bit set. Messages without an opcode of their own
+ * travel as their JSON inside an OP_JSON frame. Timestamps are not sent; a decoded message carries
+ * the time it was received.
+ *
+ * Frames are shorter than 16 MB, so their first byte is always 0 and no JSON line starts with one.
+ * Readers tell the formats apart by the first byte of each message, so a connection can switch
+ * formats without draining what is already in flight.
+ */
+public final class MessageCodec {
+    // Longest JSON line or binary frame accepted from the other side
+    public static final int MAX_MESSAGE_LENGTH = 1024 * 1024;
+    // Bytes of a frame's length prefix
+    public static final int LENGTH_PREFIX = 4;
+
+    // Requests and state pushed to one client
+    private static final int OP_REGISTER_SEAT_OBSERVER = 0x01;
+    private static final int OP_UNREGISTER_SEAT_OBSERVER = 0x02;
+    private static final int OP_REGISTER_CHAT_OBSERVER = 0x03;
+    private static final int OP_UNREGISTER_CHAT_OBSERVER = 0x04;
+    private static final int OP_REGISTER_TYPING_OBSERVER = 0x05;
+    private static final int OP_UNREGISTER_TYPING_OBSERVER = 0x06;
+    private static final int OP_SET_USER_ID = 0x07;
+    private static final int OP_UNREAD_SYNC = 0x08;
+    private static final int OP_UNREAD_DELTA = 0x09;
+    private static final int OP_UNREAD_COUNT = 0x0A;
+    private static final int OP_RESYNC = 0x0B;
+    private static final int OP_PROTOCOL = 0x0C;
+    // Events, as sent by the client that caused them
+    private static final int OP_SEAT_LOCKED = 0x10;
+    private static final int OP_SEAT_UNLOCKED = 0x11;
+    private static final int OP_SEAT_BOOKED = 0x12;
+    private static final int OP_SEAT_UPDATED = 0x13;
+    private static final int OP_CHAT_MESSAGE_SENT = 0x20;
+    private static final int OP_CHAT_MESSAGE_READ = 0x21;
+    private static final int OP_TYPING_STARTED = 0x30;
+    private static final int OP_TYPING_STOPPED = 0x31;
+    // Any other message
+    private static final int OP_JSON = 0x7F;
+    // Set on an event's opcode when the server relays it to observers
+    private static final int BROADCAST = 0x80;
+
+    private final ObjectMapper objectMapper;
+    private final CollectionType seatListType;
+
+    public MessageCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.seatListType = objectMapper.getTypeFactory().constructCollectionType(List.class, Seat.class);
+    }
+
+    public byte[] encode(NetworkMessage message, NetworkMessage.Framing framing) throws IOException {
+        return framing == NetworkMessage.Framing.BINARY ? encodeBinary(message) : encodeJson(message);
+    }
+
+    // The message as a JSON line, newline included
+    public byte[] encodeJson(NetworkMessage message) throws JsonProcessingException {
+        byte[] json = objectMapper.writeValueAsBytes(message);
+        byte[] line = Arrays.copyOf(json, json.length + 1);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    public NetworkMessage decodeJson(String line) throws JsonProcessingException {
+        return objectMapper.readValue(line, NetworkMessage.class);
+    }
+
+    // The message as a binary frame, length prefix included
+    public byte[] encodeBinary(NetworkMessage message) throws IOException {
+        FrameWriter out = new FrameWriter();
+        int opcode = opcodeOf(message);
+        if (opcode < 0 || !writePayload(out, opcode & ~BROADCAST, message)) {
+            out.reset();
+            out.writeBytes(objectMapper.writeValueAsBytes(message));
+            opcode = OP_JSON;
+        }
+        return out.toFrame(opcode);
+    }
+
+    /**
+     * Decode one frame, given without its length prefix
+     */
+    public NetworkMessage decodeBinary(byte[] buffer, int offset, int length) throws IOException {
+        FrameReader in = new FrameReader(buffer, offset, length);
+        int opcode = in.readByte();
+        if (opcode == OP_JSON) {
+            return objectMapper.readValue(buffer, offset + 1, length - 1, NetworkMessage.class);
+        }
+
+        int event = opcode & ~BROADCAST;
+        NetworkMessage message;
+        switch (event) {
+            case OP_REGISTER_SEAT_OBSERVER:
+                message = screeningMessage("REGISTER_SEAT_OBSERVER", null, in.readInt(), null);
+                break;
+            case OP_UNREGISTER_SEAT_OBSERVER:
+                message = screeningMessage("UNREGISTER_SEAT_OBSERVER", null, in.readInt(), null);
+                break;
+            case OP_REGISTER_CHAT_OBSERVER:
+                message = new NetworkMessage("REGISTER_CHAT_OBSERVER", null, null);
+                break;
+            case OP_UNREGISTER_CHAT_OBSERVER:
+                message = new NetworkMessage("UNREGISTER_CHAT_OBSERVER", null, null);
+                break;
+            case OP_REGISTER_TYPING_OBSERVER:
+                message = new NetworkMessage("REGISTER_TYPING_OBSERVER", null, null);
+                break;
+            case OP_UNREGISTER_TYPING_OBSERVER:
+                message = new NetworkMessage("UNREGISTER_TYPING_OBSERVER", null, null);
+                break;
+            case OP_SET_USER_ID:
+                message = new NetworkMessage("SET_USER_ID", null, data("userId", in.readInt()));
+                break;
+            case OP_UNREAD_SYNC:
+                message = event("UNREAD_SYNC", data("userId", in.readInt(), "count", in.readInt()));
+                break;
+            case OP_UNREAD_DELTA:
+                message = event("UNREAD_DELTA", data("userId", in.readInt(), "delta", in.readInt()));
+                break;
+            case OP_UNREAD_COUNT:
+                message = event("UNREAD_COUNT", data("userId", in.readInt(), "count", in.readInt()));
+                break;
+            case OP_RESYNC:
+                message = new NetworkMessage("RESYNC", in.readString(), null);
+                break;
+            case OP_PROTOCOL:
+                message = new NetworkMessage("PROTOCOL", in.readString(), null);
+                break;
+            case OP_SEAT_LOCKED: {
+                int screeningId = in.readInt();
+                Map<String, Object> data = data("seatNumber", in.readString(), "userId", in.readInt());
+                message = screeningMessage("SEAT_UPDATE", "SEAT_LOCKED", screeningId, data);
+                break;
+            }
+            case OP_SEAT_UNLOCKED: {
+                int screeningId = in.readInt();
+                message = screeningMessage("SEAT_UPDATE", "SEAT_UNLOCKED", screeningId, data("seatNumber", in.readString()));
+                break;
+            }
+            case OP_SEAT_BOOKED: {
+                int screeningId = in.readInt();
+                message = screeningMessage("SEAT_UPDATE", "SEAT_BOOKED", screeningId, data("seatNumber", in.readString()));
+                break;
+            }
+            case OP_SEAT_UPDATED: {
+                int screeningId = in.readInt();
+                int count = in.readInt();
+                List<Seat> seats = new ArrayList<>(Math.min(count, 1024));
+                for (int i = 0; i < count; i++) {
+                    seats.add(readSeat(in));
+                }
+                message = screeningMessage("SEAT_UPDATE", "SEAT_UPDATED", screeningId, seats);
+                break;
+            }
+            case OP_CHAT_MESSAGE_SENT:
+                message = new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", readChatMessage(in));
+                break;
+            case OP_CHAT_MESSAGE_READ:
+                message = new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_READ",
+                        data("messageId", in.readInt(), "userId", in.readInt()));
+                break;
+            case OP_TYPING_STARTED:
+                message = new NetworkMessage("TYPING_INDICATOR", "TYPING_STARTED",
+                        data("userId", in.readInt(), "chatWithUserId", in.readInt()));
+                break;
+            case OP_TYPING_STOPPED:
+                message = new NetworkMessage("TYPING_INDICATOR", "TYPING_STOPPED",
+                        data("userId", in.readInt(), "chatWithUserId", in.readInt()));
+                break;
+            default:
+                throw new IOException("Unknown opcode 0x" + Integer.toHexString(opcode));
+        }
+
+        // Without the BROADCAST bit an event is the client's own notification, typed by the event
+        if (event >= OP_SEAT_LOCKED && (opcode & BROADCAST) == 0) {
+            message.setType(message.getEventType());
+        }
+        return message;
+    }
+
+    // Opcode for a message, or -1 if it has none and goes as JSON
+    private static int opcodeOf(NetworkMessage message) {
+        String type = message.getType();
+        if (type == null) {
+            return -1;
+        }
+        switch (type) {
+            case "REGISTER_SEAT_OBSERVER": return OP_REGISTER_SEAT_OBSERVER;
+            case "UNREGISTER_SEAT_OBSERVER": return OP_UNREGISTER_SEAT_OBSERVER;
+            case "REGISTER_CHAT_OBSERVER": return OP_REGISTER_CHAT_OBSERVER;
+            case "UNREGISTER_CHAT_OBSERVER": return OP_UNREGISTER_CHAT_OBSERVER;
+            case "REGISTER_TYPING_OBSERVER": return OP_REGISTER_TYPING_OBSERVER;
+            case "UNREGISTER_TYPING_OBSERVER": return OP_UNREGISTER_TYPING_OBSERVER;
+            case "SET_USER_ID": return OP_SET_USER_ID;
+            case "UNREAD_SYNC": return OP_UNREAD_SYNC;
+            case "UNREAD_DELTA": return OP_UNREAD_DELTA;
+            case "UNREAD_COUNT": return OP_UNREAD_COUNT;
+            case "RESYNC": return OP_RESYNC;
+            case "PROTOCOL": return OP_PROTOCOL;
+            case "SEAT_UPDATE":
+            case "CHAT_MESSAGE":
+            case "TYPING_INDICATOR": {
+                int event = eventOpcodeOf(message.getEventType());
+                return event >= 0 ? event | BROADCAST : -1;
+            }
+            default:
+                // A client's own event notification, typed by the event itself
+                return type.equals(message.getEventType()) ? eventOpcodeOf(type) : -1;
+        }
+    }
+
+    private static int eventOpcodeOf(String eventType) {
+        if (eventType == null) {
+            return -1;
+        }
+        switch (eventType) {
+            case "SEAT_LOCKED": return OP_SEAT_LOCKED;
+            case "SEAT_UNLOCKED": return OP_SEAT_UNLOCKED;
+            case "SEAT_BOOKED": return OP_SEAT_BOOKED;
+            case "SEAT_UPDATED": return OP_SEAT_UPDATED;
+            case "CHAT_MESSAGE_SENT": return OP_CHAT_MESSAGE_SENT;
+            case "CHAT_MESSAGE_READ": return OP_CHAT_MESSAGE_READ;
+            case "TYPING_STARTED": return OP_TYPING_STARTED;
+            case "TYPING_STOPPED": return OP_TYPING_STOPPED;
+            default: return -1;
+        }
+    }
+
+    // Write the typed payload; false if the message lacks a field the payload needs
+    private boolean writePayload(FrameWriter out, int event, NetworkMessage message) {
+        Integer screeningId = message.getScreeningId();
+        Object data = message.getData();
+        switch (event) {
+            case OP_REGISTER_SEAT_OBSERVER:
+            case OP_UNREGISTER_SEAT_OBSERVER:
+                if (screeningId == null) return false;
+                out.writeInt(screeningId);
+                return true;
+            case OP_REGISTER_CHAT_OBSERVER:
+            case OP_UNREGISTER_CHAT_OBSERVER:
+            case OP_REGISTER_TYPING_OBSERVER:
+            case OP_UNREGISTER_TYPING_OBSERVER:
+                return true;
+            case OP_SET_USER_ID:
+                return writeInts(out, data, "userId");
+            case OP_UNREAD_SYNC:
+            case OP_UNREAD_COUNT:
+                return writeInts(out, data, "userId", "count");
+            case OP_UNREAD_DELTA:
+                return writeInts(out, data, "userId", "delta");
+            case OP_RESYNC:
+            case OP_PROTOCOL:
+                out.writeString(message.getEventType());
+                return true;
+            case OP_SEAT_LOCKED:
+            case OP_SEAT_UNLOCKED:
+            case OP_SEAT_BOOKED: {
+                String seatNumber = data instanceof Map ? (String) ((Map<?, ?>) data).get("seatNumber") : null;
+                if (screeningId == null || seatNumber == null) return false;
+                out.writeInt(screeningId);
+                out.writeString(seatNumber);
+                return event != OP_SEAT_LOCKED || writeInts(out, data, "userId");
+            }
+            case OP_SEAT_UPDATED: {
+                if (screeningId == null || !(data instanceof List)) return false;
+                List<?> seats = (List<?>) data;
+                out.writeInt(screeningId);
+                out.writeInt(seats.size());
+                for (Object seat : seats) {
+                    // Seats relayed from a JSON client arrive as maps
+                    writeSeat(out, seat instanceof Seat ? (Seat) seat : objectMapper.convertValue(seat, Seat.class));
+                }
+                return true;
+            }
+            case OP_CHAT_MESSAGE_SENT:
+                if (data == null) return false;
+                writeChatMessage(out, data instanceof ChatMessage
+                        ? (ChatMessage) data : objectMapper.convertValue(data, ChatMessage.class));
+                return true;
+            case OP_CHAT_MESSAGE_READ:
+                return writeInts(out, data, "messageId", "userId");
+            case OP_TYPING_STARTED:
+            case OP_TYPING_STOPPED:
+                return writeInts(out, data, "userId", "chatWithUserId");
+            default:
+                return false;
+        }
+    }
+
+    private static boolean writeInts(FrameWriter out, Object data, String... keys) {
+        if (!(data instanceof Map)) {
+            return false;
+        }
+        Map<?, ?> map = (Map<?, ?>) data;
+        for (String key : keys) {
+            if (!(map.get(key) instanceof Number)) {
+                return false;
+            }
+        }
+        for (String key : keys) {
+            out.writeInt(((Number) map.get(key)).intValue());
+        }
+        return true;
+    }
+
+    private static void writeSeat(FrameWriter out, Seat seat) {
+        out.writeInt(seat.getSeatId());
+        out.writeInt(seat.getScreeningId());
+        out.writeString(seat.getSeatNumber());
+        out.writeInt(seat.getRow());
+        out.writeInt(seat.getColumn());
+        out.writeString(seat.getRowNumber());
+        out.writeByte((seat.isBooked() ? 1 : 0) | (seat.isLocked() ? 2 : 0));
+        out.writeInt(seat.getLockedByUserId());
+        writeDateTime(out, seat.getLockExpiresAt());
+    }
+
+    private static Seat readSeat(FrameReader in) throws IOException {
+        Seat seat = new Seat();
+        seat.setSeatId(in.readInt());
+        seat.setScreeningId(in.readInt());
+        seat.setSeatNumber(in.readString());
+        int row = in.readInt();
+        seat.setColumn(in.readInt());
+        // setRowNumber derives the row from a letter; the row sent wins
+        seat.setRowNumber(in.readString());
+        seat.setRow(row);
+        int flags = in.readByte();
+        seat.setBooked((flags & 1) != 0);
+        seat.setLocked((flags & 2) != 0);
+        seat.setLockedByUserId(in.readInt());
+        seat.setLockExpiresAt(readDateTime(in));
+        return seat;
+    }
+
+    private static void writeChatMessage(FrameWriter out, ChatMessage message) {
+        out.writeInt(message.getMessageId());
+        out.writeInt(message.getSenderId());
+        out.writeInt(message.getReceiverId());
+        out.writeString(message.getContent());
+        writeDateTime(out, message.getTimestamp());
+        out.writeByte(message.isRead() ? 1 : 0);
+        out.writeString(message.getSenderName());
+        out.writeString(message.getReceiverName());
+    }
+
+    private static ChatMessage readChatMessage(FrameReader in) throws IOException {
+        ChatMessage message = new ChatMessage();
+        message.setMessageId(in.readInt());
+        message.setSenderId(in.readInt());
+        message.setReceiverId(in.readInt());
+        message.setContent(in.readString());
+        message.setTimestamp(readDateTime(in));
+        message.setRead(in.readByte() != 0);
+        message.setSenderName(in.readString());
+        message.setReceiverName(in.readString());
+        return message;
+    }
+
+    // A presence byte, then epoch seconds and nanos of the local date-time taken as UTC
+    private static void writeDateTime(FrameWriter out, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            out.writeByte(0);
+            return;
+        }
+        out.writeByte(1);
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime readDateTime(FrameReader in) throws IOException {
+        if (in.readByte() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static NetworkMessage screeningMessage(String type, String eventType, int screeningId, Object data) {
+        NetworkMessage message = new NetworkMessage(type, eventType, data);
+        message.setScreeningId(screeningId);
+        return message;
+    }
+
+    private static NetworkMessage event(String type, Object data) {
+        return new NetworkMessage(type, type, data);
+    }
+
+    private static Map<String, Object> data(Object... keysAndValues) {
+        Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            data.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return data;
+    }
+
+    /**
+     * Growable buffer a frame is written into, with room for the header at the front
+     */
+    private static final class FrameWriter {
+        private static final int HEADER = LENGTH_PREFIX + 1;
+
+        private byte[] buffer = new byte[64];
+        private int size = HEADER;
+
+        void reset() {
+            size = HEADER;
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[size++] = (byte) value;
+        }
+
+        // Zigzag varint, so small negative values such as -1 stay short too
+        void writeInt(int value) {
+            writeVarLong(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+        }
+
+        void writeLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        // Length plus one, so that 0 stands for null
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            writeBytes(bytes);
+        }
+
+        void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, size, bytes.length);
+            size += bytes.length;
+        }
+
+        byte[] toFrame(int opcode) throws IOException {
+            int length = size - LENGTH_PREFIX;
+            if (length > MAX_MESSAGE_LENGTH) {
+                throw new IOException("Message too long for a frame: " + length + " bytes");
+            }
+            buffer[0] = (byte) (length >>> 24);
+            buffer[1] = (byte) (length >>> 16);
+            buffer[2] = (byte) (length >>> 8);
+            buffer[3] = (byte) length;
+            buffer[LENGTH_PREFIX] = (byte) opcode;
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+
+    /**
+     * Reads the payload of one frame, failing on a frame that ends early
+     */
+    private static final class FrameReader {
+        private final byte[] buffer;
+        private int position;
+        private final int limit;
+
+        FrameReader(byte[] buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = offset + length;
+        }
+
+        int readByte() throws IOException {
+            if (position >= limit) {
+                throw new EOFException("Truncated frame");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        int readInt() throws IOException {
+            long value = readVarLong();
+            return (int) (value >>> 1) ^ -(int) (value & 1);
+        }
+
+        long readLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in frame");
+        }
+
+        String readString() throws IOException {
+            long length = readVarLong() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (length > limit - position) {
+                throw new EOFException("Truncated frame");
+            }
+            String value = new String(buffer, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+    }
+}
@@ -2,11 +2,22 @@ package com.example.movieticket.network;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import java.util.Map;
+
 /**
  * Message structure for network communication between client and server
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class NetworkMessage {
+    /**
+     * How messages are put on the wire: JSON lines unless both sides have agreed on binary frames,
+     * see MessageCodec
+     */
+    public enum Framing {
+        JSON,
+        BINARY
+    }
+
     private String type;
     private String eventType;
     private Object data;
@@ -49,6 +60,23 @@ public class NetworkMessage {
         this.data = data;
     }
 
+    /**
+     * A number in map data as an int, or null if the data is not a map or the value is missing or
+     * not a number. JSON decodes to whatever Number type fits, binary frames to Integer.
+     */
+    public Integer intField(String key) {
+        Object value = data instanceof Map ? ((Map<?, ?>) data).get(key) : null;
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+
+    /**
+     * A string in map data, or null if the data is not a map or the value is missing or not a string.
+     */
+    public String stringField(String key) {
+        Object value = data instanceof Map ? ((Map<?, ?>) data).get(key) : null;
+        return value instanceof String ? (String) value : null;
+    }
+
     public Integer getScreeningId() {
         return screeningId;
     }
@@ -0,0 +1,196 @@
+package com.example.movieticket.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Client connection on a non-blocking channel, served by one of the server's event loops.
+ * Incoming bytes are split into lines and frames in a per-connection read buffer; queued outgoing messages
+ * are written by the event loop, several per gathering write, as the socket accepts them.
+ */
+public class NioClientHandler extends ClientHandler {
+    private static final int INITIAL_READ_BUFFER = 8 * 1024;
+    // Guards the read buffer against a client that never sends a newline
+    private static final int MAX_READ_BUFFER = MessageCodec.LENGTH_PREFIX + MessageCodec.MAX_MESSAGE_LENGTH;
+    // Messages handed to the socket in one gathering write
+    private static final int WRITE_BATCH = 64;
+
+    private final SocketChannel channel;
+    private final NioEventLoop eventLoop;
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+    // Messages taken off the queue but not completely written yet; event loop only
+    private ByteBuffer[] writeBatch;
+    private int batchStart;
+    private int batchEnd;
+    private final String remoteAddress;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private SelectionKey key;
+
+    public NioClientHandler(SocketChannel channel, NioEventLoop eventLoop, SocketServer server) {
+        super(server);
+        this.channel = channel;
+        this.eventLoop = eventLoop;
+        String address;
+        try {
+            address = String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            address = "unknown";
+        }
+        this.remoteAddress = address;
+    }
+
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+
+    void onReadable() throws IOException {
+        int read = channel.read(readBuffer);
+        if (read < 0) {
+            close();
+            return;
+        }
+
+        readBuffer.flip();
+        byte[] bytes = readBuffer.array();
+        int messageStart = readBuffer.position();
+        int limit = readBuffer.limit();
+        while (messageStart < limit) {
+            if (bytes[messageStart] == 0) {
+                // Binary frame: wait until all of it is in the buffer
+                if (limit - messageStart < MessageCodec.LENGTH_PREFIX) {
+                    break;
+                }
+                int length = readBuffer.getInt(messageStart);
+                if (length <= 0 || length > MessageCodec.MAX_MESSAGE_LENGTH) {
+                    System.err.println("Invalid frame length " + length + ", disconnecting: " + remoteAddress);
+                    close();
+                    return;
+                }
+                int frameEnd = messageStart + MessageCodec.LENGTH_PREFIX + length;
+                if (frameEnd > limit) {
+                    break;
+                }
+                handleFrame(bytes, messageStart + MessageCodec.LENGTH_PREFIX, length);
+                messageStart = frameEnd;
+            } else {
+                int newline = -1;
+                for (int i = messageStart; i < limit; i++) {
+                    if (bytes[i] == '\n') {
+                        newline = i;
+                        break;
+                    }
+                }
+                if (newline < 0) {
+                    break;
+                }
+                int lineEnd = newline > messageStart && bytes[newline - 1] == '\r' ? newline - 1 : newline;
+                if (lineEnd > messageStart) {
+                    handleLine(new String(bytes, messageStart, lineEnd - messageStart, StandardCharsets.UTF_8));
+                }
+                messageStart = newline + 1;
+            }
+            if (closed.get()) {
+                return;
+            }
+        }
+        readBuffer.position(messageStart);
+        readBuffer.compact();
+
+        // A partial message filled the buffer: make room for the rest of it
+        if (!readBuffer.hasRemaining()) {
+            if (readBuffer.capacity() >= MAX_READ_BUFFER) {
+                System.err.println("Client message too long, disconnecting: " + remoteAddress);
+                close();
+                return;
+            }
+            ByteBuffer larger = ByteBuffer.allocate(Math.min(readBuffer.capacity() * 2, MAX_READ_BUFFER));
+            readBuffer.flip();
+            larger.put(readBuffer);
+            readBuffer = larger;
+        }
+    }
+
+    void onWritable() throws IOException {
+        flush();
+    }
+
+    // The writer is the event loop itself; it keeps the job while waiting for the socket to drain
+    @Override
+    protected void scheduleWriter() {
+        eventLoop.execute(() -> {
+            try {
+                flush();
+            } catch (IOException e) {
+                System.err.println("Failed to send message to client: " + e.getMessage());
+                close();
+            }
+        });
+    }
+
+    // Write queued messages until the queue is empty or the socket buffer is full. Event loop only.
+    private void flush() throws IOException {
+        if (closed.get()) {
+            return;
+        }
+        if (writeBatch == null) {
+            writeBatch = new ByteBuffer[WRITE_BATCH];
+        }
+        while (true) {
+            if (batchStart == batchEnd) {
+                batchStart = 0;
+                batchEnd = 0;
+                EncodedMessage message;
+                while (batchEnd < WRITE_BATCH && (message = pollOutbound()) != null) {
+                    writeBatch[batchEnd++] = message.buffer(getFraming());
+                }
+                if (batchEnd == 0) {
+                    if (key != null && key.isValid()) {
+                        key.interestOps(SelectionKey.OP_READ);
+                    }
+                    if (finishWriting()) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+
+            channel.write(writeBatch, batchStart, batchEnd - batchStart);
+            while (batchStart < batchEnd && !writeBatch[batchStart].hasRemaining()) {
+                writeBatch[batchStart++] = null;
+            }
+            if (batchStart < batchEnd) {
+                // Socket buffer full; carry on when the selector says it is writable again
+                if (key != null && key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        server.removeClient(this);
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing client resources: " + e.getMessage());
+        }
+        discardOutbound();
+    }
+
+    @Override
+    protected String getRemoteAddress() {
+        return remoteAddress;
+    }
+}
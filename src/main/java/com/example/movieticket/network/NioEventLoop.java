@@ -0,0 +1,112 @@
+package com.example.movieticket.network;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One selector thread of the NIO server. Serves the reads and writes of every connection
+ * registered with it, and runs tasks handed over from other threads between selects.
+ */
+class NioEventLoop implements Runnable {
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile boolean isRunning = true;
+
+    NioEventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    // Run a task on this loop's thread
+    void execute(Runnable task) {
+        tasks.add(task);
+        if (!inEventLoop()) {
+            selector.wakeup();
+        }
+    }
+
+    // Start serving a freshly accepted connection
+    void register(SocketChannel channel, NioClientHandler handler) {
+        execute(() -> {
+            try {
+                handler.attach(channel.register(selector, SelectionKey.OP_READ, handler));
+            } catch (ClosedChannelException e) {
+                handler.close();
+            }
+        });
+    }
+
+    @Override
+    public void run() {
+        while (isRunning) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                System.err.println("Error selecting client channels: " + e.getMessage());
+                continue;
+            }
+
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                NioClientHandler handler = (NioClientHandler) key.attachment();
+                try {
+                    if (key.isValid() && key.isReadable()) {
+                        handler.onReadable();
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        handler.onWritable();
+                    }
+                } catch (Exception e) {
+                    System.err.println("Client handler error: " + e.getMessage());
+                    handler.close();
+                }
+            }
+
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    System.err.println("Error running event loop task: " + e.getMessage());
+                }
+            }
+        }
+
+        for (SelectionKey key : selector.keys()) {
+            ((NioClientHandler) key.attachment()).close();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing selector: " + e.getMessage());
+        }
+    }
+
+    void shutdown() {
+        isRunning = false;
+        selector.wakeup();
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
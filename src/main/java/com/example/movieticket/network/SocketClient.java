@@ -9,26 +9,51 @@ import javafx.application.Platform;
 import java.io.*;
 import java.net.Socket;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Client-side socket implementation for real-time communication
+ *
+ * A lost connection is re-established in the background, waiting longer after each failed
+ * attempt. The new connection is given the user id and observer registrations of the old one,
+ * then reconnect observers are told so they can reload what changed in between.
  */
 public class SocketClient {
     private static final String SERVER_HOST = "localhost";
     private static final int SERVER_PORT = 8888;
+    // Run the message listener on a virtual thread, e.g. -Dmovieticket.client.virtualThreads=true
+    public static final String VIRTUAL_THREADS_PROPERTY = "movieticket.client.virtualThreads";
+    // Wire format to ask the server for, json (default) or binary; e.g. -Dmovieticket.client.protocol=binary
+    public static final String PROTOCOL_PROPERTY = "movieticket.client.protocol";
+    private static final long RECONNECT_INITIAL_DELAY_MS = 1_000;
+    private static final long RECONNECT_MAX_DELAY_MS = 30_000;
 
     private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private OutputStream out;
+    private WireReader in;
+    // Callers send from the FX thread and from background tasks
+    private final Lock sendLock = new ReentrantLock();
     private final ObjectMapper objectMapper;
+    private final MessageCodec codec;
+    // Format of the messages sent; binary only once the server has acknowledged it
+    private volatile NetworkMessage.Framing framing = NetworkMessage.Framing.JSON;
     private volatile boolean isConnected = false;
-    private Thread messageListener;
-
-    // Client-side observers
-    private final Map<Integer, List<SeatUpdateObserver>> seatObservers = new HashMap<>();
+    // Set by disconnect(); stops the listener from reconnecting
+    private volatile boolean closed = true;
+    private volatile Thread messageListener;
+    // Sent again after a reconnect, -1 until set
+    private volatile int userId = -1;
+
+    // Client-side observers; the screenings are registered again after a reconnect
+    private final Map<Integer, List<SeatUpdateObserver>> seatObservers = new ConcurrentHashMap<>();
     private final List<ChatMessageObserver> chatObservers = new CopyOnWriteArrayList<>();
     private final List<TypingIndicatorObserver> typingObservers = new CopyOnWriteArrayList<>();
+    private final List<UnreadCountObserver> unreadObservers = new CopyOnWriteArrayList<>();
+    private final List<ResyncObserver> resyncObservers = new CopyOnWriteArrayList<>();
+    private final List<Runnable> reconnectObservers = new CopyOnWriteArrayList<>();
 
     // Observer interfaces (same as before)
     public interface SeatUpdateObserver {
@@ -48,69 +73,182 @@ public class SocketClient {
         void onTypingStopped(int userId, int chatWithUserId);
     }
 
+    public interface UnreadCountObserver {
+        void onUnreadCountChanged(int userId, int count);
+    }
+
+    // The server dropped events for this client while it was behind; reload state from the database
+    public interface ResyncObserver {
+        void onResyncRequired();
+    }
+
     public SocketClient() {
         // Configure ObjectMapper for Java 8 time support without external dependencies
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules(); // This will automatically find and register JSR310 module if available
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codec = new MessageCodec(objectMapper);
+    }
+
+    private static NetworkMessage.Framing requestedFraming() {
+        String protocol = System.getProperty(PROTOCOL_PROPERTY, NetworkMessage.Framing.JSON.name());
+        try {
+            return NetworkMessage.Framing.valueOf(protocol.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown protocol '" + protocol + "', using " + NetworkMessage.Framing.JSON);
+            return NetworkMessage.Framing.JSON;
+        }
     }
 
     public boolean connect() {
         try {
-            socket = new Socket(SERVER_HOST, SERVER_PORT);
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            isConnected = true;
+            open();
+        } catch (IOException e) {
+            System.err.println("Failed to connect to server: " + e.getMessage());
+            return false;
+        }
+        closed = false;
 
-            // Start message listener thread
-            messageListener = new Thread(this::listenForMessages);
+        // Start message listener thread
+        if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY)) {
+            messageListener = Thread.ofVirtual().name("SocketClient-Listener").start(this::listenForMessages);
+        } else {
+            messageListener = new Thread(this::listenForMessages, "SocketClient-Listener");
             messageListener.setDaemon(true);
             messageListener.start();
+        }
+        return true;
+    }
 
-            System.out.println("Connected to server at " + SERVER_HOST + ":" + SERVER_PORT);
-            return true;
-        } catch (IOException e) {
-            System.err.println("Failed to connect to server: " + e.getMessage());
-            return false;
+    private void open() throws IOException {
+        socket = new Socket(SERVER_HOST, SERVER_PORT);
+        out = new BufferedOutputStream(socket.getOutputStream());
+        in = new WireReader(socket.getInputStream(), 8192);
+        framing = NetworkMessage.Framing.JSON;
+        isConnected = true;
+
+        System.out.println("Connected to server at " + SERVER_HOST + ":" + SERVER_PORT);
+
+        // Asked for in JSON, which every server reads; one that does not know binary ignores it
+        if (requestedFraming() == NetworkMessage.Framing.BINARY) {
+            sendMessage(new NetworkMessage("PROTOCOL", NetworkMessage.Framing.BINARY.name(), null));
         }
     }
 
     public void disconnect() {
+        closed = true;
+        Thread listener = messageListener;
+        if (listener != null) {
+            listener.interrupt(); // Wakes it if it is waiting to reconnect
+        }
+        closeSocket();
+        System.out.println("Disconnected from server");
+    }
+
+    private void closeSocket() {
         isConnected = false;
         try {
-            if (messageListener != null) {
-                messageListener.interrupt();
-            }
             if (out != null) out.close();
             if (in != null) in.close();
             if (socket != null && !socket.isClosed()) {
                 socket.close();
             }
-            System.out.println("Disconnected from server");
         } catch (IOException e) {
             System.err.println("Error disconnecting from server: " + e.getMessage());
         }
     }
 
     private void listenForMessages() {
-        String inputLine;
-        try {
-            while (isConnected && (inputLine = in.readLine()) != null) {
-                try {
-                    NetworkMessage message = objectMapper.readValue(inputLine, NetworkMessage.class);
-                    handleIncomingMessage(message);
-                } catch (Exception e) {
-                    System.err.println("Error processing server message: " + e.getMessage());
+        while (!closed) {
+            try {
+                while (in.readNext(this::handleLine, this::handleFrame)) {
+                    // Each message is handled as it is read
+                }
+                if (!closed) {
+                    System.err.println("Connection to server closed by the server");
+                }
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Connection to server lost: " + e.getMessage());
                 }
             }
-        } catch (IOException e) {
-            if (isConnected) {
-                System.err.println("Connection to server lost: " + e.getMessage());
+            if (closed) {
+                return;
+            }
+            closeSocket();
+            if (!reconnect()) {
+                return;
             }
         }
     }
 
+    // Retry until connected or disconnect() is called, backing off up to RECONNECT_MAX_DELAY_MS
+    private boolean reconnect() {
+        long delay = RECONNECT_INITIAL_DELAY_MS;
+        while (!closed) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return false;
+            }
+            if (closed) {
+                return false;
+            }
+            try {
+                open();
+            } catch (IOException e) {
+                delay = Math.min(delay * 2, RECONNECT_MAX_DELAY_MS);
+                System.err.println("Reconnect failed, retrying in " + delay + " ms: " + e.getMessage());
+                continue;
+            }
+            restoreSession();
+            Platform.runLater(() -> reconnectObservers.forEach(Runnable::run));
+            return true;
+        }
+        return false;
+    }
+
+    // The server knows nothing about a new connection; tell it what the old one had registered
+    private void restoreSession() {
+        if (userId >= 0) {
+            setUserId(userId);
+        }
+        for (Integer screeningId : seatObservers.keySet()) {
+            NetworkMessage message = new NetworkMessage("REGISTER_SEAT_OBSERVER", null, null);
+            message.setScreeningId(screeningId);
+            sendMessage(message);
+        }
+        if (!chatObservers.isEmpty()) {
+            sendMessage(new NetworkMessage("REGISTER_CHAT_OBSERVER", null, null));
+        }
+        if (!typingObservers.isEmpty()) {
+            sendMessage(new NetworkMessage("REGISTER_TYPING_OBSERVER", null, null));
+        }
+    }
+
+    private void handleLine(String line) {
+        try {
+            handleIncomingMessage(codec.decodeJson(line));
+        } catch (Exception e) {
+            System.err.println("Error processing server message: " + e.getMessage());
+        }
+    }
+
+    private void handleFrame(byte[] buffer, int offset, int length) {
+        try {
+            handleIncomingMessage(codec.decodeBinary(buffer, offset, length));
+        } catch (Exception e) {
+            System.err.println("Error processing server message: " + e.getMessage());
+        }
+    }
+
     private void handleIncomingMessage(NetworkMessage message) {
+        if ("PROTOCOL".equals(message.getType())) {
+            // The server reads both formats, so messages already sent in the old one are fine
+            framing = NetworkMessage.Framing.valueOf(message.getEventType());
+            System.out.println("Server accepted " + framing + " protocol");
+            return;
+        }
         Platform.runLater(() -> {
             switch (message.getType()) {
                 case "SEAT_UPDATE":
@@ -122,6 +260,12 @@ public class SocketClient {
                 case "TYPING_INDICATOR":
                     handleTypingIndicator(message);
                     break;
+                case "UNREAD_COUNT":
+                    handleUnreadCount(message);
+                    break;
+                case "RESYNC":
+                    resyncObservers.forEach(ResyncObserver::onResyncRequired);
+                    break;
             }
         });
     }
@@ -134,26 +278,31 @@ public class SocketClient {
 
         switch (message.getEventType()) {
             case "SEAT_LOCKED":
-                Map<String, Object> lockData = (Map<String, Object>) message.getData();
-                String lockedSeat = (String) lockData.get("seatNumber");
-                int lockUserId = (Integer) lockData.get("userId");
-                observers.forEach(obs -> obs.onSeatLocked(message.getScreeningId(), lockedSeat, lockUserId));
+                String lockedSeat = message.stringField("seatNumber");
+                Integer lockUserId = message.intField("userId");
+                if (lockedSeat != null && lockUserId != null) {
+                    observers.forEach(obs -> obs.onSeatLocked(message.getScreeningId(), lockedSeat, lockUserId));
+                }
                 break;
             case "SEAT_UNLOCKED":
-                Map<String, Object> unlockData = (Map<String, Object>) message.getData();
-                String unlockedSeat = (String) unlockData.get("seatNumber");
-                observers.forEach(obs -> obs.onSeatUnlocked(message.getScreeningId(), unlockedSeat));
+                String unlockedSeat = message.stringField("seatNumber");
+                if (unlockedSeat != null) {
+                    observers.forEach(obs -> obs.onSeatUnlocked(message.getScreeningId(), unlockedSeat));
+                }
                 break;
             case "SEAT_BOOKED":
-                Map<String, Object> bookData = (Map<String, Object>) message.getData();
-                String bookedSeat = (String) bookData.get("seatNumber");
-                observers.forEach(obs -> obs.onSeatBooked(message.getScreeningId(), bookedSeat));
+                String bookedSeat = message.stringField("seatNumber");
+                if (bookedSeat != null) {
+                    observers.forEach(obs -> obs.onSeatBooked(message.getScreeningId(), bookedSeat));
+                }
                 break;
             case "SEAT_UPDATED":
-                // Fix: Properly convert the data to List<Seat> using ObjectMapper
+                if (!(message.getData() instanceof List)) {
+                    System.err.println("Error converting seat data: not a list");
+                    break;
+                }
                 try {
-                    List<Seat> updatedSeats = objectMapper.convertValue(message.getData(),
-                        objectMapper.getTypeFactory().constructCollectionType(List.class, Seat.class));
+                    List<Seat> updatedSeats = toSeats((List<?>) message.getData());
                     observers.forEach(obs -> obs.onSeatUpdated(message.getScreeningId(), updatedSeats));
                 } catch (Exception e) {
                     System.err.println("Error converting seat data: " + e.getMessage());
@@ -162,38 +311,40 @@ public class SocketClient {
         }
     }
 
-    private void handleChatMessage(NetworkMessage message) {
-        ChatMessage chatMessage = objectMapper.convertValue(message.getData(), ChatMessage.class);
+    // Binary frames decode to Seats; JSON to maps, converted here
+    private List<Seat> toSeats(List<?> data) {
+        List<Seat> seats = new ArrayList<>(data.size());
+        for (Object seat : data) {
+            seats.add(seat instanceof Seat ? (Seat) seat : objectMapper.convertValue(seat, Seat.class));
+        }
+        return seats;
+    }
 
+    private void handleChatMessage(NetworkMessage message) {
         switch (message.getEventType()) {
             case "CHAT_MESSAGE_SENT":
+                ChatMessage chatMessage = message.getData() instanceof ChatMessage ? (ChatMessage) message.getData()
+                        : objectMapper.convertValue(message.getData(), ChatMessage.class);
                 chatObservers.forEach(obs -> obs.onMessageReceived(chatMessage));
                 break;
             case "CHAT_MESSAGE_READ":
-                Map<String, Object> readData = (Map<String, Object>) message.getData();
-                Object messageIdObj = readData.get("messageId");
-                Object userIdObj = readData.get("userId");
+                Integer messageId = message.intField("messageId");
+                Integer userId = message.intField("userId");
 
-                if (messageIdObj != null && userIdObj != null) {
-                    int messageId = (Integer) messageIdObj;
-                    int userId = (Integer) userIdObj;
+                if (messageId != null && userId != null) {
                     chatObservers.forEach(obs -> obs.onMessageRead(messageId, userId));
                 } else {
-                    System.err.println("Missing messageId or userId in CHAT_MESSAGE_READ event. messageId: " + messageIdObj + ", userId: " + userIdObj);
+                    System.err.println("Missing messageId or userId in CHAT_MESSAGE_READ event. messageId: " + messageId + ", userId: " + userId);
                 }
                 break;
         }
     }
 
     private void handleTypingIndicator(NetworkMessage message) {
-        Map<String, Object> data = (Map<String, Object>) message.getData();
-        Object userIdObj = data.get("userId");
-        Object chatWithUserIdObj = data.get("chatWithUserId");
-
-        if (userIdObj != null && chatWithUserIdObj != null) {
-            int userId = (Integer) userIdObj;
-            int chatWithUserId = (Integer) chatWithUserIdObj;
+        Integer userId = message.intField("userId");
+        Integer chatWithUserId = message.intField("chatWithUserId");
 
+        if (userId != null && chatWithUserId != null) {
             switch (message.getEventType()) {
                 case "TYPING_STARTED":
                     typingObservers.forEach(obs -> obs.onTypingStarted(userId, chatWithUserId));
@@ -203,15 +354,30 @@ public class SocketClient {
                     break;
             }
         } else {
-            System.err.println("Missing userId or chatWithUserId in TYPING_INDICATOR event. userId: " + userIdObj + ", chatWithUserId: " + chatWithUserIdObj);
+            System.err.println("Missing userId or chatWithUserId in TYPING_INDICATOR event. userId: " + userId + ", chatWithUserId: " + chatWithUserId);
+        }
+    }
+
+    private void handleUnreadCount(NetworkMessage message) {
+        Integer userId = message.intField("userId");
+        Integer count = message.intField("count");
+
+        if (userId != null && count != null) {
+            unreadObservers.forEach(obs -> obs.onUnreadCountChanged(userId, count));
         }
     }
 
     private void sendMessage(NetworkMessage message) {
         if (isConnected && out != null) {
             try {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                out.println(jsonMessage);
+                byte[] encoded = codec.encode(message, framing);
+                sendLock.lock();
+                try {
+                    out.write(encoded);
+                    out.flush();
+                } finally {
+                    sendLock.unlock();
+                }
             } catch (Exception e) {
                 System.err.println("Error sending message to server: " + e.getMessage());
             }
@@ -259,7 +425,25 @@ public class SocketClient {
         sendMessage(new NetworkMessage("UNREGISTER_TYPING_OBSERVER", null, null));
     }
 
+    // Unread counts are addressed to the user's sessions, so no registration with the server is needed
+    public void registerUnreadObserver(UnreadCountObserver observer) {
+        unreadObservers.add(observer);
+    }
+
+    public void registerResyncObserver(ResyncObserver observer) {
+        resyncObservers.add(observer);
+    }
+
+    /**
+     * Called on the FX thread once a lost connection is back and its registrations restored.
+     * Anything sent while it was down was missed, so state should be reloaded.
+     */
+    public void registerReconnectObserver(Runnable observer) {
+        reconnectObservers.add(observer);
+    }
+
     public void setUserId(int userId) {
+        this.userId = userId;
         Map<String, Object> data = new HashMap<>();
         data.put("userId", userId);
         sendMessage(new NetworkMessage("SET_USER_ID", null, data));
@@ -308,6 +492,20 @@ public class SocketClient {
         sendMessage(new NetworkMessage("CHAT_MESSAGE_READ", "CHAT_MESSAGE_READ", data));
     }
 
+    public void syncUnreadCount(int userId, int count) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", userId);
+        data.put("count", count);
+        sendMessage(new NetworkMessage("UNREAD_SYNC", "UNREAD_SYNC", data));
+    }
+
+    public void notifyUnreadChanged(int userId, int delta) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", userId);
+        data.put("delta", delta);
+        sendMessage(new NetworkMessage("UNREAD_DELTA", "UNREAD_DELTA", data));
+    }
+
     public void notifyTypingStarted(int userId, int chatWithUserId) {
         Map<String, Object> data = new HashMap<>();
         data.put("userId", userId);
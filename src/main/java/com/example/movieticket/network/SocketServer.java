@@ -6,6 +6,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import java.io.*;
 import java.net.*;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -14,30 +16,84 @@ import java.util.concurrent.*;
  */
 public class SocketServer {
     private static final int PORT = 8888;
+    // Connection handling, see Mode; e.g. -Dmovieticket.server.mode=nio
+    public static final String MODE_PROPERTY = "movieticket.server.mode";
+    // Selector threads in NIO mode
+    public static final String EVENT_LOOPS_PROPERTY = "movieticket.server.eventLoops";
+
+    /**
+     * How client connections are served
+     */
+    public enum Mode {
+        // A thread per connection, blocked reading the client's next line
+        BLOCKING,
+        // The same handler on a virtual thread per connection; an idle client costs no platform thread
+        VIRTUAL,
+        // Non-blocking channels multiplexed over a small, fixed group of selector threads
+        NIO;
+
+        public static Mode fromProperty() {
+            String mode = System.getProperty(MODE_PROPERTY, BLOCKING.name());
+            try {
+                return valueOf(mode.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown server mode '" + mode + "', using " + BLOCKING);
+                return BLOCKING;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final ClientHandler.OverflowPolicy overflowPolicy;
     private ServerSocket serverSocket;
+    private ServerSocketChannel serverChannel;
+    private NioEventLoop[] eventLoops = new NioEventLoop[0];
+    // Every connected client, for stats
+    private final Set<ClientHandler> connectedClients = ConcurrentHashMap.newKeySet();
     private final Map<Integer, Set<ClientHandler>> seatObservers = new ConcurrentHashMap<>();
     private final Set<ClientHandler> chatObservers = ConcurrentHashMap.newKeySet();
     private final Set<ClientHandler> typingObservers = ConcurrentHashMap.newKeySet();
-    private final ExecutorService clientPool = Executors.newCachedThreadPool();
+    // Sessions per logged-in user, for events addressed to one user
+    private final Map<Integer, Set<ClientHandler>> userClients = new ConcurrentHashMap<>();
+    // Unread message count per online user; seeded by the user's client, then kept by deltas
+    private final Map<Integer, Integer> unreadCounts = new ConcurrentHashMap<>();
+    private final ExecutorService clientPool;
     private final ObjectMapper objectMapper;
+    private final MessageCodec codec;
     private volatile boolean isRunning = false;
 
     public SocketServer() {
+        this(Mode.fromProperty());
+    }
+
+    public SocketServer(Mode mode) {
+        this.mode = mode;
+        this.overflowPolicy = ClientHandler.OverflowPolicy.fromProperty();
+        clientPool = mode == Mode.VIRTUAL
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ClientHandler-", 0).factory())
+                : Executors.newCachedThreadPool();
         // Configure ObjectMapper with automatic module discovery for Java 8 time support
         objectMapper = new ObjectMapper();
         objectMapper.findAndRegisterModules(); // Automatically finds and registers JSR310 module
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        codec = new MessageCodec(objectMapper);
     }
 
     public void start() throws IOException {
+        if (mode == Mode.NIO) {
+            startNio();
+            return;
+        }
+
         serverSocket = new ServerSocket(PORT);
         isRunning = true;
-        System.out.println("Socket server started on port " + PORT);
+        System.out.println("Socket server started on port " + PORT + (mode == Mode.VIRTUAL ? " (virtual threads)" : ""));
 
         while (isRunning) {
             try {
                 Socket clientSocket = serverSocket.accept();
-                ClientHandler clientHandler = new ClientHandler(clientSocket, this);
+                BlockingClientHandler clientHandler = new BlockingClientHandler(clientSocket, this);
+                connectedClients.add(clientHandler);
                 clientPool.submit(clientHandler);
                 System.out.println("New client connected: " + clientSocket.getInetAddress());
             } catch (IOException e) {
@@ -48,11 +104,52 @@ public class SocketServer {
         }
     }
 
+    // Accept on the calling thread and spread connections round-robin over the event loops, so the
+    // thread count stays at one plus the number of loops however many clients connect
+    private void startNio() throws IOException {
+        int loopCount = Math.max(1, Integer.getInteger(EVENT_LOOPS_PROPERTY,
+                Math.min(4, Runtime.getRuntime().availableProcessors())));
+        eventLoops = new NioEventLoop[loopCount];
+        for (int i = 0; i < loopCount; i++) {
+            eventLoops[i] = new NioEventLoop("SocketServer-EventLoop-" + (i + 1));
+            eventLoops[i].start();
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(PORT));
+        isRunning = true;
+        System.out.println("Socket server started on port " + PORT + " (NIO, " + loopCount + " event loops)");
+
+        int next = 0;
+        while (isRunning) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                NioEventLoop eventLoop = eventLoops[next++ % loopCount];
+                NioClientHandler clientHandler = new NioClientHandler(channel, eventLoop, this);
+                connectedClients.add(clientHandler);
+                eventLoop.register(channel, clientHandler);
+                System.out.println("New client connected: " + channel.getRemoteAddress());
+            } catch (IOException e) {
+                if (isRunning) {
+                    System.err.println("Error accepting client connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
     public void stop() throws IOException {
         isRunning = false;
         if (serverSocket != null && !serverSocket.isClosed()) {
             serverSocket.close();
         }
+        if (serverChannel != null && serverChannel.isOpen()) {
+            serverChannel.close();
+        }
+        for (NioEventLoop eventLoop : eventLoops) {
+            eventLoop.shutdown();
+        }
         clientPool.shutdown();
         try {
             if (!clientPool.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -64,6 +161,34 @@ public class SocketServer {
         System.out.println("Socket server stopped");
     }
 
+    public Mode getMode() {
+        return mode;
+    }
+
+    public ClientHandler.OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    // Run a blocking client's outbound writer on the client pool
+    void executeWriter(Runnable writer) {
+        try {
+            clientPool.execute(writer);
+        } catch (RejectedExecutionException e) {
+            // Server is stopping; its clients are being closed
+        }
+    }
+
+    /**
+     * Outbound queue depth and drop counts of every connected client
+     */
+    public List<ClientHandler.OutboundStats> getClientStats() {
+        List<ClientHandler.OutboundStats> stats = new ArrayList<>();
+        for (ClientHandler client : connectedClients) {
+            stats.add(client.getOutboundStats());
+        }
+        return stats;
+    }
+
     // Register client for seat updates on specific screening
     public void registerSeatObserver(int screeningId, ClientHandler client) {
         seatObservers.computeIfAbsent(screeningId, k -> ConcurrentHashMap.newKeySet()).add(client);
@@ -100,11 +225,57 @@ public class SocketServer {
         typingObservers.remove(client);
     }
 
+    // Associate a client with the user logged in on it
+    public void registerUserClient(int userId, ClientHandler client) {
+        userClients.computeIfAbsent(userId, k -> ConcurrentHashMap.newKeySet()).add(client);
+    }
+
     // Remove client from all observers when disconnected
     public void removeClient(ClientHandler client) {
+        connectedClients.remove(client);
         chatObservers.remove(client);
         typingObservers.remove(client);
         seatObservers.values().forEach(clients -> clients.remove(client));
+        removeUserClient(client);
+    }
+
+    // Detach a client from its user, e.g. on disconnect or when another user logs in on it
+    public void removeUserClient(ClientHandler client) {
+        int userId = client.getUserId();
+        Set<ClientHandler> sessions = userClients.get(userId);
+        if (sessions != null) {
+            sessions.remove(client);
+            if (sessions.isEmpty()) {
+                // Last session gone; the next login seeds the count from the database again
+                userClients.remove(userId);
+                unreadCounts.remove(userId);
+            }
+        }
+    }
+
+    // Take a user's unread count as read from the database by a newly logged-in client
+    public void syncUnreadCount(int userId, int count) {
+        unreadCounts.put(userId, count);
+        pushUnreadCount(userId, count);
+    }
+
+    // Apply a change to a user's unread count and push the new total to the user's sessions.
+    // Counts are only kept for users who are online, so deltas for anyone else are dropped.
+    public void adjustUnreadCount(int userId, int delta) {
+        Integer count = unreadCounts.computeIfPresent(userId, (id, current) -> Math.max(0, current + delta));
+        if (count != null) {
+            pushUnreadCount(userId, count);
+        }
+    }
+
+    private void pushUnreadCount(int userId, int count) {
+        Set<ClientHandler> sessions = userClients.get(userId);
+        if (sessions != null) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("userId", userId);
+            data.put("count", count);
+            broadcastToClients(sessions, new NetworkMessage("UNREAD_COUNT", "UNREAD_COUNT", data));
+        }
     }
 
     // Broadcast seat update to all observers of the screening
@@ -123,30 +294,35 @@ public class SocketServer {
         broadcastToClients(chatObservers, networkMessage);
     }
 
+    // Broadcast a read receipt, messageId and the reader's userId, to all chat observers
+    public void broadcastChatRead(Map<String, Integer> data) {
+        broadcastToClients(chatObservers, new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_READ", data));
+    }
+
     // Broadcast typing indicator to all typing observers
-    public void broadcastTypingIndicator(String eventType, Map<String, Object> data) {
+    public void broadcastTypingIndicator(String eventType, Map<String, Integer> data) {
         NetworkMessage message = new NetworkMessage("TYPING_INDICATOR", eventType, data);
         broadcastToClients(typingObservers, message);
     }
 
+    // Encode at most once per wire format and hand the same bytes to every recipient, so the cost of
+    // a broadcast does not grow with the number of subscribers beyond the writes themselves
     private void broadcastToClients(Set<ClientHandler> clients, NetworkMessage message) {
-        Set<ClientHandler> disconnectedClients = new HashSet<>();
-
+        EncodedMessage encoded = clients.size() > 1
+                ? EncodedMessage.shared(message, codec)
+                : EncodedMessage.of(message, codec);
+        // Only queues the message; each client's writer sends it, and a client that cannot keep up
+        // is dealt with by the overflow policy instead of holding up the others
         for (ClientHandler client : clients) {
-            try {
-                client.sendMessage(message);
-            } catch (Exception e) {
-                System.err.println("Failed to send message to client: " + e.getMessage());
-                disconnectedClients.add(client);
-            }
+            client.send(encoded);
         }
-
-        // Remove disconnected clients
-        clients.removeAll(disconnectedClients);
-        disconnectedClients.forEach(this::removeClient);
     }
 
     public ObjectMapper getObjectMapper() {
         return objectMapper;
     }
+
+    public MessageCodec getCodec() {
+        return codec;
+    }
 }
@@ -0,0 +1,114 @@
+package com.example.movieticket.network;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads JSON lines and binary frames, in any mix, from a blocking stream. Buffers on its own
+ * rather than through a BufferedReader, so no bytes of a frame end up decoded as characters.
+ */
+final class WireReader {
+    interface FrameHandler {
+        // The frame's opcode and payload; the buffer is only valid during the call
+        void onFrame(byte[] buffer, int offset, int length);
+    }
+
+    private final InputStream in;
+    private byte[] buffer;
+    private int start;
+    private int end;
+
+    WireReader(InputStream in, int initialBufferSize) {
+        this.in = in;
+        this.buffer = new byte[initialBufferSize];
+    }
+
+    /**
+     * Read the next message and pass it to the handler for its format. Returns false at the end of
+     * the stream.
+     */
+    boolean readNext(Consumer<String> lines, FrameHandler frames) throws IOException {
+        if (!fill(1)) {
+            return false;
+        }
+
+        if (buffer[start] == 0) {
+            if (!fill(MessageCodec.LENGTH_PREFIX)) {
+                throw new EOFException("Connection closed in the middle of a frame");
+            }
+            int length = ((buffer[start] & 0xFF) << 24) | ((buffer[start + 1] & 0xFF) << 16)
+                    | ((buffer[start + 2] & 0xFF) << 8) | (buffer[start + 3] & 0xFF);
+            if (length <= 0 || length > MessageCodec.MAX_MESSAGE_LENGTH) {
+                throw new IOException("Invalid frame length: " + length);
+            }
+            if (!fill(MessageCodec.LENGTH_PREFIX + length)) {
+                throw new EOFException("Connection closed in the middle of a frame");
+            }
+            int offset = start + MessageCodec.LENGTH_PREFIX;
+            start = offset + length;
+            frames.onFrame(buffer, offset, length);
+            return true;
+        }
+
+        int scanned = start;
+        while (true) {
+            for (int i = scanned; i < end; i++) {
+                if (buffer[i] == '\n') {
+                    int lineEnd = i > start && buffer[i - 1] == '\r' ? i - 1 : i;
+                    String line = new String(buffer, start, lineEnd - start, StandardCharsets.UTF_8);
+                    start = i + 1;
+                    if (!line.isEmpty()) {
+                        lines.accept(line);
+                    }
+                    return true;
+                }
+            }
+            scanned = end - start;
+            if (!fill(end - start + 1)) {
+                // Last line without a newline
+                String line = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+                start = end;
+                if (!line.isBlank()) {
+                    lines.accept(line);
+                }
+                return true;
+            }
+            scanned += start;
+        }
+    }
+
+    // Make at least count bytes available from start; false if the stream ends first
+    private boolean fill(int count) throws IOException {
+        if (end - start >= count) {
+            return true;
+        }
+        if (count > MessageCodec.LENGTH_PREFIX + MessageCodec.MAX_MESSAGE_LENGTH) {
+            throw new IOException("Message too long");
+        }
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            start = 0;
+        }
+        if (count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, count),
+                    MessageCodec.LENGTH_PREFIX + MessageCodec.MAX_MESSAGE_LENGTH));
+        }
+        while (end < count) {
+            int read = in.read(buffer, end, buffer.length - end);
+            if (read < 0) {
+                return false;
+            }
+            end += read;
+        }
+        return true;
+    }
+
+    void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.movieticket.service;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Runs {@link DataService} calls off the JavaFX Application Thread, each on its own virtual
+ * thread, so a slow query no longer freezes the UI. Results are handed back on the FX thread.
+ *
+ * Loads started together run concurrently, limited only by the connection pool, so a screen that
+ * needs several independent queries waits for the slowest one rather than the sum of them.
+ */
+public class AsyncDataService {
+    private static AsyncDataService instance;
+
+    /**
+     * Runs callbacks on the JavaFX Application Thread, for use with the *Async stages of a future.
+     */
+    public static final Executor FX_THREAD = Platform::runLater;
+
+    private final DataService dataService;
+    // Virtual threads are daemon threads, so nothing needs shutting down on exit
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("DataService-", 0).factory());
+
+    private AsyncDataService(DataService dataService) {
+        this.dataService = dataService;
+    }
+
+    public static synchronized AsyncDataService getInstance() {
+        if (instance == null) {
+            instance = new AsyncDataService(DataService.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * Run a call on a virtual thread. The future completes on that thread.
+     */
+    public <T> CompletableFuture<T> supply(Function<DataService, T> call) {
+        return CompletableFuture.supplyAsync(() -> call.apply(dataService), executor);
+    }
+
+    /**
+     * Run a call on a virtual thread and pass its result to {@code onResult} on the FX thread.
+     * The returned future completes on the FX thread once {@code onResult} has run. A failed call
+     * is logged and skips {@code onResult} but still completes the future normally, so one failed
+     * load does not hold up the others in {@link #all}.
+     */
+    public <T> CompletableFuture<Void> load(Function<DataService, T> call, Consumer<T> onResult) {
+        return supply(call).<Void>handleAsync((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                System.err.println("Error loading data in background: " + cause.getMessage());
+            } else {
+                onResult.accept(result);
+            }
+            return null;
+        }, FX_THREAD);
+    }
+
+    /**
+     * Completes when every given load has completed.
+     */
+    public static CompletableFuture<Void> all(CompletableFuture<?>... loads) {
+        return CompletableFuture.allOf(loads);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Movie;
+import com.example.movieticket.model.Screening;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache for the movie catalog and the screening schedule, which change a few times
+ * a day but are read on every dashboard load, filter setup and dialog.
+ *
+ * Each is loaded in full on first read and kept until its TTL runs out or a write in
+ * {@link DataService} invalidates it. The TTL is what picks up other clients' changes, so the
+ * screening TTL is short: seat counts there move with every booking. Bookings made through this
+ * client adjust the cached seat count directly.
+ */
+public class CatalogCache {
+    private static final long MOVIE_TTL_MS = 300_000;
+    private static final long SCREENING_TTL_MS = 60_000;
+
+    private final Supplier<List<Movie>> movieLoader;
+    private final Supplier<List<Screening>> screeningLoader;
+
+    private final Entry<MovieCatalog> movies = new Entry<>(MOVIE_TTL_MS);
+    private final Entry<ScreeningSnapshot> screenings = new Entry<>(SCREENING_TTL_MS);
+
+    public CatalogCache(Supplier<List<Movie>> movieLoader, Supplier<List<Screening>> screeningLoader) {
+        this.movieLoader = movieLoader;
+        this.screeningLoader = screeningLoader;
+    }
+
+    /**
+     * All movies ordered by title, as copies the caller may modify.
+     */
+    public List<Movie> getMovies() {
+        List<Movie> copies = new ArrayList<>();
+        for (Movie movie : movies.get(() -> new MovieCatalog(movieLoader.get())).all) {
+            copies.add(copyOf(movie));
+        }
+        return copies;
+    }
+
+    /**
+     * The movie, or null if it is not in the cached catalog (it may be newer than the cache).
+     */
+    public Movie getMovie(int movieId) {
+        Movie movie = movies.get(() -> new MovieCatalog(movieLoader.get())).byId.get(movieId);
+        return movie != null ? copyOf(movie) : null;
+    }
+
+    public ScreeningSnapshot getScreenings() {
+        return screenings.get(() -> new ScreeningSnapshot(screeningLoader.get()));
+    }
+
+    public void invalidateMovies() {
+        movies.invalidate();
+    }
+
+    public void invalidateScreenings() {
+        screenings.invalidate();
+    }
+
+    /**
+     * Record seats booked through this client without reloading the schedule.
+     */
+    public void seatsBooked(int screeningId, int count) {
+        screenings.update(snapshot -> {
+            Screening screening = snapshot.get(screeningId);
+            return screening == null ? snapshot
+                    : snapshot.withAvailableSeats(screeningId, screening.getAvailableSeats() - count);
+        });
+    }
+
+    public CacheStats getMovieStats() {
+        return movies.stats();
+    }
+
+    public CacheStats getScreeningStats() {
+        return screenings.stats();
+    }
+
+    // Also used by MovieSearchIndex, which holds movies across calls the same way
+    static Movie copyOf(Movie movie) {
+        Movie copy = new Movie();
+        copy.setMovieId(movie.getMovieId());
+        copy.setTitle(movie.getTitle());
+        copy.setDirector(movie.getDirector());
+        copy.setReleaseYear(movie.getReleaseYear());
+        copy.setGenre(movie.getGenre());
+        copy.setDescription(movie.getDescription());
+        copy.setDuration(movie.getDuration());
+        copy.setRating(movie.getRating());
+        copy.setPosterUrl(movie.getPosterUrl());
+        copy.setTrailerUrl(movie.getTrailerUrl());
+        return copy;
+    }
+
+    private static final class MovieCatalog {
+        private final List<Movie> all;
+        private final Map<Integer, Movie> byId = new HashMap<>();
+
+        MovieCatalog(List<Movie> movies) {
+            this.all = List.copyOf(movies);
+            for (Movie movie : all) {
+                byId.put(movie.getMovieId(), movie);
+            }
+        }
+    }
+
+    /**
+     * One cached value with its TTL and counters.
+     */
+    private static final class Entry<T> {
+        private final long ttlMs;
+        // Bumped on invalidation so a load that raced with a write is not cached
+        private final AtomicLong generation = new AtomicLong();
+        private volatile T value;
+        private volatile long loadedAt;
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder loadNanos = new LongAdder();
+        private volatile long lastLoadNanos;
+
+        Entry(long ttlMs) {
+            this.ttlMs = ttlMs;
+        }
+
+        T get(Supplier<T> loader) {
+            T current = value;
+            if (current != null && System.currentTimeMillis() - loadedAt <= ttlMs) {
+                hits.increment();
+                return current;
+            }
+            synchronized (this) {
+                current = value;
+                if (current != null && System.currentTimeMillis() - loadedAt <= ttlMs) {
+                    hits.increment();
+                    return current;
+                }
+                misses.increment();
+                long token = generation.get();
+                long start = System.nanoTime();
+                T loaded = loader.get();
+                lastLoadNanos = System.nanoTime() - start;
+                loadNanos.add(lastLoadNanos);
+                if (generation.get() == token) {
+                    value = loaded;
+                    loadedAt = System.currentTimeMillis();
+                }
+                return loaded;
+            }
+        }
+
+        synchronized void update(UnaryOperator<T> change) {
+            if (value != null) {
+                value = change.apply(value);
+            }
+        }
+
+        void invalidate() {
+            generation.incrementAndGet();
+            value = null;
+        }
+
+        CacheStats stats() {
+            return new CacheStats(hits.sum(), misses.sum(), loadNanos.sum(), lastLoadNanos);
+        }
+    }
+
+    /**
+     * Point-in-time hit/miss counters for one cached value. Load times are in nanoseconds.
+     */
+    public static final class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long totalLoadNanos;
+        private final long lastLoadNanos;
+
+        CacheStats(long hits, long misses, long totalLoadNanos, long lastLoadNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.totalLoadNanos = totalLoadNanos;
+            this.lastLoadNanos = lastLoadNanos;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getTotalLoadNanos() { return totalLoadNanos; }
+        public long getLastLoadNanos() { return lastLoadNanos; }
+
+        public double getHitRatio() {
+            long reads = hits + misses;
+            return reads == 0 ? 0 : (double) hits / reads;
+        }
+
+        public long getAverageLoadNanos() {
+            return misses == 0 ? 0 : totalLoadNanos / misses;
+        }
+
+        @Override
+        public String toString() {
+            return "CacheStats{" +
+                    "hits=" + hits +
+                    ", misses=" + misses +
+                    ", hitRatio=" + String.format("%.2f", getHitRatio()) +
+                    ", avgLoadMicros=" + TimeUnit.NANOSECONDS.toMicros(getAverageLoadNanos()) +
+                    ", lastLoadMicros=" + TimeUnit.NANOSECONDS.toMicros(lastLoadNanos) +
+                    '}';
+        }
+    }
+}
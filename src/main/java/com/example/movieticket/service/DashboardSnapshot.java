@@ -0,0 +1,48 @@
+package com.example.movieticket.service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the admin dashboard numbers, published by {@link DashboardStats}.
+ */
+public final class DashboardSnapshot {
+    private final int ticketsSold;
+    private final double totalRevenue;
+    private final int movieCount;
+    private final int userCount;
+    private final int reviewCount;
+    private final Map<String, Integer> bookingsByStatus;
+    private final Map<String, Integer> moviesByGenre;
+    private final Map<String, Double> revenueByMovie;
+    private final LocalDateTime reconciledAt;
+
+    DashboardSnapshot(int ticketsSold, double totalRevenue, int movieCount, int userCount, int reviewCount,
+                      Map<String, Integer> bookingsByStatus, Map<String, Integer> moviesByGenre,
+                      Map<String, Double> revenueByMovie, LocalDateTime reconciledAt) {
+        this.ticketsSold = ticketsSold;
+        this.totalRevenue = totalRevenue;
+        this.movieCount = movieCount;
+        this.userCount = userCount;
+        this.reviewCount = reviewCount;
+        this.bookingsByStatus = Collections.unmodifiableMap(new LinkedHashMap<>(bookingsByStatus));
+        this.moviesByGenre = Collections.unmodifiableMap(new LinkedHashMap<>(moviesByGenre));
+        this.revenueByMovie = Collections.unmodifiableMap(new LinkedHashMap<>(revenueByMovie));
+        this.reconciledAt = reconciledAt;
+    }
+
+    public int getTicketsSold() { return ticketsSold; }
+    public double getTotalRevenue() { return totalRevenue; }
+    public int getMovieCount() { return movieCount; }
+    public int getUserCount() { return userCount; }
+    public int getReviewCount() { return reviewCount; }
+    public Map<String, Integer> getBookingsByStatus() { return bookingsByStatus; }
+
+    // The two top-N charts are recomputed on reconciliation rather than per write
+    public Map<String, Integer> getMoviesByGenre() { return moviesByGenre; }
+    public Map<String, Double> getRevenueByMovie() { return revenueByMovie; }
+
+    public LocalDateTime getReconciledAt() { return reconciledAt; }
+}
@@ -0,0 +1,289 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Booking.BookingStatus;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Incrementally maintained counters behind the admin dashboard.
+ *
+ * Writers add a {@link Delta} to the dashboard_counters table in the same transaction as the rows
+ * it counts, and publish it to the in-memory {@link DashboardSnapshot} once that has committed.
+ * Each counter is spread over {@link #SHARDS} rows so concurrent bookings do not queue on a single
+ * hot row. The snapshot is re-read from the table every {@link #REFRESH_INTERVAL_SECONDS} to pick
+ * up other clients' writes, and every {@link #RECONCILE_INTERVAL_SECONDS} (or on request after
+ * cascading deletes) a full recount is compared with the table and the difference written back to
+ * correct any drift.
+ *
+ * Nothing is scheduled until the first {@link #getSnapshot()} call, so only admin sessions pay
+ * for refreshes and recounts; every session still writes its deltas.
+ */
+public class DashboardStats {
+    private static final int SHARDS = 16;
+    private static final long REFRESH_INTERVAL_SECONDS = 15;
+    private static final long RECONCILE_INTERVAL_SECONDS = 300;
+
+    public enum Counter {
+        TICKETS_SOLD, REVENUE, MOVIES, USERS, REVIEWS,
+        BOOKINGS_CONFIRMED, BOOKINGS_CANCELLED, BOOKINGS_PENDING;
+
+        String key() {
+            return name().toLowerCase();
+        }
+
+        public static Counter forStatus(BookingStatus status) {
+            return switch (status) {
+                case CONFIRMED -> BOOKINGS_CONFIRMED;
+                case CANCELLED -> BOOKINGS_CANCELLED;
+                case PENDING -> BOOKINGS_PENDING;
+            };
+        }
+    }
+
+    /**
+     * A set of counter changes made by one write.
+     */
+    public static final class Delta {
+        private final double[] amounts = new double[Counter.values().length];
+
+        public Delta add(Counter counter, double amount) {
+            amounts[counter.ordinal()] += amount;
+            return this;
+        }
+
+        boolean isEmpty() {
+            for (double amount : amounts) {
+                if (amount != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private final Supplier<Map<String, Integer>> genreSource;
+    private final Supplier<Map<String, Double>> revenueByMovieSource;
+
+    // Guarded by this; snapshot is republished from values after every change
+    private final double[] values = new double[Counter.values().length];
+    private Map<String, Integer> moviesByGenre = Map.of();
+    private Map<String, Double> revenueByMovie = Map.of();
+    private LocalDateTime reconciledAt;
+    private volatile DashboardSnapshot snapshot;
+
+    private ScheduledExecutorService scheduler;
+
+    public DashboardStats(Supplier<Map<String, Integer>> genreSource,
+                          Supplier<Map<String, Double>> revenueByMovieSource) {
+        this.genreSource = genreSource;
+        this.revenueByMovieSource = revenueByMovieSource;
+    }
+
+    /**
+     * Add the delta to the counters table using the caller's connection (and transaction).
+     * Call {@link #publish} once the transaction has committed.
+     */
+    public void write(Connection conn, Delta delta) throws SQLException {
+        if (delta.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO dashboard_counters (counter_name, shard, counter_value) VALUES (?, ?, ?) " +
+                "ON DUPLICATE KEY UPDATE counter_value = counter_value + ?";
+        int shard = ThreadLocalRandom.current().nextInt(SHARDS);
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (Counter counter : Counter.values()) {
+                double amount = delta.amounts[counter.ordinal()];
+                if (amount != 0) {
+                    stmt.setString(1, counter.key());
+                    stmt.setInt(2, shard);
+                    stmt.setDouble(3, amount);
+                    stmt.setDouble(4, amount);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Apply a committed delta to the in-memory snapshot.
+     */
+    public synchronized void publish(Delta delta) {
+        if (snapshot == null) {
+            return; // Not started; the first snapshot is read from the table
+        }
+        for (int i = 0; i < values.length; i++) {
+            values[i] += delta.amounts[i];
+        }
+        republish();
+    }
+
+    /**
+     * Current dashboard numbers. The first call reconciles the counters table and starts the
+     * background refresh; every later call just returns the published snapshot.
+     */
+    public DashboardSnapshot getSnapshot() {
+        DashboardSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                reconcile();
+                startScheduler();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Schedule a full recount soon, e.g. after a delete that cascaded to bookings or reviews.
+     */
+    public synchronized void requestReconcile() {
+        if (scheduler != null) {
+            scheduler.execute(this::reconcile);
+        }
+    }
+
+    private void startScheduler() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "DashboardStats");
+            thread.setDaemon(true); // Don't prevent JVM shutdown
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        scheduler.scheduleWithFixedDelay(this::reconcile, RECONCILE_INTERVAL_SECONDS, RECONCILE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Re-read the counter totals written by every client.
+     */
+    private void refresh() {
+        double[] totals;
+        try {
+            totals = readTotals();
+        } catch (SQLException e) {
+            System.err.println("Error refreshing dashboard counters: " + e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            System.arraycopy(totals, 0, values, 0, values.length);
+            republish();
+        }
+    }
+
+    private double[] readTotals() throws SQLException {
+        String sql = "SELECT counter_name, SUM(counter_value) AS total FROM dashboard_counters GROUP BY counter_name";
+        double[] totals = new double[values.length];
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                Counter counter = counterForKey(rs.getString("counter_name"));
+                if (counter != null) {
+                    totals[counter.ordinal()] = rs.getDouble("total");
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Recount everything from the source tables and add the difference to the counters. The
+     * recount and the current counter sums are read by one statement, and every writer commits its
+     * rows and their delta together, so both sides see the same committed writes and no row lock
+     * is held while the source tables are scanned; deltas committed after that read are kept as
+     * they are.
+     */
+    private void reconcile() {
+        StringBuilder recountSql = new StringBuilder("""
+            SELECT
+                (SELECT COUNT(*) FROM booking_seats bs JOIN bookings b ON bs.booking_id = b.booking_id
+                    WHERE b.status = 'CONFIRMED') AS tickets_sold,
+                (SELECT COALESCE(SUM(total_amount), 0) FROM bookings WHERE status = 'CONFIRMED') AS revenue,
+                (SELECT COUNT(*) FROM movies) AS movies,
+                (SELECT COUNT(*) FROM users WHERE role = 'USER') AS users,
+                (SELECT COUNT(*) FROM reviews) AS reviews,
+                (SELECT COUNT(*) FROM bookings WHERE status = 'CONFIRMED') AS bookings_confirmed,
+                (SELECT COUNT(*) FROM bookings WHERE status = 'CANCELLED') AS bookings_cancelled,
+                (SELECT COUNT(*) FROM bookings WHERE status = 'PENDING') AS bookings_pending""");
+        for (Counter counter : Counter.values()) {
+            recountSql.append(",\n    (SELECT COALESCE(SUM(counter_value), 0) FROM dashboard_counters WHERE counter_name = '")
+                    .append(counter.key()).append("') AS counted_").append(counter.key());
+        }
+
+        double[] totals;
+        try {
+            Delta correction = new Delta();
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(recountSql.toString());
+                 ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    for (Counter counter : Counter.values()) {
+                        correction.add(counter, rs.getDouble(counter.key()) - rs.getDouble("counted_" + counter.key()));
+                    }
+                }
+            }
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                write(conn, correction);
+            }
+            totals = readTotals();
+        } catch (SQLException e) {
+            System.err.println("Error reconciling dashboard counters: " + e.getMessage());
+            if (snapshot != null) {
+                return; // Keep serving the last good numbers
+            }
+            totals = new double[values.length];
+        }
+
+        Map<String, Integer> genres = genreSource.get();
+        Map<String, Double> revenue = revenueByMovieSource.get();
+        synchronized (this) {
+            System.arraycopy(totals, 0, values, 0, values.length);
+            moviesByGenre = genres;
+            revenueByMovie = revenue;
+            reconciledAt = LocalDateTime.now();
+            republish();
+        }
+    }
+
+    private void republish() {
+        Map<String, Integer> bookingsByStatus = new LinkedHashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            int count = (int) Math.round(values[Counter.forStatus(status).ordinal()]);
+            if (count > 0) {
+                bookingsByStatus.put(status.name(), count);
+            }
+        }
+
+        snapshot = new DashboardSnapshot(
+                (int) Math.round(values[Counter.TICKETS_SOLD.ordinal()]),
+                values[Counter.REVENUE.ordinal()],
+                (int) Math.round(values[Counter.MOVIES.ordinal()]),
+                (int) Math.round(values[Counter.USERS.ordinal()]),
+                (int) Math.round(values[Counter.REVIEWS.ordinal()]),
+                bookingsByStatus, moviesByGenre, revenueByMovie, reconciledAt);
+    }
+
+    private static Counter counterForKey(String key) {
+        for (Counter counter : Counter.values()) {
+            if (counter.key().equals(key)) {
+                return counter;
+            }
+        }
+        return null;
+    }
+}
@@ -7,21 +7,35 @@ import com.example.movieticket.model.Booking.BookingStatus;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class DataService {
     private static DataService instance;
     private User currentUser;
-    private static final Object lock = new Object(); // Lock object for synchronization
+    // Seat reservation work is serialized per screening, not across the whole service
+    private final ScreeningLocks screeningLocks = new ScreeningLocks();
+    // Hot read model for seat maps; the seats/seat_locks tables stay the source of truth
+    private final SeatMapStore seatMapStore = new SeatMapStore();
+    // Fires each seat lock at its expiry instead of polling seat_locks
+    private final SeatLockExpiryWheel seatLockExpiry = new SeatLockExpiryWheel(this::expireSeatLocks);
+    // Admin dashboard counters, maintained on every write instead of recounted per refresh
+    private final DashboardStats dashboardStats = new DashboardStats(this::getMoviesByGenre, this::getRevenueByMovie);
+    // Token index over the catalog for searchMovies; LIKE '%term%' cannot use an index
+    private final MovieSearchIndex movieSearchIndex = new MovieSearchIndex(this::getAllMovies);
+    // Movies and screenings change rarely but are read on every screen; writes below invalidate
+    private final CatalogCache catalogCache = new CatalogCache(this::loadAllMovies, this::loadAllScreenings);
     private final RealTimeNotificationService notificationService;
 
     private DataService() {
-        // Initialize database and tables from SQL file
-        DatabaseConnection.initializeDatabase();
-        initializeSampleData();
+        // Apply pending schema migrations; seed sample data only into a new database
+        if (DatabaseConnection.initializeDatabase()) {
+            initializeSampleData();
+        }
         this.notificationService = RealTimeNotificationService.getInstance();
+        registerSeatMapListener();
 
-        // Start background task to clean up expired seat locks
-        startSeatLockCleanupTask();
+        // Put locks left over from earlier sessions on the expiry wheel
+        scheduleExistingSeatLocks();
     }
 
     public static synchronized DataService getInstance() {
@@ -31,11 +45,12 @@ public class DataService {
         return instance;
     }
 
+    static final String AUTHENTICATE_SQL = "SELECT * FROM users WHERE username = ? AND password = ?";
+
     // Authentication methods
     public User authenticate(String username, String password) {
-        String sql = "SELECT * FROM users WHERE username = ? AND password = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(AUTHENTICATE_SQL)) {
 
             stmt.setString(1, username);
             stmt.setString(2, password);
@@ -58,11 +73,12 @@ public class DataService {
         return null;
     }
 
+    static final String USERNAME_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE username = ?";
+
     // Check if username already exists
     public boolean isUsernameExists(String username) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USERNAME_COUNT_SQL)) {
 
             stmt.setString(1, username);
             ResultSet rs = stmt.executeQuery();
@@ -76,11 +92,12 @@ public class DataService {
         return false;
     }
 
+    static final String EMAIL_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE email = ?";
+
     // Check if email already exists
     public boolean isEmailExists(String email) {
-        String sql = "SELECT COUNT(*) FROM users WHERE email = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(EMAIL_COUNT_SQL)) {
 
             stmt.setString(1, email);
             ResultSet rs = stmt.executeQuery();
@@ -94,13 +111,14 @@ public class DataService {
         return false;
     }
 
+    static final String OTHER_USERNAME_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE username = ? AND user_id != ?";
+
     /**
      * Check if username is available for a specific user (excluding their current username)
      */
     public boolean isUsernameAvailable(String username, int excludeUserId) {
-        String sql = "SELECT COUNT(*) FROM users WHERE username = ? AND user_id != ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(OTHER_USERNAME_COUNT_SQL)) {
 
             stmt.setString(1, username);
             stmt.setInt(2, excludeUserId);
@@ -115,13 +133,14 @@ public class DataService {
         return false;
     }
 
+    static final String OTHER_EMAIL_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE email = ? AND user_id != ?";
+
     /**
      * Check if email is available for a specific user (excluding their current email)
      */
     public boolean isEmailAvailable(String email, int excludeUserId) {
-        String sql = "SELECT COUNT(*) FROM users WHERE email = ? AND user_id != ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(OTHER_EMAIL_COUNT_SQL)) {
 
             stmt.setString(1, email);
             stmt.setInt(2, excludeUserId);
@@ -136,24 +155,37 @@ public class DataService {
         return false;
     }
 
-    public boolean registerUser(User user) {
-        String sql = "INSERT INTO users (username, password, email, full_name, role) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, user.getUsername());
-            stmt.setString(2, user.getPassword());
-            stmt.setString(3, user.getEmail());
-            stmt.setString(4, user.getFullName());
-            stmt.setString(5, user.getRole().toString());
+    static final String INSERT_USER_SQL = "INSERT INTO users (username, password, email, full_name, role) VALUES (?, ?, ?, ?, ?)";
 
-            int result = stmt.executeUpdate();
-            if (result > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    user.setUserId(keys.getInt(1));
+    public boolean registerUser(User user) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, user.getUsername());
+                stmt.setString(2, user.getPassword());
+                stmt.setString(3, user.getEmail());
+                stmt.setString(4, user.getFullName());
+                stmt.setString(5, user.getRole().toString());
+
+                int result = stmt.executeUpdate();
+                if (result > 0) {
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    if (keys.next()) {
+                        user.setUserId(keys.getInt(1));
+                    }
+                    DashboardStats.Delta delta = new DashboardStats.Delta();
+                    if (user.getRole() == UserRole.USER) {
+                        delta.add(DashboardStats.Counter.USERS, 1);
+                    }
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    dashboardStats.publish(delta);
+                    return true;
                 }
-                return true;
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error registering user: " + e.getMessage());
@@ -161,11 +193,12 @@ public class DataService {
         return false;
     }
 
+    static final String USER_BY_ID_SQL = "SELECT * FROM users WHERE user_id = ?";
+
     // User operations
     public User getUserById(int userId) {
-        String sql = "SELECT * FROM users WHERE user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USER_BY_ID_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -187,13 +220,14 @@ public class DataService {
         return null;
     }
 
+    static final String ALL_USERS_SQL = "SELECT * FROM users ORDER BY full_name";
+
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
-        String sql = "SELECT * FROM users ORDER BY full_name";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ALL_USERS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 users.add(new User(
@@ -212,12 +246,13 @@ public class DataService {
         return users;
     }
 
+    static final String ADMIN_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE role = 'ADMIN'";
+
     // Count admin users in the system
     public int getAdminCount() {
-        String sql = "SELECT COUNT(*) FROM users WHERE role = 'ADMIN'";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ADMIN_COUNT_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
                 return rs.getInt(1);
@@ -230,12 +265,17 @@ public class DataService {
 
     // Movie operations
     public List<Movie> getAllMovies() {
+        return catalogCache.getMovies();
+    }
+
+    static final String ALL_MOVIES_SQL = "SELECT * FROM movies ORDER BY title";
+
+    private List<Movie> loadAllMovies() {
         List<Movie> movies = new ArrayList<>();
-        String sql = "SELECT * FROM movies ORDER BY title";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ALL_MOVIES_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 Movie movie = new Movie();
@@ -257,28 +297,40 @@ public class DataService {
         return movies;
     }
 
-    public boolean addMovie(Movie movie) {
-        String sql = "INSERT INTO movies (title, director, release_year, description, duration, genre, rating, poster_url, trailer_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setString(1, movie.getTitle());
-            stmt.setString(2, movie.getDirector());
-            stmt.setInt(3, movie.getReleaseYear());
-            stmt.setString(4, movie.getDescription());
-            stmt.setInt(5, movie.getDuration());
-            stmt.setString(6, movie.getGenre());
-            stmt.setDouble(7, movie.getRating());
-            stmt.setString(8, movie.getPosterUrl());
-            stmt.setString(9, movie.getTrailerUrl());
+    static final String INSERT_MOVIE_SQL = "INSERT INTO movies (title, director, release_year, description, duration, genre, rating, poster_url, trailer_url) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
-            int result = stmt.executeUpdate();
-            if (result > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    movie.setMovieId(keys.getInt(1));
+    public boolean addMovie(Movie movie) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_MOVIE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, movie.getTitle());
+                stmt.setString(2, movie.getDirector());
+                stmt.setInt(3, movie.getReleaseYear());
+                stmt.setString(4, movie.getDescription());
+                stmt.setInt(5, movie.getDuration());
+                stmt.setString(6, movie.getGenre());
+                stmt.setDouble(7, movie.getRating());
+                stmt.setString(8, movie.getPosterUrl());
+                stmt.setString(9, movie.getTrailerUrl());
+
+                int result = stmt.executeUpdate();
+                if (result > 0) {
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    if (keys.next()) {
+                        movie.setMovieId(keys.getInt(1));
+                    }
+                    DashboardStats.Delta delta = new DashboardStats.Delta().add(DashboardStats.Counter.MOVIES, 1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    catalogCache.invalidateMovies();
+                    movieSearchIndex.put(movie);
+                    dashboardStats.publish(delta);
+                    return true;
                 }
-                return true;
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error adding movie: " + e.getMessage());
@@ -286,10 +338,11 @@ public class DataService {
         return false;
     }
 
+    static final String UPDATE_MOVIE_SQL = "UPDATE movies SET title = ?, director = ?, release_year = ?, description = ?, duration = ?, genre = ?, rating = ?, poster_url = ?, trailer_url = ? WHERE movie_id = ?";
+
     public boolean updateMovie(Movie movie) {
-        String sql = "UPDATE movies SET title = ?, director = ?, release_year = ?, description = ?, duration = ?, genre = ?, rating = ?, poster_url = ?, trailer_url = ? WHERE movie_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_MOVIE_SQL)) {
 
             stmt.setString(1, movie.getTitle());
             stmt.setString(2, movie.getDirector());
@@ -302,20 +355,41 @@ public class DataService {
             stmt.setString(9, movie.getTrailerUrl());
             stmt.setInt(10, movie.getMovieId());
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                catalogCache.invalidateMovies();
+                catalogCache.invalidateScreenings(); // Screenings carry the movie title
+                movieSearchIndex.put(movie);
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating movie: " + e.getMessage());
         }
         return false;
     }
 
-    public boolean deleteMovie(int movieId) {
-        String sql = "DELETE FROM movies WHERE movie_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    static final String DELETE_MOVIE_SQL = "DELETE FROM movies WHERE movie_id = ?";
 
-            stmt.setInt(1, movieId);
-            return stmt.executeUpdate() > 0;
+    public boolean deleteMovie(int movieId) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_MOVIE_SQL)) {
+                stmt.setInt(1, movieId);
+                if (stmt.executeUpdate() > 0) {
+                    DashboardStats.Delta delta = new DashboardStats.Delta().add(DashboardStats.Counter.MOVIES, -1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    catalogCache.invalidateMovies();
+                    catalogCache.invalidateScreenings();
+                    movieSearchIndex.remove(movieId);
+                    dashboardStats.publish(delta);
+                    dashboardStats.requestReconcile(); // Screenings and their bookings went with it
+                    return true;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting movie: " + e.getMessage());
         }
@@ -323,9 +397,16 @@ public class DataService {
     }
 
     public Movie getMovieById(int movieId) {
-        String sql = "SELECT * FROM movies WHERE movie_id = ?";
+        Movie cached = catalogCache.getMovie(movieId);
+        return cached != null ? cached : loadMovieById(movieId);
+    }
+
+    static final String MOVIE_BY_ID_SQL = "SELECT * FROM movies WHERE movie_id = ?";
+
+    // Fallback for movies added by another client since the catalog was cached
+    private Movie loadMovieById(int movieId) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(MOVIE_BY_ID_SQL)) {
 
             stmt.setInt(1, movieId);
             ResultSet rs = stmt.executeQuery();
@@ -350,52 +431,32 @@ public class DataService {
         return null;
     }
 
+    /**
+     * Movies matching the search term in title, director, genre or description, best match
+     * first. Served from the in-memory index; tolerates partial words and small typos.
+     */
     public List<Movie> searchMovies(String searchTerm) {
-        List<Movie> movies = new ArrayList<>();
-        String sql = "SELECT * FROM movies WHERE title LIKE ? OR description LIKE ? OR genre LIKE ? ORDER BY title";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            String searchPattern = "%" + searchTerm + "%";
-            stmt.setString(1, searchPattern);
-            stmt.setString(2, searchPattern);
-            stmt.setString(3, searchPattern);
-
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                Movie movie = new Movie();
-                movie.setMovieId(rs.getInt("movie_id"));
-                movie.setTitle(rs.getString("title"));
-                movie.setDirector(rs.getString("director"));
-                movie.setReleaseYear(rs.getInt("release_year"));
-                movie.setDescription(rs.getString("description"));
-                movie.setDuration(rs.getInt("duration"));
-                movie.setGenre(rs.getString("genre"));
-                movie.setRating(rs.getDouble("rating"));
-                movie.setPosterUrl(rs.getString("poster_url"));
-                movie.setTrailerUrl(rs.getString("trailer_url"));
-                movies.add(movie);
-            }
-        } catch (SQLException e) {
-            System.err.println("Error searching movies: " + e.getMessage());
-        }
-        return movies;
+        return movieSearchIndex.search(searchTerm);
     }
 
     // Screening operations
     public List<Screening> getAllScreenings() {
+        return catalogCache.getScreenings().getAll();
+    }
+
+    static final String ALL_SCREENINGS_SQL = """
+        SELECT s.*, m.title 
+        FROM screenings s 
+        JOIN movies m ON s.movie_id = m.movie_id 
+        ORDER BY s.show_time
+        """;
+
+    private List<Screening> loadAllScreenings() {
         List<Screening> screenings = new ArrayList<>();
-        String sql = """
-            SELECT s.*, m.title 
-            FROM screenings s 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            ORDER BY s.show_time
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ALL_SCREENINGS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 Screening screening = new Screening();
@@ -415,25 +476,37 @@ public class DataService {
         return screenings;
     }
 
-    public boolean addScreening(Screening screening) {
-        String sql = "INSERT INTO screenings (movie_id, screen_name, show_time, ticket_price, total_seats, available_seats) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, screening.getMovieId());
-            stmt.setString(2, screening.getScreenName());
-            stmt.setTimestamp(3, Timestamp.valueOf(screening.getShowTime()));
-            stmt.setDouble(4, screening.getTicketPrice());
-            stmt.setInt(5, screening.getTotalSeats());
-            stmt.setInt(6, screening.getAvailableSeats());
+    static final String INSERT_SCREENING_SQL = "INSERT INTO screenings (movie_id, screen_name, show_time, ticket_price, total_seats, available_seats) VALUES (?, ?, ?, ?, ?, ?)";
 
-            int result = stmt.executeUpdate();
-            if (result > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    screening.setScreeningId(keys.getInt(1));
+    /**
+     * Insert the screening and all of its seats in one transaction, so seat reads never have
+     * to create rows.
+     */
+    public boolean addScreening(Screening screening) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_SCREENING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, screening.getMovieId());
+                stmt.setString(2, screening.getScreenName());
+                stmt.setTimestamp(3, Timestamp.valueOf(screening.getShowTime()));
+                stmt.setDouble(4, screening.getTicketPrice());
+                stmt.setInt(5, screening.getTotalSeats());
+                stmt.setInt(6, screening.getAvailableSeats());
+
+                if (stmt.executeUpdate() > 0) {
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    if (keys.next()) {
+                        screening.setScreeningId(keys.getInt(1));
+                        provisionSeats(conn, screening.getScreeningId(), new HallLayout(screening.getTotalSeats()));
+                        conn.commit();
+                        catalogCache.invalidateScreenings();
+                        return true;
+                    }
                 }
-                return true;
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error adding screening: " + e.getMessage());
@@ -441,70 +514,143 @@ public class DataService {
         return false;
     }
 
+    static final String UPDATE_SCREENING_SQL = "UPDATE screenings SET movie_id = ?, screen_name = ?, show_time = ?, ticket_price = ?, total_seats = ?, available_seats = ? WHERE screening_id = ?";
+
+    static final String SEATS_FOR_RESIZE_SQL = "SELECT seat_number, is_booked FROM seats WHERE screening_id = ? FOR UPDATE";
+
+    static String deleteSeatsSql(int seats) {
+        return "DELETE FROM seats WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) + ")";
+    }
+
+    /**
+     * Save an edited screening. A capacity change adds or removes seat rows to match the new
+     * HallLayout in the same transaction; it is refused (returns false) when a seat it would
+     * remove is booked or held. Available seats are recomputed from the seats actually booked.
+     */
     public boolean updateScreening(Screening screening) {
-        String sql = "UPDATE screenings SET movie_id = ?, screen_name = ?, show_time = ?, ticket_price = ?, total_seats = ?, available_seats = ? WHERE screening_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        int screeningId = screening.getScreeningId();
+        HallLayout layout = new HallLayout(screening.getTotalSeats());
 
-            stmt.setInt(1, screening.getMovieId());
-            stmt.setString(2, screening.getScreenName());
-            stmt.setTimestamp(3, Timestamp.valueOf(screening.getShowTime()));
-            stmt.setDouble(4, screening.getTicketPrice());
-            stmt.setInt(5, screening.getTotalSeats());
-            stmt.setInt(6, screening.getAvailableSeats());
-            stmt.setInt(7, screening.getScreeningId());
+        ReentrantLock screeningLock = screeningLocks.acquire(screeningId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Lock the current seats so no booking claims one while the hall is resized
+                Set<String> existing = new HashSet<>();
+                Set<String> booked = new HashSet<>();
+                try (PreparedStatement stmt = conn.prepareStatement(SEATS_FOR_RESIZE_SQL)) {
+                    stmt.setInt(1, screeningId);
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        existing.add(rs.getString("seat_number"));
+                        if (rs.getBoolean("is_booked")) {
+                            booked.add(rs.getString("seat_number"));
+                        }
+                    }
+                }
 
-            return stmt.executeUpdate() > 0;
+                Set<String> wanted = new LinkedHashSet<>();
+                for (int i = 0; i < layout.getCapacity(); i++) {
+                    wanted.add(layout.getSeatLabel(i));
+                }
+                List<String> removed = new ArrayList<>(existing);
+                removed.removeAll(wanted);
+                List<Integer> added = new ArrayList<>();
+                for (int i = 0; i < layout.getCapacity(); i++) {
+                    if (!existing.contains(layout.getSeatLabel(i))) {
+                        added.add(i);
+                    }
+                }
+
+                if (!removed.isEmpty()) {
+                    if (!Collections.disjoint(removed, booked) || hasLiveLocks(conn, screeningId, removed)) {
+                        conn.rollback();
+                        System.err.println("Cannot resize screening " + screeningId + ": seats to remove are booked or held");
+                        return false;
+                    }
+                    try (PreparedStatement stmt = conn.prepareStatement(deleteSeatsSql(removed.size()))) {
+                        stmt.setInt(1, screeningId);
+                        for (int i = 0; i < removed.size(); i++) {
+                            stmt.setString(i + 2, removed.get(i));
+                        }
+                        stmt.executeUpdate();
+                    }
+                }
+                if (!added.isEmpty()) {
+                    insertSeats(conn, screeningId, layout, added);
+                }
+
+                screening.setAvailableSeats(layout.getCapacity() - booked.size());
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_SCREENING_SQL)) {
+                    stmt.setInt(1, screening.getMovieId());
+                    stmt.setString(2, screening.getScreenName());
+                    stmt.setTimestamp(3, Timestamp.valueOf(screening.getShowTime()));
+                    stmt.setDouble(4, screening.getTicketPrice());
+                    stmt.setInt(5, screening.getTotalSeats());
+                    stmt.setInt(6, screening.getAvailableSeats());
+                    stmt.setInt(7, screeningId);
+
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return false;
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         } catch (SQLException e) {
             System.err.println("Error updating screening: " + e.getMessage());
+            return false;
+        } finally {
+            screeningLock.unlock();
         }
-        return false;
-    }
-
-    public List<Screening> getScreeningsByMovie(int movieId) {
-        List<Screening> screenings = new ArrayList<>();
-        String sql = """
-            SELECT s.*, m.title 
-            FROM screenings s 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            WHERE s.movie_id = ? 
-            ORDER BY s.show_time
-            """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        catalogCache.invalidateScreenings();
+        seatMapStore.invalidate(screeningId);
+        // Open seat maps elsewhere still show the old hall
+        notificationService.notifySeatUpdated(screeningId, getSeatsByScreeningWithLocks(screeningId));
+        return true;
+    }
 
-            stmt.setInt(1, movieId);
-            ResultSet rs = stmt.executeQuery();
+    static String liveLocksSql(int seats) {
+        return "SELECT 1 FROM seat_locks WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) +
+            ") AND expires_at > NOW() LIMIT 1";
+    }
 
-            while (rs.next()) {
-                Screening screening = new Screening();
-                screening.setScreeningId(rs.getInt("screening_id"));
-                screening.setMovieId(rs.getInt("movie_id"));
-                screening.setMovieTitle(rs.getString("title"));
-                screening.setScreenName(rs.getString("screen_name"));
-                screening.setShowTime(rs.getTimestamp("show_time").toLocalDateTime());
-                screening.setTicketPrice(rs.getDouble("ticket_price"));
-                screening.setTotalSeats(rs.getInt("total_seats"));
-                screening.setAvailableSeats(rs.getInt("available_seats"));
-                screenings.add(screening);
+    private boolean hasLiveLocks(Connection conn, int screeningId, List<String> seatNumbers) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(liveLocksSql(seatNumbers.size()))) {
+            stmt.setInt(1, screeningId);
+            for (int i = 0; i < seatNumbers.size(); i++) {
+                stmt.setString(i + 2, seatNumbers.get(i));
             }
-        } catch (SQLException e) {
-            System.err.println("Error getting screenings by movie: " + e.getMessage());
+            return stmt.executeQuery().next();
         }
-        return screenings;
+    }
+
+    public List<Screening> getScreeningsByMovie(int movieId) {
+        return catalogCache.getScreenings().getByMovie(movieId);
     }
 
     public Screening getScreeningById(int screeningId) {
-        String sql = """
-            SELECT s.*, m.title 
-            FROM screenings s 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            WHERE s.screening_id = ?
-            """;
+        ScreeningSnapshot snapshot = catalogCache.getScreenings();
+        return snapshot.contains(screeningId) ? snapshot.get(screeningId) : loadScreeningById(screeningId);
+    }
+
+    static final String SCREENING_BY_ID_SQL = """
+        SELECT s.*, m.title 
+        FROM screenings s 
+        JOIN movies m ON s.movie_id = m.movie_id 
+        WHERE s.screening_id = ?
+        """;
 
+    // Fallback for screenings added by another client since the schedule was cached
+    private Screening loadScreeningById(int screeningId) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SCREENING_BY_ID_SQL)) {
 
             stmt.setInt(1, screeningId);
             ResultSet rs = stmt.executeQuery();
@@ -527,20 +673,21 @@ public class DataService {
         return null;
     }
 
+    static final String BOOKINGS_BY_USER_SQL = """
+        SELECT b.*, s.show_time, s.screen_name, m.title 
+        FROM bookings b 
+        JOIN screenings s ON b.screening_id = s.screening_id 
+        JOIN movies m ON s.movie_id = m.movie_id 
+        WHERE b.user_id = ? 
+        ORDER BY b.booking_date DESC
+        """;
+
     // Booking operations
     public List<Booking> getBookingsByUser(int userId) {
         List<Booking> bookings = new ArrayList<>();
-        String sql = """
-            SELECT b.*, s.show_time, s.screen_name, m.title 
-            FROM bookings b 
-            JOIN screenings s ON b.screening_id = s.screening_id 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            WHERE b.user_id = ? 
-            ORDER BY b.booking_date DESC
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(BOOKINGS_BY_USER_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -565,24 +712,40 @@ public class DataService {
         return bookings;
     }
 
-    public boolean addBooking(Booking booking) {
-        String sql = "INSERT INTO bookings (user_id, screening_id, seat_ids, total_amount, status) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, booking.getUserId());
-            stmt.setInt(2, booking.getScreeningId());
-            stmt.setString(3, booking.getSeatIds());
-            stmt.setDouble(4, booking.getTotalAmount());
-            stmt.setString(5, booking.getStatus().toString());
+    static final String INSERT_BOOKING_SQL = "INSERT INTO bookings (user_id, screening_id, seat_ids, total_amount, status) VALUES (?, ?, ?, ?, ?)";
 
-            int result = stmt.executeUpdate();
-            if (result > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    booking.setBookingId(keys.getInt(1));
+    public boolean addBooking(Booking booking) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_BOOKING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, booking.getUserId());
+                stmt.setInt(2, booking.getScreeningId());
+                stmt.setString(3, booking.getSeatIds());
+                stmt.setDouble(4, booking.getTotalAmount());
+                stmt.setString(5, booking.getStatus().toString());
+
+                int result = stmt.executeUpdate();
+                if (result > 0) {
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    int tickets = 0;
+                    if (keys.next()) {
+                        booking.setBookingId(keys.getInt(1));
+                        if (booking.getSeatNumbers() != null) {
+                            insertBookingSeats(conn, booking.getBookingId(), booking.getScreeningId(), booking.getSeatNumbers());
+                            tickets = booking.getSeatNumbers().size();
+                        }
+                    }
+                    DashboardStats.Delta delta = addBookingDelta(new DashboardStats.Delta(), booking.getStatus(),
+                        tickets, booking.getTotalAmount(), 1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    dashboardStats.publish(delta);
+                    return true;
                 }
-                return true;
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error adding booking: " + e.getMessage());
@@ -595,21 +758,22 @@ public class DataService {
         return getBookingsByUser(userId);
     }
 
+    static final String ALL_BOOKINGS_SQL = """
+        SELECT b.*, s.show_time, s.screen_name, m.title, u.username, u.full_name
+        FROM bookings b 
+        JOIN screenings s ON b.screening_id = s.screening_id 
+        JOIN movies m ON s.movie_id = m.movie_id 
+        JOIN users u ON b.user_id = u.user_id
+        ORDER BY b.booking_date DESC
+        """;
+
     // Get all bookings for admin view
     public List<Booking> getAllBookings() {
         List<Booking> bookings = new ArrayList<>();
-        String sql = """
-            SELECT b.*, s.show_time, s.screen_name, m.title, u.username, u.full_name
-            FROM bookings b 
-            JOIN screenings s ON b.screening_id = s.screening_id 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            JOIN users u ON b.user_id = u.user_id
-            ORDER BY b.booking_date DESC
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ALL_BOOKINGS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 Booking booking = new Booking();
@@ -633,40 +797,72 @@ public class DataService {
         return bookings;
     }
 
+    static final String BOOKING_FOR_STATUS_CHANGE_SQL = "SELECT status, total_amount, " +
+        "(SELECT COUNT(*) FROM booking_seats WHERE booking_id = b.booking_id) AS tickets " +
+        "FROM bookings b WHERE booking_id = ? FOR UPDATE";
+
+    static final String UPDATE_BOOKING_STATUS_SQL = "UPDATE bookings SET status = ? WHERE booking_id = ?";
+
     // Update booking status (for cancellations, etc.)
     public boolean updateBookingStatus(int bookingId, BookingStatus newStatus) {
-        String sql = "UPDATE bookings SET status = ? WHERE booking_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, newStatus.toString());
-            stmt.setInt(2, bookingId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                DashboardStats.Delta delta = new DashboardStats.Delta();
+                try (PreparedStatement stmt = conn.prepareStatement(BOOKING_FOR_STATUS_CHANGE_SQL)) {
+                    stmt.setInt(1, bookingId);
+                    ResultSet rs = stmt.executeQuery();
+                    if (!rs.next()) {
+                        conn.rollback();
+                        return false;
+                    }
+                    BookingStatus oldStatus = BookingStatus.valueOf(rs.getString("status"));
+                    if (oldStatus != newStatus) {
+                        int tickets = rs.getInt("tickets");
+                        double amount = rs.getDouble("total_amount");
+                        addBookingDelta(delta, oldStatus, tickets, amount, -1);
+                        addBookingDelta(delta, newStatus, tickets, amount, 1);
+                    }
+                }
 
-            return stmt.executeUpdate() > 0;
+                try (PreparedStatement stmt = conn.prepareStatement(UPDATE_BOOKING_STATUS_SQL)) {
+                    stmt.setString(1, newStatus.toString());
+                    stmt.setInt(2, bookingId);
+                    stmt.executeUpdate();
+                }
+                dashboardStats.write(conn, delta);
+                conn.commit();
+                dashboardStats.publish(delta);
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating booking status: " + e.getMessage());
         }
         return false;
     }
 
+    static final String SEARCH_BOOKINGS_SQL = """
+        SELECT b.*, s.show_time, s.screen_name, m.title, u.username, u.full_name
+        FROM bookings b 
+        JOIN screenings s ON b.screening_id = s.screening_id 
+        JOIN movies m ON s.movie_id = m.movie_id 
+        JOIN users u ON b.user_id = u.user_id
+        WHERE CAST(b.booking_id AS CHAR) LIKE ? 
+           OR u.full_name LIKE ? 
+           OR u.username LIKE ? 
+           OR m.title LIKE ?
+        ORDER BY b.booking_date DESC
+        """;
+
     // Search bookings by user name, movie title, or booking ID
     public List<Booking> searchBookings(String searchTerm) {
         List<Booking> bookings = new ArrayList<>();
-        String sql = """
-            SELECT b.*, s.show_time, s.screen_name, m.title, u.username, u.full_name
-            FROM bookings b 
-            JOIN screenings s ON b.screening_id = s.screening_id 
-            JOIN movies m ON s.movie_id = m.movie_id 
-            JOIN users u ON b.user_id = u.user_id
-            WHERE CAST(b.booking_id AS CHAR) LIKE ? 
-               OR u.full_name LIKE ? 
-               OR u.username LIKE ? 
-               OR m.title LIKE ?
-            ORDER BY b.booking_date DESC
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SEARCH_BOOKINGS_SQL)) {
 
             String searchPattern = "%" + searchTerm + "%";
             stmt.setString(1, searchPattern);
@@ -698,68 +894,169 @@ public class DataService {
         return bookings;
     }
 
-    public List<User> getUsersWithMessages(int adminId) {
-        List<User> users = new ArrayList<>();
-        String sql = """
-            SELECT DISTINCT u.* FROM users u 
-            JOIN messages m ON (u.user_id = m.sender_id OR u.user_id = m.receiver_id) 
-            WHERE u.user_id != ? AND u.role = 'USER'
-            AND EXISTS (
-                SELECT 1 FROM messages m2 
-                WHERE (m2.sender_id = u.user_id OR m2.receiver_id = u.user_id)
-                AND (m2.sender_id IN (SELECT user_id FROM users WHERE role = 'ADMIN') 
-                     OR m2.receiver_id IN (SELECT user_id FROM users WHERE role = 'ADMIN'))
-            )
-            ORDER BY (
-                SELECT MAX(timestamp) FROM messages 
-                WHERE sender_id = u.user_id OR receiver_id = u.user_id
-            ) DESC
-            """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, adminId);
-
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                users.add(new User(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("password"),
-                    rs.getString("email"),
-                    rs.getString("full_name"),
-                    UserRole.valueOf(rs.getString("role"))
-                ));
-            }
-        } catch (SQLException e) {
-            System.err.println("Error getting users with messages: " + e.getMessage());
+    // The statement getBookingsPage runs for a combination of filters
+    static String bookingsPageSql(boolean byStatus, boolean bySearch, boolean afterBooking) {
+        // STRAIGHT_JOIN keeps bookings first: with the small movies table first the optimizer
+        // sorts the whole join instead of reading idx_bookings_date newest first up to the limit
+        StringBuilder sql = new StringBuilder("""
+            SELECT STRAIGHT_JOIN b.*, s.show_time, s.screen_name, m.title, u.username, u.full_name
+            FROM bookings b
+            JOIN screenings s ON b.screening_id = s.screening_id
+            JOIN movies m ON s.movie_id = m.movie_id
+            JOIN users u ON b.user_id = u.user_id
+            WHERE 1 = 1
+            """);
+        if (byStatus) {
+            sql.append(" AND b.status = ?");
         }
-        return users;
+        if (bySearch) {
+            sql.append(" AND (CAST(b.booking_id AS CHAR) LIKE ? OR u.full_name LIKE ? OR u.username LIKE ? OR m.title LIKE ?)");
+        }
+        if (afterBooking) {
+            sql.append(" AND (b.booking_date < ? OR (b.booking_date = ? AND b.booking_id < ?))");
+        }
+        return sql.append(" ORDER BY b.booking_date DESC, b.booking_id DESC LIMIT ?").toString();
     }
 
     /**
-     * Get chat history between a user and any admin (for shared admin inbox)
-     * This allows all admins to see all user conversations
+     * One page of bookings for the admin view, newest first. Keyset-paginated on
+     * (booking_date, booking_id): pass the last booking of the previous page as {@code after},
+     * or null for the first page. Status and search term are optional filters.
      */
-    public List<ChatMessage> getChatHistoryWithAdmins(int userId) {
-        List<ChatMessage> messages = new ArrayList<>();
-        String sql = """
-            SELECT m.*, 
-                   s.full_name as sender_name, 
-                   r.full_name as receiver_name,
-                   s.role as sender_role,
-                   r.role as receiver_role
-            FROM messages m
-            JOIN users s ON m.sender_id = s.user_id
-            JOIN users r ON m.receiver_id = r.user_id
-            WHERE (m.sender_id = ? AND r.role = 'ADMIN') 
-               OR (m.receiver_id = ? AND s.role = 'ADMIN')
-            ORDER BY m.timestamp ASC
-            """;
+    public Page<Booking> getBookingsPage(BookingStatus status, String searchTerm, Booking after, int pageSize) {
+        boolean search = searchTerm != null && !searchTerm.isEmpty();
+        List<Object> params = new ArrayList<>();
+
+        if (status != null) {
+            params.add(status.name());
+        }
+        if (search) {
+            String searchPattern = "%" + searchTerm + "%";
+            Collections.addAll(params, searchPattern, searchPattern, searchPattern, searchPattern);
+        }
+        if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.getBookingDate());
+            Collections.addAll(params, afterDate, afterDate, after.getBookingId());
+        }
+        params.add(pageSize + 1);
+
+        List<Booking> bookings = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(bookingsPageSql(status != null, search, after != null))) {
+
+            setParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Booking booking = new Booking();
+                booking.setBookingId(rs.getInt("booking_id"));
+                booking.setUserId(rs.getInt("user_id"));
+                booking.setScreeningId(rs.getInt("screening_id"));
+                booking.setSeatIds(rs.getString("seat_ids"));
+                booking.setTotalAmount(rs.getDouble("total_amount"));
+                booking.setBookingDate(rs.getTimestamp("booking_date").toLocalDateTime());
+                booking.setStatus(BookingStatus.valueOf(rs.getString("status")));
+                booking.setMovieTitle(rs.getString("title"));
+                booking.setScreenName(rs.getString("screen_name"));
+                booking.setShowTime(rs.getTimestamp("show_time").toLocalDateTime());
+                booking.setUsername(rs.getString("username"));
+                booking.setFullName(rs.getString("full_name"));
+                bookings.add(booking);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting bookings page: " + e.getMessage());
+        }
+        return Page.of(bookings, pageSize);
+    }
+
+    private static void setParameters(PreparedStatement stmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            stmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    // "?,?,?" for an IN list of the given length
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    public List<User> getUsersWithMessages(int adminId) {
+        List<User> users = new ArrayList<>();
+        for (Conversation conversation : getConversations()) {
+            users.add(conversation.getUser());
+        }
+        return users;
+    }
+
+    static final String CONVERSATIONS_SQL = """
+        SELECT c.last_message_at, c.last_message_snippet, c.last_sender_id, c.unread_for_admins, u.*
+        FROM conversations c
+        JOIN users u ON c.user_id = u.user_id
+        ORDER BY c.last_message_at DESC
+        """;
+
+    /**
+     * The shared admin inbox: one entry per user who has chatted with the admins, most recent
+     * first. Read from the conversations summary, one row per user, rather than from the messages.
+     */
+    public List<Conversation> getConversations() {
+        List<Conversation> conversations = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CONVERSATIONS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                User user = new User(
+                    rs.getInt("user_id"),
+                    rs.getString("username"),
+                    rs.getString("password"),
+                    rs.getString("email"),
+                    rs.getString("full_name"),
+                    UserRole.valueOf(rs.getString("role"))
+                );
+                conversations.add(new Conversation(
+                    user,
+                    rs.getTimestamp("last_message_at").toLocalDateTime(),
+                    rs.getString("last_message_snippet"),
+                    rs.getInt("last_sender_id"),
+                    rs.getInt("unread_for_admins")
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting conversations: " + e.getMessage());
+        }
+        return conversations;
+    }
+
+    static final String CHAT_HISTORY_WITH_ADMINS_SQL = """
+        SELECT m.*,
+               s.full_name as sender_name,
+               r.full_name as receiver_name,
+               s.role as sender_role,
+               r.role as receiver_role
+        FROM (
+            (SELECT m1.* FROM messages m1
+             JOIN users a1 ON m1.receiver_id = a1.user_id
+             WHERE m1.sender_id = ? AND a1.role = 'ADMIN')
+            UNION ALL
+            (SELECT m2.* FROM messages m2
+             JOIN users a2 ON m2.sender_id = a2.user_id
+             WHERE m2.receiver_id = ? AND a2.role = 'ADMIN')
+        ) m
+        JOIN users s ON m.sender_id = s.user_id
+        JOIN users r ON m.receiver_id = r.user_id
+        ORDER BY m.message_id
+        """;
+
+    /**
+     * Get chat history between a user and any admin (for shared admin inbox)
+     * This allows all admins to see all user conversations
+     */
+    public List<ChatMessage> getChatHistoryWithAdmins(int userId) {
+        List<ChatMessage> messages = new ArrayList<>();
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(CHAT_HISTORY_WITH_ADMINS_SQL)) {
 
             stmt.setInt(1, userId);
             stmt.setInt(2, userId);
@@ -783,13 +1080,74 @@ public class DataService {
         return messages;
     }
 
+    static final String CHAT_HISTORY_WITH_ADMINS_PAGE_SQL = """
+        SELECT m.*,
+               s.full_name as sender_name,
+               r.full_name as receiver_name
+        FROM (
+            (SELECT m1.* FROM messages m1
+             JOIN users a1 ON m1.receiver_id = a1.user_id
+             WHERE m1.sender_id = ? AND m1.message_id < ? AND a1.role = 'ADMIN'
+             ORDER BY m1.message_id DESC LIMIT ?)
+            UNION ALL
+            (SELECT m2.* FROM messages m2
+             JOIN users a2 ON m2.sender_id = a2.user_id
+             WHERE m2.receiver_id = ? AND m2.message_id < ? AND a2.role = 'ADMIN'
+             ORDER BY m2.message_id DESC LIMIT ?)
+        ) m
+        JOIN users s ON m.sender_id = s.user_id
+        JOIN users r ON m.receiver_id = r.user_id
+        ORDER BY m.message_id DESC
+        LIMIT ?
+        """;
+
+    /**
+     * One page of a user's chat with the admins, newest first: the messages before {@code before}
+     * (null for the latest page). Each direction is a range scan of its (user, message_id) index.
+     */
+    public Page<ChatMessage> getChatHistoryWithAdminsPage(int userId, ChatMessage before, int pageSize) {
+        List<ChatMessage> messages = new ArrayList<>();
+        int beforeId = before != null ? before.getMessageId() : Integer.MAX_VALUE;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(CHAT_HISTORY_WITH_ADMINS_PAGE_SQL)) {
+
+            // Fetch one extra row to tell whether an older page exists
+            stmt.setInt(1, userId);
+            stmt.setInt(2, beforeId);
+            stmt.setInt(3, pageSize + 1);
+            stmt.setInt(4, userId);
+            stmt.setInt(5, beforeId);
+            stmt.setInt(6, pageSize + 1);
+            stmt.setInt(7, pageSize + 1);
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                ChatMessage message = new ChatMessage();
+                message.setMessageId(rs.getInt("message_id"));
+                message.setSenderId(rs.getInt("sender_id"));
+                message.setReceiverId(rs.getInt("receiver_id"));
+                message.setContent(rs.getString("content"));
+                message.setTimestamp(rs.getTimestamp("timestamp").toLocalDateTime());
+                message.setRead(rs.getBoolean("is_read"));
+                message.setSenderName(rs.getString("sender_name"));
+                message.setReceiverName(rs.getString("receiver_name"));
+                messages.add(message);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting chat history page: " + e.getMessage());
+        }
+        return Page.of(messages, pageSize);
+    }
+
+    static final String FIRST_ADMIN_SQL = "SELECT user_id FROM users WHERE role = 'ADMIN' LIMIT 1";
+
     /**
      * Get the first available admin user ID for initial message routing
      */
     public int getFirstAdminId() {
-        String sql = "SELECT user_id FROM users WHERE role = 'ADMIN' LIMIT 1";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(FIRST_ADMIN_SQL)) {
 
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
@@ -817,6 +1175,34 @@ public class DataService {
         return notificationService;
     }
 
+    /**
+     * How long seat reservation callers have waited on their screening's lock
+     */
+    public ScreeningLocks.ContentionStats getSeatLockContentionStats() {
+        return screeningLocks.getStats();
+    }
+
+    /**
+     * Hit ratio and load times of the cached movie catalog
+     */
+    public CatalogCache.CacheStats getMovieCacheStats() {
+        return catalogCache.getMovieStats();
+    }
+
+    /**
+     * Hit ratio and load times of the cached screening schedule
+     */
+    public CatalogCache.CacheStats getScreeningCacheStats() {
+        return catalogCache.getScreeningStats();
+    }
+
+    /**
+     * Latency histograms, row counts and pool waits of every database operation so far
+     */
+    public QueryStats.Snapshot getQueryStats() {
+        return QueryStats.snapshot();
+    }
+
     /**
      * Start typing indicator for a user
      */
@@ -911,33 +1297,46 @@ public class DataService {
         }
     }
 
-    private void createSeatsForScreening(int screeningId) {
-        String sql = "INSERT INTO seats (screening_id, seat_number, `row_number`) VALUES (?, ?, ?)";
+    // Rows per multi-row INSERT when provisioning seats
+    private static final int SEAT_INSERT_CHUNK = 250;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    // Insert every seat of the layout with a few multi-row INSERTs on the caller's transaction
+    private void provisionSeats(Connection conn, int screeningId, HallLayout layout) throws SQLException {
+        List<Integer> positions = new ArrayList<>(layout.getCapacity());
+        for (int i = 0; i < layout.getCapacity(); i++) {
+            positions.add(i);
+        }
+        insertSeats(conn, screeningId, layout, positions);
+    }
 
-            // Create seats A1-A10, B1-B10, etc. (10 rows, 10 seats each = 100 seats)
-            for (char row = 'A'; row <= 'J'; row++) {
-                for (int seatNum = 1; seatNum <= 10; seatNum++) {
-                    stmt.setInt(1, screeningId);
-                    stmt.setString(2, String.valueOf(row) + seatNum); // Combined seat name like A1, A2, etc.
-                    stmt.setString(3, String.valueOf(row));
-                    stmt.addBatch();
+    static String insertSeatsSql(int seats) {
+        return "INSERT INTO seats (screening_id, seat_number, `row_number`) VALUES " +
+            String.join(",", Collections.nCopies(seats, "(?, ?, ?)"));
+    }
+
+    // Insert the seats at the given layout positions (0-based, row by row), in multi-row chunks
+    private void insertSeats(Connection conn, int screeningId, HallLayout layout, List<Integer> positions) throws SQLException {
+        for (int start = 0; start < positions.size(); start += SEAT_INSERT_CHUNK) {
+            int count = Math.min(SEAT_INSERT_CHUNK, positions.size() - start);
+            try (PreparedStatement stmt = conn.prepareStatement(insertSeatsSql(count))) {
+                int param = 1;
+                for (int i : positions.subList(start, start + count)) {
+                    stmt.setInt(param++, screeningId);
+                    stmt.setString(param++, layout.getSeatLabel(i)); // Combined seat name like A1, A2, etc.
+                    stmt.setString(param++, layout.getRowLabel(i));
                 }
+                stmt.executeUpdate();
             }
-            stmt.executeBatch();
-        } catch (SQLException e) {
-            System.err.println("Error creating seats for screening: " + e.getMessage());
         }
     }
 
+    static final String SEATS_BY_SCREENING_SQL = "SELECT * FROM seats WHERE screening_id = ?";
+
     public List<Seat> getSeatsByScreening(int screeningId) {
         List<Seat> seats = new ArrayList<>();
-        String sql = "SELECT * FROM seats WHERE screening_id = ? ORDER BY `row_number`, CAST(SUBSTRING(seat_number, 2) AS UNSIGNED)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(SEATS_BY_SCREENING_SQL)) {
 
             stmt.setInt(1, screeningId);
             ResultSet rs = stmt.executeQuery();
@@ -954,170 +1353,209 @@ public class DataService {
         } catch (SQLException e) {
             System.err.println("Error getting seats by screening: " + e.getMessage());
         }
+        // Sorted here rather than by the query, which could only order the seat labels with a filesort
+        seats.sort(SeatMapStore.SEAT_ORDER);
+        return seats;
+    }
 
-        // If no seats exist for this screening, create them
+    /**
+     * Book seats without any application-level lock: the conditional seat UPDATE is the
+     * availability check, so concurrent bookings (even from other app instances) cannot
+     * both claim the same seat.
+     */
+    public Booking createBooking(int userId, int screeningId, List<String> seatNumbers, double totalAmount) {
+        List<String> seats = new ArrayList<>(new LinkedHashSet<>(seatNumbers));
         if (seats.isEmpty()) {
-            createSeatsForScreening(screeningId);
-            return getSeatsByScreening(screeningId); // Recursive call to get the newly created seats
+            return null;
         }
 
-        // Check if seats have old format (numeric seat_number) and recreate if needed
-        if (!seats.isEmpty() && seats.get(0).getSeatNumber().matches("\\d+")) {
-            recreateSeatsWithNewFormat(screeningId);
-            return getSeatsByScreening(screeningId); // Recursive call to get the newly created seats
-        }
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false); // Start transaction
 
-        return seats;
-    }
+            if (!claimSeats(conn, screeningId, seats)) {
+                conn.rollback();
+                seatMapStore.invalidate(screeningId);
+                return null; // Booking failed - at least one seat was already booked
+            }
 
-    private void recreateSeatsWithNewFormat(int screeningId) {
-        try (Connection conn = DatabaseConnection.getConnection()) {
-            // Delete existing seats for this screening
-            String deleteSql = "DELETE FROM seats WHERE screening_id = ?";
-            PreparedStatement deleteStmt = conn.prepareStatement(deleteSql);
-            deleteStmt.setInt(1, screeningId);
-            deleteStmt.executeUpdate();
-            deleteStmt.close();
+            int bookingId = insertConfirmedBooking(conn, userId, screeningId, seats, totalAmount);
+            if (bookingId > 0) {
+                conn.commit();
+                seatMapStore.seatsBooked(screeningId, seats);
+                catalogCache.seatsBooked(screeningId, seats.size());
+                dashboardStats.publish(confirmedBookingDelta(seats, totalAmount));
+                return buildConfirmedBooking(bookingId, userId, screeningId, seats, totalAmount);
+            }
+            conn.rollback();
 
-            // Create new seats with proper format
-            createSeatsForScreening(screeningId);
         } catch (SQLException e) {
-            System.err.println("Error recreating seats with new format: " + e.getMessage());
+            try {
+                if (conn != null) conn.rollback(); // Rollback on error
+            } catch (SQLException rollbackEx) {
+                System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
+            }
+            System.err.println("Error creating booking: " + e.getMessage());
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
+            }
         }
+        return null;
     }
 
-    // Synchronized booking method to prevent race conditions with seat selection
-    public synchronized Booking createBooking(int userId, int screeningId, List<String> seatNumbers, double totalAmount) {
-        // Use synchronized block with specific screening lock for better granularity
-        synchronized (lock) {
-            Connection conn = null;
-            try {
-                conn = DatabaseConnection.getConnection();
-                conn.setAutoCommit(false); // Start transaction
+    static final String DECREMENT_AVAILABLE_SEATS_SQL = "UPDATE screenings SET available_seats = available_seats - ? WHERE screening_id = ?";
 
-                // First check if seats are still available before booking
-                String checkSeatSql = "SELECT seat_number FROM seats WHERE screening_id = ? AND seat_number IN (" +
-                    String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ") AND is_booked = TRUE";
-                PreparedStatement checkStmt = conn.prepareStatement(checkSeatSql);
-                checkStmt.setInt(1, screeningId);
-                for (int i = 0; i < seatNumbers.size(); i++) {
-                    checkStmt.setString(i + 2, seatNumbers.get(i));
-                }
+    static String claimSeatsSql(int seats) {
+        return "UPDATE seats SET is_booked = TRUE WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) +
+            ") AND is_booked = FALSE";
+    }
 
-                ResultSet bookedSeats = checkStmt.executeQuery();
-                if (bookedSeats.next()) {
-                    // Some seats are already booked
-                    checkStmt.close();
-                    conn.rollback();
-                    return null; // Booking failed - seats no longer available
-                }
-                checkStmt.close();
+    /**
+     * Mark seats as booked only if every one of them is still free. The WHERE clause does the
+     * check, so the affected-row count tells us whether we won all of them; anything less means
+     * another booking got there first and the caller must roll back.
+     */
+    private boolean claimSeats(Connection conn, int screeningId, List<String> seatNumbers) throws SQLException {
+        try (PreparedStatement claimStmt = conn.prepareStatement(claimSeatsSql(seatNumbers.size()))) {
+            claimStmt.setInt(1, screeningId);
+            for (int i = 0; i < seatNumbers.size(); i++) {
+                claimStmt.setString(i + 2, seatNumbers.get(i));
+            }
+            if (claimStmt.executeUpdate() != seatNumbers.size()) {
+                return false;
+            }
+        }
 
-                // Then, mark seats as booked
-                String updateSeatSql = "UPDATE seats SET is_booked = TRUE WHERE screening_id = ? AND seat_number = ?";
-                PreparedStatement seatStmt = conn.prepareStatement(updateSeatSql);
+        // Update available seats count
+        try (PreparedStatement screeningStmt = conn.prepareStatement(DECREMENT_AVAILABLE_SEATS_SQL)) {
+            screeningStmt.setInt(1, seatNumbers.size());
+            screeningStmt.setInt(2, screeningId);
+            screeningStmt.executeUpdate();
+        }
+        return true;
+    }
 
-                for (String seatNumber : seatNumbers) {
-                    seatStmt.setInt(1, screeningId);
-                    seatStmt.setString(2, seatNumber);
-                    seatStmt.addBatch();
-                }
+    // Insert the booking row inside the caller's transaction; returns the new booking ID or -1
+    private int insertConfirmedBooking(Connection conn, int userId, int screeningId, List<String> seatNumbers,
+                                       double totalAmount) throws SQLException {
+        try (PreparedStatement bookingStmt = conn.prepareStatement(INSERT_BOOKING_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bookingStmt.setInt(1, userId);
+            bookingStmt.setInt(2, screeningId);
+            bookingStmt.setString(3, String.join(",", seatNumbers)); // Store actual seat names like "A1,A2,A3"
+            bookingStmt.setDouble(4, totalAmount);
+            bookingStmt.setString(5, Booking.BookingStatus.CONFIRMED.toString());
 
-                seatStmt.executeBatch();
-                seatStmt.close();
-
-                // Update available seats count
-                String updateScreeningSql = "UPDATE screenings SET available_seats = available_seats - ? WHERE screening_id = ?";
-                PreparedStatement screeningStmt = conn.prepareStatement(updateScreeningSql);
-                screeningStmt.setInt(1, seatNumbers.size());
-                screeningStmt.setInt(2, screeningId);
-                screeningStmt.executeUpdate();
-                screeningStmt.close();
-
-                // Create booking record - store actual seat names instead of seat IDs
-                String insertBookingSql = "INSERT INTO bookings (user_id, screening_id, seat_ids, total_amount, status) VALUES (?, ?, ?, ?, ?)";
-                PreparedStatement bookingStmt = conn.prepareStatement(insertBookingSql, Statement.RETURN_GENERATED_KEYS);
-                bookingStmt.setInt(1, userId);
-                bookingStmt.setInt(2, screeningId);
-                bookingStmt.setString(3, String.join(",", seatNumbers)); // Store actual seat names like "A1,A2,A3"
-                bookingStmt.setDouble(4, totalAmount);
-                bookingStmt.setString(5, Booking.BookingStatus.CONFIRMED.toString());
-
-                int result = bookingStmt.executeUpdate();
-                if (result > 0) {
-                    ResultSet keys = bookingStmt.getGeneratedKeys();
-                    if (keys.next()) {
-                        int bookingId = keys.getInt(1);
-                        conn.commit(); // Commit transaction
-
-                        Booking booking = new Booking();
-                        booking.setBookingId(bookingId);
-                        booking.setUserId(userId);
-                        booking.setScreeningId(screeningId);
-                        booking.setSeatIds(String.join(",", seatNumbers)); // Store seat names, not IDs
-                        booking.setSeatNumbers(seatNumbers); // Set the actual seat names list
-                        booking.setTotalAmount(totalAmount);
-                        booking.setStatus(Booking.BookingStatus.CONFIRMED);
-                        booking.setBookingDate(LocalDateTime.now());
-
-                        bookingStmt.close();
-                        return booking;
-                    }
+            if (bookingStmt.executeUpdate() > 0) {
+                ResultSet keys = bookingStmt.getGeneratedKeys();
+                if (keys.next()) {
+                    int bookingId = keys.getInt(1);
+                    insertBookingSeats(conn, bookingId, screeningId, seatNumbers);
+                    dashboardStats.write(conn, confirmedBookingDelta(seatNumbers, totalAmount));
+                    return bookingId;
                 }
-                bookingStmt.close();
+            }
+        }
+        return -1;
+    }
 
-            } catch (SQLException e) {
-                try {
-                    if (conn != null) conn.rollback(); // Rollback on error
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Error rolling back transaction: " + rollbackEx.getMessage());
-                }
-                System.err.println("Error creating booking: " + e.getMessage());
-            } finally {
-                try {
-                    if (conn != null) {
-                        conn.setAutoCommit(true);
-                        conn.close();
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
+    private static DashboardStats.Delta confirmedBookingDelta(List<String> seatNumbers, double totalAmount) {
+        return addBookingDelta(new DashboardStats.Delta(), BookingStatus.CONFIRMED, seatNumbers.size(), totalAmount, 1);
+    }
+
+    // Counter changes for a booking entering (sign 1) or leaving (sign -1) a status
+    private static DashboardStats.Delta addBookingDelta(DashboardStats.Delta delta, BookingStatus status,
+                                                        int tickets, double amount, int sign) {
+        delta.add(DashboardStats.Counter.forStatus(status), sign);
+        if (status == BookingStatus.CONFIRMED) {
+            delta.add(DashboardStats.Counter.TICKETS_SOLD, sign * tickets);
+            delta.add(DashboardStats.Counter.REVENUE, sign * amount);
+        }
+        return delta;
+    }
+
+    static final String INSERT_BOOKING_SEAT_SQL = "INSERT IGNORE INTO booking_seats (booking_id, screening_id, seat_number) VALUES (?, ?, ?)";
+
+    // One booking_seats row per seat, written in the same transaction as the booking
+    private void insertBookingSeats(Connection conn, int bookingId, int screeningId, List<String> seatNumbers)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT_BOOKING_SEAT_SQL)) {
+            for (String seatNumber : seatNumbers) {
+                String trimmed = seatNumber.trim();
+                if (trimmed.isEmpty()) {
+                    continue;
                 }
+                stmt.setInt(1, bookingId);
+                stmt.setInt(2, screeningId);
+                stmt.setString(3, trimmed);
+                stmt.addBatch();
             }
+            stmt.executeBatch();
         }
-        return null;
+    }
+
+    private Booking buildConfirmedBooking(int bookingId, int userId, int screeningId, List<String> seatNumbers,
+                                          double totalAmount) {
+        Booking booking = new Booking();
+        booking.setBookingId(bookingId);
+        booking.setUserId(userId);
+        booking.setScreeningId(screeningId);
+        booking.setSeatIds(String.join(",", seatNumbers)); // Store seat names, not IDs
+        booking.setSeatNumbers(seatNumbers); // Set the actual seat names list
+        booking.setTotalAmount(totalAmount);
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setBookingDate(LocalDateTime.now());
+        return booking;
     }
 
     public void logout() {
         currentUser = null;
+        notificationService.stopUnreadTracking();
     }
 
     // =======================
     // REVIEW MANAGEMENT METHODS
     // =======================
 
+    static final String INSERT_REVIEW_SQL = "INSERT INTO reviews (user_id, rating, title, comment, review_type, review_date) VALUES (?, ?, ?, ?, ?, ?)";
+
     /**
      * Add a new review from a user
      */
     public boolean addReview(Review review) {
-        String sql = "INSERT INTO reviews (user_id, rating, title, comment, review_type, review_date) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, review.getUserId());
-            stmt.setInt(2, review.getRating());
-            stmt.setString(3, review.getTitle());
-            stmt.setString(4, review.getComment());
-            stmt.setString(5, review.getReviewType().name());
-            stmt.setTimestamp(6, Timestamp.valueOf(review.getReviewDate()));
-
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows > 0) {
-                ResultSet rs = stmt.getGeneratedKeys();
-                if (rs.next()) {
-                    review.setReviewId(rs.getInt(1));
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_REVIEW_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, review.getUserId());
+                stmt.setInt(2, review.getRating());
+                stmt.setString(3, review.getTitle());
+                stmt.setString(4, review.getComment());
+                stmt.setString(5, review.getReviewType().name());
+                stmt.setTimestamp(6, Timestamp.valueOf(review.getReviewDate()));
+
+                int affectedRows = stmt.executeUpdate();
+
+                if (affectedRows > 0) {
+                    ResultSet rs = stmt.getGeneratedKeys();
+                    if (rs.next()) {
+                        review.setReviewId(rs.getInt(1));
+                    }
+                    DashboardStats.Delta delta = new DashboardStats.Delta().add(DashboardStats.Counter.REVIEWS, 1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    dashboardStats.publish(delta);
+                    return true;
                 }
-                return true;
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error adding review: " + e.getMessage());
@@ -1126,13 +1564,14 @@ public class DataService {
         return false;
     }
 
+    static final String UPDATE_REVIEW_SQL = "UPDATE reviews SET rating = ?, title = ?, comment = ?, review_type = ? WHERE review_id = ?";
+
     /**
      * Update an existing review
      */
     public boolean updateReview(Review review) {
-        String sql = "UPDATE reviews SET rating = ?, title = ?, comment = ?, review_type = ? WHERE review_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_REVIEW_SQL)) {
 
             stmt.setInt(1, review.getRating());
             stmt.setString(2, review.getTitle());
@@ -1149,17 +1588,18 @@ public class DataService {
         return false;
     }
 
+    static final String ALL_REVIEWS_SQL = "SELECT r.*, u.full_name FROM reviews r " +
+        "JOIN users u ON r.user_id = u.user_id " +
+        "ORDER BY r.review_date DESC";
+
     /**
      * Get all reviews
      */
     public List<Review> getAllReviews() {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT r.*, u.full_name FROM reviews r " +
-                     "JOIN users u ON r.user_id = u.user_id " +
-                     "ORDER BY r.review_date DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = conn.prepareStatement(ALL_REVIEWS_SQL);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -1181,17 +1621,87 @@ public class DataService {
         return reviews;
     }
 
+    // The statement getReviewsPage runs for a combination of filters
+    static String reviewsPageSql(boolean byType, boolean byRating, boolean bySearch, boolean afterReview) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT r.*, u.full_name FROM reviews r JOIN users u ON r.user_id = u.user_id WHERE 1 = 1");
+        if (byType) {
+            sql.append(" AND r.review_type = ?");
+        }
+        if (byRating) {
+            sql.append(" AND r.rating = ?");
+        }
+        if (bySearch) {
+            sql.append(" AND (u.full_name LIKE ? OR r.title LIKE ? OR r.comment LIKE ?)");
+        }
+        if (afterReview) {
+            sql.append(" AND (r.review_date < ? OR (r.review_date = ? AND r.review_id < ?))");
+        }
+        return sql.append(" ORDER BY r.review_date DESC, r.review_id DESC LIMIT ?").toString();
+    }
+
+    /**
+     * One page of reviews, newest first, keyset-paginated on (review_date, review_id). Type,
+     * rating and search term (reviewer name, title or comment) are optional filters.
+     */
+    public Page<Review> getReviewsPage(Review.ReviewType type, Integer rating, String searchTerm,
+                                       Review after, int pageSize) {
+        boolean search = searchTerm != null && !searchTerm.isEmpty();
+        List<Object> params = new ArrayList<>();
+
+        if (type != null) {
+            params.add(type.name());
+        }
+        if (rating != null) {
+            params.add(rating);
+        }
+        if (search) {
+            String searchPattern = "%" + searchTerm + "%";
+            Collections.addAll(params, searchPattern, searchPattern, searchPattern);
+        }
+        if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.getReviewDate());
+            Collections.addAll(params, afterDate, afterDate, after.getReviewId());
+        }
+        params.add(pageSize + 1);
+
+        List<Review> reviews = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                 reviewsPageSql(type != null, rating != null, search, after != null))) {
+
+            setParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                reviews.add(new Review(
+                    rs.getInt("review_id"),
+                    rs.getInt("user_id"),
+                    rs.getString("full_name"),
+                    rs.getInt("rating"),
+                    rs.getString("title"),
+                    rs.getString("comment"),
+                    rs.getTimestamp("review_date").toLocalDateTime(),
+                    Review.ReviewType.valueOf(rs.getString("review_type"))
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting reviews page: " + e.getMessage());
+        }
+        return Page.of(reviews, pageSize);
+    }
+
+    static final String REVIEWS_BY_USER_SQL = "SELECT r.*, u.full_name FROM reviews r " +
+        "JOIN users u ON r.user_id = u.user_id " +
+        "WHERE r.user_id = ? ORDER BY r.review_date DESC";
+
     /**
      * Get reviews by user
      */
     public List<Review> getReviewsByUser(int userId) {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT r.*, u.full_name FROM reviews r " +
-                     "JOIN users u ON r.user_id = u.user_id " +
-                     "WHERE r.user_id = ? ORDER BY r.review_date DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(REVIEWS_BY_USER_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -1215,17 +1725,18 @@ public class DataService {
         return reviews;
     }
 
+    static final String REVIEWS_BY_TYPE_SQL = "SELECT r.*, u.full_name FROM reviews r " +
+        "JOIN users u ON r.user_id = u.user_id " +
+        "WHERE r.review_type = ? ORDER BY r.review_date DESC";
+
     /**
      * Get reviews by type
      */
     public List<Review> getReviewsByType(Review.ReviewType type) {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT r.*, u.full_name FROM reviews r " +
-                     "JOIN users u ON r.user_id = u.user_id " +
-                     "WHERE r.review_type = ? ORDER BY r.review_date DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(REVIEWS_BY_TYPE_SQL)) {
 
             stmt.setString(1, type.name());
             ResultSet rs = stmt.executeQuery();
@@ -1249,13 +1760,14 @@ public class DataService {
         return reviews;
     }
 
+    static final String AVERAGE_RATING_SQL = "SELECT AVG(rating) as avg_rating FROM reviews";
+
     /**
      * Get average rating from all reviews
      */
     public double getAverageRating() {
-        String sql = "SELECT AVG(rating) as avg_rating FROM reviews";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = conn.prepareStatement(AVERAGE_RATING_SQL);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
@@ -1267,13 +1779,14 @@ public class DataService {
         return 0.0;
     }
 
+    static final String REVIEW_COUNT_SQL = "SELECT COUNT(*) as count FROM reviews";
+
     /**
      * Get total number of reviews
      */
     public int getTotalReviewCount() {
-        String sql = "SELECT COUNT(*) as count FROM reviews";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = conn.prepareStatement(REVIEW_COUNT_SQL);
              ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
@@ -1285,6 +1798,8 @@ public class DataService {
         return 0;
     }
 
+    static final String REVIEW_DISTRIBUTION_SQL = "SELECT rating, COUNT(*) as count FROM reviews GROUP BY rating";
+
     /**
      * Get review distribution by rating
      */
@@ -1295,9 +1810,8 @@ public class DataService {
             distribution.put(i, 0);
         }
 
-        String sql = "SELECT rating, COUNT(*) as count FROM reviews GROUP BY rating";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
+             PreparedStatement stmt = conn.prepareStatement(REVIEW_DISTRIBUTION_SQL);
              ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
@@ -1309,16 +1823,28 @@ public class DataService {
         return distribution;
     }
 
+    static final String DELETE_REVIEW_SQL = "DELETE FROM reviews WHERE review_id = ?";
+
     /**
      * Delete a review
      */
     public boolean deleteReview(int reviewId) {
-        String sql = "DELETE FROM reviews WHERE review_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, reviewId);
-            return stmt.executeUpdate() > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_REVIEW_SQL)) {
+                stmt.setInt(1, reviewId);
+                if (stmt.executeUpdate() > 0) {
+                    DashboardStats.Delta delta = new DashboardStats.Delta().add(DashboardStats.Counter.REVIEWS, -1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    dashboardStats.publish(delta);
+                    return true;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting review: " + e.getMessage());
         }
@@ -1329,26 +1855,44 @@ public class DataService {
     // SEAT LOCKING METHODS
     // =======================
 
+    static final String DELETE_USER_LOCKS_SQL = "DELETE FROM seat_locks WHERE screening_id = ? AND user_id = ?";
+
+    static final String INSERT_SEAT_LOCK_SQL = "INSERT INTO seat_locks (screening_id, seat_number, user_id, expires_at) VALUES (?, ?, ?, ?)";
+
+    static String expiredLocksSql(int seats) {
+        return "DELETE FROM seat_locks WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) +
+            ") AND expires_at <= NOW()";
+    }
+
+    static String unavailableSeatsSql(int seats) {
+        return "SELECT seat_number FROM seats WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) +
+            ") AND is_booked = TRUE " +
+            "UNION " +
+            "SELECT seat_number FROM seat_locks WHERE screening_id = ? AND seat_number IN (" + placeholders(seats) +
+            ") AND expires_at > NOW() AND user_id != ?";
+    }
+
     /**
      * Temporarily lock seats for a user (2-minute hold)
      */
-    public synchronized boolean lockSeats(int screeningId, List<String> seatNumbers, int userId) {
+    public boolean lockSeats(int screeningId, List<String> seatNumbers, int userId) {
+        ReentrantLock screeningLock = screeningLocks.acquire(screeningId);
         Connection conn = null;
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false);
 
-            // First, clean up expired locks
-            cleanupExpiredSeatLocks();
+            // Expired holds on the requested seats still occupy the unique key; clear just those
+            try (PreparedStatement expiredStmt = conn.prepareStatement(expiredLocksSql(seatNumbers.size()))) {
+                expiredStmt.setInt(1, screeningId);
+                for (int i = 0; i < seatNumbers.size(); i++) {
+                    expiredStmt.setString(i + 2, seatNumbers.get(i));
+                }
+                expiredStmt.executeUpdate();
+            }
 
             // Check if any of the seats are already locked or booked
-            String checkSql = "SELECT seat_number FROM seats WHERE screening_id = ? AND seat_number IN (" +
-                String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ") AND is_booked = TRUE " +
-                "UNION " +
-                "SELECT seat_number FROM seat_locks WHERE screening_id = ? AND seat_number IN (" +
-                String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ") AND expires_at > NOW() AND user_id != ?";
-
-            try (PreparedStatement checkStmt = conn.prepareStatement(checkSql)) {
+            try (PreparedStatement checkStmt = conn.prepareStatement(unavailableSeatsSql(seatNumbers.size()))) {
                 checkStmt.setInt(1, screeningId);
                 for (int i = 0; i < seatNumbers.size(); i++) {
                     checkStmt.setString(i + 2, seatNumbers.get(i));
@@ -1362,22 +1906,22 @@ public class DataService {
                 ResultSet rs = checkStmt.executeQuery();
                 if (rs.next()) {
                     conn.rollback();
+                    seatMapStore.invalidate(screeningId); // Our seat map missed someone else's change
                     return false; // Some seats are already locked/booked
                 }
             }
 
             // Remove any existing locks for this user on this screening
-            String removeLocksSql = "DELETE FROM seat_locks WHERE screening_id = ? AND user_id = ?";
-            try (PreparedStatement removeLocks = conn.prepareStatement(removeLocksSql)) {
+            try (PreparedStatement removeLocks = conn.prepareStatement(DELETE_USER_LOCKS_SQL)) {
                 removeLocks.setInt(1, screeningId);
                 removeLocks.setInt(2, userId);
                 removeLocks.executeUpdate();
             }
 
             // Create new locks
-            String lockSql = "INSERT INTO seat_locks (screening_id, seat_number, user_id, expires_at) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement lockStmt = conn.prepareStatement(lockSql)) {
-                LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(SeatLock.LOCK_DURATION_MINUTES);
+            LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(SeatLock.LOCK_DURATION_MINUTES);
+            List<Integer> lockIds = new ArrayList<>();
+            try (PreparedStatement lockStmt = conn.prepareStatement(INSERT_SEAT_LOCK_SQL, Statement.RETURN_GENERATED_KEYS)) {
 
                 for (String seatNumber : seatNumbers) {
                     lockStmt.setInt(1, screeningId);
@@ -1388,9 +1932,20 @@ public class DataService {
                 }
 
                 lockStmt.executeBatch();
+                ResultSet keys = lockStmt.getGeneratedKeys();
+                while (keys.next()) {
+                    lockIds.add(keys.getInt(1));
+                }
             }
 
             conn.commit();
+            seatMapStore.userLocksReleased(screeningId, userId);
+            seatMapStore.seatsLocked(screeningId, seatNumbers, userId, expiresAt);
+
+            long expiresAtMillis = Timestamp.valueOf(expiresAt).getTime();
+            for (int i = 0; i < lockIds.size() && i < seatNumbers.size(); i++) {
+                seatLockExpiry.schedule(lockIds.get(i), screeningId, seatNumbers.get(i), expiresAtMillis);
+            }
 
             // Notify observers about seat locks
             for (String seatNumber : seatNumbers) {
@@ -1416,62 +1971,66 @@ public class DataService {
                 }
                 DatabaseConnection.releaseConnection(conn);
             }
+            screeningLock.unlock();
         }
     }
 
+    static final String USER_LOCKS_SQL = "SELECT seat_number FROM seat_locks WHERE screening_id = ? AND user_id = ?";
+
     /**
      * Release seat locks for a user
      */
-    public synchronized void releaseSeatLocks(int screeningId, int userId) {
-        // First, get the seat numbers that will be unlocked
+    public void releaseSeatLocks(int screeningId, int userId) {
         List<String> seatNumbersToUnlock = new ArrayList<>();
-        String selectSql = "SELECT seat_number FROM seat_locks WHERE screening_id = ? AND user_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(selectSql)) {
+        int deletedRows = 0;
 
-            stmt.setInt(1, screeningId);
-            stmt.setInt(2, userId);
-            ResultSet rs = stmt.executeQuery();
+        ReentrantLock screeningLock = screeningLocks.acquire(screeningId);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // First, get the seat numbers that will be unlocked
+            try (PreparedStatement stmt = conn.prepareStatement(USER_LOCKS_SQL)) {
+                stmt.setInt(1, screeningId);
+                stmt.setInt(2, userId);
+                ResultSet rs = stmt.executeQuery();
+
+                while (rs.next()) {
+                    seatNumbersToUnlock.add(rs.getString("seat_number"));
+                }
+            }
 
-            while (rs.next()) {
-                seatNumbersToUnlock.add(rs.getString("seat_number"));
+            // Now delete the locks
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_USER_LOCKS_SQL)) {
+                stmt.setInt(1, screeningId);
+                stmt.setInt(2, userId);
+                deletedRows = stmt.executeUpdate();
             }
+            seatMapStore.userLocksReleased(screeningId, userId);
         } catch (SQLException e) {
-            System.err.println("Error fetching seat locks: " + e.getMessage());
+            System.err.println("Error releasing seat locks: " + e.getMessage());
+        } finally {
+            screeningLock.unlock();
         }
 
-        // Now delete the locks
-        String deleteSql = "DELETE FROM seat_locks WHERE screening_id = ? AND user_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
-
-            stmt.setInt(1, screeningId);
-            stmt.setInt(2, userId);
-            int deletedRows = stmt.executeUpdate();
-
-            if (deletedRows > 0) {
-                // Notify observers about each unlocked seat
-                for (String seatNumber : seatNumbersToUnlock) {
-                    notificationService.notifySeatUnlocked(screeningId, seatNumber);
-                }
-
-                // Also send a general seat update
-                List<Seat> updatedSeats = getSeatsByScreeningWithLocks(screeningId);
-                notificationService.notifySeatUpdated(screeningId, updatedSeats);
+        if (deletedRows > 0) {
+            // Notify observers about each unlocked seat
+            for (String seatNumber : seatNumbersToUnlock) {
+                notificationService.notifySeatUnlocked(screeningId, seatNumber);
             }
 
-        } catch (SQLException e) {
-            System.err.println("Error releasing seat locks: " + e.getMessage());
+            // Also send a general seat update
+            List<Seat> updatedSeats = getSeatsByScreeningWithLocks(screeningId);
+            notificationService.notifySeatUpdated(screeningId, updatedSeats);
         }
     }
 
+    static final String DELETE_SEAT_LOCK_SQL = "DELETE FROM seat_locks WHERE screening_id = ? AND seat_number = ? AND user_id = ?";
+
     /**
      * Unlock a specific seat for a user
      */
-    public synchronized void unlockSeat(int screeningId, String seatNumber, int userId) {
-        String sql = "DELETE FROM seat_locks WHERE screening_id = ? AND seat_number = ? AND user_id = ?";
+    public void unlockSeat(int screeningId, String seatNumber, int userId) {
+        ReentrantLock screeningLock = screeningLocks.acquire(screeningId);
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_SEAT_LOCK_SQL)) {
 
             stmt.setInt(1, screeningId);
             stmt.setString(2, seatNumber);
@@ -1479,276 +2038,290 @@ public class DataService {
             int deletedRows = stmt.executeUpdate();
 
             if (deletedRows > 0) {
+                seatMapStore.seatUnlocked(screeningId, seatNumber);
+
                 // Notify observers about seat unlock
                 notificationService.notifySeatUnlocked(screeningId, seatNumber);
             }
 
         } catch (SQLException e) {
             System.err.println("Error unlocking seat: " + e.getMessage());
+        } finally {
+            screeningLock.unlock();
         }
     }
 
+    static final String ALL_SEAT_LOCKS_SQL = "SELECT lock_id, screening_id, seat_number, expires_at FROM seat_locks";
+
     /**
-     * Start a background task to periodically clean up expired seat locks
+     * Schedule every lock currently in seat_locks, including ones already expired, so holds left
+     * behind by a closed or crashed client are still removed.
      */
-    private void startSeatLockCleanupTask() {
-        Thread cleanupThread = new Thread(() -> {
-            while (true) {
-                try {
-                    Thread.sleep(30000); // Run every 30 seconds
-                    cleanupExpiredSeatLocks();
-                } catch (InterruptedException e) {
-                    System.err.println("Seat lock cleanup task interrupted: " + e.getMessage());
-                    break;
-                }
+    private void scheduleExistingSeatLocks() {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(ALL_SEAT_LOCKS_SQL)) {
+
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                seatLockExpiry.schedule(rs.getInt("lock_id"), rs.getInt("screening_id"),
+                    rs.getString("seat_number"), rs.getTimestamp("expires_at").getTime());
             }
-        });
-        cleanupThread.setDaemon(true); // Make it a daemon thread so it doesn't prevent JVM shutdown
-        cleanupThread.setName("SeatLockCleanupThread");
-        cleanupThread.start();
+        } catch (SQLException e) {
+            System.err.println("Error scheduling existing seat locks: " + e.getMessage());
+        }
     }
 
+    static final String DELETE_LOCK_BY_ID_SQL = "DELETE FROM seat_locks WHERE lock_id = ?";
+
     /**
-     * Clean up expired seat locks from the database
+     * Called by the expiry wheel with the locks whose time is up. Deletes them by primary key and
+     * notifies observers for each lock that was still held; the rest were already released or booked.
      */
-    private synchronized void cleanupExpiredSeatLocks() {
-        String sql = "DELETE FROM seat_locks WHERE expires_at <= NOW()";
+    private int expireSeatLocks(List<SeatLockExpiryWheel.PendingExpiry> due) {
+        List<SeatLockExpiryWheel.PendingExpiry> expired = new ArrayList<>();
+
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_LOCK_BY_ID_SQL)) {
 
-            int deletedRows = stmt.executeUpdate();
-            if (deletedRows > 0) {
-                System.out.println("Cleaned up " + deletedRows + " expired seat locks");
+            for (SeatLockExpiryWheel.PendingExpiry lock : due) {
+                stmt.setInt(1, lock.getLockId());
+                stmt.addBatch();
+            }
+
+            int[] deleted = stmt.executeBatch();
+            for (int i = 0; i < deleted.length; i++) {
+                if (deleted[i] > 0) {
+                    expired.add(due.get(i));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Error cleaning up expired seat locks: " + e.getMessage());
+            System.err.println("Error expiring seat locks: " + e.getMessage());
+            return 0;
+        }
+
+        for (SeatLockExpiryWheel.PendingExpiry lock : expired) {
+            seatMapStore.seatUnlocked(lock.getScreeningId(), lock.getSeatNumber());
+            notificationService.notifySeatUnlocked(lock.getScreeningId(), lock.getSeatNumber());
         }
+        return expired.size();
     }
 
     /**
-     * Get seats with lock information for real-time updates
+     * Admin dashboard numbers from the incrementally maintained counters
      */
-    public List<Seat> getSeatsByScreeningWithLocks(int screeningId) {
-        List<Seat> seats = new ArrayList<>();
-        String sql = """
-            SELECT s.*, sl.user_id as locked_by_user, sl.expires_at
-            FROM seats s 
-            LEFT JOIN seat_locks sl ON s.screening_id = sl.screening_id AND s.seat_number = sl.seat_number AND sl.expires_at > NOW()
-            WHERE s.screening_id = ? 
-            ORDER BY s.row_number, CAST(SUBSTRING(s.seat_number, 2) AS UNSIGNED)
-            """;
+    public DashboardSnapshot getDashboardSnapshot() {
+        return dashboardStats.getSnapshot();
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+    public SeatLockExpiryWheel.ExpiryStats getSeatLockExpiryStats() {
+        return seatLockExpiry.getStats();
+    }
 
-            stmt.setInt(1, screeningId);
-            ResultSet rs = stmt.executeQuery();
+    static final String SEAT_MAP_SQL = "SELECT seat_id, seat_number, `row_number`, is_booked FROM seats WHERE screening_id = ?";
 
-            while (rs.next()) {
-                Seat seat = new Seat();
-                seat.setSeatId(rs.getInt("seat_id"));
-                seat.setScreeningId(rs.getInt("screening_id"));
-                seat.setSeatNumber(rs.getString("seat_number"));
-                seat.setRowNumber(rs.getString("row_number"));
-                seat.setBooked(rs.getBoolean("is_booked"));
+    static final String LIVE_LOCKS_SQL = "SELECT seat_number, user_id, expires_at FROM seat_locks WHERE screening_id = ? AND expires_at > NOW()";
 
-                // Set lock information
-                int lockedByUser = rs.getInt("locked_by_user");
-                if (lockedByUser > 0) {
-                    seat.setLocked(true);
-                    seat.setLockedByUserId(lockedByUser);
-                    Timestamp expiresAt = rs.getTimestamp("expires_at");
-                    if (expiresAt != null) {
-                        seat.setLockExpiresAt(expiresAt.toLocalDateTime());
-                    }
-                } else {
-                    seat.setLocked(false);
-                    seat.setLockedByUserId(0);
-                    seat.setLockExpiresAt(null);
+    /**
+     * Get seats with lock information for real-time updates. Served from the in-memory seat map
+     * when it is loaded; otherwise seats and live locks are read with two indexed lookups and the
+     * map is populated for the next caller.
+     */
+    public List<Seat> getSeatsByScreeningWithLocks(int screeningId) {
+        List<Seat> cached = seatMapStore.getSeats(screeningId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadToken = seatMapStore.beginLoad(screeningId);
+        Map<String, Seat> seatsByNumber = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(SEAT_MAP_SQL)) {
+                stmt.setInt(1, screeningId);
+                ResultSet rs = stmt.executeQuery();
+
+                while (rs.next()) {
+                    Seat seat = new Seat();
+                    seat.setSeatId(rs.getInt("seat_id"));
+                    seat.setScreeningId(screeningId);
+                    seat.setSeatNumber(rs.getString("seat_number"));
+                    seat.setRowNumber(rs.getString("row_number"));
+                    seat.setBooked(rs.getBoolean("is_booked"));
+                    seatsByNumber.put(seat.getSeatNumber(), seat);
                 }
+            }
 
-                seats.add(seat);
+            if (!seatsByNumber.isEmpty()) {
+                try (PreparedStatement stmt = conn.prepareStatement(LIVE_LOCKS_SQL)) {
+                    stmt.setInt(1, screeningId);
+                    ResultSet rs = stmt.executeQuery();
+
+                    while (rs.next()) {
+                        Seat seat = seatsByNumber.get(rs.getString("seat_number"));
+                        if (seat != null) {
+                            seat.setLocked(true);
+                            seat.setLockedByUserId(rs.getInt("user_id"));
+                            seat.setLockExpiresAt(rs.getTimestamp("expires_at").toLocalDateTime());
+                        }
+                    }
+                }
             }
         } catch (SQLException e) {
             System.err.println("Error getting seats with locks: " + e.getMessage());
+            return new ArrayList<>();
         }
 
-        // If no seats exist for this screening, create them
-        if (seats.isEmpty()) {
-            createSeatsForScreening(screeningId);
-            return getSeatsByScreeningWithLocks(screeningId);
+        if (seatsByNumber.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        return seats;
+        seatMapStore.install(screeningId, new ArrayList<>(seatsByNumber.values()), loadToken);
+        List<Seat> seats = seatMapStore.getSeats(screeningId);
+        return seats != null ? seats : new ArrayList<>(seatsByNumber.values());
     }
 
     /**
-     * Enhanced booking method with seat lock verification
+     * Drop the in-memory seat map so the next read goes to the database
      */
-    public synchronized Booking createBookingWithLocks(int userId, int screeningId, List<String> seatNumbers, double totalAmount) {
-        synchronized (lock) {
-            Connection conn = null;
-            try {
-                conn = DatabaseConnection.getConnection();
-                conn.setAutoCommit(false);
-
-                // Verify user has valid locks for these seats
-                String verifyLocksSql = "SELECT COUNT(*) FROM seat_locks WHERE screening_id = ? AND user_id = ? AND seat_number IN (" +
-                    String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ") AND expires_at > NOW()";
-                PreparedStatement verifyStmt = conn.prepareStatement(verifyLocksSql);
-                verifyStmt.setInt(1, screeningId);
-                verifyStmt.setInt(2, userId);
-                for (int i = 0; i < seatNumbers.size(); i++) {
-                    verifyStmt.setString(i + 3, seatNumbers.get(i));
-                }
+    public void invalidateSeatMap(int screeningId) {
+        seatMapStore.invalidate(screeningId);
+    }
 
-                ResultSet lockResult = verifyStmt.executeQuery();
-                lockResult.next();
-                int validLocks = lockResult.getInt(1);
-                verifyStmt.close();
+    /**
+     * Keep the in-memory seat maps in step with seat events published by other clients
+     */
+    private void registerSeatMapListener() {
+        notificationService.addSeatStateListener(new RealTimeNotificationService.SeatUpdateObserver() {
+            @Override
+            public void onSeatUpdated(int screeningId, List<Seat> updatedSeats) {
+                seatMapStore.replace(screeningId, updatedSeats);
+            }
 
-                if (validLocks != seatNumbers.size()) {
-                    conn.rollback();
-                    return null; // User doesn't have valid locks for all seats
-                }
+            @Override
+            public void onSeatLocked(int screeningId, String seatNumber, int userId) {
+                seatMapStore.seatsLocked(screeningId, List.of(seatNumber), userId,
+                    LocalDateTime.now().plusMinutes(SeatLock.LOCK_DURATION_MINUTES));
+            }
 
-                // Check if seats are still available
-                String checkSeatSql = "SELECT seat_number FROM seats WHERE screening_id = ? AND seat_number IN (" +
-                    String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ") AND is_booked = TRUE";
-                PreparedStatement checkStmt = conn.prepareStatement(checkSeatSql);
-                checkStmt.setInt(1, screeningId);
-                for (int i = 0; i < seatNumbers.size(); i++) {
-                    checkStmt.setString(i + 2, seatNumbers.get(i));
-                }
+            @Override
+            public void onSeatUnlocked(int screeningId, String seatNumber) {
+                seatMapStore.seatUnlocked(screeningId, seatNumber);
+            }
 
-                ResultSet bookedSeats = checkStmt.executeQuery();
-                if (bookedSeats.next()) {
-                    checkStmt.close();
-                    conn.rollback();
-                    return null; // Some seats are already booked
-                }
-                checkStmt.close();
+            @Override
+            public void onSeatBooked(int screeningId, String seatNumber) {
+                seatMapStore.seatsBooked(screeningId, List.of(seatNumber));
+            }
+        });
+        // Events were skipped, so no cached map can be trusted
+        notificationService.addResyncListener(seatMapStore::invalidateAll);
+    }
 
-                // Mark seats as booked
-                String updateSeatSql = "UPDATE seats SET is_booked = TRUE WHERE screening_id = ? AND seat_number = ?";
-                PreparedStatement seatStmt = conn.prepareStatement(updateSeatSql);
+    static String consumeLocksSql(int seats) {
+        return "DELETE FROM seat_locks WHERE screening_id = ? AND user_id = ? AND seat_number IN (" +
+            placeholders(seats) + ") AND expires_at > NOW()";
+    }
 
-                for (String seatNumber : seatNumbers) {
-                    seatStmt.setInt(1, screeningId);
-                    seatStmt.setString(2, seatNumber);
-                    seatStmt.addBatch();
-                }
+    /**
+     * Enhanced booking method with seat lock verification. Like {@link #createBooking}, it relies on
+     * conditional writes instead of an application lock: the user's unexpired locks are consumed
+     * with a single DELETE and the seats are claimed with a conditional UPDATE.
+     */
+    public Booking createBookingWithLocks(int userId, int screeningId, List<String> seatNumbers, double totalAmount) {
+        List<String> seats = new ArrayList<>(new LinkedHashSet<>(seatNumbers));
+        if (seats.isEmpty()) {
+            return null;
+        }
 
-                seatStmt.executeBatch();
-                seatStmt.close();
+        Connection conn = null;
+        try {
+            conn = DatabaseConnection.getConnection();
+            conn.setAutoCommit(false);
 
-                // Remove seat locks
-                String removeLocksSql = "DELETE FROM seat_locks WHERE screening_id = ? AND user_id = ? AND seat_number IN (" +
-                    String.join(",", Collections.nCopies(seatNumbers.size(), "?")) + ")";
-                PreparedStatement removeLocks = conn.prepareStatement(removeLocksSql);
-                removeLocks.setInt(1, screeningId);
-                removeLocks.setInt(2, userId);
-                for (int i = 0; i < seatNumbers.size(); i++) {
-                    removeLocks.setString(i + 3, seatNumbers.get(i));
+            // Consume the user's valid locks; fewer deleted rows means a lock expired or belongs to someone else
+            try (PreparedStatement consumeLocks = conn.prepareStatement(consumeLocksSql(seats.size()))) {
+                consumeLocks.setInt(1, screeningId);
+                consumeLocks.setInt(2, userId);
+                for (int i = 0; i < seats.size(); i++) {
+                    consumeLocks.setString(i + 3, seats.get(i));
                 }
-                removeLocks.executeUpdate();
-                removeLocks.close();
-
-                // Update available seats count
-                String updateScreeningSql = "UPDATE screenings SET available_seats = available_seats - ? WHERE screening_id = ?";
-                PreparedStatement screeningStmt = conn.prepareStatement(updateScreeningSql);
-                screeningStmt.setInt(1, seatNumbers.size());
-                screeningStmt.setInt(2, screeningId);
-                screeningStmt.executeUpdate();
-                screeningStmt.close();
-
-                // Create booking record
-                String insertBookingSql = "INSERT INTO bookings (user_id, screening_id, seat_ids, total_amount, status) VALUES (?, ?, ?, ?, ?)";
-                PreparedStatement bookingStmt = conn.prepareStatement(insertBookingSql, Statement.RETURN_GENERATED_KEYS);
-                bookingStmt.setInt(1, userId);
-                bookingStmt.setInt(2, screeningId);
-                bookingStmt.setString(3, String.join(",", seatNumbers));
-                bookingStmt.setDouble(4, totalAmount);
-                bookingStmt.setString(5, Booking.BookingStatus.CONFIRMED.toString());
-
-                int result = bookingStmt.executeUpdate();
-                if (result > 0) {
-                    ResultSet keys = bookingStmt.getGeneratedKeys();
-                    if (keys.next()) {
-                        int bookingId = keys.getInt(1);
-                        conn.commit();
+                if (consumeLocks.executeUpdate() != seats.size()) {
+                    conn.rollback();
+                    return null; // User doesn't have valid locks for all seats
+                }
+            }
+
+            if (!claimSeats(conn, screeningId, seats)) {
+                conn.rollback();
+                seatMapStore.invalidate(screeningId);
+                return null; // Some seats are already booked
+            }
 
-                        // Notify observers about seat bookings
-                        for (String seatNumber : seatNumbers) {
-                            notificationService.notifySeatBooked(screeningId, seatNumber);
-                        }
+            int bookingId = insertConfirmedBooking(conn, userId, screeningId, seats, totalAmount);
+            if (bookingId > 0) {
+                conn.commit();
+                seatMapStore.seatsBooked(screeningId, seats);
+                catalogCache.seatsBooked(screeningId, seats.size());
+                dashboardStats.publish(confirmedBookingDelta(seats, totalAmount));
 
-                        // Create and return booking object
-                        Booking booking = new Booking();
-                        booking.setBookingId(bookingId);
-                        booking.setUserId(userId);
-                        booking.setScreeningId(screeningId);
-                        booking.setSeatIds(String.join(",", seatNumbers));
-                        booking.setSeatNumbers(seatNumbers);
-                        booking.setTotalAmount(totalAmount);
-                        booking.setStatus(Booking.BookingStatus.CONFIRMED);
-                        booking.setBookingDate(LocalDateTime.now());
-
-                        bookingStmt.close();
-                        return booking;
-                    }
+                // Notify observers about seat bookings
+                for (String seatNumber : seats) {
+                    notificationService.notifySeatBooked(screeningId, seatNumber);
                 }
-                bookingStmt.close();
 
-            } catch (SQLException e) {
-                try {
-                    if (conn != null) conn.rollback();
-                } catch (SQLException rollbackEx) {
-                    System.err.println("Error rolling back booking transaction: " + rollbackEx.getMessage());
-                }
-                System.err.println("Error creating booking with locks: " + e.getMessage());
-            } finally {
-                try {
-                    if (conn != null) {
-                        conn.setAutoCommit(true);
-                        conn.close();
-                    }
-                } catch (SQLException e) {
-                    System.err.println("Error closing connection: " + e.getMessage());
+                return buildConfirmedBooking(bookingId, userId, screeningId, seats, totalAmount);
+            }
+            conn.rollback();
+
+        } catch (SQLException e) {
+            try {
+                if (conn != null) conn.rollback();
+            } catch (SQLException rollbackEx) {
+                System.err.println("Error rolling back booking transaction: " + rollbackEx.getMessage());
+            }
+            System.err.println("Error creating booking with locks: " + e.getMessage());
+        } finally {
+            try {
+                if (conn != null) {
+                    conn.setAutoCommit(true);
+                    conn.close();
                 }
+            } catch (SQLException e) {
+                System.err.println("Error closing connection: " + e.getMessage());
             }
         }
         return null;
     }
 
 
+    static final String TICKETS_SOLD_SQL = """
+        SELECT COUNT(*)
+        FROM booking_seats bs
+        JOIN bookings b ON bs.booking_id = b.booking_id
+        WHERE b.status = 'CONFIRMED'
+        """;
+
     // Statistical methods for admin dashboard
     public int getTotalTicketsSold() {
-        int totalTickets = 0;
-        String sql = "SELECT seat_ids FROM bookings WHERE status = 'CONFIRMED'";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(TICKETS_SOLD_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
-            while (rs.next()) {
-                String seatIds = rs.getString("seat_ids");
-                if (seatIds != null && !seatIds.trim().isEmpty()) {
-                    // Count the number of seats by splitting the comma-separated seat IDs
-                    String[] seats = seatIds.split(",");
-                    totalTickets += seats.length;
-                }
+            if (rs.next()) {
+                return rs.getInt(1);
             }
         } catch (SQLException e) {
             System.err.println("Error getting total tickets sold: " + e.getMessage());
         }
-        return totalTickets;
+        return 0;
     }
 
+    static final String TOTAL_REVENUE_SQL = "SELECT SUM(total_amount) FROM bookings WHERE status = 'CONFIRMED'";
+
     public double getTotalRevenue() {
-        String sql = "SELECT SUM(total_amount) FROM bookings WHERE status = 'CONFIRMED'";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(TOTAL_REVENUE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
                 return rs.getDouble(1);
@@ -1759,11 +2332,12 @@ public class DataService {
         return 0.0;
     }
 
+    static final String MOVIE_COUNT_SQL = "SELECT COUNT(*) FROM movies";
+
     public int getAvailableMoviesCount() {
-        String sql = "SELECT COUNT(*) FROM movies";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(MOVIE_COUNT_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
                 return rs.getInt(1);
@@ -1774,11 +2348,12 @@ public class DataService {
         return 0;
     }
 
+    static final String CUSTOMER_COUNT_SQL = "SELECT COUNT(*) FROM users WHERE role = 'USER'";
+
     public int getTotalUsersCount() {
-        String sql = "SELECT COUNT(*) FROM users WHERE role = 'USER'";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(CUSTOMER_COUNT_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             if (rs.next()) {
                 return rs.getInt(1);
@@ -1789,23 +2364,23 @@ public class DataService {
         return 0;
     }
 
+    static String searchUsersSql(boolean numericSearch) {
+        if (numericSearch) {
+            // Search by user ID or other fields
+            return "SELECT * FROM users WHERE user_id = ? OR username LIKE ? OR full_name LIKE ? OR email LIKE ? ORDER BY full_name";
+        }
+        // Search by username, full name, or email only
+        return "SELECT * FROM users WHERE username LIKE ? OR full_name LIKE ? OR email LIKE ? ORDER BY full_name";
+    }
+
     public List<User> searchUsers(String searchTerm) {
         List<User> users = new ArrayList<>();
 
         // Check if search term is a number (user ID search)
         boolean isNumericSearch = searchTerm.matches("\\d+");
 
-        String sql;
-        if (isNumericSearch) {
-            // Search by user ID or other fields
-            sql = "SELECT * FROM users WHERE user_id = ? OR username LIKE ? OR full_name LIKE ? OR email LIKE ? ORDER BY full_name";
-        } else {
-            // Search by username, full name, or email only
-            sql = "SELECT * FROM users WHERE username LIKE ? OR full_name LIKE ? OR email LIKE ? ORDER BY full_name";
-        }
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(searchUsersSql(isNumericSearch))) {
 
             String searchPattern = "%" + searchTerm + "%";
 
@@ -1837,10 +2412,70 @@ public class DataService {
         return users;
     }
 
+    // The statement getUsersPage runs for a combination of filters
+    static String usersPageSql(boolean bySearch, boolean numericSearch, boolean afterUser) {
+        StringBuilder sql = new StringBuilder("SELECT * FROM users WHERE 1 = 1");
+        if (bySearch && numericSearch) {
+            sql.append(" AND (user_id = ? OR username LIKE ? OR full_name LIKE ? OR email LIKE ?)");
+        } else if (bySearch) {
+            sql.append(" AND (username LIKE ? OR full_name LIKE ? OR email LIKE ?)");
+        }
+        if (afterUser) {
+            sql.append(" AND (full_name > ? OR (full_name = ? AND user_id > ?))");
+        }
+        return sql.append(" ORDER BY full_name, user_id LIMIT ?").toString();
+    }
+
+    /**
+     * One page of users ordered by name, keyset-paginated on (full_name, user_id). The optional
+     * search term matches username, name or email, or the user ID when it is numeric.
+     */
+    public Page<User> getUsersPage(String searchTerm, User after, int pageSize) {
+        boolean search = searchTerm != null && !searchTerm.isEmpty();
+        boolean numericSearch = search && searchTerm.matches("\\d+");
+        List<Object> params = new ArrayList<>();
+
+        if (search) {
+            String searchPattern = "%" + searchTerm + "%";
+            if (numericSearch) {
+                Collections.addAll(params, Integer.parseInt(searchTerm), searchPattern, searchPattern, searchPattern);
+            } else {
+                Collections.addAll(params, searchPattern, searchPattern, searchPattern);
+            }
+        }
+        if (after != null) {
+            Collections.addAll(params, after.getFullName(), after.getFullName(), after.getUserId());
+        }
+        params.add(pageSize + 1);
+
+        List<User> users = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(usersPageSql(search, numericSearch, after != null))) {
+
+            setParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                users.add(new User(
+                    rs.getInt("user_id"),
+                    rs.getString("username"),
+                    rs.getString("password"),
+                    rs.getString("email"),
+                    rs.getString("full_name"),
+                    UserRole.valueOf(rs.getString("role")),
+                    rs.getString("profile_picture_path")
+                ));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting users page: " + e.getMessage());
+        }
+        return Page.of(users, pageSize);
+    }
+
+    static final String UPDATE_USER_SQL = "UPDATE users SET username = ?, email = ?, full_name = ?, password = ?, role = ?, profile_picture_path = ? WHERE user_id = ?";
+
     public boolean updateUser(User user) {
-        String sql = "UPDATE users SET username = ?, email = ?, full_name = ?, password = ?, role = ?, profile_picture_path = ? WHERE user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_USER_SQL)) {
 
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getEmail());
@@ -1850,21 +2485,25 @@ public class DataService {
             stmt.setString(6, user.getProfilePicturePath());
             stmt.setInt(7, user.getUserId());
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                dashboardStats.requestReconcile(); // The role may have changed
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating user: " + e.getMessage());
         }
         return false;
     }
 
+    static final String UPDATE_USER_PROFILE_SQL = "UPDATE users SET username = ?, email = ?, full_name = ?, profile_picture_path = ? WHERE user_id = ?";
+
     /**
      * Update user profile (username, email, full name, profile picture - used by users to edit their own profile)
      * Also updates the current user object if it's the same user
      */
     public boolean updateUserProfile(User user) {
-        String sql = "UPDATE users SET username = ?, email = ?, full_name = ?, profile_picture_path = ? WHERE user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_USER_PROFILE_SQL)) {
 
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getEmail());
@@ -1889,14 +2528,17 @@ public class DataService {
         return false;
     }
 
+    static final String USER_BY_USERNAME_AND_EMAIL_SQL = "SELECT user_id FROM users WHERE username = ? AND email = ?";
+
+    static final String UPDATE_PASSWORD_SQL = "UPDATE users SET password = ? WHERE user_id = ?";
+
     /**
      * Reset user password by verifying username and email
      */
     public boolean resetUserPassword(String username, String email, String newPassword) {
         // First verify that the username and email combination exists
-        String verifySql = "SELECT user_id FROM users WHERE username = ? AND email = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement verifyStmt = conn.prepareStatement(verifySql)) {
+             PreparedStatement verifyStmt = conn.prepareStatement(USER_BY_USERNAME_AND_EMAIL_SQL)) {
 
             verifyStmt.setString(1, username);
             verifyStmt.setString(2, email);
@@ -1905,9 +2547,8 @@ public class DataService {
             if (rs.next()) {
                 // User found, update the password
                 int userId = rs.getInt("user_id");
-                String updateSql = "UPDATE users SET password = ? WHERE user_id = ?";
 
-                try (PreparedStatement updateStmt = conn.prepareStatement(updateSql)) {
+                try (PreparedStatement updateStmt = conn.prepareStatement(UPDATE_PASSWORD_SQL)) {
                     updateStmt.setString(1, newPassword);
                     updateStmt.setInt(2, userId);
 
@@ -1921,11 +2562,12 @@ public class DataService {
         return false;
     }
 
+    static final String PASSWORD_BY_USER_SQL = "SELECT password FROM users WHERE user_id = ?";
+
     public boolean updateUserPassword(int userId, String currentPassword, String newPassword) {
         // First verify the current password
-        String verifySQL = "SELECT password FROM users WHERE user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement verifyStmt = conn.prepareStatement(verifySQL)) {
+             PreparedStatement verifyStmt = conn.prepareStatement(PASSWORD_BY_USER_SQL)) {
 
             verifyStmt.setInt(1, userId);
             ResultSet rs = verifyStmt.executeQuery();
@@ -1944,9 +2586,8 @@ public class DataService {
         }
 
         // Update the password
-        String updateSQL = "UPDATE users SET password = ? WHERE user_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement updateStmt = conn.prepareStatement(updateSQL)) {
+             PreparedStatement updateStmt = conn.prepareStatement(UPDATE_PASSWORD_SQL)) {
 
             updateStmt.setString(1, newPassword);
             updateStmt.setInt(2, userId);
@@ -1965,6 +2606,8 @@ public class DataService {
         return false;
     }
 
+    static final String DELETE_USER_SQL = "DELETE FROM users WHERE user_id = ? AND role != 'ADMIN'";
+
     public boolean deleteUser(int userId) {
         // Don't allow deletion of admin users
         User user = getUserById(userId);
@@ -1972,25 +2615,41 @@ public class DataService {
             return false;
         }
 
-        String sql = "DELETE FROM users WHERE user_id = ? AND role != 'ADMIN'";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, userId);
-            return stmt.executeUpdate() > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(DELETE_USER_SQL)) {
+                stmt.setInt(1, userId);
+                if (stmt.executeUpdate() > 0) {
+                    DashboardStats.Delta delta = new DashboardStats.Delta().add(DashboardStats.Counter.USERS, -1);
+                    dashboardStats.write(conn, delta);
+                    conn.commit();
+                    dashboardStats.publish(delta);
+                    dashboardStats.requestReconcile(); // The user's bookings and reviews cascade away
+                    return true;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting user: " + e.getMessage());
         }
         return false;
     }
 
+    static final String DELETE_SCREENING_SQL = "DELETE FROM screenings WHERE screening_id = ?";
+
     public boolean deleteScreening(int screeningId) {
-        String sql = "DELETE FROM screenings WHERE screening_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(DELETE_SCREENING_SQL)) {
 
             stmt.setInt(1, screeningId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                catalogCache.invalidateScreenings();
+                dashboardStats.requestReconcile(); // Bookings for the screening cascade away
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting screening: " + e.getMessage());
         }
@@ -2001,40 +2660,51 @@ public class DataService {
     // CHAT MESSAGING METHODS
     // =======================
 
+    // Longest message preview kept in the conversations table
+    private static final int CONVERSATION_SNIPPET_LENGTH = 100;
+
+    static final String INSERT_MESSAGE_SQL = "INSERT INTO messages (sender_id, receiver_id, content) VALUES (?, ?, ?)";
+
     /**
      * Send a chat message between users
      */
     public boolean sendMessage(int senderId, int receiverId, String content) {
-        String sql = "INSERT INTO messages (sender_id, receiver_id, content) VALUES (?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        User sender = getUserById(senderId);
+        User receiver = getUserById(receiverId);
 
-            stmt.setInt(1, senderId);
-            stmt.setInt(2, receiverId);
-            stmt.setString(3, content);
-
-            int result = stmt.executeUpdate();
-            if (result > 0) {
-                ResultSet keys = stmt.getGeneratedKeys();
-                if (keys.next()) {
-                    int messageId = keys.getInt(1);
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_MESSAGE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setInt(1, senderId);
+                stmt.setInt(2, receiverId);
+                stmt.setString(3, content);
 
-                    // Create ChatMessage object and notify observers
-                    ChatMessage message = new ChatMessage(senderId, receiverId, content);
-                    message.setMessageId(messageId);
-                    message.setTimestamp(LocalDateTime.now());
+                int result = stmt.executeUpdate();
+                if (result > 0) {
+                    ResultSet keys = stmt.getGeneratedKeys();
+                    if (keys.next()) {
+                        int messageId = keys.getInt(1);
+                        updateConversationOnSend(conn, sender, receiver, content);
+                        conn.commit();
 
-                    // Get sender and receiver names
-                    User sender = getUserById(senderId);
-                    User receiver = getUserById(receiverId);
-                    if (sender != null) message.setSenderName(sender.getFullName());
-                    if (receiver != null) message.setReceiverName(receiver.getFullName());
+                        // Create ChatMessage object and notify observers
+                        ChatMessage message = new ChatMessage(senderId, receiverId, content);
+                        message.setMessageId(messageId);
+                        message.setTimestamp(LocalDateTime.now());
+                        if (sender != null) message.setSenderName(sender.getFullName());
+                        if (receiver != null) message.setReceiverName(receiver.getFullName());
 
-                    // Notify observers about new message
-                    notificationService.notifyMessageReceived(message);
+                        // Notify observers about new message
+                        notificationService.notifyMessageReceived(message);
+                        notificationService.notifyUnreadChanged(receiverId, 1);
 
-                    return true;
+                        return true;
+                    }
                 }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error sending message: " + e.getMessage());
@@ -2042,25 +2712,154 @@ public class DataService {
         return false;
     }
 
+    static final String CONVERSATION_ON_SEND_SQL = """
+        INSERT INTO conversations (user_id, last_message_at, last_message_snippet, last_sender_id, unread_for_admins)
+        VALUES (?, CURRENT_TIMESTAMP, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE last_message_at = CURRENT_TIMESTAMP, last_message_snippet = ?,
+            last_sender_id = ?, unread_for_admins = unread_for_admins + ?
+        """;
+
+    /**
+     * Move the user's entry to the top of the admin inbox. Only chats between a user and an
+     * admin are listed; anything else leaves the conversations table alone.
+     */
+    private void updateConversationOnSend(Connection conn, User sender, User receiver, String content) throws SQLException {
+        if (sender == null || receiver == null) {
+            return;
+        }
+        int userId;
+        int unreadDelta;
+        if (sender.getRole() == UserRole.USER && receiver.getRole() == UserRole.ADMIN) {
+            userId = sender.getUserId();
+            unreadDelta = 1;
+        } else if (sender.getRole() == UserRole.ADMIN && receiver.getRole() == UserRole.USER) {
+            userId = receiver.getUserId();
+            unreadDelta = 0;
+        } else {
+            return;
+        }
+
+        String snippet = conversationSnippet(content);
+        try (PreparedStatement stmt = conn.prepareStatement(CONVERSATION_ON_SEND_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setString(2, snippet);
+            stmt.setInt(3, sender.getUserId());
+            stmt.setInt(4, unreadDelta);
+            stmt.setString(5, snippet);
+            stmt.setInt(6, sender.getUserId());
+            stmt.setInt(7, unreadDelta);
+            stmt.executeUpdate();
+        }
+    }
+
+    static final String LATEST_ADMIN_CHAT_MESSAGE_SQL = """
+        SELECT m.timestamp, m.content, m.sender_id
+        FROM (
+            (SELECT m1.message_id, m1.timestamp, m1.content, m1.sender_id FROM messages m1
+             JOIN users s1 ON m1.sender_id = s1.user_id
+             JOIN users r1 ON m1.receiver_id = r1.user_id
+             WHERE m1.sender_id = ? AND s1.role = 'USER' AND r1.role = 'ADMIN'
+             ORDER BY m1.message_id DESC LIMIT 1)
+            UNION ALL
+            (SELECT m2.message_id, m2.timestamp, m2.content, m2.sender_id
+             FROM messages m2 FORCE INDEX (idx_messages_receiver_history)
+             JOIN users s2 ON m2.sender_id = s2.user_id
+             JOIN users r2 ON m2.receiver_id = r2.user_id
+             WHERE m2.receiver_id = ? AND r2.role = 'USER' AND s2.role = 'ADMIN'
+             ORDER BY m2.message_id DESC LIMIT 1)
+        ) m
+        ORDER BY m.message_id DESC
+        LIMIT 1
+        """;
+
+    static final String UNREAD_FOR_ADMINS_SQL = """
+        SELECT COUNT(*) FROM messages m
+        JOIN users r ON m.receiver_id = r.user_id
+        WHERE m.sender_id = ? AND r.role = 'ADMIN' AND m.is_read = FALSE
+        """;
+
+    static final String UPSERT_CONVERSATION_SQL = """
+        INSERT INTO conversations (user_id, last_message_at, last_message_snippet, last_sender_id, unread_for_admins)
+        VALUES (?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE last_message_at = ?, last_message_snippet = ?, last_sender_id = ?, unread_for_admins = ?
+        """;
+
+    static final String DELETE_CONVERSATION_SQL = "DELETE FROM conversations WHERE user_id = ?";
+
+    /**
+     * Rebuild a user's inbox entry from the messages that are left, e.g. after part of the
+     * history was deleted. Removes the entry if no chat with an admin remains.
+     */
+    private void refreshConversation(Connection conn, int userId) throws SQLException {
+        Timestamp lastMessageAt;
+        String snippet;
+        int lastSenderId;
+        try (PreparedStatement stmt = conn.prepareStatement(LATEST_ADMIN_CHAT_MESSAGE_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setInt(2, userId);
+            ResultSet rs = stmt.executeQuery();
+            if (!rs.next()) {
+                try (PreparedStatement deleteStmt = conn.prepareStatement(DELETE_CONVERSATION_SQL)) {
+                    deleteStmt.setInt(1, userId);
+                    deleteStmt.executeUpdate();
+                }
+                return;
+            }
+            lastMessageAt = rs.getTimestamp("timestamp");
+            snippet = conversationSnippet(rs.getString("content"));
+            lastSenderId = rs.getInt("sender_id");
+        }
+
+        int unread = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(UNREAD_FOR_ADMINS_SQL)) {
+            stmt.setInt(1, userId);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                unread = rs.getInt(1);
+            }
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(UPSERT_CONVERSATION_SQL)) {
+            stmt.setInt(1, userId);
+            stmt.setTimestamp(2, lastMessageAt);
+            stmt.setString(3, snippet);
+            stmt.setInt(4, lastSenderId);
+            stmt.setInt(5, unread);
+            stmt.setTimestamp(6, lastMessageAt);
+            stmt.setString(7, snippet);
+            stmt.setInt(8, lastSenderId);
+            stmt.setInt(9, unread);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static String conversationSnippet(String content) {
+        return content.length() > CONVERSATION_SNIPPET_LENGTH
+            ? content.substring(0, CONVERSATION_SNIPPET_LENGTH) : content;
+    }
+
+    static final String CHAT_HISTORY_SQL = """
+        SELECT m.*,
+               s.full_name as sender_name,
+               r.full_name as receiver_name
+        FROM (
+            (SELECT * FROM messages WHERE sender_id = ? AND receiver_id = ?)
+            UNION ALL
+            (SELECT * FROM messages WHERE sender_id = ? AND receiver_id = ?)
+        ) m
+        JOIN users s ON m.sender_id = s.user_id
+        JOIN users r ON m.receiver_id = r.user_id
+        ORDER BY m.message_id
+        """;
+
     /**
      * Get chat history between two users
      */
     public List<ChatMessage> getChatHistory(int userId1, int userId2) {
         List<ChatMessage> messages = new ArrayList<>();
-        String sql = """
-            SELECT m.*, 
-                   s.full_name as sender_name, 
-                   r.full_name as receiver_name
-            FROM messages m
-            JOIN users s ON m.sender_id = s.user_id
-            JOIN users r ON m.receiver_id = r.user_id
-            WHERE (m.sender_id = ? AND m.receiver_id = ?) 
-               OR (m.sender_id = ? AND m.receiver_id = ?)
-            ORDER BY m.timestamp ASC
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(CHAT_HISTORY_SQL)) {
 
             stmt.setInt(1, userId1);
             stmt.setInt(2, userId2);
@@ -2086,22 +2885,41 @@ public class DataService {
         return messages;
     }
 
+    static final String MARK_READ_SQL = "UPDATE messages SET is_read = TRUE WHERE receiver_id = ? AND sender_id = ? AND is_read = FALSE";
+
+    static final String CONVERSATION_MARK_READ_SQL = "UPDATE conversations SET unread_for_admins = GREATEST(unread_for_admins - ?, 0) " +
+        "WHERE user_id = ? AND EXISTS (SELECT 1 FROM users WHERE user_id = ? AND role = 'ADMIN')";
+
     /**
      * Mark messages as read
      */
     public boolean markMessagesAsRead(int receiverId, int senderId) {
-        String sql = "UPDATE messages SET is_read = TRUE WHERE receiver_id = ? AND sender_id = ? AND is_read = FALSE";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, receiverId);
-            stmt.setInt(2, senderId);
+        // The inbox counts a user's messages no admin has read; only an admin reading them lowers it
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(MARK_READ_SQL)) {
+                stmt.setInt(1, receiverId);
+                stmt.setInt(2, senderId);
+
+                int updatedRows = stmt.executeUpdate();
+                if (updatedRows > 0) {
+                    try (PreparedStatement conversationStmt = conn.prepareStatement(CONVERSATION_MARK_READ_SQL)) {
+                        conversationStmt.setInt(1, updatedRows);
+                        conversationStmt.setInt(2, senderId);
+                        conversationStmt.setInt(3, receiverId);
+                        conversationStmt.executeUpdate();
+                    }
+                    conn.commit();
 
-            int updatedRows = stmt.executeUpdate();
-            if (updatedRows > 0) {
-                // Notify observers about messages being read
-                notificationService.notifyMessageRead(0, receiverId); // messageId 0 indicates bulk update
-                return true;
+                    // Notify observers about messages being read
+                    notificationService.notifyMessageRead(0, receiverId); // messageId 0 indicates bulk update
+                    notificationService.notifyUnreadChanged(receiverId, -updatedRows);
+                    return true;
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
             }
         } catch (SQLException e) {
             System.err.println("Error marking messages as read: " + e.getMessage());
@@ -2110,12 +2928,32 @@ public class DataService {
     }
 
     /**
-     * Get unread message count for a user
+     * Get unread message count for a user. For the user being tracked this is the pushed count
+     * and costs no query.
      */
     public int getUnreadMessageCount(int userId) {
-        String sql = "SELECT COUNT(*) FROM messages WHERE receiver_id = ? AND is_read = FALSE";
+        if (notificationService.isTrackingUnread(userId)) {
+            return notificationService.getUnreadCount();
+        }
+        return loadUnreadMessageCount(userId);
+    }
+
+    /**
+     * Read the user's unread count once and keep it current from pushed changes for the rest of
+     * the session. Returns the count. Runs a query, so call it off the FX thread.
+     */
+    public int trackUnreadMessages(int userId) {
+        if (!notificationService.isTrackingUnread(userId)) {
+            notificationService.startUnreadTracking(userId, () -> loadUnreadMessageCount(userId));
+        }
+        return notificationService.getUnreadCount();
+    }
+
+    static final String UNREAD_COUNT_SQL = "SELECT COUNT(*) FROM messages WHERE receiver_id = ? AND is_read = FALSE";
+
+    private int loadUnreadMessageCount(int userId) {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UNREAD_COUNT_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -2129,44 +2967,78 @@ public class DataService {
         return 0;
     }
 
+    static final String UNREAD_IN_CHAT_SQL = "SELECT receiver_id, COUNT(*) FROM messages " +
+        "WHERE ((sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?)) AND is_read = FALSE " +
+        "GROUP BY receiver_id";
+
+    static final String DELETE_CHAT_SQL = "DELETE FROM messages WHERE (sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?)";
+
     /**
      * Delete entire chat history between two users (admin only)
      */
     public boolean deleteChatHistory(int userId1, int userId2) {
-        String sql = "DELETE FROM messages WHERE (sender_id = ? AND receiver_id = ?) OR (sender_id = ? AND receiver_id = ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Unread messages about to disappear, per receiver, so their unread counts can drop too
+                Map<Integer, Integer> unreadByReceiver = new HashMap<>();
+                try (PreparedStatement stmt = conn.prepareStatement(UNREAD_IN_CHAT_SQL)) {
+                    stmt.setInt(1, userId1);
+                    stmt.setInt(2, userId2);
+                    stmt.setInt(3, userId2);
+                    stmt.setInt(4, userId1);
+                    ResultSet rs = stmt.executeQuery();
+                    while (rs.next()) {
+                        unreadByReceiver.put(rs.getInt(1), rs.getInt(2));
+                    }
+                }
 
-            stmt.setInt(1, userId1);
-            stmt.setInt(2, userId2);
-            stmt.setInt(3, userId2);
-            stmt.setInt(4, userId1);
+                try (PreparedStatement stmt = conn.prepareStatement(DELETE_CHAT_SQL)) {
+                    stmt.setInt(1, userId1);
+                    stmt.setInt(2, userId2);
+                    stmt.setInt(3, userId2);
+                    stmt.setInt(4, userId1);
 
-            return stmt.executeUpdate() > 0;
+                    if (stmt.executeUpdate() > 0) {
+                        // The user may still have messages with other admins
+                        refreshConversation(conn, userId1);
+                        refreshConversation(conn, userId2);
+                        conn.commit();
+                        unreadByReceiver.forEach((receiverId, count) ->
+                            notificationService.notifyUnreadChanged(receiverId, -count));
+                        return true;
+                    }
+                }
+                conn.rollback();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting chat history: " + e.getMessage());
         }
         return false;
     }
 
+    static final String USERS_WITH_UNREAD_SQL = """
+        SELECT DISTINCT u.*, 
+               COUNT(m.message_id) as unread_count,
+               MAX(m.timestamp) as last_message_time
+        FROM users u 
+        JOIN messages m ON u.user_id = m.sender_id 
+        WHERE m.receiver_id = ? AND m.is_read = FALSE AND u.role = 'USER'
+        GROUP BY u.user_id, u.username, u.password, u.email, u.full_name, u.role
+        ORDER BY last_message_time DESC
+        """;
+
     /**
      * Get all users who have chatted with admin (for admin dashboard)
      */
     public List<User> getUsersWithUnreadMessages(int adminId) {
         List<User> users = new ArrayList<>();
-        String sql = """
-            SELECT DISTINCT u.*, 
-                   COUNT(m.message_id) as unread_count,
-                   MAX(m.timestamp) as last_message_time
-            FROM users u 
-            JOIN messages m ON u.user_id = m.sender_id 
-            WHERE m.receiver_id = ? AND m.is_read = FALSE AND u.role = 'USER'
-            GROUP BY u.user_id, u.username, u.password, u.email, u.full_name, u.role
-            ORDER BY last_message_time DESC
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USERS_WITH_UNREAD_SQL)) {
 
             stmt.setInt(1, adminId);
             ResultSet rs = stmt.executeQuery();
@@ -2188,14 +3060,15 @@ public class DataService {
         return users;
     }
 
+    static final String BOOKINGS_BY_STATUS_SQL = "SELECT status, COUNT(*) as count FROM bookings GROUP BY status";
+
     // Statistics methods for charts
     public Map<String, Integer> getBookingsByStatus() {
         Map<String, Integer> statusMap = new LinkedHashMap<>();
-        String sql = "SELECT status, COUNT(*) as count FROM bookings GROUP BY status";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(BOOKINGS_BY_STATUS_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 statusMap.put(rs.getString("status"), rs.getInt("count"));
@@ -2206,13 +3079,14 @@ public class DataService {
         return statusMap;
     }
 
+    static final String MOVIE_GENRES_SQL = "SELECT genre FROM movies";
+
     public Map<String, Integer> getMoviesByGenre() {
         Map<String, Integer> genreMap = new HashMap<>();
-        String sql = "SELECT genre FROM movies";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(MOVIE_GENRES_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 String genreString = rs.getString("genre");
@@ -2237,22 +3111,23 @@ public class DataService {
                 .collect(LinkedHashMap::new, (m, e) -> m.put(e.getKey(), e.getValue()), Map::putAll);
     }
 
+    static final String REVENUE_BY_MOVIE_SQL = """
+        SELECT m.title, SUM(b.total_amount) as revenue
+        FROM bookings b
+        JOIN screenings s ON b.screening_id = s.screening_id
+        JOIN movies m ON s.movie_id = m.movie_id
+        WHERE b.status = 'CONFIRMED'
+        GROUP BY m.movie_id, m.title
+        ORDER BY revenue DESC
+        LIMIT 10
+        """;
+
     public Map<String, Double> getRevenueByMovie() {
         Map<String, Double> revenueMap = new LinkedHashMap<>();
-        String sql = """
-            SELECT m.title, SUM(b.total_amount) as revenue
-            FROM bookings b
-            JOIN screenings s ON b.screening_id = s.screening_id
-            JOIN movies m ON s.movie_id = m.movie_id
-            WHERE b.status = 'CONFIRMED'
-            GROUP BY m.movie_id, m.title
-            ORDER BY revenue DESC
-            LIMIT 10
-            """;
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(REVENUE_BY_MOVIE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 revenueMap.put(rs.getString("title"), rs.getDouble("revenue"));
@@ -2263,13 +3138,72 @@ public class DataService {
         return revenueMap;
     }
 
+    static final String TICKETS_BY_MOVIE_SQL = """
+        SELECT m.title, COUNT(*) as tickets
+        FROM booking_seats bs
+        JOIN bookings b ON bs.booking_id = b.booking_id
+        JOIN screenings s ON bs.screening_id = s.screening_id
+        JOIN movies m ON s.movie_id = m.movie_id
+        WHERE b.status = 'CONFIRMED'
+        GROUP BY m.movie_id, m.title
+        ORDER BY tickets DESC
+        LIMIT 10
+        """;
+
+    public Map<String, Integer> getTicketsSoldByMovie() {
+        Map<String, Integer> ticketMap = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(TICKETS_BY_MOVIE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                ticketMap.put(rs.getString("title"), rs.getInt("tickets"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting tickets sold by movie: " + e.getMessage());
+        }
+        return ticketMap;
+    }
+
+    static final String SEAT_SALES_SQL = """
+        SELECT bs.seat_number, COUNT(*) as tickets
+        FROM booking_seats bs
+        JOIN bookings b ON bs.booking_id = b.booking_id
+        WHERE bs.screening_id = ? AND b.status = 'CONFIRMED'
+        GROUP BY bs.seat_number
+        ORDER BY bs.seat_number
+        """;
+
+    /**
+     * Confirmed tickets per seat label for a screening, e.g. to see which seats sell first
+     */
+    public Map<String, Integer> getSeatSalesForScreening(int screeningId) {
+        Map<String, Integer> seatMap = new LinkedHashMap<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SEAT_SALES_SQL)) {
+
+            stmt.setInt(1, screeningId);
+            ResultSet rs = stmt.executeQuery();
+
+            while (rs.next()) {
+                seatMap.put(rs.getString("seat_number"), rs.getInt("tickets"));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting seat sales for screening: " + e.getMessage());
+        }
+        return seatMap;
+    }
+
+    static final String USERS_BY_ROLE_SQL = "SELECT role, COUNT(*) as count FROM users GROUP BY role";
+
     public Map<String, Integer> getUsersByRole() {
         Map<String, Integer> roleMap = new LinkedHashMap<>();
-        String sql = "SELECT role, COUNT(*) as count FROM users GROUP BY role";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USERS_BY_ROLE_SQL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
                 roleMap.put(rs.getString("role"), rs.getInt("count"));
@@ -2280,33 +3214,34 @@ public class DataService {
         return roleMap;
     }
 
+    static final String USER_TICKET_COUNT_SQL = """
+        SELECT COUNT(*)
+        FROM bookings b
+        JOIN booking_seats bs ON bs.booking_id = b.booking_id
+        WHERE b.user_id = ? AND b.status = 'CONFIRMED'
+        """;
+
     public int getTotalTicketsBooked(int userId) {
-        int totalTickets = 0;
-        String sql = "SELECT seat_ids FROM bookings WHERE user_id = ? AND status = 'CONFIRMED'";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USER_TICKET_COUNT_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
 
-            while (rs.next()) {
-                String seatIds = rs.getString("seat_ids");
-                if (seatIds != null && !seatIds.trim().isEmpty()) {
-                    // Count the number of seats by splitting the comma-separated seat IDs
-                    String[] seats = seatIds.split(",");
-                    totalTickets += seats.length;
-                }
+            if (rs.next()) {
+                return rs.getInt(1);
             }
         } catch (SQLException e) {
             System.err.println("Error getting total tickets booked for user: " + e.getMessage());
         }
-        return totalTickets;
+        return 0;
     }
 
+    static final String USER_AMOUNT_SPENT_SQL = "SELECT SUM(total_amount) FROM bookings WHERE user_id = ? AND status = 'CONFIRMED'";
+
     public double getTotalAmountSpent(int userId) {
-        String sql = "SELECT SUM(total_amount) FROM bookings WHERE user_id = ? AND status = 'CONFIRMED'";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(USER_AMOUNT_SPENT_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -2322,23 +3257,23 @@ public class DataService {
 
     // Payment-related methods
 
+    static final String INSERT_PAYMENT_SQL = "INSERT INTO payments (booking_id, payment_method, mobile_banking_provider, amount, status, transaction_id, card_last_four_digits, mobile_number) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     /**
      * Save payment information to the database
      */
     public boolean savePayment(Payment payment) {
-        String sql = "INSERT INTO payments (user_id, booking_id, payment_method, mobile_banking_provider, amount, status, transaction_id, card_last_four_digits, mobile_number) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, payment.getUserId());
-            stmt.setInt(2, payment.getBookingId());
-            stmt.setString(3, payment.getPaymentMethod().toString());
-            stmt.setString(4, payment.getMobileBankingProvider().toString());
-            stmt.setDouble(5, payment.getAmount());
-            stmt.setString(6, payment.getStatus().toString());
-            stmt.setString(7, payment.getTransactionId());
-            stmt.setString(8, payment.getCardLastFourDigits());
-            stmt.setString(9, payment.getMobileNumber());
+             PreparedStatement stmt = conn.prepareStatement(INSERT_PAYMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+
+            stmt.setInt(1, payment.getBookingId());
+            stmt.setString(2, payment.getPaymentMethod().toString());
+            stmt.setString(3, payment.getMobileBankingProvider().toString());
+            stmt.setDouble(4, payment.getAmount());
+            stmt.setString(5, payment.getStatus().toString());
+            stmt.setString(6, payment.getTransactionId());
+            stmt.setString(7, payment.getCardLastFourDigits());
+            stmt.setString(8, payment.getMobileNumber());
 
             int result = stmt.executeUpdate();
             if (result > 0) {
@@ -2354,13 +3289,14 @@ public class DataService {
         return false;
     }
 
+    static final String PAYMENT_BY_BOOKING_SQL = "SELECT * FROM payments WHERE booking_id = ?";
+
     /**
      * Get payment by booking ID
      */
     public Payment getPaymentByBookingId(int bookingId) {
-        String sql = "SELECT * FROM payments WHERE booking_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(PAYMENT_BY_BOOKING_SQL)) {
 
             stmt.setInt(1, bookingId);
             ResultSet rs = stmt.executeQuery();
@@ -2385,15 +3321,16 @@ public class DataService {
         return null;
     }
 
+    static final String PAYMENTS_BY_USER_SQL = "SELECT p.* FROM payments p JOIN bookings b ON p.booking_id = b.booking_id WHERE b.user_id = ? ORDER BY p.payment_date DESC";
+
     /**
      * Get all payments for a user
      */
     public List<Payment> getPaymentsByUserId(int userId) {
         List<Payment> payments = new ArrayList<>();
-        String sql = "SELECT p.* FROM payments p JOIN bookings b ON p.booking_id = b.booking_id WHERE b.user_id = ? ORDER BY p.payment_date DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(PAYMENTS_BY_USER_SQL)) {
 
             stmt.setInt(1, userId);
             ResultSet rs = stmt.executeQuery();
@@ -2418,13 +3355,62 @@ public class DataService {
         return payments;
     }
 
+    static String paymentsPageSql(boolean afterPayment) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT p.* FROM payments p JOIN bookings b ON p.booking_id = b.booking_id WHERE b.user_id = ?");
+        if (afterPayment) {
+            sql.append(" AND (p.payment_date < ? OR (p.payment_date = ? AND p.payment_id < ?))");
+        }
+        return sql.append(" ORDER BY p.payment_date DESC, p.payment_id DESC LIMIT ?").toString();
+    }
+
+    /**
+     * One page of a user's payments, newest first, keyset-paginated on (payment_date, payment_id)
+     */
+    public Page<Payment> getPaymentsPage(int userId, Payment after, int pageSize) {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+
+        if (after != null) {
+            Timestamp afterDate = Timestamp.valueOf(after.getPaymentDate());
+            Collections.addAll(params, afterDate, afterDate, after.getPaymentId());
+        }
+        params.add(pageSize + 1);
+
+        List<Payment> payments = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(paymentsPageSql(after != null))) {
+
+            setParameters(stmt, params);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                Payment payment = new Payment();
+                payment.setPaymentId(rs.getInt("payment_id"));
+                payment.setBookingId(rs.getInt("booking_id"));
+                payment.setPaymentMethod(Payment.PaymentMethod.valueOf(rs.getString("payment_method")));
+                payment.setMobileBankingProvider(Payment.MobileBankingProvider.valueOf(rs.getString("mobile_banking_provider")));
+                payment.setAmount(rs.getDouble("amount"));
+                payment.setPaymentDate(rs.getTimestamp("payment_date").toLocalDateTime());
+                payment.setStatus(Payment.PaymentStatus.valueOf(rs.getString("status")));
+                payment.setTransactionId(rs.getString("transaction_id"));
+                payment.setCardLastFourDigits(rs.getString("card_last_four_digits"));
+                payment.setMobileNumber(rs.getString("mobile_number"));
+                payments.add(payment);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting payments page: " + e.getMessage());
+        }
+        return Page.of(payments, pageSize);
+    }
+
+    static final String UPDATE_PAYMENT_STATUS_SQL = "UPDATE payments SET status = ? WHERE payment_id = ?";
+
     /**
      * Update payment status
      */
     public boolean updatePaymentStatus(int paymentId, Payment.PaymentStatus status) {
-        String sql = "UPDATE payments SET status = ? WHERE payment_id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(UPDATE_PAYMENT_STATUS_SQL)) {
 
             stmt.setString(1, status.toString());
             stmt.setInt(2, paymentId);
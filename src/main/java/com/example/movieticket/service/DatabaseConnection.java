@@ -1,175 +1,780 @@
 package com.example.movieticket.service;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Bounded JDBC connection pool.
+ *
+ * Callers borrow with {@link #getConnection()} and hand the connection back by
+ * calling {@code close()} on it (try-with-resources works as expected): the
+ * returned object is a proxy that puts the physical connection back into the
+ * pool instead of closing the socket. At most {@link #MAX_CONNECTIONS}
+ * connections are ever open; further borrowers queue fairly on a semaphore and
+ * give up after {@link #BORROW_TIMEOUT_MS}.
+ *
+ * Each pooled connection also keeps an LRU cache of up to
+ * {@link #STATEMENT_CACHE_SIZE} prepared statements keyed by SQL text, so
+ * repeated {@code prepareStatement(sql)} calls reuse the server-side handle.
+ *
+ * Statements handed out are wrapped so every execution is timed and attributed
+ * to the operation that borrowed the connection; see {@link QueryStats}.
+ */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/movieticket_db";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "jdb@mySQL";
-    private static final String SQL_FILE_PATH = "/database_schema.sql";
+    // Server-side prepared statements: the statement cache below keeps them parsed on the server between calls
+    // createDatabaseIfNotExist lets a fresh install start without a separate CREATE DATABASE connection
+    // Each can be overridden with a system property (e.g. to point the benchmarks at an embedded server)
+    private static final String URL = System.getProperty("movieticket.db.url",
+            "jdbc:mysql://localhost:3306/movieticket_db?useServerPrepStmts=true&createDatabaseIfNotExist=true");
+    private static final String USERNAME = System.getProperty("movieticket.db.user", "root");
+    private static final String PASSWORD = System.getProperty("movieticket.db.password", "jdb@mySQL");
 
     private static final int MAX_CONNECTIONS = 10;
-    private static final ConcurrentLinkedQueue<Connection> connectionPool = new ConcurrentLinkedQueue<>();
+    private static final int MIN_IDLE_CONNECTIONS = 2;
+    private static final long BORROW_TIMEOUT_MS = 30_000;
+    private static final long IDLE_TIMEOUT_MS = 5 * 60_000;
+    private static final long VALIDATION_INTERVAL_MS = 30_000;
+    private static final long LEAK_DETECTION_THRESHOLD_MS = 60_000; // 0 disables leak detection
+    private static final long HOUSEKEEPING_INTERVAL_MS = 15_000;
+    private static final int STATEMENT_CACHE_SIZE = 128; // per connection
+
+    // Fair semaphore: one permit per connection that may be handed out, waiters are served FIFO
+    private static final Semaphore permits = new Semaphore(MAX_CONNECTIONS, true);
+    // Most recently returned connection sits at the head so cold ones drift to the tail and get evicted
+    private static final LinkedBlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+    private static final Set<PooledConnection> activeConnections = ConcurrentHashMap.newKeySet();
     private static final AtomicInteger currentConnections = new AtomicInteger(0);
 
-    public static Connection getConnection() throws SQLException {
-        Connection connection = connectionPool.poll();
+    // Pool metrics
+    private static final LongAdder borrowCount = new LongAdder();
+    private static final LongAdder borrowTimeNanos = new LongAdder();
+    private static final AtomicLong maxBorrowTimeNanos = new AtomicLong();
+    private static final LongAdder borrowTimeouts = new LongAdder();
+    private static final LongAdder connectionsCreated = new LongAdder();
+    private static final LongAdder connectionsEvicted = new LongAdder();
+    private static final LongAdder leaksDetected = new LongAdder();
+    private static final LongAdder statementCacheHits = new LongAdder();
+    private static final LongAdder statementCacheMisses = new LongAdder();
+    private static final LongAdder statementCacheEvictions = new LongAdder();
 
-        if (connection != null && !connection.isClosed() && connection.isValid(2)) {
-            return connection;
-        }
+    private static final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "DatabaseConnectionHousekeeper");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-        if (currentConnections.get() < MAX_CONNECTIONS) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                currentConnections.incrementAndGet();
-                return connection;
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL JDBC Driver not found", e);
+    static {
+        housekeeper.scheduleWithFixedDelay(DatabaseConnection::runHousekeeping,
+                HOUSEKEEPING_INTERVAL_MS, HOUSEKEEPING_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, blocking up to {@link #BORROW_TIMEOUT_MS} if all
+     * connections are in use. Closing the returned connection gives it back to the pool.
+     */
+    public static Connection getConnection() throws SQLException {
+        QueryStats.Operation operation = QueryStats.currentOperation();
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                borrowTimeouts.increment();
+                throw new SQLException("Timed out after " + BORROW_TIMEOUT_MS + "ms waiting for a database connection " +
+                        "(active=" + activeConnections.size() + ", idle=" + idleConnections.size() +
+                        ", waiting=" + permits.getQueueLength() + ")", "08001");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", "08001", e);
         }
 
-        // Wait for a connection to become available
-        connection = connectionPool.poll();
-        if (connection == null || connection.isClosed() || !connection.isValid(2)) {
-            // Create new connection if pool is empty and limit not reached
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                currentConnections.incrementAndGet();
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL JDBC Driver not found", e);
+        try {
+            PooledConnection pooled;
+            while ((pooled = idleConnections.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                closePhysical(pooled);
+            }
+            if (pooled == null) {
+                pooled = openPhysical();
             }
-        }
 
-        return connection;
+            pooled.markBorrowed();
+            activeConnections.add(pooled);
+            long borrowNanos = System.nanoTime() - start;
+            recordBorrowTime(borrowNanos);
+            operation.recordBorrow(borrowNanos);
+            return pooled.newHandle(operation);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
     }
 
+    /**
+     * Return a connection to the pool. Equivalent to calling {@code close()} on it.
+     */
     public static void releaseConnection(Connection connection) {
         if (connection != null) {
             try {
-                if (!connection.isClosed() && connection.isValid(2)) {
-                    connectionPool.offer(connection);
-                } else {
-                    currentConnections.decrementAndGet();
-                }
+                connection.close();
             } catch (SQLException e) {
-                currentConnections.decrementAndGet();
-                System.err.println("Error checking connection validity: " + e.getMessage());
+                System.err.println("Error releasing connection: " + e.getMessage());
             }
         }
     }
 
-    public static void initializeDatabase() {
-        createDatabase();
-        executeSqlFile();
-        migrateDatabase(); // Add migration for existing databases
+    /**
+     * Snapshot of the pool counters for monitoring.
+     */
+    public static PoolStats getPoolStats() {
+        long borrows = borrowCount.sum();
+        return new PoolStats(
+                currentConnections.get(),
+                activeConnections.size(),
+                idleConnections.size(),
+                permits.getQueueLength(),
+                borrows,
+                borrows == 0 ? 0 : borrowTimeNanos.sum() / borrows,
+                maxBorrowTimeNanos.get(),
+                borrowTimeouts.sum(),
+                connectionsCreated.sum(),
+                connectionsEvicted.sum(),
+                leaksDetected.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum(),
+                statementCacheEvictions.sum());
     }
 
-    public static void createDatabase() {
+    private static PooledConnection openPhysical() throws SQLException {
         try {
-            // Connect to MySQL server without specifying database
-            Connection conn = DriverManager.getConnection("jdbc:mysql://localhost:3306/", USERNAME, PASSWORD);
-            Statement stmt = conn.createStatement();
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC Driver not found", e);
+        }
+        Connection physical = DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        currentConnections.incrementAndGet();
+        connectionsCreated.increment();
+        return new PooledConnection(physical);
+    }
 
-            // Create database if not exists
-            stmt.executeUpdate("CREATE DATABASE IF NOT EXISTS movieticket_db");
+    private static boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            // Only pay for a validation round trip when the connection has been sitting around a while
+            long now = System.currentTimeMillis();
+            if (now - pooled.lastValidatedAt > VALIDATION_INTERVAL_MS) {
+                if (!pooled.physical.isValid(2)) {
+                    return false;
+                }
+                pooled.lastValidatedAt = now;
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
 
-            conn.close();
-            System.out.println("Database created successfully");
+    private static void closePhysical(PooledConnection pooled) {
+        currentConnections.decrementAndGet();
+        // Closing the physical connection releases every server-side statement with it
+        pooled.statementCache.clear();
+        try {
+            if (!pooled.physical.isClosed()) {
+                pooled.physical.close();
+            }
         } catch (SQLException e) {
-            System.err.println("Error creating database: " + e.getMessage());
+            System.err.println("Error closing connection: " + e.getMessage());
         }
     }
 
-    public static void executeSqlFile() {
-        try (Connection conn = getConnection()) {
-            InputStream inputStream = DatabaseConnection.class.getResourceAsStream(SQL_FILE_PATH);
-            if (inputStream == null) {
-                System.err.println("SQL file not found: " + SQL_FILE_PATH);
+    private static void returnToPool(PooledConnection pooled) {
+        activeConnections.remove(pooled);
+        try {
+            if (pooled.broken || pooled.physical.isClosed()) {
+                closePhysical(pooled);
                 return;
             }
+            // Never hand out a connection in the middle of someone else's transaction
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastUsedAt = System.currentTimeMillis();
+            pooled.borrowSite = null;
+            idleConnections.offerFirst(pooled);
+        } catch (SQLException e) {
+            System.err.println("Discarding connection that could not be reset: " + e.getMessage());
+            closePhysical(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void recordBorrowTime(long nanos) {
+        borrowCount.increment();
+        borrowTimeNanos.add(nanos);
+        maxBorrowTimeNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private static void runHousekeeping() {
+        try {
+            evictIdleConnections();
+            detectLeaks();
+        } catch (Exception e) {
+            System.err.println("Error during connection pool housekeeping: " + e.getMessage());
+        }
+    }
+
+    private static void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        // Walk from the coldest end; keep a few warm connections for the next burst
+        Iterator<PooledConnection> it = idleConnections.descendingIterator();
+        while (it.hasNext() && idleConnections.size() > MIN_IDLE_CONNECTIONS) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsedAt > IDLE_TIMEOUT_MS && idleConnections.remove(pooled)) {
+                connectionsEvicted.increment();
+                closePhysical(pooled);
+            }
+        }
+    }
+
+    private static void detectLeaks() {
+        if (LEAK_DETECTION_THRESHOLD_MS <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : activeConnections) {
+            Throwable borrowSite = pooled.borrowSite;
+            if (!pooled.leakReported && borrowSite != null && now - pooled.borrowedAt > LEAK_DETECTION_THRESHOLD_MS) {
+                pooled.leakReported = true;
+                leaksDetected.increment();
+                System.err.println("Possible connection leak: connection held for " + (now - pooled.borrowedAt) +
+                        "ms by thread " + pooled.borrowThread + ", borrowed at:");
+                borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Create the database if needed and apply pending schema migrations. Returns true when the
+     * baseline schema was applied in this run (a new database).
+     */
+    public static boolean initializeDatabase() {
+        try (Connection conn = getConnection()) {
+            return SchemaMigrator.migrate(conn);
+        } catch (SQLException e) {
+            System.err.println("Error migrating database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    public static void closeAllConnections() {
+        PooledConnection pooled;
+        while ((pooled = idleConnections.pollFirst()) != null) {
+            closePhysical(pooled);
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool plus its bookkeeping.
+     */
+    private static final class PooledConnection {
+        private final Connection physical;
+        private final StatementCache statementCache = new StatementCache();
+        private volatile long lastUsedAt;
+        private volatile long lastValidatedAt;
+        private volatile long borrowedAt;
+        private volatile String borrowThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+        private volatile boolean broken;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            long now = System.currentTimeMillis();
+            this.lastUsedAt = now;
+            this.lastValidatedAt = now;
+        }
+
+        void markBorrowed() {
+            borrowedAt = System.currentTimeMillis();
+            borrowThread = Thread.currentThread().getName();
+            borrowSite = LEAK_DETECTION_THRESHOLD_MS > 0 ? new Exception("Connection borrowed here") : null;
+            leakReported = false;
+        }
+
+        Connection newHandle(QueryStats.Operation operation) {
+            return (Connection) Proxy.newProxyInstance(
+                    DatabaseConnection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandle(this, operation));
+        }
+    }
+
+    /**
+     * Per-borrow view of a pooled connection. {@code close()} returns the connection to the pool
+     * (closing any statements the borrower forgot about); every other call is forwarded until then.
+     */
+    private static final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final QueryStats.Operation operation;
+        private final List<Statement> openStatements = new ArrayList<>();
+        private final List<CachedStatement> checkedOutStatements = new ArrayList<>();
+        private boolean closed;
+
+        ConnectionHandle(PooledConnection pooled, QueryStats.Operation operation) {
+            this.pooled = pooled;
+            this.operation = operation;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool", "08003");
+            }
+
+            if (method.getName().equals("prepareStatement") && isCacheable(args)) {
+                return instrument((Statement) prepareCached(method, args), method, args);
+            }
+
+            try {
+                Object result = method.invoke(pooled.physical, args);
+                if (result instanceof Statement statement) {
+                    openStatements.add(statement);
+                    return instrument(statement, method, args);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                    pooled.broken = true;
+                }
+                throw cause;
+            }
+        }
 
-            BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
-            StringBuilder sqlBuilder = new StringBuilder();
-            String line;
+        // createStatement has no SQL until it is executed; prepareStatement and prepareCall take it first
+        private Object instrument(Statement statement, Method method, Object[] args) {
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return Proxy.newProxyInstance(
+                    DatabaseConnection.class.getClassLoader(),
+                    new Class<?>[]{method.getReturnType()},
+                    new InstrumentedStatement(statement, sql, operation));
+        }
 
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                // Skip comments and empty lines
-                if (line.isEmpty() || line.startsWith("--")) {
-                    continue;
+        /**
+         * Only plain {@code prepareStatement(sql)} and {@code prepareStatement(sql, autoGeneratedKeys)}
+         * are cached; other overloads change statement behaviour and are rare here.
+         */
+        private static boolean isCacheable(Object[] args) {
+            return args.length == 1 || (args.length == 2 && args[1] instanceof Integer);
+        }
+
+        private Object prepareCached(Method method, Object[] args) throws Throwable {
+            String key = args.length == 1 ? (String) args[0] : args[1] + "|" + args[0];
+            CachedStatement cached = pooled.statementCache.get(key);
+            if (cached != null && !cached.inUse) {
+                statementCacheHits.increment();
+                checkedOutStatements.add(cached);
+                return cached.checkOut();
+            }
+
+            statementCacheMisses.increment();
+            PreparedStatement statement;
+            try {
+                statement = (PreparedStatement) method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && isConnectionFailure(sqlException)) {
+                    pooled.broken = true;
                 }
-                sqlBuilder.append(line).append(" ");
+                throw cause;
             }
 
-            // Split by semicolons to get individual SQL statements
-            String[] sqlStatements = sqlBuilder.toString().split(";");
+            if (cached != null) {
+                // Same SQL is already checked out further up the call stack; hand out a one-off statement
+                openStatements.add(statement);
+                return statement;
+            }
+            cached = new CachedStatement(statement, pooled);
+            pooled.statementCache.put(key, cached);
+            checkedOutStatements.add(cached);
+            return cached.checkOut();
+        }
 
-            try (Statement stmt = conn.createStatement()) {
-                for (String sql : sqlStatements) {
-                    sql = sql.trim();
-                    if (!sql.isEmpty()) {
-                        // Skip USE database statement since we're already connected to the database
-                        if (!sql.toUpperCase().startsWith("USE ")) {
-                            stmt.executeUpdate(sql);
-                        }
+        private synchronized void release() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Statement statement : openStatements) {
+                try {
+                    if (!statement.isClosed()) {
+                        statement.close();
                     }
+                } catch (SQLException e) {
+                    pooled.broken = true;
                 }
             }
+            openStatements.clear();
+            for (CachedStatement cached : checkedOutStatements) {
+                cached.checkIn();
+            }
+            checkedOutStatements.clear();
+            returnToPool(pooled);
+        }
+
+        private static boolean isConnectionFailure(SQLException e) {
+            String sqlState = e.getSQLState();
+            return sqlState != null && sqlState.startsWith("08");
+        }
+    }
+
+    /**
+     * Access-ordered LRU of prepared statements for one physical connection. Only the borrower
+     * currently holding the connection touches it, so it needs no locking.
+     */
+    private static final class StatementCache extends LinkedHashMap<String, CachedStatement> {
+        private static final long serialVersionUID = 1L;
 
-            System.out.println("Database schema executed successfully from SQL file");
+        StatementCache() {
+            super(32, 0.75f, true);
+        }
 
-        } catch (SQLException | IOException e) {
-            System.err.println("Error executing SQL file: " + e.getMessage());
-            e.printStackTrace();
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+            if (size() <= STATEMENT_CACHE_SIZE) {
+                return false;
+            }
+            statementCacheEvictions.increment();
+            eldest.getValue().evict();
+            return true;
         }
     }
 
-    public static void closeAllConnections() {
-        Connection connection;
-        while ((connection = connectionPool.poll()) != null) {
+    /**
+     * A prepared statement kept open across borrows. Callers get a proxy whose {@code close()}
+     * clears parameters and open results instead of deallocating the server-side statement.
+     */
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final PooledConnection owner;
+        private PreparedStatement currentProxy;
+        private ResultSet currentResultSet;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement, PooledConnection owner) {
+            this.statement = statement;
+            this.owner = owner;
+        }
+
+        PreparedStatement checkOut() {
+            inUse = true;
+            currentProxy = (PreparedStatement) Proxy.newProxyInstance(
+                    DatabaseConnection.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+            return currentProxy;
+        }
+
+        void checkIn() {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            currentProxy = null;
             try {
-                if (!connection.isClosed()) {
-                    connection.close();
+                if (currentResultSet != null) {
+                    currentResultSet.close();
+                    currentResultSet = null;
+                }
+                if (evicted) {
+                    statement.close();
+                } else {
+                    statement.clearParameters();
+                    statement.clearBatch();
                 }
             } catch (SQLException e) {
-                System.err.println("Error closing connection: " + e.getMessage());
+                owner.broken = true;
+            }
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing evicted statement: " + e.getMessage());
+                }
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (proxy == currentProxy) {
+                        checkIn();
+                    }
+                    return null;
+                case "isClosed":
+                    return proxy != currentProxy || statement.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + statement + "]";
+                default:
+                    break;
+            }
+
+            if (proxy != currentProxy) {
+                throw new SQLException("Statement has already been closed");
+            }
+
+            try {
+                Object result = method.invoke(statement, args);
+                if (result instanceof ResultSet resultSet && method.getName().startsWith("execute")) {
+                    currentResultSet = resultSet;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sqlException && ConnectionHandle.isConnectionFailure(sqlException)) {
+                    owner.broken = true;
+                }
+                throw cause;
             }
         }
-        currentConnections.set(0);
     }
 
     /**
-     * Migrate existing database to add new columns if they don't exist
+     * Times every execution of a statement for {@link QueryStats}. Bind parameter types are noted
+     * for the slow-query log; their values are never kept.
      */
-    private static void migrateDatabase() {
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement()) {
+    private static final class InstrumentedStatement implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+        private final QueryStats.Operation operation;
+        private final Map<Integer, String> parameterTypes = new TreeMap<>();
+
+        InstrumentedStatement(Statement target, String sql, QueryStats.Operation operation) {
+            this.target = target;
+            this.sql = sql;
+            this.operation = operation;
+        }
 
-            // Check if profile_picture_path column exists, if not add it
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "InstrumentedStatement[" + target + "]";
+                case "clearParameters":
+                    parameterTypes.clear();
+                    break;
+                default:
+                    break;
+            }
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameterTypes.put(index, name.equals("setNull") || args[1] == null
+                        ? "null" : args[1].getClass().getSimpleName());
+            }
+
+            if (!name.startsWith("execute")) {
+                Object result = forward(method, args);
+                return name.equals("getResultSet") && result instanceof ResultSet resultSet ? countRows(resultSet) : result;
+            }
+
+            String executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long start = System.nanoTime();
+            boolean failed = true;
             try {
-                stmt.executeUpdate("ALTER TABLE users ADD COLUMN profile_picture_path VARCHAR(500)");
-                System.out.println("Added profile_picture_path column to users table");
-            } catch (SQLException e) {
-                // Column already exists, ignore the error
-                if (!e.getMessage().contains("Duplicate column name")) {
-                    System.err.println("Error during migration: " + e.getMessage());
+                Object result = forward(method, args);
+                failed = false;
+                if (result instanceof ResultSet resultSet) {
+                    return countRows(resultSet);
+                }
+                if (result instanceof Number count) {
+                    operation.recordRows(Math.max(count.longValue(), 0));
+                } else if (result instanceof int[] counts) {
+                    for (int count : counts) {
+                        operation.recordRows(Math.max(count, 0));
+                    }
                 }
+                return result;
+            } finally {
+                operation.recordExecution(executedSql, parameterTypes::toString, System.nanoTime() - start, failed);
             }
+        }
 
-        } catch (SQLException e) {
-            System.err.println("Error migrating database: " + e.getMessage());
+        private Object forward(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Rows are counted as the caller reads them, so a lookup that stops at the first row counts one
+        private ResultSet countRows(ResultSet resultSet) {
+            return (ResultSet) Proxy.newProxyInstance(
+                    DatabaseConnection.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                break;
+                        }
+                        Object result = forward(resultSet, method, args);
+                        if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                            operation.recordRows(1);
+                        }
+                        return result;
+                    });
+        }
+
+        private static Object forward(ResultSet resultSet, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(resultSet, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Point-in-time pool counters. Borrow times are in nanoseconds.
+     */
+    public static final class PoolStats {
+        private final int totalConnections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final long borrowCount;
+        private final long averageBorrowNanos;
+        private final long maxBorrowNanos;
+        private final long borrowTimeouts;
+        private final long connectionsCreated;
+        private final long connectionsEvicted;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+        private final long statementCacheEvictions;
+
+        PoolStats(int totalConnections, int activeConnections, int idleConnections, int waitingThreads,
+                  long borrowCount, long averageBorrowNanos, long maxBorrowNanos, long borrowTimeouts,
+                  long connectionsCreated, long connectionsEvicted, long leaksDetected,
+                  long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+            this.totalConnections = totalConnections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.borrowCount = borrowCount;
+            this.averageBorrowNanos = averageBorrowNanos;
+            this.maxBorrowNanos = maxBorrowNanos;
+            this.borrowTimeouts = borrowTimeouts;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsEvicted = connectionsEvicted;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementCacheEvictions = statementCacheEvictions;
+        }
+
+        public int getTotalConnections() { return totalConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getWaitingThreads() { return waitingThreads; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getAverageBorrowNanos() { return averageBorrowNanos; }
+        public long getMaxBorrowNanos() { return maxBorrowNanos; }
+        public long getBorrowTimeouts() { return borrowTimeouts; }
+        public long getConnectionsCreated() { return connectionsCreated; }
+        public long getConnectionsEvicted() { return connectionsEvicted; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+        public long getStatementCacheEvictions() { return statementCacheEvictions; }
+
+        public double getStatementCacheHitRatio() {
+            long lookups = statementCacheHits + statementCacheMisses;
+            return lookups == 0 ? 0.0 : (double) statementCacheHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                    "total=" + totalConnections +
+                    ", active=" + activeConnections +
+                    ", idle=" + idleConnections +
+                    ", waiting=" + waitingThreads +
+                    ", borrows=" + borrowCount +
+                    ", avgBorrowMicros=" + averageBorrowNanos / 1_000 +
+                    ", maxBorrowMicros=" + maxBorrowNanos / 1_000 +
+                    ", timeouts=" + borrowTimeouts +
+                    ", created=" + connectionsCreated +
+                    ", evicted=" + connectionsEvicted +
+                    ", leaks=" + leaksDetected +
+                    ", stmtCacheHits=" + statementCacheHits +
+                    ", stmtCacheMisses=" + statementCacheMisses +
+                    ", stmtCacheEvictions=" + statementCacheEvictions +
+                    '}';
         }
     }
 }
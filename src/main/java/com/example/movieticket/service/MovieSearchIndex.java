@@ -0,0 +1,249 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Movie;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * In-memory inverted index over the movie catalog, used for search instead of LIKE scans.
+ *
+ * Title, director, genre and description are split into lowercase tokens, each posted with the
+ * weight of the field it came from. A query token matches a movie on an exact token, a token it
+ * is a prefix of (for search-as-you-type), a token containing it, or - when nothing closer
+ * exists - a token sharing most of its letter pairs (for typos). Every query token has to match; movies are
+ * ranked by the summed weights.
+ *
+ * The index is built from the catalog on first use, kept current by {@link #put} and
+ * {@link #remove} for this client's writes, and rebuilt after {@link #MAX_AGE_MS} to pick up
+ * movies other clients changed.
+ */
+public class MovieSearchIndex {
+    private static final long MAX_AGE_MS = 60_000;
+
+    private static final int TITLE_WEIGHT = 8;
+    private static final int DIRECTOR_WEIGHT = 4;
+    private static final int GENRE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double INFIX_FACTOR = 0.5;
+    private static final double FUZZY_FACTOR = 0.4;
+    // Dice similarity of bigram sets a token needs to count as a typo of the query token.
+    // Bigrams rather than trigrams so a transposition ("incpetion") still scores high enough.
+    private static final double MIN_FUZZY_SIMILARITY = 0.6;
+    private static final int GRAM = 2;
+    // Shorter query tokens only match as exact or prefix; infixes this short match too much
+    private static final int MIN_INFIX_LENGTH = 3;
+
+    private final Supplier<List<Movie>> catalog;
+
+    // Guarded by this
+    private final Map<Integer, Movie> movies = new HashMap<>();
+    // term -> movie id -> summed field weight; sorted so prefix matches are a sub-map
+    private final NavigableMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    // bigram -> terms containing it, for infix and fuzzy lookups
+    private final Map<String, Set<String>> gramIndex = new HashMap<>();
+    // movie id -> its terms, so a movie can be unposted without scanning every term
+    private final Map<Integer, Set<String>> movieTerms = new HashMap<>();
+    private long builtAt = -1;
+
+    public MovieSearchIndex(Supplier<List<Movie>> catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * Movies matching the query, best match first, as copies the caller may modify. An empty
+     * query matches nothing.
+     */
+    public synchronized List<Movie> search(String query) {
+        ensureFresh();
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Integer, Double> scores = null;
+        for (String token : queryTokens) {
+            Map<Integer, Double> tokenScores = scoreToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Movie> results = new ArrayList<>();
+        for (Integer movieId : scores.keySet()) {
+            results.add(CatalogCache.copyOf(movies.get(movieId)));
+        }
+        Map<Integer, Double> finalScores = scores;
+        results.sort(Comparator.<Movie>comparingDouble(m -> finalScores.get(m.getMovieId())).reversed()
+                .thenComparing(Movie::getTitle, String.CASE_INSENSITIVE_ORDER));
+        return results;
+    }
+
+    /**
+     * Index a movie that was added or changed, replacing any earlier version of it. The index
+     * keeps a copy, so later changes to the caller's movie do not reach it unindexed.
+     */
+    public synchronized void put(Movie movie) {
+        if (builtAt < 0) {
+            return; // Not built yet; the first search reads the whole catalog
+        }
+        removePostings(movie.getMovieId());
+        addPostings(CatalogCache.copyOf(movie));
+    }
+
+    public synchronized void remove(int movieId) {
+        if (builtAt < 0) {
+            return;
+        }
+        removePostings(movieId);
+    }
+
+    /**
+     * Drop the index so the next search rebuilds it from the catalog.
+     */
+    public synchronized void invalidate() {
+        builtAt = -1;
+    }
+
+    private void ensureFresh() {
+        if (builtAt >= 0 && System.currentTimeMillis() - builtAt <= MAX_AGE_MS) {
+            return;
+        }
+        movies.clear();
+        postings.clear();
+        gramIndex.clear();
+        movieTerms.clear();
+        for (Movie movie : catalog.get()) {
+            addPostings(movie);
+        }
+        builtAt = System.currentTimeMillis();
+    }
+
+    private Map<Integer, Double> scoreToken(String token) {
+        Map<Integer, Double> scores = new HashMap<>();
+
+        // Exact and prefix matches come straight from the sorted term map
+        for (Map.Entry<String, Map<Integer, Integer>> entry :
+                postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            double factor = entry.getKey().length() == token.length() ? 1.0 : PREFIX_FACTOR;
+            addScores(scores, entry.getValue(), factor);
+        }
+        if (token.length() < MIN_INFIX_LENGTH) {
+            return scores;
+        }
+
+        // Terms sharing bigrams with the token: containment is an infix match, otherwise a typo
+        Map<String, Integer> sharedGrams = new HashMap<>();
+        Set<String> tokenGrams = grams(token);
+        for (String gram : tokenGrams) {
+            for (String term : gramIndex.getOrDefault(gram, Set.of())) {
+                sharedGrams.merge(term, 1, Integer::sum);
+            }
+        }
+
+        boolean closeMatch = !scores.isEmpty();
+        Map<Integer, Double> fuzzyScores = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : sharedGrams.entrySet()) {
+            String term = entry.getKey();
+            if (term.startsWith(token)) {
+                continue; // Already scored as exact or prefix
+            }
+            if (term.contains(token)) {
+                addScores(scores, postings.get(term), INFIX_FACTOR);
+                closeMatch = true;
+            } else if (!closeMatch) {
+                double similarity = 2.0 * entry.getValue() / (tokenGrams.size() + grams(term).size());
+                if (similarity >= MIN_FUZZY_SIMILARITY) {
+                    addScores(fuzzyScores, postings.get(term), FUZZY_FACTOR * similarity);
+                }
+            }
+        }
+        return closeMatch ? scores : fuzzyScores;
+    }
+
+    private static void addScores(Map<Integer, Double> scores, Map<Integer, Integer> posting, double factor) {
+        for (Map.Entry<Integer, Integer> entry : posting.entrySet()) {
+            scores.merge(entry.getKey(), entry.getValue() * factor, Double::sum);
+        }
+    }
+
+    private void addPostings(Movie movie) {
+        int movieId = movie.getMovieId();
+        movies.put(movieId, movie);
+
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, movie.getTitle(), TITLE_WEIGHT);
+        addField(weights, movie.getDirector(), DIRECTOR_WEIGHT);
+        addField(weights, movie.getGenre(), GENRE_WEIGHT);
+        addField(weights, movie.getDescription(), DESCRIPTION_WEIGHT);
+
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            String term = entry.getKey();
+            Map<Integer, Integer> posting = postings.computeIfAbsent(term, t -> new HashMap<>());
+            if (posting.isEmpty()) {
+                for (String gram : grams(term)) {
+                    gramIndex.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+                }
+            }
+            posting.put(movieId, entry.getValue());
+        }
+        movieTerms.put(movieId, weights.keySet());
+    }
+
+    private void removePostings(int movieId) {
+        movies.remove(movieId);
+        Set<String> terms = movieTerms.remove(movieId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Integer, Integer> posting = postings.get(term);
+            posting.remove(movieId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : grams(term)) {
+                    Set<String> gramTerms = gramIndex.get(gram);
+                    gramTerms.remove(term);
+                    if (gramTerms.isEmpty()) {
+                        gramIndex.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Set<String> grams(String term) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            grams.add(term.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.movieticket.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. The last item is the cursor for the next page: pass it
+ * back as {@code after} to continue where this page stopped.
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final boolean hasMore;
+
+    Page(List<T> items, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.hasMore = hasMore;
+    }
+
+    // Trim a result fetched with pageSize + 1 rows into a page, using the extra row to detect more
+    static <T> Page<T> of(List<T> rows, int pageSize) {
+        if (rows.size() > pageSize) {
+            return new Page<>(rows.subList(0, pageSize), true);
+        }
+        return new Page<>(rows, false);
+    }
+
+    public List<T> getItems() { return items; }
+
+    public boolean hasMore() { return hasMore; }
+
+    public T getLast() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.movieticket.service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Per-operation JDBC timings, recorded by {@link DatabaseConnection} for every statement it runs.
+ *
+ * An operation is the method that borrowed the connection: for DataService its method name, such
+ * as lockSeats or authenticate, otherwise Class.method. Each operation keeps a latency histogram
+ * of its statement executions, the rows they returned or changed, failures, and how long it waited
+ * for a pooled connection.
+ *
+ * Executions slower than the threshold ({@value #SLOW_QUERY_PROPERTY} system property, default
+ * {@value #DEFAULT_SLOW_QUERY_MS} ms) are logged with their SQL. Bind values are never logged, only
+ * their types, and string literals in the SQL text are masked.
+ */
+public final class QueryStats {
+    public static final String SLOW_QUERY_PROPERTY = "movieticket.slowQueryMs";
+    // Print a report when the application exits
+    public static final String REPORT_ON_EXIT_PROPERTY = "movieticket.queryStatsOnExit";
+
+    private static final long DEFAULT_SLOW_QUERY_MS = 500;
+    private static final int RECENT_SLOW_QUERY_LIMIT = 50;
+    // Upper bounds of the latency buckets in microseconds; one more bucket holds everything slower
+    private static final long[] BUCKET_BOUNDS_MICROS = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000
+    };
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private static final ConcurrentHashMap<String, Operation> operations = new ConcurrentHashMap<>();
+    private static final LongAdder slowQueryCount = new LongAdder();
+    // Guarded by itself
+    private static final Deque<SlowQuery> recentSlowQueries = new ArrayDeque<>();
+    private static volatile long slowQueryThresholdNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(SLOW_QUERY_PROPERTY, DEFAULT_SLOW_QUERY_MS));
+
+    private QueryStats() {}
+
+    public static long getSlowQueryThresholdMs() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryThresholdNanos);
+    }
+
+    public static void setSlowQueryThresholdMs(long thresholdMs) {
+        slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+    }
+
+    /**
+     * Counters for the operation that is borrowing a connection on this thread: the first caller
+     * outside the pool.
+     */
+    static Operation currentOperation() {
+        String name = STACK_WALKER.walk(frames -> frames
+                .filter(frame -> !isPoolFrame(frame.getClassName()))
+                .findFirst()
+                .map(QueryStats::operationName)
+                .orElse("unknown"));
+        return operations.computeIfAbsent(name, Operation::new);
+    }
+
+    private static boolean isPoolFrame(String className) {
+        return className.startsWith(DatabaseConnection.class.getName()) || className.startsWith(QueryStats.class.getName());
+    }
+
+    private static String operationName(StackWalker.StackFrame frame) {
+        String method = frame.getMethodName();
+        // A lambda inside getBookingsPage is named lambda$getBookingsPage$3
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            if (end > 0) {
+                method = method.substring("lambda$".length(), end);
+            }
+        }
+        String className = frame.getClassName();
+        if (className.equals(DataService.class.getName())) {
+            return method;
+        }
+        return className.substring(className.lastIndexOf('.') + 1) + "." + method;
+    }
+
+    /**
+     * Point-in-time copy of every operation's counters, busiest (by total execution time) first.
+     */
+    public static Snapshot snapshot() {
+        List<OperationStats> stats = new ArrayList<>();
+        for (Operation operation : operations.values()) {
+            stats.add(operation.stats());
+        }
+        stats.sort(Comparator.comparingLong(OperationStats::getTotalNanos).reversed());
+
+        List<SlowQuery> slowQueries;
+        synchronized (recentSlowQueries) {
+            slowQueries = new ArrayList<>(recentSlowQueries);
+        }
+        return new Snapshot(stats, slowQueryCount.sum(), getSlowQueryThresholdMs(), slowQueries,
+                DatabaseConnection.getPoolStats());
+    }
+
+    /**
+     * Clear all counters, e.g. before measuring a particular workload.
+     */
+    public static void reset() {
+        operations.clear();
+        slowQueryCount.reset();
+        synchronized (recentSlowQueries) {
+            recentSlowQueries.clear();
+        }
+    }
+
+    private static void logSlowQuery(Operation operation, String sql, String parameterTypes, long nanos, boolean failed) {
+        SlowQuery slowQuery = new SlowQuery(LocalDateTime.now(), operation.name, redact(sql), parameterTypes, nanos, failed);
+        slowQueryCount.increment();
+        synchronized (recentSlowQueries) {
+            if (recentSlowQueries.size() == RECENT_SLOW_QUERY_LIMIT) {
+                recentSlowQueries.removeFirst();
+            }
+            recentSlowQueries.addLast(slowQuery);
+        }
+        System.err.println("Slow query: " + slowQuery);
+    }
+
+    // Mask string literals and fold the whitespace of multi-line SQL onto one line
+    static String redact(String sql) {
+        if (sql == null) {
+            return "<unknown>";
+        }
+        String masked = STRING_LITERAL.matcher(sql).replaceAll("'?'");
+        return WHITESPACE.matcher(masked).replaceAll(" ").trim();
+    }
+
+    private static int bucketOf(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        for (int i = 0; i < BUCKET_BOUNDS_MICROS.length; i++) {
+            if (micros <= BUCKET_BOUNDS_MICROS[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_MICROS.length;
+    }
+
+    /**
+     * Live counters for one operation, shared by every connection that operation borrows.
+     */
+    static final class Operation {
+        private final String name;
+        private final LongAdder[] buckets = new LongAdder[BUCKET_BOUNDS_MICROS.length + 1];
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder borrows = new LongAdder();
+        private final LongAdder poolWaitNanos = new LongAdder();
+        private final AtomicLong maxPoolWaitNanos = new AtomicLong();
+
+        Operation(String name) {
+            this.name = name;
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void recordBorrow(long waitNanos) {
+            borrows.increment();
+            poolWaitNanos.add(waitNanos);
+            maxPoolWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+
+        /**
+         * Record one statement execution. {@code parameterTypes} is only evaluated for slow ones.
+         */
+        void recordExecution(String sql, Supplier<String> parameterTypes, long nanos, boolean failed) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            buckets[bucketOf(nanos)].increment();
+            if (failed) {
+                failures.increment();
+            }
+            if (nanos >= slowQueryThresholdNanos) {
+                logSlowQuery(this, sql, parameterTypes.get(), nanos, failed);
+            }
+        }
+
+        void recordRows(long count) {
+            rows.add(count);
+        }
+
+        OperationStats stats() {
+            long[] counts = new long[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+            }
+            return new OperationStats(name, executions.sum(), failures.sum(), totalNanos.sum(), maxNanos.get(),
+                    counts, rows.sum(), borrows.sum(), poolWaitNanos.sum(), maxPoolWaitNanos.get());
+        }
+    }
+
+    /**
+     * Counters for one operation. Times are in nanoseconds; percentiles are estimated from the
+     * histogram and reported as the upper bound of the bucket they fall in.
+     */
+    public static final class OperationStats {
+        private final String operation;
+        private final long executions;
+        private final long failures;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+        private final long rows;
+        private final long borrows;
+        private final long totalPoolWaitNanos;
+        private final long maxPoolWaitNanos;
+
+        OperationStats(String operation, long executions, long failures, long totalNanos, long maxNanos,
+                       long[] histogram, long rows, long borrows, long totalPoolWaitNanos, long maxPoolWaitNanos) {
+            this.operation = operation;
+            this.executions = executions;
+            this.failures = failures;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+            this.rows = rows;
+            this.borrows = borrows;
+            this.totalPoolWaitNanos = totalPoolWaitNanos;
+            this.maxPoolWaitNanos = maxPoolWaitNanos;
+        }
+
+        public String getOperation() { return operation; }
+        public long getExecutions() { return executions; }
+        public long getFailures() { return failures; }
+        public long getTotalNanos() { return totalNanos; }
+        public long getMaxNanos() { return maxNanos; }
+        public long getRows() { return rows; }
+        public long getBorrows() { return borrows; }
+        public long getTotalPoolWaitNanos() { return totalPoolWaitNanos; }
+        public long getMaxPoolWaitNanos() { return maxPoolWaitNanos; }
+
+        public long getAverageNanos() {
+            return executions == 0 ? 0 : totalNanos / executions;
+        }
+
+        public long getAveragePoolWaitNanos() {
+            return borrows == 0 ? 0 : totalPoolWaitNanos / borrows;
+        }
+
+        /**
+         * Execution counts per latency bucket; see {@link #getBucketBoundsMicros()}.
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * Upper bound of each histogram bucket in microseconds. The histogram has one more bucket
+         * than there are bounds, for executions slower than the last one.
+         */
+        public static long[] getBucketBoundsMicros() {
+            return BUCKET_BOUNDS_MICROS.clone();
+        }
+
+        public long getPercentileMicros(double percentile) {
+            long target = (long) Math.ceil(executions * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= target && seen > 0) {
+                    return i < BUCKET_BOUNDS_MICROS.length
+                            ? Math.min(BUCKET_BOUNDS_MICROS[i], TimeUnit.NANOSECONDS.toMicros(maxNanos))
+                            : TimeUnit.NANOSECONDS.toMicros(maxNanos);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-36s execs=%-7d fail=%-4d avg=%8dus p50=%8dus p95=%8dus p99=%8dus max=%8dus rows=%-8d avgPoolWait=%dus",
+                    operation, executions, failures,
+                    TimeUnit.NANOSECONDS.toMicros(getAverageNanos()),
+                    getPercentileMicros(50), getPercentileMicros(95), getPercentileMicros(99),
+                    TimeUnit.NANOSECONDS.toMicros(maxNanos), rows,
+                    TimeUnit.NANOSECONDS.toMicros(getAveragePoolWaitNanos()));
+        }
+    }
+
+    /**
+     * One execution that crossed the slow-query threshold. The SQL is redacted.
+     */
+    public static final class SlowQuery {
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+        private final LocalDateTime time;
+        private final String operation;
+        private final String sql;
+        private final String parameterTypes;
+        private final long nanos;
+        private final boolean failed;
+
+        SlowQuery(LocalDateTime time, String operation, String sql, String parameterTypes, long nanos, boolean failed) {
+            this.time = time;
+            this.operation = operation;
+            this.sql = sql;
+            this.parameterTypes = parameterTypes;
+            this.nanos = nanos;
+            this.failed = failed;
+        }
+
+        public LocalDateTime getTime() { return time; }
+        public String getOperation() { return operation; }
+        public String getSql() { return sql; }
+        public String getParameterTypes() { return parameterTypes; }
+        public long getNanos() { return nanos; }
+        public boolean isFailed() { return failed; }
+
+        @Override
+        public String toString() {
+            return time.format(TIME_FORMAT) + " " + operation + " took " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms" +
+                    (failed ? " (failed)" : "") + ": " + sql + " params=" + parameterTypes;
+        }
+    }
+
+    /**
+     * Everything recorded so far, plus the pool counters at the same moment.
+     */
+    public static final class Snapshot {
+        private final List<OperationStats> operations;
+        private final long slowQueryCount;
+        private final long slowQueryThresholdMs;
+        private final List<SlowQuery> recentSlowQueries;
+        private final DatabaseConnection.PoolStats poolStats;
+
+        Snapshot(List<OperationStats> operations, long slowQueryCount, long slowQueryThresholdMs,
+                 List<SlowQuery> recentSlowQueries, DatabaseConnection.PoolStats poolStats) {
+            this.operations = List.copyOf(operations);
+            this.slowQueryCount = slowQueryCount;
+            this.slowQueryThresholdMs = slowQueryThresholdMs;
+            this.recentSlowQueries = List.copyOf(recentSlowQueries);
+            this.poolStats = poolStats;
+        }
+
+        public List<OperationStats> getOperations() { return operations; }
+        public long getSlowQueryCount() { return slowQueryCount; }
+        public long getSlowQueryThresholdMs() { return slowQueryThresholdMs; }
+        public List<SlowQuery> getRecentSlowQueries() { return recentSlowQueries; }
+        public DatabaseConnection.PoolStats getPoolStats() { return poolStats; }
+
+        public OperationStats getOperation(String name) {
+            for (OperationStats stats : operations) {
+                if (stats.getOperation().equals(name)) {
+                    return stats;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Multi-line report: one line per operation, then the most recent slow queries.
+         */
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder("Query stats (slow query threshold " + slowQueryThresholdMs + "ms, " +
+                    slowQueryCount + " slow)\n");
+            for (OperationStats stats : operations) {
+                report.append("  ").append(stats).append('\n');
+            }
+            report.append(poolStats).append('\n');
+            if (!recentSlowQueries.isEmpty()) {
+                report.append("Recent slow queries:\n");
+                for (SlowQuery slowQuery : recentSlowQueries) {
+                    report.append("  ").append(slowQuery).append('\n');
+                }
+            }
+            return report.toString();
+        }
+    }
+}
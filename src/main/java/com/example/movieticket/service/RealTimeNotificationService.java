@@ -8,6 +8,10 @@ import javafx.application.Platform;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
 
 /**
  * Real-time notification service using Socket programming
@@ -23,6 +27,22 @@ public class RealTimeNotificationService {
     private final Map<Integer, List<SeatUpdateObserver>> seatObservers = new ConcurrentHashMap<>();
     private final List<ChatMessageObserver> chatObservers = new CopyOnWriteArrayList<>();
     private final List<TypingIndicatorObserver> typingObservers = new CopyOnWriteArrayList<>();
+    // Non-UI listeners that see every seat event received from the server (e.g. the seat map cache)
+    private final List<SeatUpdateObserver> seatStateListeners = new CopyOnWriteArrayList<>();
+    private final List<UnreadCountObserver> unreadObservers = new CopyOnWriteArrayList<>();
+    // Called when the server reports that this client missed events (e.g. to drop cached seat maps)
+    private final List<Runnable> resyncListeners = new CopyOnWriteArrayList<>();
+
+    // Unread message count of the logged-in user, pushed by the server instead of polled
+    private volatile int unreadUserId = -1;
+    private volatile int unreadCount;
+    // Reads the count from the database again; see confirmUnreadCount
+    private volatile IntSupplier unreadReader;
+    private int unreadChecksLeft; // FX thread only
+    private static final int MAX_UNREAD_CHECKS = 3;
+    // Re-reads the count while nothing is pushing it; guarded by this
+    private ScheduledExecutorService unreadRefresher;
+    private static final long OFFLINE_UNREAD_REFRESH_SECONDS = 30;
 
     // Track active typing users
     private final Map<String, Long> typingUsers = new ConcurrentHashMap<>();
@@ -125,6 +145,16 @@ public class RealTimeNotificationService {
                 });
             }
         });
+
+        socketClient.registerResyncObserver(this::resynchronize);
+        socketClient.registerReconnectObserver(this::reconnected);
+
+        socketClient.registerUnreadObserver((userId, count) -> {
+            if (userId == unreadUserId) {
+                applyUnreadCount(count);
+                confirmUnreadCount();
+            }
+        });
     }
 
     // Observer interfaces
@@ -138,6 +168,8 @@ public class RealTimeNotificationService {
     public interface ChatMessageObserver {
         void onMessageReceived(ChatMessage message);
         void onMessageRead(int messageId, int userId);
+        // Messages or read receipts may have been missed; reload what is shown
+        void onMessagesMissed();
     }
 
     public interface TypingIndicatorObserver {
@@ -145,6 +177,10 @@ public class RealTimeNotificationService {
         void onTypingStopped(int userId, int chatWithUserId);
     }
 
+    public interface UnreadCountObserver {
+        void onUnreadCountChanged(int count);
+    }
+
     // Connection management
     public boolean connect() {
         try {
@@ -190,6 +226,7 @@ public class RealTimeNotificationService {
                 @Override
                 public void onSeatUpdated(int sid, List<Seat> updatedSeats) {
                     if (sid == screeningId) {
+                        seatStateListeners.forEach(listener -> listener.onSeatUpdated(sid, updatedSeats));
                         Platform.runLater(() -> observer.onSeatUpdated(sid, updatedSeats));
                     }
                 }
@@ -197,6 +234,7 @@ public class RealTimeNotificationService {
                 @Override
                 public void onSeatLocked(int sid, String seatNumber, int userId) {
                     if (sid == screeningId) {
+                        seatStateListeners.forEach(listener -> listener.onSeatLocked(sid, seatNumber, userId));
                         Platform.runLater(() -> observer.onSeatLocked(sid, seatNumber, userId));
                     }
                 }
@@ -204,6 +242,7 @@ public class RealTimeNotificationService {
                 @Override
                 public void onSeatUnlocked(int sid, String seatNumber) {
                     if (sid == screeningId) {
+                        seatStateListeners.forEach(listener -> listener.onSeatUnlocked(sid, seatNumber));
                         Platform.runLater(() -> observer.onSeatUnlocked(sid, seatNumber));
                     }
                 }
@@ -211,6 +250,7 @@ public class RealTimeNotificationService {
                 @Override
                 public void onSeatBooked(int sid, String seatNumber) {
                     if (sid == screeningId) {
+                        seatStateListeners.forEach(listener -> listener.onSeatBooked(sid, seatNumber));
                         Platform.runLater(() -> observer.onSeatBooked(sid, seatNumber));
                     }
                 }
@@ -228,6 +268,58 @@ public class RealTimeNotificationService {
         }
     }
 
+    /**
+     * Register a listener for seat events arriving from other clients. Unlike seat observers it
+     * is not tied to a screening and is called directly rather than through Platform.runLater.
+     */
+    public void addSeatStateListener(SeatUpdateObserver listener) {
+        seatStateListeners.add(listener);
+    }
+
+    public void addResyncListener(Runnable listener) {
+        resyncListeners.add(listener);
+    }
+
+    /**
+     * The server skipped events for this client while it was behind: seat changes, chat messages
+     * and read receipts. Forget cached seat state, reload the seat maps and chats that are on
+     * screen, and check the unread count against the database. Runs on the FX thread.
+     */
+    private void resynchronize() {
+        System.out.println("Server reported missed updates - reloading seat maps and chats");
+        resyncListeners.forEach(Runnable::run);
+        for (Integer screeningId : seatObservers.keySet()) {
+            AsyncDataService.getInstance().load(ds -> ds.getSeatsByScreeningWithLocks(screeningId),
+                seats -> notifyLocalSeatObservers(screeningId, (observers) ->
+                    observers.forEach(obs -> obs.onSeatUpdated(screeningId, seats))));
+        }
+        for (ChatMessageObserver observer : chatObservers) {
+            try {
+                observer.onMessagesMissed();
+            } catch (Exception e) {
+                System.err.println("Error notifying chat observer: " + e.getMessage());
+            }
+        }
+        if (unreadReader != null) {
+            unreadChecksLeft = MAX_UNREAD_CHECKS;
+            confirmUnreadCount();
+        }
+    }
+
+    /**
+     * The socket client reconnected after losing the connection. The server has no unread count
+     * for the new session, so send ours; then reload everything, as for a resync. Runs on the FX
+     * thread.
+     */
+    private void reconnected() {
+        System.out.println("Reconnected to server - restoring unread count");
+        int userId = unreadUserId;
+        if (userId >= 0) {
+            socketClient.syncUnreadCount(userId, unreadCount);
+        }
+        resynchronize();
+    }
+
     public void registerChatObserver(ChatMessageObserver observer) {
         chatObservers.add(observer);
     }
@@ -236,6 +328,14 @@ public class RealTimeNotificationService {
         chatObservers.remove(observer);
     }
 
+    public void registerUnreadCountObserver(UnreadCountObserver observer) {
+        unreadObservers.add(observer);
+    }
+
+    public void unregisterUnreadCountObserver(UnreadCountObserver observer) {
+        unreadObservers.remove(observer);
+    }
+
     public void registerTypingObserver(TypingIndicatorObserver observer) {
         typingObservers.add(observer);
     }
@@ -320,6 +420,122 @@ public class RealTimeNotificationService {
         }
     }
 
+    /**
+     * Start keeping the user's unread count, seeded with the value the reader gets from the
+     * database. The server takes over from here and pushes every change made by any client.
+     * Runs the reader on the calling thread, so call it off the FX thread.
+     *
+     * The server only counts for users it has a count for, so a message that arrives between the
+     * database read and the server receiving the count would be lost. The reader is therefore run
+     * again once the server has answered, and a different result is sent as the new count.
+     *
+     * Whenever the socket is not connected, in local mode or after the connection dropped, the
+     * reader is run every {@value #OFFLINE_UNREAD_REFRESH_SECONDS} seconds instead.
+     */
+    public void startUnreadTracking(int userId, IntSupplier countReader) {
+        int count = countReader.getAsInt();
+        unreadUserId = userId;
+        unreadCount = count;
+        unreadReader = countReader;
+        if (socketEnabled && socketClient != null) {
+            Platform.runLater(() -> unreadChecksLeft = MAX_UNREAD_CHECKS);
+            socketClient.setUserId(userId);
+            socketClient.syncUnreadCount(userId, count);
+        }
+        startOfflineUnreadRefresh();
+    }
+
+    private synchronized void startOfflineUnreadRefresh() {
+        if (unreadRefresher != null) {
+            return;
+        }
+        unreadRefresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "UnreadRefresh");
+            thread.setDaemon(true); // Don't prevent JVM shutdown
+            return thread;
+        });
+        unreadRefresher.scheduleWithFixedDelay(this::refreshUnreadOffline,
+                OFFLINE_UNREAD_REFRESH_SECONDS, OFFLINE_UNREAD_REFRESH_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Nothing pushes the count while disconnected, and messages from other clients would never
+    // show, so read it from the database
+    private void refreshUnreadOffline() {
+        IntSupplier reader = unreadReader;
+        int userId = unreadUserId;
+        if (reader == null || isConnected()) {
+            return;
+        }
+        int count = reader.getAsInt();
+        if (userId == unreadUserId && count != unreadCount) {
+            applyUnreadCount(count);
+        }
+    }
+
+    // Compare the count the server pushed with the database until they agree (or give up, leaving
+    // the server's count, when messages keep arriving in between)
+    private void confirmUnreadCount() {
+        IntSupplier reader = unreadReader;
+        if (unreadChecksLeft == 0 || reader == null) {
+            return;
+        }
+        unreadChecksLeft--;
+        int userId = unreadUserId;
+        AsyncDataService.getInstance().load(ds -> reader.getAsInt(), count -> {
+            if (userId != unreadUserId) {
+                return; // Logged out meanwhile
+            }
+            if (count == unreadCount) {
+                unreadChecksLeft = 0;
+            } else if (socketEnabled && socketClient != null) {
+                socketClient.syncUnreadCount(userId, count);
+            }
+        });
+    }
+
+    public void stopUnreadTracking() {
+        unreadUserId = -1;
+        unreadCount = 0;
+        unreadReader = null;
+        unreadObservers.clear();
+        synchronized (this) {
+            if (unreadRefresher != null) {
+                unreadRefresher.shutdownNow();
+                unreadRefresher = null;
+            }
+        }
+    }
+
+    public boolean isTrackingUnread(int userId) {
+        return unreadUserId == userId;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void notifyUnreadChanged(int userId, int delta) {
+        if (socketEnabled && socketClient != null) {
+            socketClient.notifyUnreadChanged(userId, delta);
+        } else if (userId == unreadUserId) {
+            // Local notification fallback
+            applyUnreadCount(Math.max(0, unreadCount + delta));
+        }
+    }
+
+    private void applyUnreadCount(int count) {
+        unreadCount = count;
+        Platform.runLater(() -> {
+            for (UnreadCountObserver observer : unreadObservers) {
+                try {
+                    observer.onUnreadCountChanged(count);
+                } catch (Exception e) {
+                    System.err.println("Error notifying unread count observer: " + e.getMessage());
+                }
+            }
+        });
+    }
+
     public void notifyTypingStarted(int userId, int chatWithUserId) {
         // Update local typing tracking
         String key = userId + ":" + chatWithUserId;
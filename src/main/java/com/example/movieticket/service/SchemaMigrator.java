@@ -0,0 +1,184 @@
+package com.example.movieticket.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned schema scripts in {@link #MIGRATIONS} that the database has not seen yet.
+ *
+ * Applied versions are recorded in schema_version with a CRC32 of the script, so a current
+ * database costs one SELECT at startup. A script whose checksum no longer matches its recorded
+ * one means it was edited after release; nothing further is applied until that is resolved.
+ * Never edit a released script: add the next version instead.
+ */
+public final class SchemaMigrator {
+    private static final int ER_NO_SUCH_TABLE = 1146;
+    private static final int ER_DUP_FIELDNAME = 1060;
+    private static final int ER_DUP_KEYNAME = 1061;
+
+    // Ordered by version. V1 is the original schema script, which is idempotent so it also
+    // adopts databases created before versioning existed.
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "baseline", "/database_schema.sql"),
+            new Migration(2, "backfill booking_seats", "/db/migration/V2__backfill_booking_seats.sql"),
+            new Migration(3, "hot query indexes", "/db/migration/V3__hot_query_indexes.sql"),
+            new Migration(4, "provision missing seats", "/db/migration/V4__provision_missing_seats.sql"),
+            new Migration(5, "pagination indexes", "/db/migration/V5__pagination_indexes.sql"),
+            new Migration(6, "conversations", "/db/migration/V6__conversations.sql"),
+            new Migration(7, "chat history indexes", "/db/migration/V7__chat_history_indexes.sql"),
+            new Migration(8, "users profile picture", "/db/migration/V8__users_profile_picture.sql"),
+            new Migration(9, "users role index", "/db/migration/V9__users_role_index.sql")
+    );
+
+    private SchemaMigrator() {}
+
+    /**
+     * Bring the schema up to date. Returns true if the baseline was applied in this run, i.e. the
+     * database is new (or new to versioning) and may need sample data.
+     */
+    public static boolean migrate(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = loadAppliedVersions(conn);
+        boolean baselineApplied = false;
+
+        for (Migration migration : MIGRATIONS) {
+            String script = migration.load();
+            long checksum = checksum(script);
+            Long recorded = applied.get(migration.version);
+
+            if (recorded != null) {
+                if (recorded != checksum) {
+                    System.err.println("Schema migration V" + migration.version + " (" + migration.description +
+                            ") has changed since it was applied; skipping remaining migrations");
+                    return baselineApplied;
+                }
+                continue;
+            }
+
+            apply(conn, migration, script, checksum);
+            baselineApplied |= migration.version == 1;
+            System.out.println("Applied schema migration V" + migration.version + ": " + migration.description);
+        }
+        return baselineApplied;
+    }
+
+    private static Map<Integer, Long> loadAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT version, checksum FROM schema_version");
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                applied.put(rs.getInt("version"), rs.getLong("checksum"));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                        "version INT PRIMARY KEY, " +
+                        "description VARCHAR(200) NOT NULL, " +
+                        "checksum BIGINT NOT NULL, " +
+                        "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+        }
+        return applied;
+    }
+
+    private static void apply(Connection conn, Migration migration, String script, long checksum) throws SQLException {
+        // MySQL commits DDL implicitly, so a failed script is not rolled back; it is simply not recorded
+        // and runs again next start. Scripts are written to be safe to re-run.
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : splitStatements(script)) {
+                // Skip USE database statement since we're already connected to the database
+                if (!sql.toUpperCase().startsWith("USE ")) {
+                    executeStatement(stmt, sql);
+                }
+            }
+        }
+
+        String recordSql = "INSERT INTO schema_version (version, description, checksum) VALUES (?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(recordSql)) {
+            stmt.setInt(1, migration.version);
+            stmt.setString(2, migration.description);
+            stmt.setLong(3, checksum);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void executeStatement(Statement stmt, String sql) throws SQLException {
+        try {
+            stmt.executeUpdate(sql);
+        } catch (SQLException e) {
+            // MySQL has no CREATE INDEX or ADD COLUMN IF NOT EXISTS; an index or column that is
+            // already there (left by an interrupted run, or created by the baseline) is fine
+            if (e.getErrorCode() != ER_DUP_KEYNAME && e.getErrorCode() != ER_DUP_FIELDNAME) {
+                throw e;
+            }
+        }
+    }
+
+    // Drop comment and blank lines, then split on semicolons
+    private static List<String> splitStatements(String script) {
+        StringBuilder sqlBuilder = new StringBuilder();
+        for (String line : script.split("\n")) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("--")) {
+                continue;
+            }
+            sqlBuilder.append(line).append(" ");
+        }
+
+        List<String> statements = new ArrayList<>();
+        for (String sql : sqlBuilder.toString().split(";")) {
+            sql = sql.trim();
+            if (!sql.isEmpty()) {
+                statements.add(sql);
+            }
+        }
+        return statements;
+    }
+
+    // Line endings are normalized so a checkout with different EOL settings keeps the same checksum
+    private static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String resource;
+
+        Migration(int version, String description, String resource) {
+            this.version = version;
+            this.description = description;
+            this.resource = resource;
+        }
+
+        String load() throws SQLException {
+            try (InputStream in = SchemaMigrator.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new SQLException("Migration script not found: " + resource);
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                return reader.lines().collect(Collectors.joining("\n"));
+            } catch (IOException e) {
+                throw new SQLException("Error reading migration script " + resource, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.movieticket.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks for seat reservation work, keyed by screening.
+ *
+ * Two customers booking different screenings almost always land on different
+ * stripes and proceed in parallel; only callers touching the same screening
+ * (or the rare hash collision) queue behind each other. Every acquisition
+ * records how long the caller waited so contention is visible.
+ */
+public class ScreeningLocks {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    // Contention metrics
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ScreeningLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public ScreeningLocks(int stripeCount) {
+        // Round up to a power of two so the stripe index is a mask, not a modulo
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Block until the lock guarding this screening is held and return it.
+     * The caller must {@code unlock()} it in a finally block.
+     */
+    public ReentrantLock acquire(int screeningId) {
+        ReentrantLock lock = stripeFor(screeningId);
+        acquisitions.increment();
+
+        // Uncontended fast path: no clock reads
+        if (lock.tryLock()) {
+            return lock;
+        }
+
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        contendedAcquisitions.increment();
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        return lock;
+    }
+
+    private ReentrantLock stripeFor(int screeningId) {
+        // Spread sequential ids across stripes
+        int h = screeningId * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    public ContentionStats getStats() {
+        return new ContentionStats(
+                acquisitions.sum(),
+                contendedAcquisitions.sum(),
+                totalWaitNanos.sum(),
+                maxWaitNanos.get());
+    }
+
+    /**
+     * Point-in-time contention counters. Wait times are in nanoseconds.
+     */
+    public static final class ContentionStats {
+        private final long acquisitions;
+        private final long contendedAcquisitions;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+
+        ContentionStats(long acquisitions, long contendedAcquisitions, long totalWaitNanos, long maxWaitNanos) {
+            this.acquisitions = acquisitions;
+            this.contendedAcquisitions = contendedAcquisitions;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+        }
+
+        public long getAcquisitions() { return acquisitions; }
+        public long getContendedAcquisitions() { return contendedAcquisitions; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+        public long getMaxWaitNanos() { return maxWaitNanos; }
+
+        // Average wait across all callers, including the ones that never waited
+        public long getAverageWaitNanos() {
+            return acquisitions == 0 ? 0 : totalWaitNanos / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return "ContentionStats{" +
+                    "acquisitions=" + acquisitions +
+                    ", contended=" + contendedAcquisitions +
+                    ", avgWaitMicros=" + TimeUnit.NANOSECONDS.toMicros(getAverageWaitNanos()) +
+                    ", maxWaitMicros=" + TimeUnit.NANOSECONDS.toMicros(maxWaitNanos) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Screening;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Immutable copy of every screening, indexed by id, by movie and by show date. Published by
+ * {@link CatalogCache}; a change produces a new snapshot rather than modifying this one.
+ *
+ * Screening is a mutable bean, so every getter hands out fresh copies and callers may edit
+ * what they get without affecting the cache.
+ */
+public final class ScreeningSnapshot {
+    private final List<Screening> all;
+    private final Map<Integer, Screening> byId;
+    private final Map<Integer, List<Screening>> byMovie;
+    private final NavigableMap<LocalDate, List<Screening>> byDay;
+
+    // Screenings must already be in show time order
+    ScreeningSnapshot(List<Screening> screenings) {
+        List<Screening> all = new ArrayList<>(screenings.size());
+        Map<Integer, Screening> byId = new HashMap<>();
+        Map<Integer, List<Screening>> byMovie = new HashMap<>();
+        NavigableMap<LocalDate, List<Screening>> byDay = new TreeMap<>();
+
+        for (Screening screening : screenings) {
+            Screening copy = copyOf(screening);
+            all.add(copy);
+            byId.put(copy.getScreeningId(), copy);
+            byMovie.computeIfAbsent(copy.getMovieId(), id -> new ArrayList<>()).add(copy);
+            byDay.computeIfAbsent(copy.getShowTime().toLocalDate(), day -> new ArrayList<>()).add(copy);
+        }
+
+        this.all = all;
+        this.byId = byId;
+        this.byMovie = byMovie;
+        this.byDay = byDay;
+    }
+
+    /**
+     * All screenings in show time order.
+     */
+    public List<Screening> getAll() {
+        return copiesOf(all);
+    }
+
+    public Screening get(int screeningId) {
+        Screening screening = byId.get(screeningId);
+        return screening != null ? copyOf(screening) : null;
+    }
+
+    public boolean contains(int screeningId) {
+        return byId.containsKey(screeningId);
+    }
+
+    /**
+     * Screenings of one movie in show time order.
+     */
+    public List<Screening> getByMovie(int movieId) {
+        return copiesOf(byMovie.getOrDefault(movieId, List.of()));
+    }
+
+    /**
+     * Screenings showing on the given date in show time order.
+     */
+    public List<Screening> getByDay(LocalDate day) {
+        return copiesOf(byDay.getOrDefault(day, List.of()));
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * A snapshot identical to this one except for the screening's available seat count.
+     */
+    ScreeningSnapshot withAvailableSeats(int screeningId, int availableSeats) {
+        if (!byId.containsKey(screeningId)) {
+            return this;
+        }
+        List<Screening> updated = new ArrayList<>(all.size());
+        for (Screening screening : all) {
+            if (screening.getScreeningId() == screeningId) {
+                screening = copyOf(screening);
+                screening.setAvailableSeats(availableSeats);
+            }
+            updated.add(screening);
+        }
+        return new ScreeningSnapshot(updated);
+    }
+
+    private static List<Screening> copiesOf(List<Screening> screenings) {
+        List<Screening> copies = new ArrayList<>(screenings.size());
+        for (Screening screening : screenings) {
+            copies.add(copyOf(screening));
+        }
+        return copies;
+    }
+
+    static Screening copyOf(Screening screening) {
+        Screening copy = new Screening();
+        copy.setScreeningId(screening.getScreeningId());
+        copy.setMovieId(screening.getMovieId());
+        copy.setMovieTitle(screening.getMovieTitle());
+        copy.setScreenName(screening.getScreenName());
+        copy.setShowTime(screening.getShowTime());
+        copy.setTicketPrice(screening.getTicketPrice());
+        copy.setTotalSeats(screening.getTotalSeats());
+        copy.setAvailableSeats(screening.getAvailableSeats());
+        return copy;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.movieticket.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashed timing wheel that fires seat-lock expirations at their deadline.
+ *
+ * Each lock created by this client is scheduled by id when it is written. A single daemon thread
+ * advances the wheel every {@link #TICK_MS} and hands the locks that are due to the
+ * {@link ExpiryHandler}, so no one has to scan seat_locks for expired rows. Locks that were
+ * released or booked before their deadline are left on the wheel; the handler's delete by
+ * lock id simply finds nothing.
+ */
+public class SeatLockExpiryWheel {
+    private static final long TICK_MS = 500;
+    // 1024 buckets x 500ms covers 8.5 minutes, longer than any lock; later deadlines just wait a lap
+    private static final int WHEEL_SIZE = 1024;
+
+    /**
+     * Expires the given locks and returns how many were actually removed.
+     */
+    @FunctionalInterface
+    public interface ExpiryHandler {
+        int expire(List<PendingExpiry> due);
+    }
+
+    private final List<PendingExpiry>[] buckets;
+    private final long startTime = System.currentTimeMillis();
+    private final ExpiryHandler handler;
+    private final ScheduledExecutorService ticker;
+    private long currentTick;
+
+    // Expiration metrics
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile int lastTickExpired;
+    private volatile int maxTickExpired;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SeatLockExpiryWheel(ExpiryHandler handler) {
+        this.handler = handler;
+        this.buckets = new List[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new LinkedList<>();
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "SeatLockExpiryWheel");
+            thread.setDaemon(true); // Don't prevent JVM shutdown
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedule a lock to expire at the given wall-clock time. Deadlines already in the past fire
+     * on the next tick.
+     */
+    public void schedule(int lockId, int screeningId, String seatNumber, long expiresAtMillis) {
+        long deadlineTick = (expiresAtMillis - startTime + TICK_MS - 1) / TICK_MS;
+        synchronized (buckets) {
+            deadlineTick = Math.max(deadlineTick, currentTick + 1);
+            buckets[(int) (deadlineTick & (WHEEL_SIZE - 1))]
+                    .add(new PendingExpiry(lockId, screeningId, seatNumber, deadlineTick));
+        }
+        pending.incrementAndGet();
+    }
+
+    private void tick() {
+        List<PendingExpiry> due = new ArrayList<>();
+        synchronized (buckets) {
+            currentTick++;
+            Iterator<PendingExpiry> it = buckets[(int) (currentTick & (WHEEL_SIZE - 1))].iterator();
+            while (it.hasNext()) {
+                PendingExpiry entry = it.next();
+                if (entry.deadlineTick <= currentTick) {
+                    due.add(entry);
+                    it.remove();
+                }
+            }
+        }
+        ticks.increment();
+
+        int count = 0;
+        if (!due.isEmpty()) {
+            pending.addAndGet(-due.size());
+            try {
+                count = handler.expire(due);
+            } catch (RuntimeException e) {
+                System.err.println("Error expiring seat locks: " + e.getMessage());
+            }
+        }
+        lastTickExpired = count;
+        if (count > maxTickExpired) {
+            maxTickExpired = count;
+        }
+        expired.add(count);
+    }
+
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    public ExpiryStats getStats() {
+        return new ExpiryStats(ticks.sum(), expired.sum(), lastTickExpired, maxTickExpired, pending.get());
+    }
+
+    /**
+     * A lock waiting on the wheel.
+     */
+    public static final class PendingExpiry {
+        private final int lockId;
+        private final int screeningId;
+        private final String seatNumber;
+        private final long deadlineTick;
+
+        PendingExpiry(int lockId, int screeningId, String seatNumber, long deadlineTick) {
+            this.lockId = lockId;
+            this.screeningId = screeningId;
+            this.seatNumber = seatNumber;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public int getLockId() { return lockId; }
+        public int getScreeningId() { return screeningId; }
+        public String getSeatNumber() { return seatNumber; }
+    }
+
+    /**
+     * Point-in-time expiration counters. Per-tick counts are locks actually removed.
+     */
+    public static final class ExpiryStats {
+        private final long ticks;
+        private final long expiredTotal;
+        private final int lastTickExpired;
+        private final int maxTickExpired;
+        private final int pending;
+
+        ExpiryStats(long ticks, long expiredTotal, int lastTickExpired, int maxTickExpired, int pending) {
+            this.ticks = ticks;
+            this.expiredTotal = expiredTotal;
+            this.lastTickExpired = lastTickExpired;
+            this.maxTickExpired = maxTickExpired;
+            this.pending = pending;
+        }
+
+        public long getTicks() { return ticks; }
+        public long getExpiredTotal() { return expiredTotal; }
+        public int getLastTickExpired() { return lastTickExpired; }
+        public int getMaxTickExpired() { return maxTickExpired; }
+        public int getPending() { return pending; }
+
+        @Override
+        public String toString() {
+            return "ExpiryStats{" +
+                    "ticks=" + ticks +
+                    ", expired=" + expiredTotal +
+                    ", lastTick=" + lastTickExpired +
+                    ", maxTick=" + maxTickExpired +
+                    ", pending=" + pending +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Seat;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory seat state per screening, used as the read model for seat maps.
+ *
+ * Each screening is held as two bitsets (booked, locked) over its seats in display order plus
+ * a lock owner / expiry array, so building the seat list for the UI costs no database round
+ * trip. Maps are loaded lazily by {@link DataService}, updated in place by the reservation
+ * paths and by seat events received from other clients, and reloaded after
+ * {@link #MAX_AGE_MS} as a safety net for changes this process never heard about.
+ */
+public class SeatMapStore {
+    private static final long MAX_AGE_MS = 30_000;
+
+    private final Map<Integer, ScreeningSeatMap> maps = new ConcurrentHashMap<>();
+    // Per screening, bumped on every write so a load that raced with a write to that screening is
+    // not cached; entries exist from the first load, and writes before that cannot race with one
+    private final Map<Integer, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Seats for the screening from memory, or null if the map is not loaded or too old.
+     */
+    public List<Seat> getSeats(int screeningId) {
+        ScreeningSeatMap map = maps.get(screeningId);
+        if (map == null || System.currentTimeMillis() - map.loadedAt > MAX_AGE_MS) {
+            return null;
+        }
+        hits.increment();
+        return map.toSeats(System.currentTimeMillis());
+    }
+
+    /**
+     * Call before reading seat state from the database; pass the result to {@link #install}.
+     */
+    public long beginLoad(int screeningId) {
+        return versions.computeIfAbsent(screeningId, id -> new AtomicLong()).get();
+    }
+
+    /**
+     * Cache seats freshly read from the database. Skipped if the screening was written since
+     * {@link #beginLoad(int)} because the rows may predate it.
+     */
+    public void install(int screeningId, List<Seat> seats, long loadToken) {
+        loads.increment();
+        AtomicLong version = versions.get(screeningId);
+        if (!seats.isEmpty() && version != null && version.get() == loadToken) {
+            maps.put(screeningId, new ScreeningSeatMap(seats));
+        }
+    }
+
+    /**
+     * Replace the map with a complete seat list pushed by another client.
+     */
+    public void replace(int screeningId, List<Seat> seats) {
+        modified(screeningId);
+        if (seats == null || seats.isEmpty()) {
+            maps.remove(screeningId);
+        } else {
+            maps.put(screeningId, new ScreeningSeatMap(seats));
+        }
+    }
+
+    public void invalidate(int screeningId) {
+        modified(screeningId);
+        maps.remove(screeningId);
+    }
+
+    public void invalidateAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        maps.clear();
+    }
+
+    public void seatsLocked(int screeningId, Collection<String> seatNumbers, int userId, LocalDateTime expiresAt) {
+        modified(screeningId);
+        ScreeningSeatMap map = maps.get(screeningId);
+        if (map != null) {
+            map.lock(seatNumbers, userId, toMillis(expiresAt));
+        }
+    }
+
+    public void userLocksReleased(int screeningId, int userId) {
+        modified(screeningId);
+        ScreeningSeatMap map = maps.get(screeningId);
+        if (map != null) {
+            map.releaseLocksOf(userId);
+        }
+    }
+
+    public void seatUnlocked(int screeningId, String seatNumber) {
+        modified(screeningId);
+        ScreeningSeatMap map = maps.get(screeningId);
+        if (map != null) {
+            map.unlock(seatNumber);
+        }
+    }
+
+    public void seatsBooked(int screeningId, Collection<String> seatNumbers) {
+        modified(screeningId);
+        ScreeningSeatMap map = maps.get(screeningId);
+        if (map != null) {
+            map.book(seatNumbers);
+        }
+    }
+
+    private void modified(int screeningId) {
+        AtomicLong version = versions.get(screeningId);
+        if (version != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Compact seat state for one screening. Seat identity (id, number, row) is fixed at load;
+     * only the bitsets and lock arrays change, under the map's monitor.
+     */
+    private static final class ScreeningSeatMap {
+        private final long loadedAt = System.currentTimeMillis();
+        private final int screeningId;
+        private final int[] seatIds;
+        private final String[] seatNumbers;
+        private final String[] rowNumbers;
+        private final Map<String, Integer> indexBySeatNumber;
+
+        private final BitSet booked;
+        private final BitSet locked;
+        private final int[] lockOwners;
+        private final long[] lockExpiresAt;
+
+        ScreeningSeatMap(List<Seat> seats) {
+            List<Seat> ordered = new ArrayList<>(seats);
+            ordered.sort(SEAT_ORDER);
+
+            int size = ordered.size();
+            this.screeningId = ordered.get(0).getScreeningId();
+            this.seatIds = new int[size];
+            this.seatNumbers = new String[size];
+            this.rowNumbers = new String[size];
+            this.indexBySeatNumber = new HashMap<>(size * 2);
+            this.booked = new BitSet(size);
+            this.locked = new BitSet(size);
+            this.lockOwners = new int[size];
+            this.lockExpiresAt = new long[size];
+
+            for (int i = 0; i < size; i++) {
+                Seat seat = ordered.get(i);
+                seatIds[i] = seat.getSeatId();
+                seatNumbers[i] = seat.getSeatNumber();
+                rowNumbers[i] = seat.getRowNumber();
+                indexBySeatNumber.put(seat.getSeatNumber(), i);
+                if (seat.isBooked()) {
+                    booked.set(i);
+                }
+                if (seat.isLocked() && seat.getLockExpiresAt() != null) {
+                    locked.set(i);
+                    lockOwners[i] = seat.getLockedByUserId();
+                    lockExpiresAt[i] = toMillis(seat.getLockExpiresAt());
+                }
+            }
+        }
+
+        synchronized List<Seat> toSeats(long now) {
+            List<Seat> seats = new ArrayList<>(seatIds.length);
+            for (int i = 0; i < seatIds.length; i++) {
+                Seat seat = new Seat();
+                seat.setSeatId(seatIds[i]);
+                seat.setScreeningId(screeningId);
+                seat.setSeatNumber(seatNumbers[i]);
+                seat.setRowNumber(rowNumbers[i]);
+                seat.setBooked(booked.get(i));
+
+                // Expired holds read as free even before the cleanup task deletes the row
+                if (locked.get(i) && lockExpiresAt[i] > now) {
+                    seat.setLocked(true);
+                    seat.setLockedByUserId(lockOwners[i]);
+                    seat.setLockExpiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(lockExpiresAt[i]), ZoneId.systemDefault()));
+                }
+                seats.add(seat);
+            }
+            return seats;
+        }
+
+        synchronized void lock(Collection<String> seatNumbers, int userId, long expiresAt) {
+            for (String seatNumber : seatNumbers) {
+                Integer i = indexBySeatNumber.get(seatNumber);
+                if (i != null) {
+                    locked.set(i);
+                    lockOwners[i] = userId;
+                    lockExpiresAt[i] = expiresAt;
+                }
+            }
+        }
+
+        synchronized void releaseLocksOf(int userId) {
+            for (int i = locked.nextSetBit(0); i >= 0; i = locked.nextSetBit(i + 1)) {
+                if (lockOwners[i] == userId) {
+                    clearLock(i);
+                }
+            }
+        }
+
+        synchronized void unlock(String seatNumber) {
+            Integer i = indexBySeatNumber.get(seatNumber);
+            if (i != null) {
+                clearLock(i);
+            }
+        }
+
+        synchronized void book(Collection<String> seatNumbers) {
+            for (String seatNumber : seatNumbers) {
+                Integer i = indexBySeatNumber.get(seatNumber);
+                if (i != null) {
+                    booked.set(i);
+                    clearLock(i);
+                }
+            }
+        }
+
+        private void clearLock(int i) {
+            locked.clear(i);
+            lockOwners[i] = 0;
+            lockExpiresAt[i] = 0;
+        }
+    }
+
+    // Row letter first, then the numeric part of the seat label (A2 before A10)
+    static final Comparator<Seat> SEAT_ORDER = Comparator
+            .comparing(Seat::getRowNumber, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingInt(seat -> seatColumn(seat.getSeatNumber()));
+
+    private static int seatColumn(String seatNumber) {
+        try {
+            return Integer.parseInt(seatNumber.substring(1));
+        } catch (RuntimeException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 -- Movie Ticket Booking System Database Schema
 -- This file contains the complete database setup for the movie ticket application
+-- It is also migration V1 (see SchemaMigrator): do not edit it, add a new script under db/migration
 
 -- Create database if not exists
 CREATE DATABASE IF NOT EXISTS movieticket_db;
@@ -82,6 +83,25 @@ CREATE TABLE IF NOT EXISTS messages (
     FOREIGN KEY (receiver_id) REFERENCES users(user_id) ON DELETE CASCADE
 );
 
+-- Create booking_seats table, one row per seat in a booking (bookings.seat_ids is kept for display)
+CREATE TABLE IF NOT EXISTS booking_seats (
+    booking_id INT NOT NULL,
+    screening_id INT NOT NULL,
+    seat_number VARCHAR(10) NOT NULL,
+    PRIMARY KEY (booking_id, seat_number),
+    INDEX idx_booking_seats_screening (screening_id, seat_number),
+    FOREIGN KEY (booking_id) REFERENCES bookings(booking_id) ON DELETE CASCADE,
+    FOREIGN KEY (screening_id) REFERENCES screenings(screening_id) ON DELETE CASCADE
+);
+
+-- Create dashboard_counters table; each counter is the sum of its shard rows
+CREATE TABLE IF NOT EXISTS dashboard_counters (
+    counter_name VARCHAR(40) NOT NULL,
+    shard TINYINT NOT NULL,
+    counter_value DECIMAL(14,2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (counter_name, shard)
+);
+
 -- Create seat_locks table for temporary seat reservations
 CREATE TABLE IF NOT EXISTS seat_locks (
     lock_id INT AUTO_INCREMENT PRIMARY KEY,
@@ -0,0 +1,9 @@
+-- Split bookings.seat_ids into booking_seats for bookings made before that table existed
+INSERT IGNORE INTO booking_seats (booking_id, screening_id, seat_number)
+SELECT b.booking_id, b.screening_id, TRIM(j.seat_number)
+FROM bookings b
+JOIN JSON_TABLE(
+    CONCAT('["', REPLACE(b.seat_ids, ',', '","'), '"]'),
+    '$[*]' COLUMNS (seat_number VARCHAR(10) PATH '$')
+) j
+WHERE TRIM(j.seat_number) <> '';
@@ -0,0 +1,25 @@
+-- Indexes for the queries that dominate the slow log
+
+-- Unread counts and mark-as-read: receiver_id = ? AND is_read = FALSE [AND sender_id = ?]
+CREATE INDEX idx_messages_receiver_unread ON messages (receiver_id, is_read, sender_id);
+
+-- One conversation in time order: (sender_id = ? AND receiver_id = ?) OR the reverse, ORDER BY timestamp
+CREATE INDEX idx_messages_conversation ON messages (sender_id, receiver_id, timestamp);
+
+-- A user's bookings newest first
+CREATE INDEX idx_bookings_user_date ON bookings (user_id, booking_date);
+
+-- Counts and revenue by status; total_amount makes SUM(total_amount) index-only
+CREATE INDEX idx_bookings_status_amount ON bookings (status, total_amount);
+
+-- Screening lists ordered by time, overall and per movie
+CREATE INDEX idx_screenings_show_time ON screenings (show_time);
+CREATE INDEX idx_screenings_movie_time ON screenings (movie_id, show_time);
+
+-- Releasing a user's holds on a screening
+CREATE INDEX idx_seat_locks_user ON seat_locks (screening_id, user_id);
+
+-- Review lists newest first, overall, per user and per type
+CREATE INDEX idx_reviews_date ON reviews (review_date);
+CREATE INDEX idx_reviews_user_date ON reviews (user_id, review_date);
+CREATE INDEX idx_reviews_type_date ON reviews (review_type, review_date);
@@ -0,0 +1,19 @@
+-- Seats are now created with their screening; this converts and fills in what the old lazy path left behind
+
+-- Seats from the old numeric format ("1".."100") are replaced, as the per-read check used to do
+DELETE FROM seats WHERE seat_number REGEXP '^[0-9]+$';
+
+-- Provision every screening that has no seats, using the HallLayout grid (rows of at least 10, A-Z)
+INSERT INTO seats (screening_id, seat_number, `row_number`)
+WITH RECURSIVE seat_index (i) AS (
+    SELECT 0
+    UNION ALL
+    SELECT i + 1 FROM seat_index WHERE i < 999
+)
+SELECT s.screening_id,
+       CONCAT(CHAR(65 + n.i DIV GREATEST(10, CEIL(s.total_seats / 26)) USING utf8mb4),
+              n.i MOD GREATEST(10, CEIL(s.total_seats / 26)) + 1),
+       CHAR(65 + n.i DIV GREATEST(10, CEIL(s.total_seats / 26)) USING utf8mb4)
+FROM screenings s
+JOIN seat_index n ON n.i < s.total_seats
+WHERE NOT EXISTS (SELECT 1 FROM seats x WHERE x.screening_id = s.screening_id);
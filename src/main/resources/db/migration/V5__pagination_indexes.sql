@@ -0,0 +1,7 @@
+-- Keyset pagination for the admin tables; InnoDB appends the primary key, so these cover (key, id)
+
+-- All bookings, newest first
+CREATE INDEX idx_bookings_date ON bookings (booking_date);
+
+-- Users ordered by name
+CREATE INDEX idx_users_full_name ON users (full_name);
@@ -0,0 +1,25 @@
+-- One row per user who has chatted with the admins: the shared admin inbox, kept current by the
+-- chat writes in DataService so listing it is a scan of idx_conversations_last_message
+CREATE TABLE IF NOT EXISTS conversations (
+    user_id INT PRIMARY KEY,
+    last_message_at TIMESTAMP NOT NULL,
+    last_message_snippet VARCHAR(100) NOT NULL,
+    last_sender_id INT NOT NULL,
+    unread_for_admins INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
+    INDEX idx_conversations_last_message (last_message_at)
+);
+
+-- Summarize the existing chat history: latest message and unread count per user
+INSERT IGNORE INTO conversations (user_id, last_message_at, last_message_snippet, last_sender_id, unread_for_admins)
+SELECT t.user_id, t.timestamp, LEFT(t.content, 100), t.sender_id, t.unread
+FROM (
+    SELECT u.user_id, m.timestamp, m.content, m.sender_id,
+           ROW_NUMBER() OVER (PARTITION BY u.user_id ORDER BY m.timestamp DESC, m.message_id DESC) AS rn,
+           SUM(m.sender_id = u.user_id AND m.is_read = FALSE) OVER (PARTITION BY u.user_id) AS unread
+    FROM users u
+    JOIN messages m ON m.sender_id = u.user_id OR m.receiver_id = u.user_id
+    JOIN users other ON other.user_id = IF(m.sender_id = u.user_id, m.receiver_id, m.sender_id)
+    WHERE u.role = 'USER' AND other.role = 'ADMIN'
+) t
+WHERE t.rn = 1;
@@ -0,0 +1,9 @@
+-- Paged chat history walks each direction of a conversation newest first by message id.
+-- The foreign key indexes on sender_id/receiver_id are not guaranteed to survive once other
+-- indexes lead with those columns, so the (user, message_id) orders are declared explicitly.
+
+-- Messages a user sent, newest first
+CREATE INDEX idx_messages_sender_history ON messages (sender_id, message_id);
+
+-- Messages a user received, newest first
+CREATE INDEX idx_messages_receiver_history ON messages (receiver_id, message_id);
@@ -0,0 +1,4 @@
+-- Databases created before profile pictures existed have a users table without this column, and
+-- the baseline's CREATE TABLE IF NOT EXISTS leaves an existing table alone. Newer databases already
+-- have it; SchemaMigrator ignores the duplicate column error there.
+ALTER TABLE users ADD COLUMN profile_picture_path VARCHAR(500);
@@ -0,0 +1,2 @@
+-- Admin lookups (message routing, the admin count) and the role breakdown filter users by role
+CREATE INDEX idx_users_role ON users (role);
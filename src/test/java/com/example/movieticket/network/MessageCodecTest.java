@@ -0,0 +1,237 @@
+package com.example.movieticket.network;
+
+import com.example.movieticket.model.ChatMessage;
+import com.example.movieticket.model.Seat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Binary frames of every opcode, encoded and decoded again. A message must come back as it was
+ * sent (timestamps aside, which are not sent), and a frame that is cut short or malformed must be
+ * rejected rather than decoded into something else.
+ */
+class MessageCodecTest {
+    private static final int OP_JSON = 0x7F;
+    private static final int BROADCAST = 0x80;
+
+    private static MessageCodec codec;
+    // Sorts map keys, so messages compare equal whatever map the data arrived in
+    private static ObjectMapper comparer;
+
+    @BeforeAll
+    static void createCodec() {
+        SocketServer server = new SocketServer(SocketServer.Mode.NIO);
+        codec = server.getCodec();
+        comparer = server.getObjectMapper().copy().enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+    }
+
+    @TestFactory
+    Stream<DynamicTest> everyOpcodeRoundTrips() {
+        ChatMessage chat = new ChatMessage(6, 1, "Is screen 3 wheelchair accessible? ✓");
+        chat.setMessageId(77);
+        chat.setSenderName("Jane Doe");
+        chat.setReceiverName("Support");
+
+        List<Case> cases = List.of(
+            new Case(0x01, screening("REGISTER_SEAT_OBSERVER", null, 42, null)),
+            new Case(0x02, screening("UNREGISTER_SEAT_OBSERVER", null, 42, null)),
+            new Case(0x03, new NetworkMessage("REGISTER_CHAT_OBSERVER", null, null)),
+            new Case(0x04, new NetworkMessage("UNREGISTER_CHAT_OBSERVER", null, null)),
+            new Case(0x05, new NetworkMessage("REGISTER_TYPING_OBSERVER", null, null)),
+            new Case(0x06, new NetworkMessage("UNREGISTER_TYPING_OBSERVER", null, null)),
+            new Case(0x07, new NetworkMessage("SET_USER_ID", null, data("userId", 1234))),
+            new Case(0x08, new NetworkMessage("UNREAD_SYNC", "UNREAD_SYNC", data("userId", 3, "count", 5))),
+            new Case(0x09, new NetworkMessage("UNREAD_DELTA", "UNREAD_DELTA", data("userId", 3, "delta", 1))),
+            new Case(0x0A, new NetworkMessage("UNREAD_COUNT", "UNREAD_COUNT", data("userId", 3, "count", 500))),
+            new Case(0x0B, new NetworkMessage("RESYNC", "RESUMED", null)),
+            new Case(0x0C, new NetworkMessage("PROTOCOL", "BINARY", null)),
+            new Case(0x10, screening("SEAT_LOCKED", "SEAT_LOCKED", 42, data("seatNumber", "C7", "userId", 1234))),
+            new Case(0x10 | BROADCAST, screening("SEAT_UPDATE", "SEAT_LOCKED", 42, data("seatNumber", "C7", "userId", 1234))),
+            new Case(0x11, screening("SEAT_UNLOCKED", "SEAT_UNLOCKED", 42, data("seatNumber", "C7"))),
+            new Case(0x11 | BROADCAST, screening("SEAT_UPDATE", "SEAT_UNLOCKED", 42, data("seatNumber", "C7"))),
+            new Case(0x12, screening("SEAT_BOOKED", "SEAT_BOOKED", 42, data("seatNumber", "C7"))),
+            new Case(0x12 | BROADCAST, screening("SEAT_UPDATE", "SEAT_BOOKED", 42, data("seatNumber", "C7"))),
+            new Case(0x13, screening("SEAT_UPDATED", "SEAT_UPDATED", 42, seats())),
+            new Case(0x13 | BROADCAST, screening("SEAT_UPDATE", "SEAT_UPDATED", 42, seats())),
+            new Case(0x20, new NetworkMessage("CHAT_MESSAGE_SENT", "CHAT_MESSAGE_SENT", chat)),
+            new Case(0x20 | BROADCAST, new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", chat)),
+            new Case(0x21, new NetworkMessage("CHAT_MESSAGE_READ", "CHAT_MESSAGE_READ", data("messageId", 77, "userId", 1))),
+            new Case(0x21 | BROADCAST, new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_READ", data("messageId", 77, "userId", 1))),
+            new Case(0x30, new NetworkMessage("TYPING_STARTED", "TYPING_STARTED", data("userId", 6, "chatWithUserId", 1))),
+            new Case(0x30 | BROADCAST, new NetworkMessage("TYPING_INDICATOR", "TYPING_STARTED", data("userId", 6, "chatWithUserId", 1))),
+            new Case(0x31, new NetworkMessage("TYPING_STOPPED", "TYPING_STOPPED", data("userId", 6, "chatWithUserId", 1))),
+            new Case(0x31 | BROADCAST, new NetworkMessage("TYPING_INDICATOR", "TYPING_STOPPED", data("userId", 6, "chatWithUserId", 1))),
+            // No opcode of its own, or missing a field its opcode needs: sent as JSON in a frame
+            new Case(OP_JSON, new NetworkMessage("BOOKING_CONFIRMED", null, data("bookingId", 9))),
+            new Case(OP_JSON, screening("SEAT_LOCKED", "SEAT_LOCKED", 42, data("seatNumber", "C7")))
+        );
+
+        return cases.stream().map(c -> DynamicTest.dynamicTest(
+                String.format("0x%02X %s/%s", c.opcode, c.message.getType(), c.message.getEventType()),
+                () -> assertRoundTrip(c.message, c.opcode)));
+    }
+
+    @Test
+    void negativeIntsRoundTrip() throws IOException {
+        for (int value : new int[]{-1, -2, -64, -65, Integer.MIN_VALUE, Integer.MAX_VALUE, 0}) {
+            assertRoundTrip(new NetworkMessage("UNREAD_DELTA", "UNREAD_DELTA", data("userId", 3, "delta", value)), 0x09);
+            assertRoundTrip(screening("REGISTER_SEAT_OBSERVER", null, value, null), 0x01);
+        }
+
+        // Not locked by anyone, and a lock expiry before the epoch
+        Seat seat = new Seat(1, 42, "A1", 1, 1);
+        seat.setLockedByUserId(-1);
+        seat.setLockExpiresAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_000_000));
+        assertRoundTrip(screening("SEAT_UPDATE", "SEAT_UPDATED", 42, List.of(seat)), 0x13 | BROADCAST);
+    }
+
+    @Test
+    void nullStringsRoundTrip() throws IOException {
+        assertRoundTrip(new NetworkMessage("RESYNC", null, null), 0x0B);
+        assertRoundTrip(new NetworkMessage("RESYNC", "", null), 0x0B);
+
+        ChatMessage chat = new ChatMessage(6, 1, null);
+        chat.setTimestamp(null);
+        assertRoundTrip(new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", chat), 0x20 | BROADCAST);
+
+        Seat seat = new Seat();
+        seat.setScreeningId(42);
+        assertRoundTrip(screening("SEAT_UPDATE", "SEAT_UPDATED", 42, List.of(seat)), 0x13 | BROADCAST);
+    }
+
+    @Test
+    void seatMapsRelayedFromJsonClientsRoundTrip() throws IOException {
+        // A JSON client's seats reach the server as maps; binary observers must get the same seats
+        List<?> maps = comparer.convertValue(seats(), List.class);
+        byte[] frame = codec.encodeBinary(screening("SEAT_UPDATE", "SEAT_UPDATED", 42, maps));
+        NetworkMessage decoded = decode(frame);
+
+        assertEquals(comparer.writeValueAsString(seats()), comparer.writeValueAsString(decoded.getData()));
+    }
+
+    @Test
+    void truncatedFramesAreRejected() throws IOException {
+        ChatMessage chat = new ChatMessage(6, 1, "Hello");
+        List<NetworkMessage> messages = List.of(
+            screening("SEAT_UPDATE", "SEAT_LOCKED", 42, data("seatNumber", "C7", "userId", 1234)),
+            screening("SEAT_UPDATE", "SEAT_UPDATED", 42, seats()),
+            new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", chat),
+            new NetworkMessage("UNREAD_COUNT", "UNREAD_COUNT", data("userId", -3, "count", 500)),
+            new NetworkMessage("BOOKING_CONFIRMED", null, data("bookingId", 9))
+        );
+        for (NetworkMessage message : messages) {
+            byte[] frame = codec.encodeBinary(message);
+            int length = frame.length - MessageCodec.LENGTH_PREFIX;
+            // Every cut, down to a frame without even its opcode
+            for (int cut = 0; cut < length; cut++) {
+                int kept = cut;
+                assertThrows(IOException.class,
+                        () -> codec.decodeBinary(frame, MessageCodec.LENGTH_PREFIX, kept),
+                        message.getType() + " cut to " + kept + " of " + length + " bytes");
+            }
+        }
+    }
+
+    @Test
+    void malformedFramesAreRejected() {
+        // Unknown opcode
+        assertThrows(IOException.class, () -> codec.decodeBinary(new byte[]{0x55}, 0, 1));
+        // A varint that never ends
+        byte[] endless = new byte[12];
+        Arrays.fill(endless, (byte) 0xFF);
+        endless[0] = 0x07;
+        assertThrows(IOException.class, () -> codec.decodeBinary(endless, 0, endless.length));
+        // A string longer than the rest of the frame
+        assertThrows(EOFException.class, () -> codec.decodeBinary(new byte[]{0x0B, 100, 'a', 'b', 'c'}, 0, 5));
+    }
+
+    @Test
+    void oversizedMessagesAreNotEncoded() {
+        ChatMessage chat = new ChatMessage(6, 1, "x".repeat(MessageCodec.MAX_MESSAGE_LENGTH));
+        NetworkMessage message = new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", chat);
+
+        assertThrows(IOException.class, () -> codec.encodeBinary(message));
+    }
+
+    private static void assertRoundTrip(NetworkMessage message, int opcode) throws IOException {
+        byte[] frame = codec.encodeBinary(message);
+        assertEquals(0, frame[0], "First byte of a frame");
+        int length = ((frame[0] & 0xFF) << 24) | ((frame[1] & 0xFF) << 16) | ((frame[2] & 0xFF) << 8) | (frame[3] & 0xFF);
+        assertEquals(frame.length - MessageCodec.LENGTH_PREFIX, length, "Length prefix");
+        assertEquals(opcode, frame[MessageCodec.LENGTH_PREFIX] & 0xFF, "Opcode");
+
+        assertEquals(json(message), json(decode(frame)));
+    }
+
+    private static NetworkMessage decode(byte[] frame) throws IOException {
+        return codec.decodeBinary(frame, MessageCodec.LENGTH_PREFIX, frame.length - MessageCodec.LENGTH_PREFIX);
+    }
+
+    // The message as JSON, without the timestamp a decoded message gets on arrival
+    private static String json(NetworkMessage message) throws IOException {
+        long timestamp = message.getTimestamp();
+        message.setTimestamp(0);
+        try {
+            return comparer.writeValueAsString(message);
+        } finally {
+            message.setTimestamp(timestamp);
+        }
+    }
+
+    // A full hall as the seat map cache would send it, with booked and locked seats
+    private static List<Seat> seats() {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Seat seat = new Seat(i + 1, 42, (char) ('A' + i / 10) + String.valueOf(i % 10 + 1), i / 10 + 1, i % 10 + 1);
+            seat.setBooked(i % 3 == 0);
+            if (i % 7 == 0) {
+                seat.setLocked(true);
+                seat.setLockedByUserId(99);
+                seat.setLockExpiresAt(LocalDateTime.of(2025, 1, 15, 19, 40, 5, 123_000_000));
+            }
+            seats.add(seat);
+        }
+        return seats;
+    }
+
+    private static NetworkMessage screening(String type, String eventType, int screeningId, Object data) {
+        NetworkMessage message = new NetworkMessage(type, eventType, data);
+        message.setScreeningId(screeningId);
+        return message;
+    }
+
+    private static Map<String, Object> data(Object... keysAndValues) {
+        Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            data.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return data;
+    }
+
+    private static final class Case {
+        private final int opcode;
+        private final NetworkMessage message;
+
+        Case(int opcode, NetworkMessage message) {
+            this.opcode = opcode;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.movieticket.network;
+
+import com.example.movieticket.model.ChatMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.movieticket.network.WireFixtures.CODEC;
+import static com.example.movieticket.network.WireFixtures.EXPECTED;
+import static com.example.movieticket.network.WireFixtures.describe;
+import static com.example.movieticket.network.WireFixtures.interleaved;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The NIO handler's splitting of its read buffer into lines and frames, over a real loopback
+ * connection. The server side is left in blocking mode and read by calling onReadable directly,
+ * so every test controls exactly which bytes each read can see.
+ */
+class NioClientHandlerTest {
+    private SocketChannel client;
+    private SocketChannel accepted;
+    private RecordingHandler handler;
+
+    /**
+     * Records what the handler decodes instead of applying it to the server
+     */
+    private static final class RecordingHandler extends NioClientHandler {
+        final List<String> received = new ArrayList<>();
+
+        RecordingHandler(SocketChannel channel) {
+            super(channel, null, new SocketServer(SocketServer.Mode.NIO));
+        }
+
+        @Override
+        protected void handleLine(String line) {
+            try {
+                received.add("line " + describe(CODEC.decodeJson(line)));
+            } catch (IOException e) {
+                received.add("bad line " + e.getMessage());
+            }
+        }
+
+        @Override
+        protected void handleFrame(byte[] buffer, int offset, int length) {
+            try {
+                received.add("frame " + describe(CODEC.decodeBinary(buffer, offset, length)));
+            } catch (IOException e) {
+                received.add("bad frame " + e.getMessage());
+            }
+        }
+    }
+
+    @BeforeEach
+    void connect() throws IOException {
+        try (ServerSocketChannel listener = ServerSocketChannel.open()) {
+            listener.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            client = SocketChannel.open(listener.getLocalAddress());
+            accepted = listener.accept();
+        }
+        handler = new RecordingHandler(accepted);
+    }
+
+    @AfterEach
+    void disconnect() throws IOException {
+        client.close();
+        accepted.close();
+    }
+
+    @Test
+    void splitsInterleavedLinesAndFrames() throws IOException {
+        send(interleaved());
+
+        readUntil(EXPECTED.size());
+
+        assertEquals(EXPECTED, handler.received);
+    }
+
+    @Test
+    void waitsForMessagesArrivingAByteAtATime() throws IOException {
+        // One byte per read: every message is split at every position, length prefixes included
+        for (byte b : interleaved()) {
+            send(new byte[]{b});
+            handler.onReadable();
+        }
+
+        assertEquals(EXPECTED, handler.received);
+    }
+
+    @Test
+    void growsTheBufferForLongMessages() throws IOException {
+        NetworkMessage chat = new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", new ChatMessage(6, 1, "x".repeat(20_000)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(CODEC.encodeBinary(chat));
+        out.write(CODEC.encodeJson(chat));
+        send(out.toByteArray());
+
+        readUntil(2);
+
+        assertEquals(List.of("frame CHAT_MESSAGE/CHAT_MESSAGE_SENT", "line CHAT_MESSAGE/CHAT_MESSAGE_SENT"), handler.received);
+        assertTrue(accepted.isOpen());
+    }
+
+    @Test
+    void invalidFrameLengthDisconnects() throws IOException {
+        send("{\"type\":\"REGISTER_CHAT_OBSERVER\"}\n".getBytes(StandardCharsets.UTF_8));
+        send(new byte[]{0, 0, 0, 0, 0x03});
+
+        readUntil(1);
+        while (accepted.isOpen()) {
+            handler.onReadable();
+        }
+
+        assertEquals(List.of("line REGISTER_CHAT_OBSERVER/null"), handler.received);
+        assertFalse(accepted.isOpen());
+    }
+
+    @Test
+    void endOfStreamDisconnects() throws IOException {
+        client.close();
+
+        handler.onReadable();
+
+        assertFalse(accepted.isOpen());
+    }
+
+    private void send(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            client.write(buffer);
+        }
+    }
+
+    // Each read blocks until some bytes have arrived, so this ends once they all have
+    private void readUntil(int messages) throws IOException {
+        while (handler.received.size() < messages) {
+            handler.onReadable();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.movieticket.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stream of JSON lines and binary frames mixed together, shared by the tests of everything that
+ * reads the wire: the blocking reader and the NIO handler must split it the same way.
+ */
+final class WireFixtures {
+    static final MessageCodec CODEC = new SocketServer(SocketServer.Mode.NIO).getCodec();
+
+    // What a reader of interleaved() receives, each message as "line" or "frame" plus describe()
+    static final List<String> EXPECTED = List.of(
+        "line REGISTER_SEAT_OBSERVER/null",
+        "frame SEAT_UPDATE/SEAT_LOCKED",
+        "line PROTOCOL/BINARY",
+        "frame UNREAD_COUNT/UNREAD_COUNT",
+        "frame UNREAD_DELTA/UNREAD_DELTA",
+        "frame RESYNC/RESUMED",
+        "frame PROTOCOL/JSON",
+        "line TYPING_INDICATOR/TYPING_STARTED",
+        "line TYPING_INDICATOR/TYPING_STOPPED"
+    );
+
+    private WireFixtures() {}
+
+    // Lines and frames back to back, with a CRLF line and blank lines of both kinds
+    static byte[] interleaved() throws IOException {
+        NetworkMessage seatLocked = new NetworkMessage("SEAT_UPDATE", "SEAT_LOCKED", Map.of("seatNumber", "C7", "userId", 5));
+        seatLocked.setScreeningId(42);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("{\"type\":\"REGISTER_SEAT_OBSERVER\",\"screeningId\":42}\n".getBytes(StandardCharsets.UTF_8));
+        out.write(CODEC.encodeBinary(seatLocked));
+        out.write("{\"type\":\"PROTOCOL\",\"eventType\":\"BINARY\"}\r\n".getBytes(StandardCharsets.UTF_8));
+        out.write(CODEC.encodeBinary(new NetworkMessage("UNREAD_COUNT", "UNREAD_COUNT", Map.of("userId", 3, "count", 2))));
+        out.write(CODEC.encodeBinary(new NetworkMessage("UNREAD_DELTA", "UNREAD_DELTA", Map.of("userId", 3, "delta", -1))));
+        out.write(CODEC.encodeBinary(new NetworkMessage("RESYNC", "RESUMED", null)));
+        out.write(CODEC.encodeBinary(new NetworkMessage("PROTOCOL", "JSON", null)));
+        out.write("\n\r\n".getBytes(StandardCharsets.UTF_8));
+        out.write(CODEC.encodeJson(new NetworkMessage("TYPING_INDICATOR", "TYPING_STARTED", Map.of("userId", 6, "chatWithUserId", 1))));
+        out.write(CODEC.encodeJson(new NetworkMessage("TYPING_INDICATOR", "TYPING_STOPPED", Map.of("userId", 6, "chatWithUserId", 1))));
+        return out.toByteArray();
+    }
+
+    static String describe(NetworkMessage message) {
+        return message.getType() + "/" + message.getEventType();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.movieticket.network;
+
+import com.example.movieticket.model.ChatMessage;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.example.movieticket.network.WireFixtures.CODEC;
+import static com.example.movieticket.network.WireFixtures.EXPECTED;
+import static com.example.movieticket.network.WireFixtures.describe;
+import static com.example.movieticket.network.WireFixtures.interleaved;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * JSON lines and binary frames read from one stream, as both the blocking server handler and the
+ * client see them: mixed in any order, and arriving in pieces of any size.
+ */
+class WireReaderTest {
+    @Test
+    void readsInterleavedLinesAndFrames() throws IOException {
+        byte[] stream = interleaved();
+
+        assertEquals(EXPECTED, readAll(new ByteArrayInputStream(stream), 1024));
+    }
+
+    @Test
+    void readsMessagesArrivingAByteAtATime() throws IOException {
+        // A one-byte buffer also makes every message grow it
+        assertEquals(EXPECTED, readAll(new Trickle(new ByteArrayInputStream(interleaved())), 1));
+    }
+
+    @Test
+    void readsALastLineWithoutNewline() throws IOException {
+        byte[] line = "{\"type\":\"REGISTER_CHAT_OBSERVER\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(List.of("line REGISTER_CHAT_OBSERVER/null"), readAll(new ByteArrayInputStream(line), 16));
+    }
+
+    @Test
+    void readsMessagesLongerThanTheBuffer() throws IOException {
+        String content = "x".repeat(100_000);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NetworkMessage chat = new NetworkMessage("CHAT_MESSAGE", "CHAT_MESSAGE_SENT", new ChatMessage(6, 1, content));
+        out.write(CODEC.encodeBinary(chat));
+        out.write(CODEC.encodeJson(chat));
+
+        List<String> read = readAll(new ByteArrayInputStream(out.toByteArray()), 16);
+
+        assertEquals(List.of("frame CHAT_MESSAGE/CHAT_MESSAGE_SENT", "line CHAT_MESSAGE/CHAT_MESSAGE_SENT"), read);
+    }
+
+    @Test
+    void endOfStreamEndsReading() throws IOException {
+        WireReader reader = new WireReader(new ByteArrayInputStream(new byte[0]), 16);
+
+        assertFalse(reader.readNext(line -> {}, (buffer, offset, length) -> {}));
+    }
+
+    @Test
+    void truncatedFramesAreReported() throws IOException {
+        byte[] frame = CODEC.encodeBinary(new NetworkMessage("RESYNC", "RESUMED", null));
+        // Cut inside the length prefix, and inside the payload
+        for (int kept : new int[]{2, frame.length - 1}) {
+            byte[] truncated = Arrays.copyOf(frame, kept);
+            WireReader reader = new WireReader(new ByteArrayInputStream(truncated), 16);
+            assertThrows(EOFException.class, () -> reader.readNext(line -> {}, (buffer, offset, length) -> {}));
+        }
+    }
+
+    @Test
+    void invalidFrameLengthsAreRejected() {
+        int tooLong = MessageCodec.MAX_MESSAGE_LENGTH + 1;
+        byte[][] prefixes = {
+            {0, 0, 0, 0},
+            {0, (byte) (tooLong >>> 16), (byte) (tooLong >>> 8), (byte) tooLong}
+        };
+        for (byte[] prefix : prefixes) {
+            WireReader reader = new WireReader(new ByteArrayInputStream(prefix), 16);
+            IOException error = assertThrows(IOException.class,
+                    () -> reader.readNext(line -> {}, (buffer, offset, length) -> {}));
+            assertTrue(error.getMessage().startsWith("Invalid frame length"), error.getMessage());
+        }
+    }
+
+    // Every message read, decoded, as "line" or "frame" plus its type and event type
+    private static List<String> readAll(InputStream in, int bufferSize) throws IOException {
+        List<String> read = new ArrayList<>();
+        List<IOException> errors = new ArrayList<>();
+        WireReader reader = new WireReader(in, bufferSize);
+        while (reader.readNext(
+                line -> {
+                    try {
+                        read.add("line " + describe(CODEC.decodeJson(line)));
+                    } catch (IOException e) {
+                        errors.add(e);
+                    }
+                },
+                (buffer, offset, length) -> {
+                    try {
+                        read.add("frame " + describe(CODEC.decodeBinary(buffer, offset, length)));
+                    } catch (IOException e) {
+                        errors.add(e);
+                    }
+                })) {
+            // Read until the end of the stream
+        }
+        if (!errors.isEmpty()) {
+            throw errors.get(0);
+        }
+        return read;
+    }
+
+    /**
+     * Hands out one byte per read, like a connection that delivers a message in many packets
+     */
+    private static final class Trickle extends FilterInputStream {
+        Trickle(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            return super.read(buffer, offset, Math.min(length, 1));
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.movieticket.service;
+
+import com.example.movieticket.model.Booking;
+import com.example.movieticket.model.Screening;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many users going for the same seats at once, through both booking paths. Whatever the
+ * interleaving, each seat must end up in exactly one booking, and the seats and screenings tables
+ * must agree with the bookings that won.
+ */
+class BookingContentionTest {
+    private static final int THREADS = 8;
+    private static final int HALL_SIZE = 20;
+
+    private static DataService dataService;
+    private static int movieId;
+    private static final List<Integer> userIds = new ArrayList<>();
+
+    private int screeningId;
+    private List<String> seatNumbers;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        TestDatabase.start();
+        dataService = DataService.getInstance();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO movies (title, director, release_year, description, duration, genre, rating) " +
+                    "VALUES ('Contention', 'Test', 2025, 'Seats for everyone', 90, 'Drama', 7.0)", Statement.RETURN_GENERATED_KEYS);
+            movieId = generatedKey(stmt);
+            for (int i = 0; i < THREADS; i++) {
+                stmt.executeUpdate("INSERT INTO users (username, password, email, full_name, role) VALUES " +
+                        "('racer" + i + "', 'password', 'racer" + i + "@example.com', 'Racer " + i + "', 'USER')",
+                        Statement.RETURN_GENERATED_KEYS);
+                userIds.add(generatedKey(stmt));
+            }
+        }
+    }
+
+    @BeforeEach
+    void createScreening() throws SQLException {
+        Screening screening = new Screening(0, movieId, "Screen 1", LocalDateTime.now().plusDays(1), 10.0, HALL_SIZE);
+        assertTrue(dataService.addScreening(screening));
+        screeningId = screening.getScreeningId();
+
+        seatNumbers = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT seat_number FROM seats WHERE screening_id = ? ORDER BY seat_id")) {
+            stmt.setInt(1, screeningId);
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                seatNumbers.add(rs.getString(1));
+            }
+        }
+        assertEquals(HALL_SIZE, seatNumbers.size());
+    }
+
+    @Test
+    void racingBookingsOfTheSameSeatsHaveOneWinner() throws Exception {
+        List<String> wanted = seatNumbers.subList(0, 3);
+        List<Booking> winners = race(i -> dataService.createBooking(userIds.get(i), screeningId, wanted, 30.0));
+
+        assertEquals(1, winners.size());
+        assertConsistent(winners);
+    }
+
+    @Test
+    void overlappingBookingsNeverShareASeat() throws Exception {
+        // Each user wants their own seat and their neighbour's
+        List<Booking> winners = race(i -> dataService.createBooking(userIds.get(i), screeningId,
+                List.of(seatNumbers.get(i), seatNumbers.get(i + 1)), 20.0));
+
+        assertFalse(winners.isEmpty());
+        assertConsistent(winners);
+    }
+
+    @Test
+    void lockThenBookHasOneWinnerPerSeat() throws Exception {
+        List<String> wanted = seatNumbers.subList(5, 7);
+        List<Booking> winners = race(i -> {
+            int userId = userIds.get(i);
+            if (!dataService.lockSeats(screeningId, wanted, userId)) {
+                return null;
+            }
+            return dataService.createBookingWithLocks(userId, screeningId, wanted, 20.0);
+        });
+
+        assertEquals(1, winners.size());
+        assertConsistent(winners);
+    }
+
+    // Run one attempt per user, all released at once; returns the bookings that were made
+    private static List<Booking> race(IntFunction<Booking> attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch ready = new CountDownLatch(THREADS);
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<Booking>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int user = i;
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    go.await();
+                    return attempt.apply(user);
+                }));
+            }
+            ready.await();
+            go.countDown();
+
+            List<Booking> winners = new ArrayList<>();
+            for (Future<Booking> result : results) {
+                Booking booking = result.get();
+                if (booking != null) {
+                    winners.add(booking);
+                }
+            }
+            return winners;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // No seat in two winning bookings, and the database shows exactly the winners' seats as taken
+    private void assertConsistent(List<Booking> winners) throws SQLException {
+        Set<String> won = new HashSet<>();
+        for (Booking booking : winners) {
+            for (String seat : booking.getSeatNumbers()) {
+                assertTrue(won.add(seat), "Seat " + seat + " was booked twice");
+            }
+        }
+
+        Set<String> booked = new HashSet<>();
+        Map<String, Integer> bookingsPerSeat = new HashMap<>();
+        int availableSeats;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT seat_number FROM seats WHERE screening_id = ? AND is_booked")) {
+                stmt.setInt(1, screeningId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    booked.add(rs.getString(1));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT seat_number, COUNT(*) FROM booking_seats WHERE screening_id = ? GROUP BY seat_number")) {
+                stmt.setInt(1, screeningId);
+                ResultSet rs = stmt.executeQuery();
+                while (rs.next()) {
+                    bookingsPerSeat.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(
+                    "SELECT available_seats FROM screenings WHERE screening_id = ?")) {
+                stmt.setInt(1, screeningId);
+                ResultSet rs = stmt.executeQuery();
+                assertTrue(rs.next());
+                availableSeats = rs.getInt(1);
+            }
+        }
+
+        assertEquals(won, booked);
+        assertEquals(won, bookingsPerSeat.keySet());
+        bookingsPerSeat.forEach((seat, count) -> assertEquals(1, count, "Bookings holding seat " + seat));
+        assertEquals(HALL_SIZE - won.size(), availableSeats);
+    }
+
+    private static int generatedKey(Statement stmt) throws SQLException {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            assertTrue(keys.next());
+            return keys.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.movieticket.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Fills an empty schema with generated data at a given volume, using set-based INSERT ... SELECT
+ * statements so millions of rows take minutes rather than hours. Shared by the tests that need
+ * realistic table sizes (query plans depend on them) and by the benchmarks.
+ *
+ * Ids are dense and start at 1: users 1-5 are admins, and the last reservedScreenings screenings
+ * get no bookings or seat holds so callers can book them without running into generated data.
+ * Every booking holds one seat of its own, and seats.is_booked and screenings.available_seats are
+ * derived from the bookings, so the data looks like what the booking paths would have written.
+ * Every customer has written one review, every booking that is not pending has a payment, and
+ * every bookable screening has one live seat hold on its last free seat.
+ */
+public final class DataSeeder {
+    public static final int SEATS_PER_SCREENING = 100;
+    public static final int ADMINS = 5;
+
+    private final int users;
+    private final int movies;
+    private final int screenings;
+    private final int bookings;
+    private final int messages;
+    private final int reservedScreenings;
+
+    public DataSeeder(int users, int movies, int screenings, int bookings, int messages, int reservedScreenings) {
+        if (users <= ADMINS) {
+            throw new IllegalArgumentException("Need more than " + ADMINS + " users");
+        }
+        if ((long) bookings > (long) (screenings - reservedScreenings) * SEATS_PER_SCREENING) {
+            throw new IllegalArgumentException(bookings + " bookings do not fit in the seats of " +
+                    (screenings - reservedScreenings) + " bookable screenings");
+        }
+        this.users = users;
+        this.movies = movies;
+        this.screenings = screenings;
+        this.bookings = bookings;
+        this.messages = messages;
+        this.reservedScreenings = reservedScreenings;
+    }
+
+    /**
+     * The volumes as a string, to tell whether an existing database was seeded with the same ones.
+     */
+    public String volumes() {
+        return users + "/" + movies + "/" + screenings + "/" + bookings + "/" + messages;
+    }
+
+    public int firstReservedScreening() {
+        return screenings - reservedScreenings + 1;
+    }
+
+    // n = 0 .. limit-1 (and up to the next power of ten) from a cross join of digits, which avoids
+    // the recursion depth limits of a recursive CTE
+    private static String numbers(int limit) {
+        StringBuilder select = new StringBuilder("(SELECT d0.d");
+        StringBuilder from = new StringBuilder(" FROM seed_digits d0");
+        long scale = 10;
+        for (int i = 1; scale < limit; i++, scale *= 10) {
+            select.append(" + ").append(scale).append(" * d").append(i).append(".d");
+            from.append(", seed_digits d").append(i);
+        }
+        return select.append(" AS n").append(from).append(")").toString();
+    }
+
+    /**
+     * Replace the contents of every application table with generated data.
+     */
+    public void seed(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Start from an empty schema; the migrations' sample rows would skew the ids used below
+            stmt.executeUpdate("SET FOREIGN_KEY_CHECKS = 0");
+            for (String table : new String[]{"payments", "reviews", "seat_locks", "booking_seats", "bookings",
+                    "messages", "conversations", "seats", "screenings", "movies", "users", "dashboard_counters"}) {
+                stmt.executeUpdate("TRUNCATE TABLE " + table);
+            }
+            stmt.executeUpdate("SET FOREIGN_KEY_CHECKS = 1");
+
+            stmt.executeUpdate("DROP TABLE IF EXISTS seed_digits");
+            stmt.executeUpdate("CREATE TABLE seed_digits (d INT PRIMARY KEY)");
+            stmt.executeUpdate("INSERT INTO seed_digits VALUES (0),(1),(2),(3),(4),(5),(6),(7),(8),(9)");
+
+            conn.setAutoCommit(false);
+            try {
+                seedCatalog(conn, stmt);
+                seedBookings(conn, stmt);
+                seedMessages(conn, stmt);
+                seedActivity(conn, stmt);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            stmt.executeUpdate("DROP TABLE seed_digits");
+            stmt.execute("ANALYZE TABLE users, movies, screenings, seats, bookings, booking_seats, " +
+                    "messages, conversations, reviews, payments, seat_locks");
+        }
+    }
+
+    private void seedCatalog(Connection conn, Statement stmt) throws SQLException {
+        stmt.executeUpdate("INSERT INTO users (user_id, username, password, email, full_name, role) " +
+                "SELECT n + 1, CONCAT('user', n + 1), 'password', CONCAT('user', n + 1, '@example.com'), " +
+                "CONCAT('Bench User ', n + 1), IF(n < " + ADMINS + ", 'ADMIN', 'USER') FROM " + numbers(users) +
+                " seq WHERE n < " + users);
+        conn.commit();
+
+        String[] genres = {"Action", "Drama", "Comedy", "Sci-Fi", "Horror", "Romance", "Thriller", "Animation"};
+        stmt.executeUpdate("INSERT INTO movies (movie_id, title, director, release_year, description, duration, genre, rating) " +
+                "SELECT n + 1, CONCAT(ELT(n MOD 8 + 1, 'The', 'Last', 'Dark', 'Silent', 'Broken', 'Golden', 'Lost', 'Final'), ' ', " +
+                "ELT(n DIV 8 MOD 8 + 1, 'Horizon', 'Empire', 'River', 'Signal', 'Garden', 'Machine', 'Winter', 'Voyage'), ' ', n + 1), " +
+                "CONCAT('Director ', n MOD 200), 1980 + n MOD 45, " +
+                "CONCAT('A story about ', ELT(n MOD 5 + 1, 'love', 'war', 'space', 'family', 'revenge'), ' and everything after.'), " +
+                "80 + n MOD 100, ELT(n MOD 8 + 1, '" + String.join("', '", genres) + "'), 5 + (n MOD 50) / 10 " +
+                "FROM " + numbers(movies) + " seq WHERE n < " + movies);
+        conn.commit();
+
+        // Screenings every two hours across ten screens, all in the future so none are filtered out
+        stmt.executeUpdate("INSERT INTO screenings (screening_id, movie_id, screen_name, show_time, ticket_price, total_seats, available_seats) " +
+                "SELECT n + 1, n MOD " + movies + " + 1, CONCAT('Screen ', n MOD 10 + 1), " +
+                "TIMESTAMPADD(HOUR, 24 + 2 * (n DIV 10), CURDATE()), 8 + n MOD 7, " + SEATS_PER_SCREENING + ", " +
+                SEATS_PER_SCREENING + " FROM " + numbers(screenings) + " seq WHERE n < " + screenings);
+        conn.commit();
+
+        // Same 10-per-row grid as HallLayout for 100 seats: A1 .. J10
+        stmt.executeUpdate("INSERT INTO seats (screening_id, seat_number, `row_number`) " +
+                "SELECT s.screening_id, CONCAT(CHAR(65 + seq.n DIV 10), seq.n MOD 10 + 1), CHAR(65 + seq.n DIV 10) " +
+                "FROM screenings s JOIN " + numbers(SEATS_PER_SCREENING) + " seq ON seq.n < " + SEATS_PER_SCREENING);
+        conn.commit();
+    }
+
+    private void seedBookings(Connection conn, Statement stmt) throws SQLException {
+        // Bookings spread over every screening except the reserved ones, mostly confirmed. Booking n
+        // takes seat n / bookedScreenings of its screening, so no seat is sold twice.
+        int bookedScreenings = screenings - reservedScreenings;
+        stmt.executeUpdate("INSERT INTO bookings (booking_id, user_id, screening_id, seat_ids, total_amount, booking_date, status) " +
+                "SELECT n + 1, n MOD " + users + " + 1, n MOD " + bookedScreenings + " + 1, " +
+                "CONCAT(CHAR(65 + (n DIV " + bookedScreenings + ") DIV 10), (n DIV " + bookedScreenings + ") MOD 10 + 1), " +
+                "8 + n MOD 7, TIMESTAMPADD(MINUTE, -(n MOD 525600), NOW()), " +
+                "IF(n MOD 20 = 0, 'CANCELLED', IF(n MOD 50 = 1, 'PENDING', 'CONFIRMED')) " +
+                "FROM " + numbers(bookings) + " seq WHERE n < " + bookings);
+        conn.commit();
+        stmt.executeUpdate("INSERT INTO booking_seats (booking_id, screening_id, seat_number) " +
+                "SELECT booking_id, screening_id, seat_ids FROM bookings");
+        conn.commit();
+
+        // Cancelling does not release seats in the application, so every booked seat counts
+        stmt.executeUpdate("UPDATE seats s JOIN booking_seats bs " +
+                "ON bs.screening_id = s.screening_id AND bs.seat_number = s.seat_number SET s.is_booked = TRUE");
+        conn.commit();
+        stmt.executeUpdate("UPDATE screenings s JOIN " +
+                "(SELECT screening_id, COUNT(*) AS booked FROM booking_seats GROUP BY screening_id) b " +
+                "ON b.screening_id = s.screening_id SET s.available_seats = s.total_seats - b.booked");
+        conn.commit();
+    }
+
+    private void seedMessages(Connection conn, Statement stmt) throws SQLException {
+        // Support chats: each user talks to one admin, the two sides taking turns, one message a
+        // minute going back from now; the newest tenth is still unread
+        int customers = users - ADMINS;
+        stmt.executeUpdate("INSERT INTO messages (message_id, sender_id, receiver_id, content, timestamp, is_read) " +
+                "SELECT n + 1, IF(n MOD 2 = 0, c.user_id, c.admin_id), IF(n MOD 2 = 0, c.admin_id, c.user_id), " +
+                "CONCAT('Message ', n + 1, ' about my booking'), TIMESTAMPADD(MINUTE, -(" + messages + " - n), NOW()), " +
+                "n < " + (messages - messages / 10) + " " +
+                "FROM (SELECT n, " + ADMINS + " + 1 + n DIV 2 MOD " + customers + " AS user_id, " +
+                "1 + n DIV 2 MOD " + customers + " MOD " + ADMINS + " AS admin_id " +
+                "FROM " + numbers(messages) + " seq WHERE n < " + messages + ") c");
+        conn.commit();
+
+        // The admin inbox summary, as DataService maintains it: last message and unread count per
+        // user. One pass over messages; ids are in time order, so the highest is the latest.
+        stmt.executeUpdate("INSERT INTO conversations (user_id, last_message_at, last_message_snippet, last_sender_id, unread_for_admins) " +
+                "SELECT t.user_id, last.timestamp, LEFT(last.content, 100), last.sender_id, t.unread " +
+                "FROM (SELECT IF(sender_id > " + ADMINS + ", sender_id, receiver_id) AS user_id, " +
+                "MAX(message_id) AS last_id, SUM(sender_id > " + ADMINS + " AND NOT is_read) AS unread " +
+                "FROM messages GROUP BY 1) t " +
+                "JOIN messages last ON last.message_id = t.last_id");
+        conn.commit();
+    }
+
+    private void seedActivity(Connection conn, Statement stmt) throws SQLException {
+        // One review per customer, spread over the last year and the three review types
+        int customers = users - ADMINS;
+        stmt.executeUpdate("INSERT INTO reviews (review_id, user_id, rating, title, comment, review_type, review_date) " +
+                "SELECT n + 1, " + ADMINS + " + 1 + n, 1 + n MOD 5, CONCAT('Review ', n + 1), " +
+                "CONCAT('Visit ', n + 1, ': ', ELT(n MOD 4 + 1, 'great sound', 'comfortable seats', 'long queue', 'clean hall')), " +
+                "ELT(n MOD 3 + 1, 'THEATER_EXPERIENCE', 'MOVIE_REVIEW', 'SERVICE_FEEDBACK'), " +
+                "TIMESTAMPADD(MINUTE, -(n MOD 525600), NOW()) " +
+                "FROM " + numbers(customers) + " seq WHERE n < " + customers);
+        conn.commit();
+
+        // A payment for every booking that is not pending; cancelled ones were refunded
+        stmt.executeUpdate("INSERT INTO payments (booking_id, payment_method, mobile_banking_provider, amount, payment_date, " +
+                "status, transaction_id, card_last_four_digits, mobile_number) " +
+                "SELECT booking_id, ELT(booking_id MOD 3 + 1, 'CREDIT_CARD', 'DEBIT_CARD', 'MOBILE_BANKING'), " +
+                "IF(booking_id MOD 3 = 2, 'BKASH', 'NONE'), total_amount, booking_date, " +
+                "IF(status = 'CANCELLED', 'REFUNDED', 'COMPLETED'), CONCAT('TXN', booking_id), " +
+                "IF(booking_id MOD 3 = 2, NULL, LPAD(booking_id MOD 10000, 4, '0')), " +
+                "IF(booking_id MOD 3 = 2, CONCAT('017', LPAD(booking_id, 8, '0')), NULL) " +
+                "FROM bookings WHERE status != 'PENDING'");
+        conn.commit();
+
+        // A hold on the last free seat of every bookable screening, valid for a day
+        stmt.executeUpdate("INSERT INTO seat_locks (screening_id, seat_number, user_id, expires_at) " +
+                "SELECT s.screening_id, s.seat_number, " + ADMINS + " + 1 + s.screening_id MOD " + customers + ", " +
+                "TIMESTAMPADD(DAY, 1, NOW()) FROM seats s " +
+                "JOIN (SELECT screening_id, MAX(seat_id) AS seat_id FROM seats " +
+                "WHERE is_booked = FALSE AND screening_id < " + firstReservedScreening() + " GROUP BY screening_id) last " +
+                "ON last.seat_id = s.seat_id");
+        conn.commit();
+    }
+}
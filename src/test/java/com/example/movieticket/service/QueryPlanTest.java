@@ -0,0 +1,321 @@
+package com.example.movieticket.service;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * EXPLAIN of every DataService statement against a seeded database. The statements are the ones
+ * DataService runs: its package-private *_SQL constants, and its *Sql builders for statements whose
+ * text depends on the filters or on the length of an IN list. A statement fails if any table in
+ * its plan is read with a full scan or its rows are sorted with a filesort, which is what happens
+ * when the index it was written for is dropped, or the query changes so it no longer matches one.
+ *
+ * Derived tables are exempt: the chat history queries sort the rows their two index range scans
+ * return, one per direction of the conversation. Statements that sort rows already narrowed to
+ * one user by an index are marked as sorts. Statements that read a whole table by design (catalog
+ * cache loads, dashboard recounts, LIKE '%term%' searches) are marked as scans; they are still
+ * explained, so they must at least be valid against the schema. Adding a statement to DataService without listing it here
+ * fails {@link #everyStatementIsChecked()}.
+ */
+class QueryPlanTest {
+    private static final int USER_ID = 1234;
+    // The admin the seeded user chats with (see DataSeeder.seedMessages)
+    private static final int ADMIN_ID = 1 + (USER_ID - DataSeeder.ADMINS - 1) % DataSeeder.ADMINS;
+    private static final int MOVIE_ID = 7;
+    private static final int SCREENING_ID = 42;
+    private static final int BOOKING_ID = 5000;
+    private static final int REVIEW_ID = 500;
+    private static final int PAYMENT_ID = 500;
+    private static final int LOCK_ID = 10;
+    private static final int PAGE_SIZE = 21;
+    private static final String USERNAME = "user" + USER_ID;
+    private static final String EMAIL = "user" + USER_ID + "@example.com";
+    private static final String SEARCH = "%123%";
+    private static final Timestamp NOW = Timestamp.valueOf(LocalDateTime.now());
+    private static final Timestamp PAGE_BOUNDARY = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+
+    @BeforeAll
+    static void seedDatabase() throws Exception {
+        TestDatabase.seed();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> statementsUseIndexes() {
+        return statements().stream().map(query -> DynamicTest.dynamicTest(query.name, () -> assertIndexed(query)));
+    }
+
+    @Test
+    void everyStatementIsChecked() {
+        Set<String> unchecked = new TreeSet<>();
+        for (Field field : DataService.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class && field.getName().endsWith("_SQL")) {
+                unchecked.add(field.getName());
+            }
+        }
+        for (Method method : DataService.class.getDeclaredMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) && method.getReturnType() == String.class && method.getName().endsWith("Sql")) {
+                unchecked.add(method.getName());
+            }
+        }
+        for (Query query : statements()) {
+            unchecked.remove(query.source);
+        }
+
+        assertEquals(Set.of(), unchecked, "DataService statements missing from QueryPlanTest");
+    }
+
+    private static List<Query> statements() {
+        List<Query> queries = new ArrayList<>();
+
+        // Users
+        queries.add(new Query("AUTHENTICATE_SQL", DataService.AUTHENTICATE_SQL, USERNAME, "password"));
+        queries.add(new Query("USERNAME_COUNT_SQL", DataService.USERNAME_COUNT_SQL, USERNAME));
+        queries.add(new Query("EMAIL_COUNT_SQL", DataService.EMAIL_COUNT_SQL, EMAIL));
+        queries.add(new Query("OTHER_USERNAME_COUNT_SQL", DataService.OTHER_USERNAME_COUNT_SQL, USERNAME, USER_ID));
+        queries.add(new Query("OTHER_EMAIL_COUNT_SQL", DataService.OTHER_EMAIL_COUNT_SQL, EMAIL, USER_ID));
+        queries.add(new Query("INSERT_USER_SQL", DataService.INSERT_USER_SQL,
+            "newuser", "password", "newuser@example.com", "New User", "USER"));
+        queries.add(new Query("USER_BY_ID_SQL", DataService.USER_BY_ID_SQL, USER_ID));
+        queries.add(new Query("ALL_USERS_SQL", DataService.ALL_USERS_SQL).scans("every user"));
+        queries.add(new Query("ADMIN_COUNT_SQL", DataService.ADMIN_COUNT_SQL));
+        queries.add(new Query("FIRST_ADMIN_SQL", DataService.FIRST_ADMIN_SQL));
+        queries.add(new Query("CUSTOMER_COUNT_SQL", DataService.CUSTOMER_COUNT_SQL).scans("dashboard recount"));
+        queries.add(new Query("USERS_BY_ROLE_SQL", DataService.USERS_BY_ROLE_SQL).scans("dashboard recount"));
+        queries.add(new Query("searchUsersSql (numeric)", DataService.searchUsersSql(true),
+            USER_ID, SEARCH, SEARCH, SEARCH).scans("LIKE '%term%'"));
+        queries.add(new Query("searchUsersSql (text)", DataService.searchUsersSql(false),
+            SEARCH, SEARCH, SEARCH).scans("LIKE '%term%'"));
+        queries.add(new Query("usersPageSql (first page)", DataService.usersPageSql(false, false, false),
+            PAGE_SIZE));
+        queries.add(new Query("usersPageSql (next page)", DataService.usersPageSql(false, false, true),
+            "Bench User 5000", "Bench User 5000", 5000, PAGE_SIZE));
+        queries.add(new Query("usersPageSql (search)", DataService.usersPageSql(true, false, true),
+            SEARCH, SEARCH, SEARCH, "Bench User 5000", "Bench User 5000", 5000, PAGE_SIZE));
+        queries.add(new Query("usersPageSql (numeric search)", DataService.usersPageSql(true, true, false),
+            USER_ID, SEARCH, SEARCH, SEARCH, PAGE_SIZE));
+        queries.add(new Query("UPDATE_USER_SQL", DataService.UPDATE_USER_SQL,
+            USERNAME, EMAIL, "Bench User", "password", "USER", null, USER_ID));
+        queries.add(new Query("UPDATE_USER_PROFILE_SQL", DataService.UPDATE_USER_PROFILE_SQL,
+            USERNAME, EMAIL, "Bench User", null, USER_ID));
+        queries.add(new Query("USER_BY_USERNAME_AND_EMAIL_SQL", DataService.USER_BY_USERNAME_AND_EMAIL_SQL, USERNAME, EMAIL));
+        queries.add(new Query("PASSWORD_BY_USER_SQL", DataService.PASSWORD_BY_USER_SQL, USER_ID));
+        queries.add(new Query("UPDATE_PASSWORD_SQL", DataService.UPDATE_PASSWORD_SQL, "secret", USER_ID));
+        queries.add(new Query("DELETE_USER_SQL", DataService.DELETE_USER_SQL, USER_ID));
+
+        // Movies and screenings
+        queries.add(new Query("ALL_MOVIES_SQL", DataService.ALL_MOVIES_SQL).scans("catalog cache load"));
+        queries.add(new Query("INSERT_MOVIE_SQL", DataService.INSERT_MOVIE_SQL,
+            "New Movie", "Director", 2024, "About", 100, "Drama", 7.5, null, null));
+        queries.add(new Query("UPDATE_MOVIE_SQL", DataService.UPDATE_MOVIE_SQL,
+            "New Movie", "Director", 2024, "About", 100, "Drama", 7.5, null, null, MOVIE_ID));
+        queries.add(new Query("DELETE_MOVIE_SQL", DataService.DELETE_MOVIE_SQL, MOVIE_ID));
+        queries.add(new Query("MOVIE_BY_ID_SQL", DataService.MOVIE_BY_ID_SQL, MOVIE_ID));
+        queries.add(new Query("MOVIE_COUNT_SQL", DataService.MOVIE_COUNT_SQL).scans("dashboard recount"));
+        queries.add(new Query("MOVIE_GENRES_SQL", DataService.MOVIE_GENRES_SQL).scans("dashboard chart"));
+        queries.add(new Query("ALL_SCREENINGS_SQL", DataService.ALL_SCREENINGS_SQL).scans("catalog cache load"));
+        queries.add(new Query("INSERT_SCREENING_SQL", DataService.INSERT_SCREENING_SQL,
+            MOVIE_ID, "Screen 1", NOW, 10.0, 100, 100));
+        queries.add(new Query("UPDATE_SCREENING_SQL", DataService.UPDATE_SCREENING_SQL,
+            MOVIE_ID, "Screen 1", NOW, 10.0, 100, 100, SCREENING_ID));
+        queries.add(new Query("SCREENING_BY_ID_SQL", DataService.SCREENING_BY_ID_SQL, SCREENING_ID));
+        queries.add(new Query("DELETE_SCREENING_SQL", DataService.DELETE_SCREENING_SQL, SCREENING_ID));
+        queries.add(new Query("SEATS_FOR_RESIZE_SQL", DataService.SEATS_FOR_RESIZE_SQL, SCREENING_ID));
+        queries.add(new Query("deleteSeatsSql", DataService.deleteSeatsSql(2), SCREENING_ID, "J9", "J10"));
+        queries.add(new Query("liveLocksSql", DataService.liveLocksSql(2), SCREENING_ID, "J9", "J10"));
+        queries.add(new Query("insertSeatsSql", DataService.insertSeatsSql(2),
+            SCREENING_ID, "K1", "K", SCREENING_ID, "K2", "K"));
+
+        // Bookings
+        queries.add(new Query("BOOKINGS_BY_USER_SQL", DataService.BOOKINGS_BY_USER_SQL, USER_ID));
+        queries.add(new Query("INSERT_BOOKING_SQL", DataService.INSERT_BOOKING_SQL,
+            USER_ID, SCREENING_ID, "J9", 10.0, "CONFIRMED"));
+        queries.add(new Query("ALL_BOOKINGS_SQL", DataService.ALL_BOOKINGS_SQL).scans("every booking"));
+        queries.add(new Query("BOOKING_FOR_STATUS_CHANGE_SQL", DataService.BOOKING_FOR_STATUS_CHANGE_SQL, BOOKING_ID));
+        queries.add(new Query("UPDATE_BOOKING_STATUS_SQL", DataService.UPDATE_BOOKING_STATUS_SQL, "CANCELLED", BOOKING_ID));
+        queries.add(new Query("SEARCH_BOOKINGS_SQL", DataService.SEARCH_BOOKINGS_SQL,
+            SEARCH, SEARCH, SEARCH, SEARCH).scans("LIKE '%term%'"));
+        queries.add(new Query("bookingsPageSql (first page)", DataService.bookingsPageSql(false, false, false),
+            PAGE_SIZE));
+        queries.add(new Query("bookingsPageSql (next page)", DataService.bookingsPageSql(false, false, true),
+            PAGE_BOUNDARY, PAGE_BOUNDARY, 50_000, PAGE_SIZE));
+        queries.add(new Query("bookingsPageSql (status, next page)", DataService.bookingsPageSql(true, false, true),
+            "CONFIRMED", PAGE_BOUNDARY, PAGE_BOUNDARY, 50_000, PAGE_SIZE));
+        queries.add(new Query("bookingsPageSql (search)", DataService.bookingsPageSql(false, true, false),
+            SEARCH, SEARCH, SEARCH, SEARCH, PAGE_SIZE));
+        queries.add(new Query("USER_TICKET_COUNT_SQL", DataService.USER_TICKET_COUNT_SQL, USER_ID));
+        queries.add(new Query("USER_AMOUNT_SPENT_SQL", DataService.USER_AMOUNT_SPENT_SQL, USER_ID));
+        queries.add(new Query("TICKETS_SOLD_SQL", DataService.TICKETS_SOLD_SQL).scans("dashboard recount"));
+        queries.add(new Query("TOTAL_REVENUE_SQL", DataService.TOTAL_REVENUE_SQL).scans("dashboard recount"));
+        queries.add(new Query("BOOKINGS_BY_STATUS_SQL", DataService.BOOKINGS_BY_STATUS_SQL).scans("dashboard chart"));
+        queries.add(new Query("REVENUE_BY_MOVIE_SQL", DataService.REVENUE_BY_MOVIE_SQL).scans("dashboard chart"));
+        queries.add(new Query("TICKETS_BY_MOVIE_SQL", DataService.TICKETS_BY_MOVIE_SQL).scans("dashboard chart"));
+        queries.add(new Query("SEAT_SALES_SQL", DataService.SEAT_SALES_SQL, SCREENING_ID));
+
+        // Seats and seat locks
+        queries.add(new Query("SEATS_BY_SCREENING_SQL", DataService.SEATS_BY_SCREENING_SQL, SCREENING_ID));
+        queries.add(new Query("claimSeatsSql", DataService.claimSeatsSql(2), SCREENING_ID, "J9", "J10"));
+        queries.add(new Query("DECREMENT_AVAILABLE_SEATS_SQL", DataService.DECREMENT_AVAILABLE_SEATS_SQL, 2, SCREENING_ID));
+        queries.add(new Query("INSERT_BOOKING_SEAT_SQL", DataService.INSERT_BOOKING_SEAT_SQL, BOOKING_ID, SCREENING_ID, "J9"));
+        queries.add(new Query("SEAT_MAP_SQL", DataService.SEAT_MAP_SQL, SCREENING_ID));
+        queries.add(new Query("LIVE_LOCKS_SQL", DataService.LIVE_LOCKS_SQL, SCREENING_ID));
+        queries.add(new Query("expiredLocksSql", DataService.expiredLocksSql(2), SCREENING_ID, "J9", "J10"));
+        queries.add(new Query("unavailableSeatsSql", DataService.unavailableSeatsSql(2),
+            SCREENING_ID, "J9", "J10", SCREENING_ID, "J9", "J10", USER_ID));
+        queries.add(new Query("DELETE_USER_LOCKS_SQL", DataService.DELETE_USER_LOCKS_SQL, SCREENING_ID, USER_ID));
+        queries.add(new Query("INSERT_SEAT_LOCK_SQL", DataService.INSERT_SEAT_LOCK_SQL, SCREENING_ID, "J9", USER_ID, NOW));
+        queries.add(new Query("USER_LOCKS_SQL", DataService.USER_LOCKS_SQL, SCREENING_ID, USER_ID));
+        queries.add(new Query("DELETE_SEAT_LOCK_SQL", DataService.DELETE_SEAT_LOCK_SQL, SCREENING_ID, "J9", USER_ID));
+        queries.add(new Query("ALL_SEAT_LOCKS_SQL", DataService.ALL_SEAT_LOCKS_SQL).scans("startup, every lock"));
+        queries.add(new Query("DELETE_LOCK_BY_ID_SQL", DataService.DELETE_LOCK_BY_ID_SQL, LOCK_ID));
+        queries.add(new Query("consumeLocksSql", DataService.consumeLocksSql(2), SCREENING_ID, USER_ID, "J9", "J10"));
+
+        // Reviews
+        queries.add(new Query("INSERT_REVIEW_SQL", DataService.INSERT_REVIEW_SQL,
+            USER_ID, 5, "Title", "Comment", "MOVIE_REVIEW", NOW));
+        queries.add(new Query("UPDATE_REVIEW_SQL", DataService.UPDATE_REVIEW_SQL, 4, "Title", "Comment", "MOVIE_REVIEW", REVIEW_ID));
+        queries.add(new Query("ALL_REVIEWS_SQL", DataService.ALL_REVIEWS_SQL).scans("every review"));
+        queries.add(new Query("reviewsPageSql (first page)", DataService.reviewsPageSql(false, false, false, false),
+            PAGE_SIZE));
+        queries.add(new Query("reviewsPageSql (next page)", DataService.reviewsPageSql(false, false, false, true),
+            PAGE_BOUNDARY, PAGE_BOUNDARY, 10_000, PAGE_SIZE));
+        queries.add(new Query("reviewsPageSql (type, next page)", DataService.reviewsPageSql(true, false, false, true),
+            "MOVIE_REVIEW", PAGE_BOUNDARY, PAGE_BOUNDARY, 10_000, PAGE_SIZE));
+        queries.add(new Query("reviewsPageSql (rating)", DataService.reviewsPageSql(false, true, false, false),
+            4, PAGE_SIZE));
+        queries.add(new Query("reviewsPageSql (search)", DataService.reviewsPageSql(false, false, true, false),
+            SEARCH, SEARCH, SEARCH, PAGE_SIZE));
+        queries.add(new Query("REVIEWS_BY_USER_SQL", DataService.REVIEWS_BY_USER_SQL, USER_ID));
+        queries.add(new Query("REVIEWS_BY_TYPE_SQL", DataService.REVIEWS_BY_TYPE_SQL, "SERVICE_FEEDBACK")
+            .scans("every review of a type, a third of the table"));
+        queries.add(new Query("AVERAGE_RATING_SQL", DataService.AVERAGE_RATING_SQL).scans("review statistics"));
+        queries.add(new Query("REVIEW_COUNT_SQL", DataService.REVIEW_COUNT_SQL).scans("review statistics"));
+        queries.add(new Query("REVIEW_DISTRIBUTION_SQL", DataService.REVIEW_DISTRIBUTION_SQL).scans("review statistics"));
+        queries.add(new Query("DELETE_REVIEW_SQL", DataService.DELETE_REVIEW_SQL, REVIEW_ID));
+
+        // Chat
+        queries.add(new Query("INSERT_MESSAGE_SQL", DataService.INSERT_MESSAGE_SQL, USER_ID, ADMIN_ID, "Hello"));
+        queries.add(new Query("CONVERSATION_ON_SEND_SQL", DataService.CONVERSATION_ON_SEND_SQL,
+            USER_ID, "Hello", USER_ID, 1, "Hello", USER_ID, 1));
+        queries.add(new Query("LATEST_ADMIN_CHAT_MESSAGE_SQL", DataService.LATEST_ADMIN_CHAT_MESSAGE_SQL, USER_ID, USER_ID));
+        queries.add(new Query("UNREAD_FOR_ADMINS_SQL", DataService.UNREAD_FOR_ADMINS_SQL, USER_ID));
+        queries.add(new Query("UPSERT_CONVERSATION_SQL", DataService.UPSERT_CONVERSATION_SQL,
+            USER_ID, NOW, "Hello", USER_ID, 1, NOW, "Hello", USER_ID, 1));
+        queries.add(new Query("DELETE_CONVERSATION_SQL", DataService.DELETE_CONVERSATION_SQL, USER_ID));
+        queries.add(new Query("CONVERSATIONS_SQL", DataService.CONVERSATIONS_SQL).scans("the whole admin inbox"));
+        queries.add(new Query("CHAT_HISTORY_SQL", DataService.CHAT_HISTORY_SQL, USER_ID, ADMIN_ID, ADMIN_ID, USER_ID));
+        queries.add(new Query("CHAT_HISTORY_WITH_ADMINS_SQL", DataService.CHAT_HISTORY_WITH_ADMINS_SQL, USER_ID, USER_ID));
+        queries.add(new Query("CHAT_HISTORY_WITH_ADMINS_PAGE_SQL (latest page)", DataService.CHAT_HISTORY_WITH_ADMINS_PAGE_SQL,
+            USER_ID, Integer.MAX_VALUE, PAGE_SIZE, USER_ID, Integer.MAX_VALUE, PAGE_SIZE, PAGE_SIZE));
+        queries.add(new Query("CHAT_HISTORY_WITH_ADMINS_PAGE_SQL (older page)", DataService.CHAT_HISTORY_WITH_ADMINS_PAGE_SQL,
+            USER_ID, 40_000, PAGE_SIZE, USER_ID, 40_000, PAGE_SIZE, PAGE_SIZE));
+        queries.add(new Query("MARK_READ_SQL", DataService.MARK_READ_SQL, ADMIN_ID, USER_ID));
+        queries.add(new Query("CONVERSATION_MARK_READ_SQL", DataService.CONVERSATION_MARK_READ_SQL, 3, USER_ID, ADMIN_ID));
+        queries.add(new Query("UNREAD_COUNT_SQL", DataService.UNREAD_COUNT_SQL, USER_ID));
+        queries.add(new Query("UNREAD_IN_CHAT_SQL", DataService.UNREAD_IN_CHAT_SQL, USER_ID, ADMIN_ID, ADMIN_ID, USER_ID));
+        queries.add(new Query("DELETE_CHAT_SQL", DataService.DELETE_CHAT_SQL, USER_ID, ADMIN_ID, ADMIN_ID, USER_ID));
+        queries.add(new Query("USERS_WITH_UNREAD_SQL", DataService.USERS_WITH_UNREAD_SQL, ADMIN_ID)
+            .sorts("one admin's unread senders, by their latest message"));
+
+        // Payments
+        queries.add(new Query("INSERT_PAYMENT_SQL", DataService.INSERT_PAYMENT_SQL,
+            BOOKING_ID, "CREDIT_CARD", "NONE", 10.0, "COMPLETED", "TXN-NEW", "4242", null));
+        queries.add(new Query("PAYMENT_BY_BOOKING_SQL", DataService.PAYMENT_BY_BOOKING_SQL, BOOKING_ID));
+        queries.add(new Query("PAYMENTS_BY_USER_SQL", DataService.PAYMENTS_BY_USER_SQL, USER_ID)
+            .sorts("one user's payments, found through their bookings"));
+        queries.add(new Query("paymentsPageSql (first page)", DataService.paymentsPageSql(false), USER_ID, PAGE_SIZE)
+            .sorts("one user's payments, found through their bookings"));
+        queries.add(new Query("paymentsPageSql (next page)", DataService.paymentsPageSql(true),
+            USER_ID, PAGE_BOUNDARY, PAGE_BOUNDARY, 50_000, PAGE_SIZE)
+            .sorts("one user's payments, found through their bookings"));
+        queries.add(new Query("UPDATE_PAYMENT_STATUS_SQL", DataService.UPDATE_PAYMENT_STATUS_SQL, "REFUNDED", PAYMENT_ID));
+
+        return queries;
+    }
+
+    private static void assertIndexed(Query query) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            for (int i = 0; i < query.params.length; i++) {
+                stmt.setObject(i + 1, query.params[i]);
+            }
+            ResultSet rs = stmt.executeQuery();
+            while (rs.next()) {
+                String table = rs.getString("table");
+                String type = rs.getString("type");
+                String key = rs.getString("key");
+                String extra = rs.getString("Extra");
+                plan.add(table + ": type=" + type + " key=" + key + " rows=" + rs.getString("rows") + " extra=" + extra);
+
+                if (table == null || table.startsWith("<")) {
+                    continue; // Derived table or union result
+                }
+                if ("INSERT".equals(rs.getString("select_type"))) {
+                    continue; // The row written, nothing is read
+                }
+                if ("ALL".equals(type)) {
+                    problems.add("full scan of " + table);
+                }
+                if (extra != null && extra.contains("Using filesort") && query.sortReason == null) {
+                    problems.add("filesort on " + table);
+                }
+            }
+        }
+
+        assertFalse(plan.isEmpty(), "No plan for " + query.name);
+        if (!problems.isEmpty() && query.scanReason == null) {
+            fail(query.name + ": " + String.join(", ", problems) + "\n  " + String.join("\n  ", plan));
+        }
+    }
+
+    private static final class Query {
+        private final String source;
+        private final String name;
+        private final String sql;
+        private final Object[] params;
+        private String scanReason;
+        private String sortReason;
+
+        // The name is the DataService field or method, then a variant in brackets if it has several
+        Query(String name, String sql, Object... params) {
+            this.source = name.split(" ")[0];
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+
+        // Reads a whole table by design; only checked to be valid
+        Query scans(String reason) {
+            this.scanReason = reason;
+            return this;
+        }
+
+        // Sorts rows an index has already narrowed to a few; full scans still fail
+        Query sorts(String reason) {
+            this.sortReason = reason;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.movieticket.service;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.sql.Connection;
+
+/**
+ * An embedded MariaDB on a free port, shared by every test in the JVM. The application is pointed
+ * at it through the movieticket.db.* properties and the schema is created by its own migrations.
+ * Tests that depend on table sizes call {@link #seed()} for generated data at a moderate volume.
+ */
+public final class TestDatabase {
+    private static final String DATABASE = "movieticket_test";
+
+    // Large enough that the optimizer prefers an index wherever one applies
+    private static final DataSeeder SEEDER = new DataSeeder(20_000, 200, 2_000, 100_000, 50_000, 0);
+
+    private static DB embedded;
+    private static boolean seeded;
+
+    private TestDatabase() {}
+
+    /**
+     * Start the database if needed. Must run before anything touches DataService or
+     * DatabaseConnection, which read the connection properties once.
+     */
+    public static synchronized void start() throws Exception {
+        if (embedded != null) {
+            return;
+        }
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder();
+        config.setPort(0); // any free port
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mariadbd refuses to start as root unless told to, as in most CI containers
+            config.addArg("--user=root");
+        }
+        embedded = DB.newEmbeddedDB(config.build());
+        embedded.start();
+
+        System.setProperty("movieticket.db.url", "jdbc:mysql://localhost:" + embedded.getConfiguration().getPort() +
+                "/" + DATABASE + "?useServerPrepStmts=true&createDatabaseIfNotExist=true");
+        System.setProperty("movieticket.db.user", "root");
+        System.setProperty("movieticket.db.password", "");
+        Runtime.getRuntime().addShutdownHook(new Thread(TestDatabase::stop, "TestDatabaseShutdown"));
+
+        DatabaseConnection.initializeDatabase();
+    }
+
+    /**
+     * Start the database and replace its contents with generated data, once per JVM. Ids are
+     * dense from 1, with admins 1-{@value DataSeeder#ADMINS}; see {@link DataSeeder}.
+     */
+    public static synchronized void seed() throws Exception {
+        start();
+        if (seeded) {
+            return;
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            SEEDER.seed(conn);
+        }
+        seeded = true;
+    }
+
+    private static void stop() {
+        try {
+            DatabaseConnection.closeAllConnections();
+            embedded.stop();
+        } catch (Exception e) {
+            System.err.println("Error stopping test database: " + e.getMessage());
+        }
+    }
+}